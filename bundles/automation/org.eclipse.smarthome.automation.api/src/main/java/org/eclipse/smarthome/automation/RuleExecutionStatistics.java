@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 1997, 2015 by ProSyst Software GmbH and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.automation;
+
+/**
+ * This class is used to present the execution statistics of a rule since it has been initialized: how often the rule
+ * has been run, how many triggers are waiting or have been dropped or coalesced, and how long it takes from the
+ * triggering until the end of a run.
+ *
+ * @author agent - Initial contribution
+ */
+public class RuleExecutionStatistics {
+
+    private long runs;
+    private int pendingTriggers;
+    private long droppedTriggers;
+    private long coalescedTriggers;
+    private double averageLatency;
+    private long maxLatency;
+
+    /**
+     * Default constructor for deserialization e.g. by Gson.
+     */
+    protected RuleExecutionStatistics() {
+    }
+
+    /**
+     * Constructs the execution statistics.
+     *
+     * @param runs the number of runs
+     * @param pendingTriggers the number of triggers waiting for execution
+     * @param droppedTriggers the number of triggers which have been dropped
+     * @param coalescedTriggers the number of triggers which have been replaced by a later trigger
+     * @param averageLatency the average time in milliseconds from the triggering until the end of a run
+     * @param maxLatency the maximum time in milliseconds from the triggering until the end of a run
+     */
+    public RuleExecutionStatistics(long runs, int pendingTriggers, long droppedTriggers, long coalescedTriggers,
+            double averageLatency, long maxLatency) {
+        this.runs = runs;
+        this.pendingTriggers = pendingTriggers;
+        this.droppedTriggers = droppedTriggers;
+        this.coalescedTriggers = coalescedTriggers;
+        this.averageLatency = averageLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    /**
+     * Gets the number of runs.
+     *
+     * @return the number of runs
+     */
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Gets the number of triggers waiting for execution.
+     *
+     * @return the number of pending triggers
+     */
+    public int getPendingTriggers() {
+        return pendingTriggers;
+    }
+
+    /**
+     * Gets the number of triggers which have been dropped, because too many triggers were pending.
+     *
+     * @return the number of dropped triggers
+     */
+    public long getDroppedTriggers() {
+        return droppedTriggers;
+    }
+
+    /**
+     * Gets the number of triggers which have been replaced by a later trigger before they were executed.
+     *
+     * @return the number of coalesced triggers
+     */
+    public long getCoalescedTriggers() {
+        return coalescedTriggers;
+    }
+
+    /**
+     * Gets the average time from the triggering until the end of a run.
+     *
+     * @return the average latency in milliseconds
+     */
+    public double getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     * Gets the maximum time from the triggering until the end of a run.
+     *
+     * @return the maximum latency in milliseconds
+     */
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("runs=%d, pending=%d, dropped=%d, coalesced=%d, avgLatency=%.2fms, maxLatency=%dms", runs,
+                pendingTriggers, droppedTriggers, coalescedTriggers, averageLatency, maxLatency);
+    }
+}
@@ -83,6 +83,16 @@ public interface RuleRegistry extends Registry<Rule, String> {
      */
     public RuleStatusInfo getStatus(String ruleUID);
 
+    /**
+     * This method gets the {@link RuleExecutionStatistics} of the specified {@link Rule} since it has been
+     * initialized.
+     *
+     * @param ruleUID UID of the {@link Rule}
+     * @return {@link RuleExecutionStatistics} of the looking {@link Rule} or <code>null</code> when the rule does not
+     *         exist or it is not initialized.
+     */
+    public RuleExecutionStatistics getExecutionStatistics(String ruleUID);
+
     /**
      * This method gets <b>enabled</b> {@link RuleStatus} for a {@link Rule}.
      * The <b>enabled</b> rule statuses are {@link RuleStatus#NOT_INITIALIZED}, {@link RuleStatus#IDLE} and
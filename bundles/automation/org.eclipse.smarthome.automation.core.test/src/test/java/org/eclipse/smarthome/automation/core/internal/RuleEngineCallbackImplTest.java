@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 1997, 2015 by ProSyst Software GmbH and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.automation.core.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.automation.Rule;
+import org.eclipse.smarthome.automation.RuleExecutionStatistics;
+import org.eclipse.smarthome.automation.Trigger;
+import org.eclipse.smarthome.config.core.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test the execution of the triggers of a rule through the {@link RuleEngineCallbackImpl}
+ *
+ * @author agent - Initial contribution
+ */
+public class RuleEngineCallbackImplTest {
+
+    private static final int TRIGGERS = 20;
+
+    private final List<Object> runs = Collections.synchronizedList(new ArrayList<Object>());
+
+    private final CountDownLatch firstRunStarted = new CountDownLatch(1);
+
+    private final CountDownLatch firstRunReleased = new CountDownLatch(1);
+
+    private RuleEngineCallbackImpl createCallback(TriggerOverflowPolicy policy, int maxPendingTriggers) {
+        RuleEngine ruleEngine = new RuleEngine(new BundleContextMockup()) {
+            @Override
+            protected void runRule(RuntimeRule rule, RuleEngineCallbackImpl.TriggerData td) {
+                firstRunStarted.countDown();
+                try {
+                    firstRunReleased.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                runs.add(td.getOutputs().get("index"));
+            }
+        };
+        return new RuleEngineCallbackImpl(ruleEngine, new RuntimeRule(new Rule("rule")), policy, maxPendingTriggers);
+    }
+
+    private void triggerAll(RuleEngineCallbackImpl callback) throws InterruptedException {
+        Trigger trigger = new Trigger("trigger", "typeUID", new Configuration());
+        for (int i = 0; i < TRIGGERS; i++) {
+            callback.triggered(trigger, Collections.singletonMap("index", i));
+            if (i == 0) {
+                // make sure the first trigger is running while the others arrive
+                Assert.assertTrue(firstRunStarted.await(5, TimeUnit.SECONDS));
+            }
+        }
+        firstRunReleased.countDown();
+    }
+
+    private RuleExecutionStatistics waitForRuns(RuleEngineCallbackImpl callback, int expectedRuns)
+            throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (runs.size() < expectedRuns && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(expectedRuns, runs.size());
+        return callback.getExecutionStatistics();
+    }
+
+    /**
+     * test that all triggers are executed in order
+     */
+    @Test
+    public void testQueuePolicy() throws InterruptedException {
+        RuleEngineCallbackImpl callback = createCallback(TriggerOverflowPolicy.QUEUE, Integer.MAX_VALUE);
+        triggerAll(callback);
+        RuleExecutionStatistics statistics = waitForRuns(callback, TRIGGERS);
+        for (int i = 0; i < TRIGGERS; i++) {
+            Assert.assertEquals(i, runs.get(i));
+        }
+        Assert.assertEquals(TRIGGERS, statistics.getRuns());
+        Assert.assertEquals(0, statistics.getPendingTriggers());
+        Assert.assertEquals(0, statistics.getDroppedTriggers());
+        Assert.assertEquals(0, statistics.getCoalescedTriggers());
+    }
+
+    /**
+     * test that triggers are dropped while the maximum number of triggers is pending
+     */
+    @Test
+    public void testDropPolicy() throws InterruptedException {
+        RuleEngineCallbackImpl callback = createCallback(TriggerOverflowPolicy.DROP, 5);
+        triggerAll(callback);
+        RuleExecutionStatistics statistics = waitForRuns(callback, 6);
+        Assert.assertEquals(0, runs.get(0));
+        Assert.assertEquals(5, runs.get(5));
+        Assert.assertEquals(6, statistics.getRuns());
+        Assert.assertEquals(TRIGGERS - 6, statistics.getDroppedTriggers());
+    }
+
+    /**
+     * test that only the latest pending trigger is executed
+     */
+    @Test
+    public void testCoalescePolicy() throws InterruptedException {
+        RuleEngineCallbackImpl callback = createCallback(TriggerOverflowPolicy.COALESCE, Integer.MAX_VALUE);
+        triggerAll(callback);
+        RuleExecutionStatistics statistics = waitForRuns(callback, 2);
+        Assert.assertEquals(0, runs.get(0));
+        Assert.assertEquals(TRIGGERS - 1, runs.get(1));
+        Assert.assertEquals(2, statistics.getRuns());
+        Assert.assertEquals(TRIGGERS - 2, statistics.getCoalescedTriggers());
+    }
+
+    /**
+     * test that no trigger is executed after the callback has been disposed
+     */
+    @Test
+    public void testDispose() throws InterruptedException {
+        RuleEngineCallbackImpl callback = createCallback(TriggerOverflowPolicy.QUEUE, Integer.MAX_VALUE);
+        callback.dispose();
+        firstRunReleased.countDown();
+        Map<String, ?> outputs = Collections.singletonMap("index", 0);
+        callback.triggered(new Trigger("trigger", "typeUID", new Configuration()), outputs);
+        Thread.sleep(100);
+        Assert.assertTrue(runs.isEmpty());
+    }
+
+}
@@ -9,12 +9,19 @@ package org.eclipse.smarthome.automation.core.internal;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.automation.Action;
 import org.eclipse.smarthome.automation.Condition;
@@ -318,6 +325,120 @@ public class RuleEngineTest {
                 rule2Get.getModule("conditionId2"));
     }
 
+    /**
+     * test that the lookups by UID accept null
+     */
+    @Test
+    public void testLookupsWithNullUID() {
+        RuleEngine ruleEngine = createRuleEngine();
+        ruleEngine.addRule(createRule(), true);
+
+        Assert.assertNull(ruleEngine.getRule(null));
+        Assert.assertFalse(ruleEngine.hasRule(null));
+        Assert.assertNull(ruleEngine.getRuleStatus(null));
+        Assert.assertNull(ruleEngine.getRuleStatusInfo(null));
+        Assert.assertNull(ruleEngine.getRuleExecutionStatistics(null));
+        Assert.assertFalse(ruleEngine.removeRule(null));
+        Assert.assertNull(ruleEngine.getModuleHandlerFactory(null, "rule1"));
+    }
+
+    /**
+     * test that concurrent calls create exactly one callback per rule
+     */
+    @Test
+    public void testConcurrentRuleEngineCallbackCreation() throws Exception {
+        final RuleEngine ruleEngine = createRuleEngine();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < 100; i++) {
+                final RuntimeRule rule = new RuntimeRule(new Rule("rule" + i));
+                final CountDownLatch start = new CountDownLatch(1);
+                List<Future<RuleEngineCallbackImpl>> results = new ArrayList<Future<RuleEngineCallbackImpl>>();
+                for (int t = 0; t < threads; t++) {
+                    results.add(executor.submit(new Callable<RuleEngineCallbackImpl>() {
+                        @Override
+                        public RuleEngineCallbackImpl call() throws Exception {
+                            start.await();
+                            return ruleEngine.getRuleEngineCallback(rule);
+                        }
+                    }));
+                }
+                start.countDown();
+                RuleEngineCallbackImpl expected = ruleEngine.getRuleEngineCallback(rule);
+                for (Future<RuleEngineCallbackImpl> result : results) {
+                    Assert.assertSame("Different callbacks are created for the same rule", expected,
+                            result.get(5, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * test adding, reading and removing rules from several threads
+     */
+    @Test
+    public void testConcurrentRuleAccess() throws Exception {
+        final RuleEngine ruleEngine = createRuleEngine();
+        final int threads = 4;
+        final int rulesPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> results = new ArrayList<Future<?>>();
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int i = 0; i < rulesPerThread; i++) {
+                            String uid = "rule_" + thread + "_" + i;
+                            Rule rule = new Rule(uid);
+                            rule.setTags(new LinkedHashSet<String>(Arrays.asList("tag" + thread)));
+                            ruleEngine.addRule(rule, true);
+                            Assert.assertNotNull(ruleEngine.getRule(uid));
+                            Assert.assertNotNull(ruleEngine.getRuleStatusInfo(uid));
+                            if (i % 2 == 1) {
+                                Assert.assertTrue(ruleEngine.removeRule(uid));
+                                Assert.assertFalse(ruleEngine.hasRule(uid));
+                            }
+                        }
+                        return null;
+                    }
+                }));
+                results.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        start.await();
+                        for (int i = 0; i < rulesPerThread; i++) {
+                            for (Rule rule : ruleEngine.getRulesByTag("tag" + thread)) {
+                                ruleEngine.getRuleStatus(rule.getUID());
+                            }
+                            ruleEngine.getRules();
+                        }
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(threads * rulesPerThread / 2, ruleEngine.getRules().size());
+        for (int t = 0; t < threads; t++) {
+            Assert.assertEquals(rulesPerThread / 2, ruleEngine.getRulesByTag("tag" + t).size());
+            Assert.assertNotNull(ruleEngine.getRuleStatusInfo("rule_" + t + "_0"));
+            Assert.assertNull(ruleEngine.getRuleStatusInfo("rule_" + t + "_1"));
+        }
+    }
+
     private Rule createRule() {
         Rule rule = new Rule("rule1");
         rule.setTriggers(createTriggers("typeUID"));
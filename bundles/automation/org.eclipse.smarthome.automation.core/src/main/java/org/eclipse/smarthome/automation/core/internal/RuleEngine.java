@@ -10,6 +10,7 @@ package org.eclipse.smarthome.automation.core.internal;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -18,6 +19,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -27,6 +30,7 @@ import org.eclipse.smarthome.automation.Action;
 import org.eclipse.smarthome.automation.Condition;
 import org.eclipse.smarthome.automation.Module;
 import org.eclipse.smarthome.automation.Rule;
+import org.eclipse.smarthome.automation.RuleExecutionStatistics;
 import org.eclipse.smarthome.automation.RuleRegistry;
 import org.eclipse.smarthome.automation.RuleStatus;
 import org.eclipse.smarthome.automation.RuleStatusDetail;
@@ -105,25 +109,63 @@ public class RuleEngine
      */
     public static final String CONFIG_PROPERTY_REINITIALIZATION_DELAY = "rule.reinitialization.delay";
 
+    /**
+     * Default policy for triggers of a rule which arrive while the rule is running.
+     */
+    public static final TriggerOverflowPolicy DEFAULT_TRIGGER_OVERFLOW_POLICY = TriggerOverflowPolicy.QUEUE;
+
+    /**
+     * Policy for triggers of a rule which arrive while the rule is running. The value is one of "queue", "drop" and
+     * "coalesce", see {@link TriggerOverflowPolicy}.
+     */
+    public static final String CONFIG_PROPERTY_TRIGGER_OVERFLOW_POLICY = "rule.trigger.overflow.policy";
+
+    /**
+     * Default value of the maximum number of pending triggers per rule, if the overflow policy is "drop".
+     */
+    public static final int DEFAULT_TRIGGER_QUEUE_SIZE = 100;
+
+    /**
+     * Maximum number of pending triggers per rule, if the overflow policy is "drop".
+     */
+    public static final String CONFIG_PROPERTY_TRIGGER_QUEUE_SIZE = "rule.trigger.queue.size";
+
     /**
      * Delay between rule's re-initialization tries.
      */
     private long scheduleReinitializationDelay = DEFAULT_REINITIALIZATION_DELAY;
 
+    /**
+     * Policy for triggers of a rule which arrive while the rule is running. It applies to rules which are initialized
+     * after the configuration has been changed.
+     */
+    private TriggerOverflowPolicy triggerOverflowPolicy = DEFAULT_TRIGGER_OVERFLOW_POLICY;
+
+    /**
+     * Maximum number of pending triggers per rule, if the overflow policy is "drop".
+     */
+    private int triggerQueueSize = DEFAULT_TRIGGER_QUEUE_SIZE;
+
     /**
      * {@link Map} of rule's id to corresponding {@link RuleEngineCallback}s. For each {@link Rule} there is one and
      * only one rule callback.
      */
-    private Map<String, RuleEngineCallbackImpl> reCallbacks = new HashMap<String, RuleEngineCallbackImpl>();
+    private ConcurrentMap<String, RuleEngineCallbackImpl> reCallbacks = //
+            new ConcurrentHashMap<String, RuleEngineCallbackImpl>();
 
     /**
-     * {@link Map} of module type UIDs to rules where these module types participated.
+     * {@link Map} of module type UIDs to rules where these module types participated. The sets of rule UIDs are
+     * concurrent, modifications of the map are synchronized on the map itself.
      */
-    private Map<String, Set<String>> mapModuleTypeToRules = new HashMap<String, Set<String>>();
+    private Map<String, Set<String>> mapModuleTypeToRules = new ConcurrentHashMap<String, Set<String>>();
 
     /**
      * {@link Map} of created rules. It contains all rules added to rule engine independent if they are initialized or
      * not. The relation is rule's id to {@link Rule} object.
+     * <p>
+     * This map, the {@link #statusMap} and the {@link #contextMap} are concurrent, so that the rule engine does not
+     * need a global lock on the execution path and independent rules are executed in parallel. The context of a rule
+     * is only accessed by the thread which currently runs the rule.
      */
     private Map<String, RuntimeRule> rules;
 
@@ -146,18 +188,18 @@ public class RuleEngine
     /**
      * Locker which does not permit rule initialization when the rule engine is stopping.
      */
-    private boolean isDisposed = false;
+    private volatile boolean isDisposed = false;
 
     /**
      * {@link Map} of {@link Rule}'s id to current {@link RuleStatus} object.
      */
-    private Map<String, RuleStatusInfo> statusMap = new HashMap<String, RuleStatusInfo>();
+    private ConcurrentHashMap<String, RuleStatusInfo> statusMap = new ConcurrentHashMap<String, RuleStatusInfo>();
 
     protected Logger logger;
 
-    private StatusInfoCallback statusInfoCallback;
+    private volatile StatusInfoCallback statusInfoCallback;
 
-    private Map<String, Map<String, Object>> contextMap;
+    private final ConcurrentHashMap<String, Map<String, Object>> contextMap;
 
     private ModuleTypeManager mtManager;
 
@@ -165,7 +207,7 @@ public class RuleEngine
 
     private int ruleMaxID = 0;
 
-    private Map<String, Future> scheduleTasks = new HashMap<String, Future>(31);
+    private Map<String, Future> scheduleTasks = new ConcurrentHashMap<String, Future>(31);
 
     private ScheduledExecutorService executor;
 
@@ -179,11 +221,11 @@ public class RuleEngine
     public RuleEngine(BundleContext bc) {
         this.bc = bc;
         logger = LoggerFactory.getLogger(getClass());
-        contextMap = new HashMap<String, Map<String, Object>>();
+        contextMap = new ConcurrentHashMap<String, Map<String, Object>>();
         if (rules == null) {
-            rules = new HashMap<String, RuntimeRule>(20);
+            rules = new ConcurrentHashMap<String, RuntimeRule>(20);
         }
-        moduleHandlerFactories = new HashMap<String, ModuleHandlerFactory>(20);
+        moduleHandlerFactories = new ConcurrentHashMap<String, ModuleHandlerFactory>(20);
         mhfTracker = new ServiceTracker/* <ModuleHandlerFactory, ModuleHandlerFactory> */(bc,
                 ModuleHandlerFactory.class.getName(), this);
         mhfTracker.open();
@@ -211,9 +253,8 @@ public class RuleEngine
      */
     private Rule addRule0(Rule rule, boolean isEnabled) {
         RuntimeRule rr;
-        Rule ruleWithUID;
-        String rUID = rule.getUID();
-        ruleWithUID = (rUID == null) ? initRuleId(rule) : rule;
+        Rule ruleWithUID = (rule.getUID() == null) ? initRuleId(rule) : rule;
+        String rUID = ruleWithUID.getUID();
         rr = new RuntimeRule(ruleWithUID);
         rules.put(rUID, rr);
         logger.debug("Added rule '{}'", rUID);
@@ -333,10 +374,7 @@ public class RuleEngine
             return;
         }
 
-        RuleStatusInfo ruleStatus = null;
-        synchronized (this) {
-            ruleStatus = statusMap.get(rUID);
-        }
+        RuleStatusInfo ruleStatus = statusMap.get(rUID);
         if (ruleStatus != null && RuleStatus.NOT_INITIALIZED != ruleStatus.getStatus()) {
             setRuleStatusInfo(rUID, new RuleStatusInfo(RuleStatus.NOT_INITIALIZED));
         }
@@ -399,12 +437,31 @@ public class RuleEngine
      * @param status new rule status info
      */
     private void setRuleStatusInfo(String rUID, RuleStatusInfo status) {
-        synchronized (this) {
-            statusMap.put(rUID, status);
+        statusMap.put(rUID, status);
+        StatusInfoCallback statusInfoCallback = this.statusInfoCallback;
+        if (statusInfoCallback != null) {
+            statusInfoCallback.statusInfoChanged(rUID, status);
         }
+    }
+
+    /**
+     * This method changes the {@link RuleStatusInfo} of the rule only if the rule has still the expected status info.
+     * It notifies the registry about the change.
+     *
+     * @param rUID UID of the rule which changes status info.
+     * @param expected the expected current status info
+     * @param status new rule status info
+     * @return true when the status info has been changed, false otherwise.
+     */
+    private boolean compareAndSetRuleStatusInfo(String rUID, RuleStatusInfo expected, RuleStatusInfo status) {
+        if (!statusMap.replace(rUID, expected, status)) {
+            return false;
+        }
+        StatusInfoCallback statusInfoCallback = this.statusInfoCallback;
         if (statusInfoCallback != null) {
             statusInfoCallback.statusInfoChanged(rUID, status);
         }
+        return true;
     }
 
     /**
@@ -442,16 +499,21 @@ public class RuleEngine
     }
 
     /**
-     * Gets {@link RuleEngineCallback} for passed {@link Rule}. If it does not exists, a callback object is created
+     * Gets {@link RuleEngineCallback} for passed {@link Rule}. If it does not exists, a callback object is created.
+     * Concurrent calls for the same rule return the same callback object.
      *
      * @param rule rule object for which the callback is looking for.
      * @return a {@link RuleEngineCallback} corresponding to the passed {@link Rule} object.
      */
-    private RuleEngineCallbackImpl getRuleEngineCallback(RuntimeRule rule) {
+    RuleEngineCallbackImpl getRuleEngineCallback(RuntimeRule rule) {
         RuleEngineCallbackImpl result = reCallbacks.get(rule.getUID());
         if (result == null) {
-            result = new RuleEngineCallbackImpl(this, rule);
-            reCallbacks.put(rule.getUID(), result);
+            RuleEngineCallbackImpl callback = new RuleEngineCallbackImpl(this, rule, triggerOverflowPolicy,
+                    triggerQueueSize);
+            result = reCallbacks.putIfAbsent(rule.getUID(), callback);
+            if (result == null) {
+                result = callback;
+            }
         }
         return result;
     }
@@ -542,7 +604,7 @@ public class RuleEngine
     }
 
     public ModuleHandlerFactory getModuleHandlerFactory(String moduleTypeId, String rUID) {
-        ModuleHandlerFactory mhf = moduleHandlerFactories.get(moduleTypeId);
+        ModuleHandlerFactory mhf = moduleTypeId != null ? moduleHandlerFactories.get(moduleTypeId) : null;
         if (mhf == null) {
             ModuleType mt = mtManager.get(moduleTypeId);
             if (mt instanceof CompositeTriggerType || //
@@ -555,13 +617,15 @@ public class RuleEngine
         return mhf;
     }
 
-    public synchronized void updateMapModuleTypeToRule(String rUID, String moduleTypeId) {
-        Set<String> rules = mapModuleTypeToRules.get(moduleTypeId);
-        if (rules == null) {
-            rules = new HashSet<String>(11);
+    public void updateMapModuleTypeToRule(String rUID, String moduleTypeId) {
+        synchronized (mapModuleTypeToRules) {
+            Set<String> rules = mapModuleTypeToRules.get(moduleTypeId);
+            if (rules == null) {
+                rules = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>(11));
+                mapModuleTypeToRules.put(moduleTypeId, rules);
+            }
+            rules.add(rUID);
         }
-        rules.add(rUID);
-        mapModuleTypeToRules.put(moduleTypeId, rules);
     }
 
     /**
@@ -570,8 +634,8 @@ public class RuleEngine
      * @param id id of removed {@link Rule}
      * @return true when a rule is deleted, false when there is no rule with such id.
      */
-    public synchronized boolean removeRule(String id) {
-        RuntimeRule r = rules.remove(id);
+    public boolean removeRule(String id) {
+        RuntimeRule r = id != null ? rules.remove(id) : null;
         if (r != null) {
             removeRuleEntry(r);
             return true;
@@ -587,7 +651,7 @@ public class RuleEngine
      */
     private RuntimeRule removeRuleEntry(RuntimeRule r) {
         unregister(r);
-        synchronized (this) {
+        synchronized (mapModuleTypeToRules) {
             for (Iterator<Map.Entry<String, Set<String>>> it = mapModuleTypeToRules.entrySet().iterator(); it
                     .hasNext();) {
                 Map.Entry<String, Set<String>> e = it.next();
@@ -599,9 +663,9 @@ public class RuleEngine
                     }
                 }
             }
-
-            statusMap.remove(r.getUID());
         }
+        statusMap.remove(r.getUID());
+        contextMap.remove(r.getUID());
         return r;
     }
 
@@ -611,8 +675,8 @@ public class RuleEngine
      * @param rId rule id
      * @return {@link Rule} object or null when rule with such id is not added to the rule engine.
      */
-    public synchronized Rule getRule(String rId) {
-        RuntimeRule rule = rules.get(rId);
+    public Rule getRule(String rId) {
+        RuntimeRule rule = getRule0(rId);
         if (rule != null) {
             Rule r = RuleUtils.getRuleCopy(rule);
             return r;
@@ -627,8 +691,8 @@ public class RuleEngine
      * @param rUID unieque id of the {@link Rule}
      * @return internal {@link RuntimeRule} object
      */
-    private synchronized RuntimeRule getRule0(String rUID) {
-        return rules.get(rUID);
+    private RuntimeRule getRule0(String rUID) {
+        return rUID != null ? rules.get(rUID) : null;
     }
 
     /**
@@ -647,7 +711,7 @@ public class RuleEngine
      * @param tag the tag of looking rules.
      * @return Collection of rules containing specified tag.
      */
-    public synchronized Collection<Rule> getRulesByTag(String tag) {
+    public Collection<Rule> getRulesByTag(String tag) {
         Collection<Rule> result = new ArrayList<Rule>(10);
         for (Iterator<RuntimeRule> it = rules.values().iterator(); it.hasNext();) {
             RuntimeRule r = it.next();
@@ -669,7 +733,7 @@ public class RuleEngine
      * @param tags list of tags of looking rules
      * @return collection of rules which have specified tags.
      */
-    public synchronized Collection<Rule> getRulesByTags(Set<String> tags) {
+    public Collection<Rule> getRulesByTags(Set<String> tags) {
         Collection<Rule> result = new ArrayList<Rule>(10);
         for (Iterator<RuntimeRule> it = rules.values().iterator(); it.hasNext();) {
             RuntimeRule r = it.next();
@@ -724,8 +788,8 @@ public class RuleEngine
      * @param rUID unique id of the {@link Rule}
      * @return true when such rule exists, false otherwise.
      */
-    public synchronized boolean hasRule(String rUID) {
-        return rules.get(rUID) != null;
+    public boolean hasRule(String rUID) {
+        return rUID != null && rules.containsKey(rUID);
     }
 
     /**
@@ -748,11 +812,8 @@ public class RuleEngine
         Set<String> notInitailizedRules = null;
         for (Iterator<String> it = moduleTypes.iterator(); it.hasNext();) {
             String moduleTypeName = it.next();
-            Set<String> rules = null;
-            synchronized (this) {
-                moduleHandlerFactories.put(moduleTypeName, mhf);
-                rules = mapModuleTypeToRules.get(moduleTypeName);
-            }
+            moduleHandlerFactories.put(moduleTypeName, mhf);
+            Set<String> rules = mapModuleTypeToRules.get(moduleTypeName);
             if (rules != null) {
                 for (String rUID : rules) {
                     RuleStatus ruleStatus = getRuleStatus(rUID);
@@ -842,10 +903,7 @@ public class RuleEngine
         Map<String, List<String>> mapMissingHandlers = null;
         for (Iterator<String> it = moduleTypes.iterator(); it.hasNext();) {
             String moduleTypeName = it.next();
-            Set<String> rules = null;
-            synchronized (this) {
-                rules = mapModuleTypeToRules.get(moduleTypeName);
-            }
+            Set<String> rules = mapModuleTypeToRules.get(moduleTypeName);
             if (rules != null) {
                 for (String rUID : rules) {
                     RuleStatus ruleStatus = getRuleStatus(rUID);
@@ -896,12 +954,12 @@ public class RuleEngine
      * @param td {@link TriggerData} object containing new values for {@link Trigger}'s {@link Output}s
      */
     protected void runRule(RuntimeRule rule, RuleEngineCallbackImpl.TriggerData td) {
-        RuleStatus ruleStatus = getRuleStatus(rule.getUID());
-        if (ruleStatus == RuleStatus.IDLE) {
+        RuleStatusInfo statusInfo = getRuleStatusInfo(rule.getUID());
+        RuleStatus ruleStatus = statusInfo != null ? statusInfo.getStatus() : null;
+        RuleStatusInfo runningInfo = new RuleStatusInfo(RuleStatus.RUNNING);
+        // change state to RUNNING, unless the rule has been changed or removed in the meantime
+        if (ruleStatus == RuleStatus.IDLE && compareAndSetRuleStatusInfo(rule.getUID(), statusInfo, runningInfo)) {
             try {
-
-                // change state to RUNNING
-                setRuleStatusInfo(rule.getUID(), new RuleStatusInfo(RuleStatus.RUNNING));
                 clearContext(rule);
 
                 setTriggerOutputs(rule.getUID(), td);
@@ -916,11 +974,11 @@ public class RuleEngine
                 logger.error("Fail to execute rule '{}': {}", new Object[] { rule.getUID(), t.getMessage() }, t);
             }
 
-            // change state to IDLE
-            setRuleStatusInfo(rule.getUID(), new RuleStatusInfo(RuleStatus.IDLE));
+            // change state to IDLE, unless the rule has been changed or removed in the meantime
+            compareAndSetRuleStatusInfo(rule.getUID(), runningInfo, new RuleStatusInfo(RuleStatus.IDLE));
         } else {
             logger.error("Trying to execute rule ‘{}' with status '{}'",
-                    new Object[] { rule.getUID(), ruleStatus.getValue() });
+                    new Object[] { rule.getUID(), ruleStatus != null ? ruleStatus.getValue() : null });
         }
 
     }
@@ -968,7 +1026,10 @@ public class RuleEngine
         Map<String, Object> context = contextMap.get(ruleUID);
         if (context == null) {
             context = new HashMap<String, Object>();
-            contextMap.put(ruleUID, context);
+            Map<String, Object> existing = contextMap.putIfAbsent(ruleUID, context);
+            if (existing != null) {
+                context = existing;
+            }
         }
         if (connections != null) {
             StringBuffer sb = new StringBuffer();
@@ -1078,10 +1139,7 @@ public class RuleEngine
         }
         scheduleTasks = null;
 
-        if (contextMap != null) {
-            contextMap.clear();
-            contextMap = null;
-        }
+        contextMap.clear();
         statusInfoCallback = null;
     }
 
@@ -1106,9 +1164,19 @@ public class RuleEngine
      * @param rUID rule uid
      * @return status of the rule or null when such rule does not exists.
      */
-    public synchronized RuleStatusInfo getRuleStatusInfo(String rUID) {
-        RuleStatusInfo info = statusMap.get(rUID);
-        return info;
+    public RuleStatusInfo getRuleStatusInfo(String rUID) {
+        return rUID != null ? statusMap.get(rUID) : null;
+    }
+
+    /**
+     * This method gets the execution statistics of a rule since the rule has been initialized.
+     *
+     * @param rUID rule uid
+     * @return the execution statistics or null when such rule does not exists or it is not initialized.
+     */
+    public RuleExecutionStatistics getRuleExecutionStatistics(String rUID) {
+        RuleEngineCallbackImpl reCallback = rUID != null ? reCallbacks.get(rUID) : null;
+        return reCallback != null ? reCallback.getExecutionStatistics() : null;
     }
 
     protected String getUniqueId() {
@@ -1148,10 +1216,7 @@ public class RuleEngine
         Set<String> notInitailizedRules = null;
         for (Iterator<ModuleType> it = moduleTypes.iterator(); it.hasNext();) {
             String moduleTypeName = it.next().getUID();
-            Set<String> rules = null;
-            synchronized (this) {
-                rules = mapModuleTypeToRules.get(moduleTypeName);
-            }
+            Set<String> rules = mapModuleTypeToRules.get(moduleTypeName);
             if (rules != null) {
                 for (String rUID : rules) {
                     RuleStatus ruleStatus = getRuleStatus(rUID);
@@ -1250,8 +1315,35 @@ public class RuleEngine
             } else {
                 scheduleReinitializationDelay = DEFAULT_REINITIALIZATION_DELAY;
             }
+            value = properties.get(CONFIG_PROPERTY_TRIGGER_OVERFLOW_POLICY);
+            if (value != null) {
+                try {
+                    triggerOverflowPolicy = TriggerOverflowPolicy.valueOf(value.toString().trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    logger.error(
+                            "Invalid configuration value: " + value + ". It MUST be one of queue, drop, coalesce.");
+                }
+            } else {
+                triggerOverflowPolicy = DEFAULT_TRIGGER_OVERFLOW_POLICY;
+            }
+            value = properties.get(CONFIG_PROPERTY_TRIGGER_QUEUE_SIZE);
+            if (value != null) {
+                if (value instanceof Number) {
+                    triggerQueueSize = ((Number) value).intValue();
+                } else {
+                    try {
+                        triggerQueueSize = Integer.parseInt(value.toString().trim());
+                    } catch (NumberFormatException e) {
+                        logger.error("Invalid configuration value: " + value + ". It MUST be Number.");
+                    }
+                }
+            } else {
+                triggerQueueSize = DEFAULT_TRIGGER_QUEUE_SIZE;
+            }
         } else {
             scheduleReinitializationDelay = DEFAULT_REINITIALIZATION_DELAY;
+            triggerOverflowPolicy = DEFAULT_TRIGGER_OVERFLOW_POLICY;
+            triggerQueueSize = DEFAULT_TRIGGER_QUEUE_SIZE;
         }
     }
 
@@ -7,48 +7,158 @@
  */
 package org.eclipse.smarthome.automation.core.internal;
 
+import java.util.LinkedList;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.automation.Rule;
+import org.eclipse.smarthome.automation.RuleExecutionStatistics;
 import org.eclipse.smarthome.automation.Trigger;
 import org.eclipse.smarthome.automation.handler.RuleEngineCallback;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 
 /**
  * This class is implementation of {@link RuleEngineCallback} used by the {@link Trigger}s to notify rule engine about
  * appearing of new triggered data. There is one and only one {@link RuleEngineCallback} per Rule and it is used by all
  * rule's {@link Trigger}s.
+ * <p>
+ * The triggered data is put into a mailbox, which is drained by the shared thread pool {@value #THREAD_POOL_NAME}.
+ * At most one thread drains the mailbox of a rule at a time, so that the runs of a rule never overlap and are executed
+ * in the order of the triggers. The behavior when triggers arrive faster than the rule runs is defined by the
+ * {@link TriggerOverflowPolicy}.
  *
  * @author Yordan Mihaylov - Initial Contribution
  * @author Kai Kreuzer - improved stability
  */
-public class RuleEngineCallbackImpl implements RuleEngineCallback {
+public class RuleEngineCallbackImpl implements RuleEngineCallback, Runnable {
 
-    private RuntimeRule r;
+    static final String THREAD_POOL_NAME = "automation";
 
-    private ExecutorService executor;
+    /** the maximum number of rule runs in one task, before the thread is handed back to the pool */
+    private static final int MAX_RUNS_PER_TASK = 16;
 
-    private Future<?> feature;
+    private RuntimeRule r;
 
     private RuleEngine re;
 
+    private final TriggerOverflowPolicy overflowPolicy;
+
+    private final int maxPendingTriggers;
+
+    private final LinkedList<TriggerData> pendingTriggers = new LinkedList<TriggerData>();
+
+    private boolean scheduled = false;
+
+    private boolean running = false;
+
+    private boolean disposed = false;
+
+    private long runs;
+
+    private long droppedTriggers;
+
+    private long coalescedTriggers;
+
+    private long totalLatency;
+
+    private long maxLatency;
+
     protected RuleEngineCallbackImpl(RuleEngine re, RuntimeRule r) {
+        this(re, r, TriggerOverflowPolicy.QUEUE, Integer.MAX_VALUE);
+    }
+
+    protected RuleEngineCallbackImpl(RuleEngine re, RuntimeRule r, TriggerOverflowPolicy overflowPolicy,
+            int maxPendingTriggers) {
         this.re = re;
         this.r = r;
-        executor = Executors.newSingleThreadExecutor();
+        this.overflowPolicy = overflowPolicy;
+        this.maxPendingTriggers = maxPendingTriggers;
     }
 
     @Override
     public void triggered(Trigger trigger, Map<String, ?> outputs) {
-        if (executor != null) {
+        synchronized (this) {
+            if (disposed) {
+                return;
+            }
             re.logger.debug("The trigger '{}' of rule '{}' is triggred.", trigger.getId(), r.getUID());
-            synchronized (executor) {
-                if (executor != null) {
-                    feature = executor.submit(new TriggerData(trigger, outputs));
+            TriggerData td = new TriggerData(trigger, outputs);
+            switch (overflowPolicy) {
+                case COALESCE:
+                    if (!pendingTriggers.isEmpty()) {
+                        pendingTriggers.clear();
+                        coalescedTriggers++;
+                    }
+                    break;
+                case DROP:
+                    if (pendingTriggers.size() >= maxPendingTriggers) {
+                        droppedTriggers++;
+                        re.logger.debug("The trigger '{}' of rule '{}' is dropped, {} triggers are pending.",
+                                new Object[] { trigger.getId(), r.getUID(), pendingTriggers.size() });
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            pendingTriggers.add(td);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        try {
+            ThreadPoolManager.getPool(THREAD_POOL_NAME).execute(this);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                scheduled = false;
+            }
+            re.logger.error("Cannot schedule the execution of rule '{}': {}", getRuleUID(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void run() {
+        boolean reschedule;
+        try {
+            for (int i = 0; i < MAX_RUNS_PER_TASK; i++) {
+                RuntimeRule rule;
+                TriggerData td;
+                synchronized (this) {
+                    td = pendingTriggers.poll();
+                    rule = r;
+                    if (td == null || rule == null) {
+                        break;
+                    }
+                    running = true;
+                }
+                try {
+                    re.runRule(rule, td);
+                } finally {
+                    long latency = System.nanoTime() - td.enqueued;
+                    synchronized (this) {
+                        running = false;
+                        runs++;
+                        totalLatency += latency;
+                        if (latency > maxLatency) {
+                            maxLatency = latency;
+                        }
+                    }
                 }
             }
+        } finally {
+            synchronized (this) {
+                reschedule = !disposed && !pendingTriggers.isEmpty();
+                scheduled = reschedule;
+            }
+        }
+        if (reschedule) {
+            schedule();
         }
     }
 
@@ -56,14 +166,31 @@ public class RuleEngineCallbackImpl implements RuleEngineCallback {
         return r;
     }
 
-    public boolean isRunning() {
-        return feature == null || !feature.isDone();
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Gets the execution statistics of the rule since this callback has been created.
+     *
+     * @return the execution statistics
+     */
+    public synchronized RuleExecutionStatistics getExecutionStatistics() {
+        double averageLatency = runs == 0 ? 0 : (totalLatency / (double) runs) / TimeUnit.MILLISECONDS.toNanos(1);
+        return new RuleExecutionStatistics(runs, pendingTriggers.size(), droppedTriggers, coalescedTriggers,
+                averageLatency, TimeUnit.NANOSECONDS.toMillis(maxLatency));
     }
 
-    class TriggerData implements Runnable {
+    private synchronized String getRuleUID() {
+        return r != null ? r.getUID() : null;
+    }
+
+    class TriggerData {
 
         private Trigger trigger;
 
+        private final long enqueued = System.nanoTime();
+
         public Trigger getTrigger() {
             return trigger;
         }
@@ -79,18 +206,14 @@ public class RuleEngineCallbackImpl implements RuleEngineCallback {
             this.outputs = outputs;
         }
 
-        @Override
-        public void run() {
-            re.runRule(r, this);
-        }
     }
 
     public void dispose() {
-        synchronized (executor) {
-            executor.shutdownNow();
-            executor = null;
+        synchronized (this) {
+            disposed = true;
+            pendingTriggers.clear();
+            r = null;
         }
-        r = null;
     }
 
 }
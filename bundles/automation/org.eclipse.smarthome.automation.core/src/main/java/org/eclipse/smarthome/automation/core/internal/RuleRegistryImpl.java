@@ -18,6 +18,7 @@ import java.util.Set;
 
 import org.eclipse.smarthome.automation.Module;
 import org.eclipse.smarthome.automation.Rule;
+import org.eclipse.smarthome.automation.RuleExecutionStatistics;
 import org.eclipse.smarthome.automation.RuleProvider;
 import org.eclipse.smarthome.automation.RuleRegistry;
 import org.eclipse.smarthome.automation.RuleStatus;
@@ -323,6 +324,11 @@ public class RuleRegistryImpl extends AbstractRegistry<Rule, String>implements R
         return ruleEngine.getRuleStatusInfo(ruleUID);
     }
 
+    @Override
+    public RuleExecutionStatistics getExecutionStatistics(String ruleUID) {
+        return ruleEngine.getRuleExecutionStatistics(ruleUID);
+    }
+
     protected void setDisabledRuleStorage(Storage<Boolean> disabledRulesStorage) {
         this.disabledRulesStorage = disabledRulesStorage;
         for (Rule rule : ruleEngine.getRules()) {
@@ -0,0 +1,34 @@
+/**
+ * Copyright (c) 1997, 2015 by ProSyst Software GmbH and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.automation.core.internal;
+
+/**
+ * This enum defines how the {@link RuleEngineCallbackImpl} of a rule handles new triggers while the rule is still
+ * running or other triggers are waiting.
+ *
+ * @author agent - Initial contribution
+ */
+public enum TriggerOverflowPolicy {
+
+    /**
+     * All triggers are queued and executed in order.
+     */
+    QUEUE,
+
+    /**
+     * Triggers are queued and executed in order, but new triggers are dropped while the maximum number of triggers is
+     * waiting.
+     */
+    DROP,
+
+    /**
+     * At most one trigger is waiting, a new trigger replaces the waiting one.
+     */
+    COALESCE;
+
+}
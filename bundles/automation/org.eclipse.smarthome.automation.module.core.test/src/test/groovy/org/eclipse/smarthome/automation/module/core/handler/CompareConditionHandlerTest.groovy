@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 1997, 2015 by ProSyst Software GmbH and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.automation.module.core.handler
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import org.eclipse.smarthome.automation.Condition
+import org.eclipse.smarthome.config.core.Configuration
+import org.eclipse.smarthome.core.items.events.ItemEventFactory
+import org.eclipse.smarthome.core.library.types.DecimalType
+import org.eclipse.smarthome.core.library.types.OnOffType
+import org.eclipse.smarthome.core.library.types.StringType
+import org.junit.Test
+
+/**
+ * Tests that the {@link CompareConditionHandler} resolves its configuration once but still follows changes of the
+ * type of the compared input, e.g. because the item has been replaced by an item of another type.
+ *
+ * @author agent - Initial contribution
+ */
+class CompareConditionHandlerTest {
+
+    @Test
+    void 'assert that the right operand is parsed again for a replaced item of another type'() {
+        def handler = createHandler("=", "ON")
+
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", OnOffType.ON)]), is(true)
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", OnOffType.OFF)]), is(false)
+
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", new StringType("ON"))]),
+                is(true)
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", new StringType("OFF"))]),
+                is(false)
+
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", OnOffType.ON)]), is(true)
+    }
+
+    @Test
+    void 'assert that the getter is looked up again for another type of input object'() {
+        def handler = createHandler(">", "20.5")
+
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", new DecimalType(21))]),
+                is(true)
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateChangedEvent("myItem", new DecimalType(20),
+                new DecimalType(21))]), is(false)
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateChangedEvent("myItem", new DecimalType(22),
+                new DecimalType(20))]), is(true)
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", new DecimalType(20))]),
+                is(false)
+    }
+
+    @Test
+    void 'assert that the condition is not satisfied without an input and recovers afterwards'() {
+        def handler = createHandler(">", "20.5")
+
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", new DecimalType(21))]),
+                is(true)
+        assertThat handler.isSatisfied([:]), is(false)
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", OnOffType.ON)]), is(false)
+        assertThat handler.isSatisfied([input: ItemEventFactory.createStateEvent("myItem", new DecimalType(21))]),
+                is(true)
+    }
+
+    private CompareConditionHandler createHandler(String operator, String right) {
+        def configuration = new Configuration([inputproperty: "itemState", operator: operator, right: right])
+        new CompareConditionHandler(new Condition("condition", CompareConditionHandler.MODULE_TYPE, configuration,
+                null))
+    }
+}
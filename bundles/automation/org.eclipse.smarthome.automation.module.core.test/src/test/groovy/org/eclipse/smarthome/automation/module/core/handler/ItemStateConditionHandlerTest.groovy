@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 1997, 2015 by ProSyst Software GmbH and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.automation.module.core.handler
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import org.eclipse.smarthome.automation.Condition
+import org.eclipse.smarthome.config.core.Configuration
+import org.eclipse.smarthome.core.items.Item
+import org.eclipse.smarthome.core.items.ItemNotFoundException
+import org.eclipse.smarthome.core.items.ItemRegistry
+import org.eclipse.smarthome.core.library.items.NumberItem
+import org.eclipse.smarthome.core.library.items.StringItem
+import org.eclipse.smarthome.core.library.types.DecimalType
+import org.eclipse.smarthome.core.library.types.StringType
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Tests that the {@link ItemStateConditionHandler} follows the item in the registry although it resolves its
+ * configuration only once.
+ *
+ * @author agent - Initial contribution
+ */
+class ItemStateConditionHandlerTest {
+
+    Item item
+
+    ItemRegistry itemRegistry
+
+    @Before
+    void setUp() {
+        itemRegistry = [
+            getItem: { String name ->
+                if (item == null || item.name != name) {
+                    throw new ItemNotFoundException(name)
+                }
+                item
+            }
+        ] as ItemRegistry
+    }
+
+    @Test
+    void 'assert that the condition evaluates the replaced item with its own accepted data types'() {
+        def handler = createHandler("=", "5")
+
+        item = new NumberItem("myItem")
+        item.setState(new DecimalType(5))
+        assertThat handler.isSatisfied([:]), is(true)
+
+        item = new StringItem("myItem")
+        item.setState(new StringType("5"))
+        assertThat handler.isSatisfied([:]), is(true)
+
+        item.setState(new StringType("6"))
+        assertThat handler.isSatisfied([:]), is(false)
+    }
+
+    @Test
+    void 'assert that a numeric comparison is not applied to a replaced item of another type'() {
+        def handler = createHandler(">", "5")
+
+        item = new NumberItem("myItem")
+        item.setState(new DecimalType(7))
+        assertThat handler.isSatisfied([:]), is(true)
+
+        item = new StringItem("myItem")
+        item.setState(new StringType("7"))
+        assertThat handler.isSatisfied([:]), is(false)
+
+        item = new NumberItem("myItem")
+        item.setState(new DecimalType(3))
+        assertThat handler.isSatisfied([:]), is(false)
+        item.setState(new DecimalType(8))
+        assertThat handler.isSatisfied([:]), is(true)
+    }
+
+    @Test
+    void 'assert that the condition is not satisfied while the item is removed'() {
+        def handler = createHandler("=", "5")
+
+        item = new NumberItem("myItem")
+        item.setState(new DecimalType(5))
+        assertThat handler.isSatisfied([:]), is(true)
+
+        item = null
+        assertThat handler.isSatisfied([:]), is(false)
+
+        item = new NumberItem("myItem")
+        item.setState(new DecimalType(5))
+        assertThat handler.isSatisfied([:]), is(true)
+    }
+
+    private ItemStateConditionHandler createHandler(String operator, String state) {
+        def configuration = new Configuration([itemName: "myItem", operator: operator, state: state])
+        def handler = new ItemStateConditionHandler(new Condition("condition", "ItemStateCondition", configuration, null))
+        handler.setItemRegistry(itemRegistry)
+        handler
+    }
+}
@@ -31,6 +31,7 @@ import org.eclipse.smarthome.core.items.ItemProvider
 import org.eclipse.smarthome.core.items.ItemRegistry
 import org.eclipse.smarthome.core.items.events.ItemCommandEvent
 import org.eclipse.smarthome.core.items.events.ItemEventFactory
+import org.eclipse.smarthome.core.items.events.ItemStateChangedEvent
 import org.eclipse.smarthome.core.items.events.ItemStateEvent
 import org.eclipse.smarthome.core.items.events.ItemUpdatedEvent
 import org.eclipse.smarthome.core.library.items.SwitchItem
@@ -344,4 +345,45 @@ class RuntimeRuleTest extends OSGiTest{
         })
 
     }
+    @Test
+    public void 'assert that rule is triggered by an item state change posted through the event publisher'() {
+
+        def triggerConfig = new Configuration([itemName:"myMotionItem4"])
+        def actionConfig = new Configuration([itemName:"myLampItem4", command:"ON"])
+        def rule = new Rule("myRule21"+new Random().nextInt()+ "_STATECHANGE")
+        rule.triggers = [new Trigger("ItemStateChangeTrigger4", "ItemStateChangeTrigger", triggerConfig)]
+        rule.actions = [new Action("ItemPostCommandAction4", "ItemPostCommandAction", actionConfig, null)]
+        rule.name="RuleByJAVA_API_WithItemStateChangeTrigger"
+
+        def ruleRegistry = getService(RuleRegistry)
+        ruleRegistry.add(rule)
+        waitForAssert({
+            assertThat ruleRegistry.getStatus(rule.uid).getStatus(), is(RuleStatus.IDLE)
+        })
+
+        Event commandEvent = null
+        def eventHandler = [
+            receive: { Event e ->
+                if (e.topic.equals("smarthome/items/myLampItem4/command")) {
+                    commandEvent = e
+                }
+            },
+
+            getSubscribedEventTypes: {
+                Sets.newHashSet(ItemCommandEvent.TYPE)
+            },
+
+            getEventFilter:{ null }
+        ] as EventSubscriber
+        registerService(eventHandler)
+
+        def EventPublisher eventPublisher = getService(EventPublisher)
+        ItemStateChangedEvent stateChangedEvent = ItemEventFactory.createStateChangedEvent("myMotionItem4", OnOffType.ON, OnOffType.OFF)
+        eventPublisher.post(stateChangedEvent)
+
+        waitForAssert({
+            assertThat commandEvent, is(notNullValue())
+            assertThat (((ItemCommandEvent)commandEvent).itemCommand, is(OnOffType.ON))
+        })
+    }
 }
\ No newline at end of file
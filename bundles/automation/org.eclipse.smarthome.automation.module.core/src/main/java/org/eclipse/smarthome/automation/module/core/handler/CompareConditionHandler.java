@@ -7,11 +7,14 @@
  */
 package org.eclipse.smarthome.automation.module.core.handler;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.eclipse.smarthome.automation.Condition;
 import org.eclipse.smarthome.automation.handler.BaseModuleHandler;
@@ -24,6 +27,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Generic Comparation Condition
+ * <p>
+ * The configuration of the condition is evaluated once, when the handler is created: the operator is resolved, the
+ * right operand is parsed only once per type of the left operand and the getter of the left field is looked up only
+ * once per type of the input object.
  *
  * @author Benedikt Niehues - Initial contribution and API
  *
@@ -39,19 +46,85 @@ public class CompareConditionHandler extends BaseModuleHandler<Condition>impleme
     public static final String RIGHT_OP = "right";
     public static final String OPERATOR = "operator";
 
+    /**
+     * The operators supported by the condition.
+     */
+    private enum Operator {
+        EQUALS,
+        GREATER,
+        LESS,
+        MATCHES;
+
+        /**
+         * Resolves the operator from its configuration value.
+         *
+         * @param operator the configured operator
+         * @return the operator or null, if the operator is not supported
+         */
+        static Operator fromString(String operator) {
+            switch (operator) {
+                case "eq":
+                case "EQ":
+                case "=":
+                case "==":
+                case "equals":
+                case "EQUALS":
+                    return EQUALS;
+                case "gt":
+                case "GT":
+                case ">":
+                    return GREATER;
+                case "lt":
+                case "LT":
+                case "<":
+                    return LESS;
+                case "matches":
+                    return MATCHES;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    /** the operator or null, if it is missing or not supported */
+    private final Operator operator;
+
+    private final String rightOperandString;
+
+    private final String leftObjectFieldName;
+
+    private final Pattern pattern;
+
+    private volatile RightOperand rightOperand;
+
+    private volatile Accessor accessor;
+
     public CompareConditionHandler(Condition module) {
         super(module);
+        Object operatorObj = this.module.getConfiguration().get(OPERATOR);
+        this.operator = operatorObj instanceof String ? Operator.fromString((String) operatorObj) : null;
+        Object rightObj = this.module.getConfiguration().get(RIGHT_OP);
+        this.rightOperandString = rightObj instanceof String ? (String) rightObj : null;
+        Object leftObjFieldNameObj = this.module.getConfiguration().get(INPUT_LEFT_FIELD);
+        this.leftObjectFieldName = leftObjFieldNameObj instanceof String ? (String) leftObjFieldNameObj : null;
+        this.pattern = operator == Operator.MATCHES ? compilePattern(rightOperandString) : null;
+    }
+
+    private Pattern compilePattern(String regex) {
+        if (regex == null) {
+            return null;
+        }
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            logger.warn("Invalid regular expression '{}' in compare condition '{}': {}",
+                    new Object[] { regex, module.getId(), e.getMessage() });
+            return null;
+        }
     }
 
     @Override
     public boolean isSatisfied(Map<String, ?> context) {
-        Object operatorObj = this.module.getConfiguration().get(OPERATOR);
-        String operator = (operatorObj != null && operatorObj instanceof String) ? (String) operatorObj : null;
-        Object rightObj = this.module.getConfiguration().get(RIGHT_OP);
-        String rightOperandString = (rightObj != null && rightObj instanceof String) ? (String) rightObj : null;
-        Object leftObjFieldNameObj = this.module.getConfiguration().get(INPUT_LEFT_FIELD);
-        String leftObjectFieldName = (leftObjFieldNameObj != null && leftObjFieldNameObj instanceof String)
-                ? (String) leftObjFieldNameObj : null;
         if (rightOperandString == null || operator == null) {
             return false;
         } else {
@@ -60,53 +133,28 @@ public class CompareConditionHandler extends BaseModuleHandler<Condition>impleme
             Object rightValue = getRightOperandValue(rightOperandString, toCompare);
             if (rightValue == null) {
                 if (leftObj != null) {
-                    logger.info("unsupported type for compare condition: " + leftObj.getClass());
+                    logger.info("unsupported type for compare condition: {}", leftObj.getClass());
                 } else {
-                    logger.info("unsupported type for compare condition: null ("
-                            + module.getInputs().get(INPUT_LEFT_FIELD) + ")");
+                    logger.info("unsupported type for compare condition: null ({})",
+                            module.getInputs().get(INPUT_LEFT_FIELD));
                 }
                 return false;
             }
             try {
                 switch (operator) {
-                    case "eq":
-                    case "EQ":
-                    case "=":
-                    case "==":
-                    case "equals":
-                    case "EQUALS":
-                        // EQUALS
+                    case EQUALS:
                         if (toCompare == null) {
-                            if (rightOperandString.equals("null") || rightOperandString.equals("")) {
-                                return true;
-                            } else {
-                                return false;
-                            }
+                            return rightOperandString.equals("null") || rightOperandString.equals("");
                         } else {
                             return toCompare.equals(rightValue);
                         }
-                    case "gt":
-                    case "GT":
-                    case ">":
-                        // Greater
-                        if (toCompare == null || rightValue == null) {
-                            return false;
-                        } else {
-                            return compare(toCompare, rightValue) > 0;
-                        }
-                    case "lt":
-                    case "LT":
-                    case "<":
-                        if (toCompare == null || rightValue == null) {
-                            return false;
-                        } else {
-                            return compare(toCompare, rightValue) < 0;
-                        }
-                    case "matches":
-                        // Matcher...
-                        if (toCompare instanceof String && rightValue != null && rightValue instanceof String) {
-                            return ((String) toCompare).matches((String) rightValue);
-                        }
+                    case GREATER:
+                        return toCompare != null && compare(toCompare, rightValue) > 0;
+                    case LESS:
+                        return toCompare != null && compare(toCompare, rightValue) < 0;
+                    case MATCHES:
+                        return toCompare instanceof String && pattern != null
+                                && pattern.matcher((String) toCompare).matches();
                     default:
                         break;
                 }
@@ -136,18 +184,35 @@ public class CompareConditionHandler extends BaseModuleHandler<Condition>impleme
         if (rightOperandString2.equals("null")) {
             return rightOperandString2;
         }
-        if (toCompare instanceof State) {
-            List<Class<? extends State>> stateTypeList = new ArrayList<Class<? extends State>>();
-            stateTypeList.add(((State) toCompare).getClass());
-            return TypeParser.parseState(stateTypeList, rightOperandString2);
-        } else if (toCompare instanceof Integer) {
-            return Integer.parseInt(rightOperandString2);
-        } else if (toCompare instanceof String) {
-            return rightOperandString2;
-        } else if (toCompare instanceof Long) {
-            return Long.parseLong(rightOperandString2);
-        } else if (toCompare instanceof Double) {
-            return Double.parseDouble(rightOperandString2);
+        if (toCompare == null) {
+            return null;
+        }
+        RightOperand cached = rightOperand;
+        if (cached == null || cached.type != toCompare.getClass()) {
+            cached = new RightOperand(toCompare.getClass(), parseRightOperand(rightOperandString2, toCompare));
+            rightOperand = cached;
+        }
+        return cached.value;
+    }
+
+    private Object parseRightOperand(String rightOperandString2, Object toCompare) {
+        try {
+            if (toCompare instanceof State) {
+                List<Class<? extends State>> stateTypeList = Collections
+                        .<Class<? extends State>> singletonList(((State) toCompare).getClass());
+                return TypeParser.parseState(stateTypeList, rightOperandString2);
+            } else if (toCompare instanceof Integer) {
+                return Integer.parseInt(rightOperandString2);
+            } else if (toCompare instanceof String) {
+                return rightOperandString2;
+            } else if (toCompare instanceof Long) {
+                return Long.parseLong(rightOperandString2);
+            } else if (toCompare instanceof Double) {
+                return Double.parseDouble(rightOperandString2);
+            }
+        } catch (NumberFormatException e) {
+            logger.info("Right operand '{}' of compare condition '{}' is not a number.", rightOperandString2,
+                    module.getId());
         }
         return null;
     }
@@ -157,15 +222,56 @@ public class CompareConditionHandler extends BaseModuleHandler<Condition>impleme
                 || leftObj instanceof Integer || leftObj instanceof Long || leftObj instanceof Double) {
             return leftObj;
         } else {
+            Accessor cached = accessor;
+            if (cached == null || cached.type != leftObj.getClass()) {
+                cached = new Accessor(leftObj.getClass(), getGetter(leftObj.getClass(), leftObjFieldName));
+                accessor = cached;
+            }
+            if (cached.getter == null) {
+                return null;
+            }
             try {
-                Method m = leftObj.getClass().getMethod(
-                        "get" + leftObjFieldName.substring(0, 1).toUpperCase() + leftObjFieldName.substring(1));
-                return m.invoke(leftObj);
-            } catch (NoSuchMethodException | SecurityException | StringIndexOutOfBoundsException
-                    | IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                return cached.getter.invoke(leftObj);
+            } catch (Throwable e) {
                 return null;
             }
         }
     }
 
+    private MethodHandle getGetter(Class<?> type, String leftObjFieldName) {
+        try {
+            Method m = type.getMethod(
+                    "get" + leftObjFieldName.substring(0, 1).toUpperCase() + leftObjFieldName.substring(1));
+            return MethodHandles.publicLookup().unreflect(m);
+        } catch (NoSuchMethodException | SecurityException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The right operand parsed for a type of the left operand.
+     */
+    private static class RightOperand {
+        private final Class<?> type;
+        private final Object value;
+
+        private RightOperand(Class<?> type, Object value) {
+            this.type = type;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The getter of the left field for a type of the input object.
+     */
+    private static class Accessor {
+        private final Class<?> type;
+        private final MethodHandle getter;
+
+        private Accessor(Class<?> type, MethodHandle getter) {
+            this.type = type;
+            this.getter = getter;
+        }
+    }
+
 }
@@ -85,7 +85,7 @@ public class GenericEventTriggerHandler extends BaseModuleHandler<Trigger>
 
     @Override
     public EventFilter getEventFilter() {
-        return null;
+        return this;
     }
 
     @Override
@@ -7,6 +7,7 @@
  */
 package org.eclipse.smarthome.automation.module.core.handler;
 
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.smarthome.automation.Condition;
@@ -23,6 +24,9 @@ import org.slf4j.LoggerFactory;
 
 /**
  * ConditionHandler implementation to check item state
+ * <p>
+ * The operator is resolved once, when the handler is created, and the state to compare with is parsed only once per
+ * set of accepted data types of the item.
  *
  * @author Benedikt Niehues - Initial contribution and API
  * @author Kai Kreuzer - refactored and simplified customized module handling
@@ -44,8 +48,53 @@ public class ItemStateConditionHandler extends BaseModuleHandler<Condition>imple
     private static final String OPERATOR = "operator";
     private static final String STATE = "state";
 
+    /**
+     * The operators supported by the condition.
+     */
+    private enum Operator {
+        EQUALS("="),
+        NOT_EQUALS("!="),
+        LESS("<"),
+        GREATER(">");
+
+        private final String symbol;
+
+        private Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Resolves the operator from its configuration value.
+         *
+         * @param operator the configured operator
+         * @return the operator or null, if the operator is not supported
+         */
+        static Operator fromString(String operator) {
+            for (Operator op : values()) {
+                if (op.symbol.equals(operator)) {
+                    return op;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final String itemName;
+
+    private final String state;
+
+    private final String operatorString;
+
+    private final Operator operator;
+
+    private volatile CompareState compareState;
+
     public ItemStateConditionHandler(Condition condition) {
         super(condition);
+        itemName = (String) module.getConfiguration().get(ITEM_NAME);
+        state = (String) module.getConfiguration().get(STATE);
+        operatorString = (String) module.getConfiguration().get(OPERATOR);
+        operator = operatorString != null ? Operator.fromString(operatorString) : null;
     }
 
     /**
@@ -73,12 +122,12 @@ public class ItemStateConditionHandler extends BaseModuleHandler<Condition>imple
 
     @Override
     public boolean isSatisfied(Map<String, ?> inputs) {
-        String itemName = (String) module.getConfiguration().get(ITEM_NAME);
-        String state = (String) module.getConfiguration().get(STATE);
-        String operator = (String) module.getConfiguration().get(OPERATOR);
-        if (operator == null || state == null || itemName == null) {
-            logger.error("Module is not well configured: itemName={}  operator={}  state = {}", itemName, operator,
-                    state);
+        if (operatorString == null || state == null || itemName == null) {
+            logger.error("Module is not well configured: itemName={}  operator={}  state = {}", itemName,
+                    operatorString, state);
+            return false;
+        }
+        if (operator == null) {
             return false;
         }
         if (itemRegistry == null) {
@@ -87,24 +136,27 @@ public class ItemStateConditionHandler extends BaseModuleHandler<Condition>imple
         }
         try {
             Item item = itemRegistry.getItem(itemName);
-            State compareState = TypeParser.parseState(item.getAcceptedDataTypes(), state);
+            State compareState = getCompareState(item.getAcceptedDataTypes());
             State itemState = item.getState();
-            logger.debug("ItemStateCondition '" + module.getId() + "'checking if {} (State={}) {} {}", itemName,
-                    itemState, operator, compareState);
+            if (logger.isDebugEnabled()) {
+                logger.debug("ItemStateCondition '{}' checking if {} (State={}) {} {}",
+                        new Object[] { module.getId(), itemName, itemState, operatorString, compareState });
+            }
             switch (operator) {
-                case "=":
-                    logger.debug("ConditionSatisfied --> " + itemState.equals(compareState));
-                    return itemState.equals(compareState);
-                case "!=":
+                case EQUALS:
+                    boolean satisfied = itemState.equals(compareState);
+                    logger.debug("ConditionSatisfied --> {}", satisfied);
+                    return satisfied;
+                case NOT_EQUALS:
                     return !itemState.equals(compareState);
-                case "<":
+                case LESS:
                     if (itemState instanceof DecimalType && compareState instanceof DecimalType) {
-                        return ((DecimalType) itemState).compareTo((DecimalType) compareState) < 0 ? true : false;
+                        return ((DecimalType) itemState).compareTo((DecimalType) compareState) < 0;
                     }
                     break;
-                case ">":
+                case GREATER:
                     if (itemState instanceof DecimalType && compareState instanceof DecimalType) {
-                        return ((DecimalType) itemState).compareTo((DecimalType) compareState) > 0 ? true : false;
+                        return ((DecimalType) itemState).compareTo((DecimalType) compareState) > 0;
                     }
                     break;
                 default:
@@ -117,4 +169,33 @@ public class ItemStateConditionHandler extends BaseModuleHandler<Condition>imple
         return false;
     }
 
+    /**
+     * Gets the configured state parsed for the given accepted data types. The state is parsed again only if the
+     * accepted data types change, e.g. because the item has been replaced.
+     *
+     * @param acceptedDataTypes the accepted data types of the item
+     * @return the state to compare with or null, if the state cannot be parsed
+     */
+    private State getCompareState(List<Class<? extends State>> acceptedDataTypes) {
+        CompareState cached = compareState;
+        if (cached == null || !cached.acceptedDataTypes.equals(acceptedDataTypes)) {
+            cached = new CompareState(acceptedDataTypes, TypeParser.parseState(acceptedDataTypes, state));
+            compareState = cached;
+        }
+        return cached.state;
+    }
+
+    /**
+     * The configured state parsed for a list of accepted data types.
+     */
+    private static class CompareState {
+        private final List<Class<? extends State>> acceptedDataTypes;
+        private final State state;
+
+        private CompareState(List<Class<? extends State>> acceptedDataTypes, State state) {
+            this.acceptedDataTypes = acceptedDataTypes;
+            this.state = state;
+        }
+    }
+
 }
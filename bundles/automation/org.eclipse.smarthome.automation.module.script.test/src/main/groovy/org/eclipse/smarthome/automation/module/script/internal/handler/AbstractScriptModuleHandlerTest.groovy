@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 1997, 2015 by ProSyst Software GmbH and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.automation.module.script.internal.handler
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import javax.script.AbstractScriptEngine
+import javax.script.Bindings
+import javax.script.Compilable
+import javax.script.CompiledScript
+import javax.script.ScriptContext
+import javax.script.ScriptEngine
+import javax.script.ScriptEngineFactory
+import javax.script.ScriptException
+import javax.script.SimpleBindings
+
+import org.eclipse.smarthome.automation.Action
+import org.junit.Test
+
+/**
+ * This tests the compilation and the execution context of the {@link AbstractScriptModuleHandler}.
+ *
+ * @author agent - Initial contribution
+ */
+class AbstractScriptModuleHandlerTest {
+
+    /**
+     * A script engine, which counts the compilations and whose scripts count their executions in the variable
+     * "runs" of the engine scope and return the script, the number of runs, the "trigger" variable and the "scope"
+     * variable. If the script is "parallel", it waits for another execution of the script running at the same time.
+     */
+    class CountingScriptEngine extends AbstractScriptEngine implements Compilable {
+
+        int compilations = 0
+        int evaluations = 0
+        CountDownLatch parallelExecutions = new CountDownLatch(2)
+
+        @Override
+        CompiledScript compile(String script) throws ScriptException {
+            compilations++
+            ScriptEngine engine = this
+            return new CompiledScript() {
+                        @Override
+                        Object eval(ScriptContext context) throws ScriptException {
+                            return run(script, context)
+                        }
+
+                        @Override
+                        ScriptEngine getEngine() {
+                            return engine
+                        }
+                    }
+        }
+
+        @Override
+        CompiledScript compile(Reader script) throws ScriptException {
+            return compile(script.text)
+        }
+
+        @Override
+        Object eval(String script, ScriptContext context) throws ScriptException {
+            return run(script, context)
+        }
+
+        @Override
+        Object eval(Reader reader, ScriptContext context) throws ScriptException {
+            return eval(reader.text, context)
+        }
+
+        @Override
+        Bindings createBindings() {
+            return new SimpleBindings()
+        }
+
+        @Override
+        ScriptEngineFactory getFactory() {
+            return null
+        }
+
+        private Object run(String script, ScriptContext context) {
+            evaluations++
+            int runs = (context.getAttribute("runs") ?: 0) + 1
+            context.setAttribute("runs", runs, ScriptContext.ENGINE_SCOPE)
+            if (script == "parallel") {
+                parallelExecutions.countDown()
+                return parallelExecutions.await(10, TimeUnit.SECONDS)
+            }
+            return [script, runs, context.getAttribute("trigger"), context.getAttribute("scope")]
+        }
+    }
+
+    class TestScriptModuleHandler extends AbstractScriptModuleHandler<Action> {
+        TestScriptModuleHandler() {
+            super(new Action("action", "ScriptAction", null, null))
+        }
+
+        Object run(ScriptEngine engine, String script, Map<String, ?> context) {
+            return eval(engine, script, context)
+        }
+    }
+
+    @Test
+    void 'AbstractScriptModuleHandler compiles the script only once'() {
+        def engine = new CountingScriptEngine()
+        def handler = new TestScriptModuleHandler()
+
+        3.times { handler.run(engine, "script", [:]) }
+
+        assertThat engine.compilations, is(1)
+        assertThat engine.evaluations, is(3)
+    }
+
+    @Test
+    void 'AbstractScriptModuleHandler compiles the script again if the script or the engine changes'() {
+        def engine = new CountingScriptEngine()
+        def handler = new TestScriptModuleHandler()
+
+        assertThat handler.run(engine, "script1", [:])[0], is("script1")
+        assertThat handler.run(engine, "script2", [:])[0], is("script2")
+        assertThat engine.compilations, is(2)
+
+        def otherEngine = new CountingScriptEngine()
+        handler.run(otherEngine, "script2", [:])
+        assertThat otherEngine.compilations, is(1)
+    }
+
+    @Test
+    void 'AbstractScriptModuleHandler does not keep variables between executions'() {
+        def engine = new CountingScriptEngine()
+        def handler = new TestScriptModuleHandler()
+
+        assertThat handler.run(engine, "script", [:])[1], is(1)
+        assertThat handler.run(engine, "script", [:])[1], is(1)
+        assertThat new TestScriptModuleHandler().run(engine, "script", [:])[1], is(1)
+        assertThat engine.getContext().getAttribute("runs"), is(nullValue())
+    }
+
+    @Test
+    void 'AbstractScriptModuleHandler puts the rule context into new bindings'() {
+        def engine = new CountingScriptEngine()
+        engine.put("scope", "scopeElement")
+        def handler = new TestScriptModuleHandler()
+
+        def result = handler.run(engine, "script", ["trigger.event": "event1", "trigger.type": "type1", value: 5])
+
+        assertThat result[2], is([event: "event1", type: "type1"])
+        assertThat result[3], is("scopeElement")
+        assertThat engine.getContext().getAttribute("value"), is(nullValue())
+        assertThat engine.getContext().getAttribute("trigger"), is(nullValue())
+
+        result = handler.run(engine, "script", ["trigger.event": "event2"])
+        assertThat result[2], is([event: "event2"])
+    }
+
+    @Test
+    void 'AbstractScriptModuleHandler evaluates scripts on the same engine concurrently'() {
+        def engine = new CountingScriptEngine()
+        def results = [].asSynchronized()
+        def threads = (1..2).collect {
+            Thread.start { results << new TestScriptModuleHandler().run(engine, "parallel", [:]) }
+        }
+        threads*.join()
+
+        assertThat results, is([true, true])
+    }
+
+    @Test
+    void 'AbstractScriptModuleHandler provides the compile and evaluation statistics'() {
+        def engine = new CountingScriptEngine()
+        def handler = new TestScriptModuleHandler()
+
+        def statistics = handler.getStatistics("rule")
+        assertThat statistics.compilations, is(0L)
+        assertThat statistics.evaluations, is(0L)
+
+        3.times { handler.run(engine, "script", [:]) }
+
+        statistics = handler.getStatistics("rule")
+        assertThat statistics.ruleUID, is("rule")
+        assertThat statistics.moduleId, is("action")
+        assertThat statistics.compilations, is(1L)
+        assertThat statistics.evaluations, is(3L)
+        assertThat statistics.averageEvalTime <= statistics.maxEvalTime, is(true)
+    }
+
+    @Test
+    void 'AbstractScriptModuleHandler evaluates scripts of engines which cannot compile'() {
+        ScriptEngine engine = new CountingScriptEngine() {
+                    @Override
+                    CompiledScript compile(String script) throws ScriptException {
+                        fail("script must not be compiled")
+                    }
+                }
+        def nonCompilableEngine = [
+            getContext: { engine.getContext() },
+            getBindings: { int scope -> engine.getBindings(scope) },
+            createBindings: { engine.createBindings() },
+            eval: { String script, ScriptContext context -> engine.eval(script, context) }
+        ] as ScriptEngine
+        def handler = new TestScriptModuleHandler()
+
+        assertThat handler.run(nonCompilableEngine, "script", [trigger: "event"])[2], is("event")
+        assertThat engine.evaluations, is(1)
+        assertThat handler.getStatistics("rule").compilations, is(0L)
+    }
+}
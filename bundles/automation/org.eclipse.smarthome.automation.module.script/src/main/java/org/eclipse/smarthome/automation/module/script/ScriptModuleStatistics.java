@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 1997, 2015 by ProSyst Software GmbH and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.automation.module.script;
+
+/**
+ * {@link ScriptModuleStatistics} is a snapshot of the compile and evaluation times of the script of one script module.
+ *
+ * @author agent - Initial contribution
+ */
+public class ScriptModuleStatistics {
+
+    private final String ruleUID;
+
+    private final String moduleId;
+
+    private final long compilations;
+
+    private final long compileTime;
+
+    private final long evaluations;
+
+    private final double averageEvalTime;
+
+    private final long maxEvalTime;
+
+    /**
+     * Creates a new statistics snapshot.
+     *
+     * @param ruleUID the UID of the rule of the module
+     * @param moduleId the id of the module
+     * @param compilations the number of compilations of the script
+     * @param compileTime the time of the last compilation in milliseconds
+     * @param evaluations the number of evaluations of the script
+     * @param averageEvalTime the average time of an evaluation in milliseconds
+     * @param maxEvalTime the maximum time of an evaluation in milliseconds
+     */
+    public ScriptModuleStatistics(String ruleUID, String moduleId, long compilations, long compileTime,
+            long evaluations, double averageEvalTime, long maxEvalTime) {
+        this.ruleUID = ruleUID;
+        this.moduleId = moduleId;
+        this.compilations = compilations;
+        this.compileTime = compileTime;
+        this.evaluations = evaluations;
+        this.averageEvalTime = averageEvalTime;
+        this.maxEvalTime = maxEvalTime;
+    }
+
+    /**
+     * @return the UID of the rule of the module
+     */
+    public String getRuleUID() {
+        return ruleUID;
+    }
+
+    /**
+     * @return the id of the module
+     */
+    public String getModuleId() {
+        return moduleId;
+    }
+
+    /**
+     * @return the number of compilations of the script, 0 if the script engine cannot compile scripts
+     */
+    public long getCompilations() {
+        return compilations;
+    }
+
+    /**
+     * @return the time of the last compilation in milliseconds
+     */
+    public long getCompileTime() {
+        return compileTime;
+    }
+
+    /**
+     * @return the number of evaluations of the script
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return the average time of an evaluation in milliseconds
+     */
+    public double getAverageEvalTime() {
+        return averageEvalTime;
+    }
+
+    /**
+     * @return the maximum time of an evaluation in milliseconds
+     */
+    public long getMaxEvalTime() {
+        return maxEvalTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s/%s: compilations=%d, compileTime=%dms, evaluations=%d, avgEvalTime=%.2fms, "
+                + "maxEvalTime=%dms", ruleUID, moduleId, compilations, compileTime, evaluations, averageEvalTime,
+                maxEvalTime);
+    }
+
+}
@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 1997, 2015 by ProSyst Software GmbH and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.automation.module.script;
+
+import java.util.Collection;
+
+/**
+ * {@link ScriptModuleStatisticsProvider} provides the compile and evaluation times of the script modules of all
+ * rules, e.g. for finding slow scripts.
+ *
+ * @author agent - Initial contribution
+ */
+public interface ScriptModuleStatisticsProvider {
+
+    /**
+     * Returns the statistics of all script modules, which are currently in use.
+     *
+     * @return the statistics (not null)
+     */
+    Collection<ScriptModuleStatistics> getStatistics();
+
+}
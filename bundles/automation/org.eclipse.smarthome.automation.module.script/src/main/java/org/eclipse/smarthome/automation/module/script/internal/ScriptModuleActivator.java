@@ -19,6 +19,7 @@ import javax.script.ScriptEngine;
 import javax.script.ScriptEngineManager;
 
 import org.eclipse.smarthome.automation.handler.ModuleHandlerFactory;
+import org.eclipse.smarthome.automation.module.script.ScriptModuleStatisticsProvider;
 import org.eclipse.smarthome.automation.module.script.ScriptScopeProvider;
 import org.eclipse.smarthome.automation.module.script.internal.factory.ScriptModuleHandlerFactory;
 import org.eclipse.smarthome.automation.module.script.internal.handler.AbstractScriptModuleHandler;
@@ -38,6 +39,7 @@ import com.google.common.base.Joiner;
  *
  * @author Kai Kreuzer - Initial contribution
  * @author Simon Merschjohann - original code from openHAB 1
+ * @author agent - Register the handler factory as statistics provider
  */
 public class ScriptModuleActivator implements BundleActivator {
 
@@ -70,7 +72,8 @@ public class ScriptModuleActivator implements BundleActivator {
         this.context = bundleContext;
         this.moduleHandlerFactory = new ScriptModuleHandlerFactory();
         this.moduleHandlerFactory.activate(context);
-        this.factoryRegistration = bundleContext.registerService(ModuleHandlerFactory.class.getName(),
+        this.factoryRegistration = bundleContext.registerService(
+                new String[] { ModuleHandlerFactory.class.getName(), ScriptModuleStatisticsProvider.class.getName() },
                 this.moduleHandlerFactory, null);
         scriptScopeProviders = new CopyOnWriteArraySet<ScriptScopeProvider>();
         scriptScopeProviderServiceTracker = new ServiceTracker(bundleContext, ScriptScopeProvider.class.getName(),
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 1997, 2015 by ProSyst Software GmbH and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.automation.module.script.internal.console;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.automation.module.script.ScriptModuleStatistics;
+import org.eclipse.smarthome.automation.module.script.ScriptModuleStatisticsProvider;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+
+/**
+ * Console command extension to show the compile and evaluation times of the script modules.
+ *
+ * @author agent - Initial contribution
+ */
+public class ScriptConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATS = "stats";
+
+    private ScriptModuleStatisticsProvider statisticsProvider;
+
+    public ScriptConsoleCommandExtension() {
+        super("scripts", "Access the script modules of the rules.");
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(
+                buildCommandUsage(SUBCMD_STATS, "shows the compile and evaluation times of the script modules"));
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0 && SUBCMD_STATS.equals(args[0])) {
+            printStatistics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        if (statisticsProvider == null) {
+            console.println("No script module statistics available.");
+            return;
+        }
+        Collection<ScriptModuleStatistics> statistics = statisticsProvider.getStatistics();
+        if (statistics.isEmpty()) {
+            console.println("No script modules found.");
+        }
+        for (ScriptModuleStatistics stats : statistics) {
+            console.println(stats.toString());
+        }
+    }
+
+    protected void setScriptModuleStatisticsProvider(ScriptModuleStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = statisticsProvider;
+    }
+
+    protected void unsetScriptModuleStatisticsProvider(ScriptModuleStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = null;
+    }
+
+}
@@ -7,14 +7,22 @@
  */
 package org.eclipse.smarthome.automation.module.script.internal.factory;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.automation.Action;
 import org.eclipse.smarthome.automation.Condition;
 import org.eclipse.smarthome.automation.Module;
 import org.eclipse.smarthome.automation.handler.BaseModuleHandlerFactory;
 import org.eclipse.smarthome.automation.handler.ModuleHandler;
+import org.eclipse.smarthome.automation.module.script.ScriptModuleStatistics;
+import org.eclipse.smarthome.automation.module.script.ScriptModuleStatisticsProvider;
+import org.eclipse.smarthome.automation.module.script.internal.handler.AbstractScriptModuleHandler;
 import org.eclipse.smarthome.automation.module.script.internal.handler.ScriptActionHandler;
 import org.eclipse.smarthome.automation.module.script.internal.handler.ScriptConditionHandler;
 import org.osgi.framework.BundleContext;
@@ -22,18 +30,22 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This HandlerFactory creates ModuleHandlers for scripts.
+ * This HandlerFactory creates ModuleHandlers for scripts. It also provides the statistics of the handlers it created.
  *
  * @author Kai Kreuzer
+ * @author agent - Provide the statistics of the script modules
  *
  */
-public class ScriptModuleHandlerFactory extends BaseModuleHandlerFactory {
+public class ScriptModuleHandlerFactory extends BaseModuleHandlerFactory implements ScriptModuleStatisticsProvider {
 
     private Logger logger = LoggerFactory.getLogger(ScriptModuleHandlerFactory.class);
 
     private static final Collection<String> types = Arrays
             .asList(new String[] { ScriptActionHandler.SCRIPT_ACTION_ID, ScriptConditionHandler.SCRIPT_CONDITION });
 
+    // the created handlers with the UIDs of their rules, which are read by the statistics
+    private final Map<AbstractScriptModuleHandler<?>, String> scriptHandlers = new ConcurrentHashMap<>();
+
     @Override
     public void activate(BundleContext bundleContext) {
         super.activate(bundleContext);
@@ -51,9 +63,11 @@ public class ScriptModuleHandlerFactory extends BaseModuleHandlerFactory {
         if (moduleTypeUID != null) {
             if (ScriptConditionHandler.SCRIPT_CONDITION.equals(moduleTypeUID) && module instanceof Condition) {
                 ScriptConditionHandler handler = new ScriptConditionHandler((Condition) module);
+                scriptHandlers.put(handler, ruleUID);
                 return handler;
             } else if (ScriptActionHandler.SCRIPT_ACTION_ID.equals(moduleTypeUID) && module instanceof Action) {
                 ScriptActionHandler handler = new ScriptActionHandler((Action) module);
+                scriptHandlers.put(handler, ruleUID);
                 return handler;
             } else {
                 logger.error("The ModuleHandler is not supported: {}", moduleTypeUID);
@@ -65,4 +79,25 @@ public class ScriptModuleHandlerFactory extends BaseModuleHandlerFactory {
         return null;
     }
 
+    @Override
+    public void ungetHandler(Module module, String ruleUID, ModuleHandler handler) {
+        super.ungetHandler(module, ruleUID, handler);
+        scriptHandlers.remove(handler);
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        scriptHandlers.clear();
+    }
+
+    @Override
+    public Collection<ScriptModuleStatistics> getStatistics() {
+        List<ScriptModuleStatistics> statistics = new ArrayList<>();
+        for (Entry<AbstractScriptModuleHandler<?>, String> entry : scriptHandlers.entrySet()) {
+            statistics.add(entry.getKey().getStatistics(entry.getValue()));
+        }
+        return statistics;
+    }
+
 }
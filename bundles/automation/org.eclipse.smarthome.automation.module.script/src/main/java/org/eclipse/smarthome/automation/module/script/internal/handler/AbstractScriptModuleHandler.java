@@ -10,17 +10,34 @@ package org.eclipse.smarthome.automation.module.script.internal.handler;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import javax.script.SimpleScriptContext;
 
 import org.eclipse.smarthome.automation.Module;
 import org.eclipse.smarthome.automation.handler.BaseModuleHandler;
+import org.eclipse.smarthome.automation.module.script.ScriptModuleStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This is an abstract class that can be used when implementing any module handler that handles scripts.
+ * <p>
+ * The script of the module is compiled once, if the script engine supports it, and the compiled script is reused for
+ * all executions of the module. Each execution gets its own script context, whose engine scope holds the rule
+ * context and whose global scope are the bindings of the engine with the elements of the script scope providers. The
+ * shared engine context is never modified, so scripts of different rules are evaluated concurrently and variables of
+ * one execution are not visible to other executions.
  *
  * @author Kai Kreuzer - Initial contribution
+ * @author agent - Compile the script once, evaluate it with per-execution bindings and provide its statistics
  *
  * @param <T> the type of module the concrete handler can handle
  */
@@ -32,42 +49,141 @@ abstract public class AbstractScriptModuleHandler<T extends Module> extends Base
     /** Constant defining the configuration parameter of modules that specifies the script itself */
     protected static final String SCRIPT = "script";
 
-    private ScriptContext executionContext;
+    private final Logger logger = LoggerFactory.getLogger(AbstractScriptModuleHandler.class);
+
+    private ScriptEngine compiledEngine;
+
+    private String compiledSource;
+
+    private CompiledScript compiledScript;
+
+    private final AtomicLong compilations = new AtomicLong();
+
+    private volatile long compileTime;
+
+    private final AtomicLong evaluations = new AtomicLong();
+
+    private final AtomicLong evalTime = new AtomicLong();
+
+    private final AtomicLong maxEvalTime = new AtomicLong();
 
     public AbstractScriptModuleHandler(T module) {
         super(module);
     }
 
     /**
-     * Gets an instance of the script context for the current module.
-     * The instance is kept across the lifetime of the handler, i.e. it will remain the same over multiple executions of
-     * the module.
+     * Evaluates the script of the module. The script is compiled on the first execution, if the engine is
+     * {@link Compilable}, and the compiled script is reused as long as the script and the engine do not change.
      *
-     * @param engine the scriptengine that is used
+     * @param engine the script engine that is used
+     * @param script the script to evaluate
      * @param context the variables and types to put into the execution context
-     * @return the scope instance used for the module
+     * @return the result of the script
+     * @throws ScriptException if the script cannot be compiled or evaluated
      */
-    protected synchronized ScriptContext getExecutionContext(ScriptEngine engine, Map<String, ?> context) {
-        if (executionContext == null) {
-            executionContext = engine.getContext();
+    protected Object eval(ScriptEngine engine, String script, Map<String, ?> context) throws ScriptException {
+        CompiledScript compiled = getCompiledScript(engine, script);
+        ScriptContext executionContext = getExecutionContext(engine, context);
+        long start = System.nanoTime();
+        try {
+            return compiled != null ? compiled.eval(executionContext) : engine.eval(script, executionContext);
+        } finally {
+            long time = System.nanoTime() - start;
+            evaluations.incrementAndGet();
+            evalTime.addAndGet(time);
+            long max = maxEvalTime.get();
+            while (time > max && !maxEvalTime.compareAndSet(max, time)) {
+                max = maxEvalTime.get();
+            }
+            logger.trace("Evaluated script of module '{}' in {} µs.", module.getId(),
+                    TimeUnit.NANOSECONDS.toMicros(time));
         }
-        // add the rule context to the script engine (only for this execution)
-        for (Entry<String, ?> entry : context.entrySet()) {
+    }
+
+    /**
+     * Gets the compiled script of the module and compiles it, if it has not been compiled for the given script and
+     * engine yet.
+     *
+     * @param engine the script engine that is used
+     * @param script the script to compile
+     * @return the compiled script or null, if the engine cannot compile scripts
+     * @throws ScriptException if the script cannot be compiled
+     */
+    private synchronized CompiledScript getCompiledScript(ScriptEngine engine, String script) throws ScriptException {
+        if (!(engine instanceof Compilable)) {
+            return null;
+        }
+        if (compiledScript == null || compiledEngine != engine || !script.equals(compiledSource)) {
+            long start = System.nanoTime();
+            compiledScript = ((Compilable) engine).compile(script);
+            compiledEngine = engine;
+            compiledSource = script;
+            compileTime = System.nanoTime() - start;
+            compilations.incrementAndGet();
+            logger.debug("Compiled script of module '{}' in {} ms.", module.getId(),
+                    TimeUnit.NANOSECONDS.toMillis(compileTime));
+        }
+        return compiledScript;
+    }
+
+    /**
+     * Creates a new script context for one execution of the module. The rule context is put into new bindings of the
+     * engine scope, whereas the bindings of the engine, which hold the elements of the script scope providers, are used
+     * as global scope.
+     *
+     * @param engine the scriptengine that is used
+     * @param context the variables and types to put into the execution context
+     * @return the script context used for this execution of the module
+     */
+    protected ScriptContext getExecutionContext(ScriptEngine engine, Map<String, ?> context) {
+        ScriptContext engineContext = engine.getContext();
+        ScriptContext executionContext = new SimpleScriptContext();
+        executionContext.setReader(engineContext.getReader());
+        executionContext.setWriter(engineContext.getWriter());
+        executionContext.setErrorWriter(engineContext.getErrorWriter());
+        executionContext.setBindings(engine.getBindings(ScriptContext.ENGINE_SCOPE), ScriptContext.GLOBAL_SCOPE);
 
-            final HashMap<String, Object> jsonObj = new HashMap<String, Object>();
-            Object value = entry.getValue();
+        Bindings bindings = engine.createBindings();
+        // keys like "trigger.event" are grouped into one map per prefix, i.e. trigger = { event: ... }
+        Map<String, Map<String, Object>> jsonObjs = null;
+        for (Entry<String, ?> entry : context.entrySet()) {
             String key = entry.getKey();
             int dotIndex = key.indexOf('.');
             if (dotIndex != -1) {
-                String jsonKey = key.substring(dotIndex + 1);
-                key = key.substring(0, dotIndex);
-                jsonObj.put(jsonKey, value);
-                executionContext.setAttribute(key, jsonObj, ScriptContext.ENGINE_SCOPE);
+                if (jsonObjs == null) {
+                    jsonObjs = new HashMap<String, Map<String, Object>>();
+                }
+                String prefix = key.substring(0, dotIndex);
+                Map<String, Object> jsonObj = jsonObjs.get(prefix);
+                if (jsonObj == null) {
+                    jsonObj = new HashMap<String, Object>();
+                    jsonObjs.put(prefix, jsonObj);
+                }
+                jsonObj.put(key.substring(dotIndex + 1), entry.getValue());
             } else {
-                executionContext.setAttribute(key, value, ScriptContext.ENGINE_SCOPE);
+                bindings.put(key, entry.getValue());
             }
         }
+        if (jsonObjs != null) {
+            bindings.putAll(jsonObjs);
+        }
+        executionContext.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
         return executionContext;
     }
 
+    /**
+     * Gets the compile and evaluation times of the script of the module.
+     *
+     * @param ruleUID the UID of the rule of the module
+     * @return a snapshot of the statistics of the module
+     */
+    public ScriptModuleStatistics getStatistics(String ruleUID) {
+        long count = evaluations.get();
+        double averageEvalTime = count == 0 ? 0
+                : (evalTime.get() / (double) count) / TimeUnit.MILLISECONDS.toNanos(1);
+        return new ScriptModuleStatistics(ruleUID, module.getId(), compilations.get(),
+                TimeUnit.NANOSECONDS.toMillis(compileTime), count, averageEvalTime,
+                TimeUnit.NANOSECONDS.toMillis(maxEvalTime.get()));
+    }
+
 }
@@ -93,6 +93,7 @@ public class RuleResource implements RESTResource {
         EnrichedRuleDTO enrichedRule = new EnrichedRuleDTO(rule);
         enrichedRule.enabled = ruleRegistry.isEnabled(rule.getUID());
         enrichedRule.status = ruleRegistry.getStatus(rule.getUID());
+        enrichedRule.statistics = ruleRegistry.getExecutionStatistics(rule.getUID());
         return enrichedRule;
     }
 
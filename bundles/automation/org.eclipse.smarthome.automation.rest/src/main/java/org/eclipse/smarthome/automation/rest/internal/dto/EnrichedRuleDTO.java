@@ -8,6 +8,7 @@
 package org.eclipse.smarthome.automation.rest.internal.dto;
 
 import org.eclipse.smarthome.automation.Rule;
+import org.eclipse.smarthome.automation.RuleExecutionStatistics;
 import org.eclipse.smarthome.automation.RuleStatusInfo;
 
 /**
@@ -20,6 +21,7 @@ public class EnrichedRuleDTO extends Rule {
 
     public boolean enabled;
     public RuleStatusInfo status;
+    public RuleExecutionStatistics statistics;
 
     public EnrichedRuleDTO(Rule rule) {
         this.actions = rule.getActions();
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.events;
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.atomic.AtomicInteger
+
+import org.junit.Test
+
+import com.google.common.base.Supplier
+
+/**
+ * {@link AbstractEventTest} tests the lazily built payload of the {@link AbstractEvent}.
+ *
+ * @author agent - Initial contribution
+ */
+class AbstractEventTest {
+
+    class LazyEvent extends AbstractEvent {
+        LazyEvent(Supplier<String> payloadSupplier) {
+            super("smarthome/some/topic", payloadSupplier, null)
+        }
+
+        String getType() {
+            return "SOME_EVENT_TYPE"
+        }
+    }
+
+    @Test
+    void 'AbstractEvent builds the payload only once for concurrent requests'() {
+        def builds = new AtomicInteger()
+        def start = new CountDownLatch(1)
+        def event = new LazyEvent({
+            builds.incrementAndGet()
+            Thread.sleep(50)
+            "{\"some\":\"payload\"}"
+        } as Supplier)
+
+        def payloads = [].asSynchronized()
+        def threads = (1..8).collect {
+            Thread.start {
+                start.await()
+                payloads << event.getPayload()
+            }
+        }
+        start.countDown()
+        threads*.join()
+
+        assertThat builds.get(), is(1)
+        assertThat payloads.size(), is(8)
+        assertThat payloads.unique().size(), is(1)
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.internal.events
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import java.util.concurrent.Executor
+
+import org.eclipse.smarthome.core.events.Event
+import org.eclipse.smarthome.core.events.EventSubscriber
+import org.junit.Test
+
+/**
+ * The {@link EventSubscriberMailboxTest} tests the ordering, the overflow handling and the draining of the
+ * {@link EventSubscriberMailbox}.
+ *
+ * @author agent - Initial contribution
+ */
+class EventSubscriberMailboxTest {
+
+    List<Runnable> scheduledRuns = []
+    List<String> receivedTopics = []
+
+    Executor executor = { Runnable runnable -> scheduledRuns.add(runnable) } as Executor
+    EventSubscriber subscriber = [
+        receive: { Event event -> receivedTopics.add(event.getTopic()) },
+        getSubscribedEventTypes: { [EventSubscriber.ALL_EVENT_TYPES] as Set },
+        getEventFilter: { null }
+    ] as EventSubscriber
+
+    @Test
+    void 'EventSubscriberMailbox delivers the events in the order they have been offered'() {
+        def mailbox = new EventSubscriberMailbox(subscriber, executor, 10)
+
+        assertThat mailbox.offer(event("a")), is(true)
+        assertThat mailbox.offer(event("b")), is(true)
+        assertThat mailbox.offer(event("c")), is(true)
+
+        assertThat scheduledRuns.size(), is(1)
+        runScheduled()
+
+        assertThat receivedTopics, is(["a", "b", "c"])
+        assertThat mailbox.getStatistics().getDeliveredEvents(), is(3L)
+        assertThat mailbox.getStatistics().getQueuedEvents(), is(0)
+    }
+
+    @Test
+    void 'EventSubscriberMailbox drops and counts events if it is full'() {
+        def mailbox = new EventSubscriberMailbox(subscriber, executor, 2)
+
+        assertThat mailbox.offer(event("a")), is(true)
+        assertThat mailbox.offer(event("b")), is(true)
+        assertThat mailbox.offer(event("c")), is(false)
+
+        def statistics = mailbox.getStatistics()
+        assertThat statistics.getQueuedEvents(), is(2)
+        assertThat statistics.getDroppedEvents(), is(1L)
+
+        runScheduled()
+        assertThat receivedTopics, is(["a", "b"])
+
+        assertThat mailbox.offer(event("d")), is(true)
+        runScheduled()
+        assertThat receivedTopics, is(["a", "b", "d"])
+        assertThat mailbox.getStatistics().getDroppedEvents(), is(1L)
+    }
+
+    @Test
+    void 'EventSubscriberMailbox applies a changed capacity to new events only'() {
+        def mailbox = new EventSubscriberMailbox(subscriber, executor, 3)
+        mailbox.offer(event("a"))
+        mailbox.offer(event("b"))
+        mailbox.offer(event("c"))
+
+        mailbox.setCapacity(1)
+        assertThat mailbox.offer(event("d")), is(false)
+        assertThat mailbox.getStatistics().getQueuedEvents(), is(3)
+
+        runScheduled()
+        mailbox.setCapacity(5)
+        assertThat mailbox.offer(event("e")), is(true)
+        runScheduled()
+
+        assertThat receivedTopics, is(["a", "b", "c", "e"])
+    }
+
+    @Test
+    void 'EventSubscriberMailbox hands the thread back after a bounded number of events and reschedules itself'() {
+        def mailbox = new EventSubscriberMailbox(subscriber, executor, 1000)
+        100.times { mailbox.offer(event("topic" + it)) }
+        assertThat scheduledRuns.size(), is(1)
+
+        scheduledRuns.remove(0).run()
+        assertThat receivedTopics.size(), is(64)
+        assertThat scheduledRuns.size(), is(1)
+
+        scheduledRuns.remove(0).run()
+        assertThat receivedTopics.size(), is(100)
+        assertThat receivedTopics, is((0..99).collect { "topic" + it })
+        assertThat scheduledRuns.size(), is(0)
+    }
+
+    @Test
+    void 'EventSubscriberMailbox is scheduled again for events offered after it has been drained'() {
+        def mailbox = new EventSubscriberMailbox(subscriber, executor, 10)
+        mailbox.offer(event("a"))
+        runScheduled()
+
+        mailbox.offer(event("b"))
+        assertThat scheduledRuns.size(), is(1)
+        runScheduled()
+
+        assertThat receivedTopics, is(["a", "b"])
+    }
+
+    @Test
+    void 'EventSubscriberMailbox keeps delivering if the subscriber throws an exception'() {
+        def failingSubscriber = [
+            receive: { Event event ->
+                receivedTopics.add(event.getTopic())
+                throw new IllegalStateException("failure")
+            },
+            getSubscribedEventTypes: { [EventSubscriber.ALL_EVENT_TYPES] as Set },
+            getEventFilter: { null }
+        ] as EventSubscriber
+        def mailbox = new EventSubscriberMailbox(failingSubscriber, executor, 10)
+        mailbox.offer(event("a"))
+        mailbox.offer(event("b"))
+
+        runScheduled()
+
+        assertThat receivedTopics, is(["a", "b"])
+        assertThat mailbox.getStatistics().getDeliveredEvents(), is(2L)
+    }
+
+    private void runScheduled() {
+        while (!scheduledRuns.isEmpty()) {
+            scheduledRuns.remove(0).run()
+        }
+    }
+
+    private Event event(String topic) {
+        return [
+            getTopic: { topic },
+            getType: { "TestEvent" },
+            getPayload: { "{}" },
+            getSource: { null }
+        ] as Event
+    }
+}
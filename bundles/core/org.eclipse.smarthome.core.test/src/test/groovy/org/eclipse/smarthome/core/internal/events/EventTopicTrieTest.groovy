@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.internal.events
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import org.junit.Test
+
+/**
+ * The {@link EventTopicTrieTest} tests the topic matching of the {@link EventTopicTrie}.
+ *
+ * @author agent - Initial contribution
+ */
+class EventTopicTrieTest {
+
+    EventTopicTrie<String> trie = new EventTopicTrie<String>()
+
+    @Test
+    void 'EventTopicTrie matches exact topics'() {
+        trie.add("smarthome/items/Light/state", "A")
+        trie.add("smarthome/items/Switch/state", "B")
+
+        assertThat collect("smarthome/items/Light/state"), is(["A"] as Set)
+        assertThat collect("smarthome/items/Light/command"), is([] as Set)
+        assertThat collect("smarthome/items/Light"), is([] as Set)
+    }
+
+    @Test
+    void 'EventTopicTrie matches single segment wildcards'() {
+        trie.add("smarthome/items/*/state", "A")
+
+        assertThat collect("smarthome/items/Light/state"), is(["A"] as Set)
+        assertThat collect("smarthome/items/Switch/state"), is(["A"] as Set)
+        assertThat collect("smarthome/items/Switch/command"), is([] as Set)
+        assertThat collect("smarthome/items/Group/Member/state"), is([] as Set)
+    }
+
+    @Test
+    void 'EventTopicTrie matches trailing wildcards'() {
+        trie.add("smarthome/*", "A")
+        trie.add("smarthome/items/*", "B")
+        trie.add("*", "C")
+
+        assertThat collect("smarthome/items/Light/state"), is(["A", "B", "C"] as Set)
+        assertThat collect("smarthome/things/hue:bulb:1/status"), is(["A", "C"] as Set)
+        assertThat collect("smarthome/items"), is(["A", "C"] as Set)
+        assertThat collect("other/topic"), is(["C"] as Set)
+    }
+
+    @Test
+    void 'EventTopicTrie returns values matching several patterns once per pattern'() {
+        trie.add("smarthome/*", "A")
+        trie.add("smarthome/items/*/state", "A")
+
+        List<String> result = new ArrayList<String>()
+        trie.collect("smarthome/items/Light/state", result)
+
+        assertThat result, is(["A", "A"])
+    }
+
+    private Set<String> collect(String topic) {
+        Set<String> result = new HashSet<String>()
+        trie.collect(topic, result)
+        return result
+    }
+}
@@ -13,6 +13,9 @@ import org.junit.After
 import org.junit.Before
 import org.junit.Test
 import org.osgi.framework.ServiceRegistration
+import org.osgi.service.component.ComponentContext
+import org.osgi.service.event.EventConstants
+import org.osgi.service.event.EventHandler
 
 import com.google.common.collect.Sets
 
@@ -21,6 +24,7 @@ import com.google.common.collect.Sets
  * The {@link OSGiEventManagerOSGiTest} runs inside an OSGi container and tests the {@link OSGiEventManager}.
  *
  * @author Stefan Bußweiler - Initial contribution
+ * @author agent - Added the local dispatch tests
  */
 class OSGiEventManagerOSGiTest extends OSGiTest {
 
@@ -94,6 +98,7 @@ class OSGiEventManagerOSGiTest extends OSGiTest {
 
     @After
     public void cleanUp() {
+        setLocalDispatch(null)
         serviceRegistrations.each() { name, service ->
             service.unregister()
         }
@@ -216,6 +221,63 @@ class OSGiEventManagerOSGiTest extends OSGiTest {
         }
     }
 
+    @Test
+    void 'OSGiEventManager dispatches the posted event object without its payload if local dispatch is enabled'() {
+        def osgiEvents = []
+        def eventHandler = [
+            handleEvent: { osgiEvent -> osgiEvents << osgiEvent }
+        ] as EventHandler
+        serviceRegistrations.put("EVENT_HANDLER", bundleContext.registerService(EventHandler, eventHandler,
+                new Hashtable([(EventConstants.EVENT_TOPIC): "smarthome"])))
+
+        setLocalDispatch("true")
+        def payloadRequests = 0
+        Event typeAEvent = [ getType: { EVENT_TYPE_A }, getPayload: { payloadRequests++; "{a: 'A'}" },
+            getTopic: { "smarthome/some/topic" }, getSource: { null } ] as Event
+        eventPublisher.post(typeAEvent)
+
+        waitForAssert {assertThat receivedEvent_TypeBasedSubscriber1, is(sameInstance(typeAEvent))}
+        waitForAssert {assertThat osgiEvents.size(), is(1)}
+        // the payload is neither validated nor passed on to other OSGi event handlers
+        assertThat osgiEvents[0].getProperty("payload"), is(nullValue())
+        assertThat payloadRequests, is(0)
+    }
+
+    @Test
+    void 'OSGiEventManager disables local dispatch if the property is removed'() {
+        setLocalDispatch("true")
+        setLocalDispatch(null)
+        Event typeAEvent = createEvent(EVENT_TYPE_A)
+        eventPublisher.post(typeAEvent)
+
+        waitForAssert {assertThat receivedEvent_TypeBasedSubscriber1, not(null)}
+        assertThat receivedEvent_TypeBasedSubscriber1, is(not(sameInstance(typeAEvent)))
+        assertThat receivedEvent_TypeBasedSubscriber1.getPayload(), is(typeAEvent.getPayload())
+    }
+
+    @Test
+    void 'OSGiEventManager validates the payload only if local dispatch is disabled'() {
+        try {
+            eventPublisher.post(createEvent(EVENT_TYPE_A, null, "smarthome/some/topic"))
+            fail("IllegalArgumentException expected!")
+        } catch(IllegalArgumentException e) {
+            assertThat e.getMessage(), is("The payload of the 'event' argument must not be null or empty.")
+        }
+
+        setLocalDispatch("true")
+        Event typeAEvent = createEvent(EVENT_TYPE_A, null, "smarthome/some/topic")
+        eventPublisher.post(typeAEvent)
+        waitForAssert {assertThat receivedEvent_TypeBasedSubscriber1, is(sameInstance(typeAEvent))}
+    }
+
+    private void setLocalDispatch(String localDispatch) {
+        def properties = new Hashtable()
+        if (localDispatch != null) {
+            properties.put("localDispatch", localDispatch)
+        }
+        eventPublisher.modified([getProperties: { properties }] as ComponentContext)
+    }
+
     private Event createEvent(String eventType) {
         createEvent(eventType, "{a: 'A', b: 'B'}", "smarthome/some/topic")
     }
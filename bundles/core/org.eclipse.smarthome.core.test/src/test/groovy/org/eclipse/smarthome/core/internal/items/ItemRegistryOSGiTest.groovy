@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.internal.items
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import org.eclipse.smarthome.core.items.ItemNotFoundException
+import org.eclipse.smarthome.core.items.ItemRegistry
+import org.eclipse.smarthome.core.library.items.NumberItem
+import org.eclipse.smarthome.core.library.items.SwitchItem
+import org.eclipse.smarthome.test.OSGiTest
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * The {@link ItemRegistryOSGiTest} runs inside an OSGi container and tests the indexed lookups of the
+ * {@link ItemRegistry}.
+ *
+ * @author agent - Initial contribution
+ */
+class ItemRegistryOSGiTest extends OSGiTest {
+
+    ItemRegistry itemRegistry
+
+    @Before
+    void setUp() {
+        registerVolatileStorageService()
+        itemRegistry = getService(ItemRegistry)
+
+        def switchItem = new SwitchItem("indexedSwitch")
+        switchItem.addTags("Lighting", "Kitchen")
+        itemRegistry.add(switchItem)
+
+        def numberItem = new NumberItem("indexedNumber")
+        numberItem.addTags("Kitchen")
+        itemRegistry.add(numberItem)
+    }
+
+    @After
+    void tearDown() {
+        itemRegistry.remove("indexedSwitch")
+        itemRegistry.remove("indexedNumber")
+    }
+
+    @Test
+    void 'ItemRegistry finds items by name'() {
+        assertThat itemRegistry.getItem("indexedSwitch").getName(), is("indexedSwitch")
+        assertThat itemRegistry.get("unknownItem"), is(nullValue())
+        try {
+            itemRegistry.getItem("unknownItem")
+            fail("ItemNotFoundException expected!")
+        } catch (ItemNotFoundException e) {
+        }
+    }
+
+    @Test
+    void 'ItemRegistry finds items by type and tag'() {
+        assertThat itemRegistry.getItemsOfType("Switch").collect { it.name }, hasItem("indexedSwitch")
+        assertThat itemRegistry.getItemsOfType("Switch").collect { it.name }, not(hasItem("indexedNumber"))
+
+        assertThat itemRegistry.getItemsByTag("Kitchen").collect { it.name } as Set, is(["indexedSwitch", "indexedNumber"] as Set)
+        assertThat itemRegistry.getItemsByTag("Kitchen", "Lighting").collect { it.name }, is(["indexedSwitch"])
+        assertThat itemRegistry.getItemsByTag("Kitchen", "Unknown").isEmpty(), is(true)
+        assertThat itemRegistry.getItemsByTagAndType("Number", "Kitchen").collect { it.name }, is(["indexedNumber"])
+    }
+
+    @Test
+    void 'ItemRegistry finds items by name prefix in the order of their names'() {
+        assertThat itemRegistry.getItemsByNamePrefix("indexed").collect { it.name }, is(["indexedNumber", "indexedSwitch"])
+        assertThat itemRegistry.getItemsByNamePrefix("indexedS").collect { it.name }, is(["indexedSwitch"])
+        assertThat itemRegistry.getItemsByNamePrefix("indexedX").isEmpty(), is(true)
+
+        itemRegistry.remove("indexedNumber")
+        assertThat itemRegistry.getItemsByNamePrefix("indexed").collect { it.name }, is(["indexedSwitch"])
+    }
+
+    @Test
+    void 'ItemRegistry updates the index on item updates and removals'() {
+        def switchItem = new SwitchItem("indexedSwitch")
+        switchItem.addTags("Lighting")
+        itemRegistry.update(switchItem)
+
+        assertThat itemRegistry.getItemsByTag("Kitchen").collect { it.name }, is(["indexedNumber"])
+        assertThat itemRegistry.getItemsByTag("Lighting").collect { it.name }, is(["indexedSwitch"])
+
+        itemRegistry.remove("indexedNumber")
+        assertThat itemRegistry.get("indexedNumber"), is(nullValue())
+        assertThat itemRegistry.getItemsByTag("Kitchen").isEmpty(), is(true)
+    }
+}
@@ -15,7 +15,9 @@ import org.eclipse.smarthome.core.events.EventPublisher
 import org.eclipse.smarthome.core.items.events.ItemEventFactory
 import org.eclipse.smarthome.core.items.events.ItemStateChangedEvent
 import org.eclipse.smarthome.core.items.events.ItemStateEvent
+import org.eclipse.smarthome.core.library.types.DecimalType
 import org.eclipse.smarthome.core.library.types.RawType
+import org.eclipse.smarthome.core.types.State
 import org.junit.Before
 import org.junit.Test
 
@@ -87,4 +89,72 @@ class GenericItemTest {
         def item = new TestItem("member1")
         item.removeGroupName(null)
     }
+
+    @Test
+    void 'assert that listeners are notified in order and coalescing listeners about the latest state'() {
+        def item = new TestItem("member1")
+        List<State> updates = Collections.synchronizedList([])
+        List<State> latestUpdates = Collections.synchronizedList([])
+        item.addStateChangeListener([
+            stateChanged : { i, oldState, newState -> },
+            stateUpdated : { i, state -> updates.add(state) }
+        ] as StateChangeListener)
+        item.addStateChangeListener([
+            stateChanged : { i, oldState, newState -> },
+            stateUpdated : { i, state -> latestUpdates.add(state) }
+        ] as CoalescingStateChangeListener)
+
+        (1..100).each { item.setState(new DecimalType(it)) }
+
+        waitForAssert {
+            assertThat updates.size(), is(100)
+            assertThat latestUpdates.last(), is(new DecimalType(100))
+            assertThat item.getStateNotifier().getDeliveredNotifications(), is(100L)
+        }
+        assertThat updates, is((1..100).collect { new DecimalType(it) })
+        assertThat latestUpdates.size() <= 100, is(true)
+
+        def notifier = item.getStateNotifier()
+        assertThat notifier.getDeliveredNotifications(), is(100L)
+        assertThat notifier.getCoalescedNotifications(), is(100L - latestUpdates.size())
+        assertThat notifier.getQueueSize(), is(0)
+    }
+
+    @Test
+    void 'assert that the state notification statistics are published'() {
+        def item = new TestItem("member1")
+        item.addStateChangeListener([
+            stateChanged : { i, oldState, newState -> },
+            stateUpdated : { i, state -> }
+        ] as StateChangeListener)
+
+        (1..10).each { item.setState(new DecimalType(it)) }
+
+        waitForAssert {
+            assertThat item.getStateNotificationStatistics().getDeliveredNotifications(), is(10L)
+        }
+        def stats = item.getStateNotificationStatistics()
+        assertThat stats.getItemName(), is("member1")
+        assertThat stats.getQueuedNotifications(), is(0)
+        assertThat stats.getCoalescedNotifications(), is(0L)
+        assertThat stats.getMaxLatency() >= 0, is(true)
+    }
+
+    /**
+     * Polls the assertion until it is fulfilled or the timeout of 10 seconds is reached.
+     */
+    private void waitForAssert(Closure<?> assertion) {
+        long timeout = System.currentTimeMillis() + 10000
+        while (true) {
+            try {
+                assertion()
+                return
+            } catch (AssertionError error) {
+                if (System.currentTimeMillis() > timeout) {
+                    throw error
+                }
+                sleep 50
+            }
+        }
+    }
 }
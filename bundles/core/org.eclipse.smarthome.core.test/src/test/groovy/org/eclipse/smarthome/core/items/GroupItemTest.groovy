@@ -16,6 +16,8 @@ import org.eclipse.smarthome.core.items.events.GroupItemStateChangedEvent
 import org.eclipse.smarthome.core.items.events.ItemEventFactory
 import org.eclipse.smarthome.core.library.items.NumberItem
 import org.eclipse.smarthome.core.library.items.SwitchItem
+import org.eclipse.smarthome.core.library.types.ArithmeticGroupFunction
+import org.eclipse.smarthome.core.library.types.DecimalType
 import org.eclipse.smarthome.core.library.types.RawType
 import org.eclipse.smarthome.core.types.RefreshType
 import org.eclipse.smarthome.test.OSGiTest
@@ -117,4 +119,26 @@ class GroupItemTest extends OSGiTest {
         member.setState(member.getState())
         assertThat events.size(), is(0)
     }
+
+    @Test
+    void 'assert that group state is updated incrementally on member updates and membership changes'() {
+        GroupItem groupItem = new GroupItem("sum", new NumberItem("base"), new ArithmeticGroupFunction.Sum())
+        def member1 = new NumberItem("member1")
+        def member2 = new NumberItem("member2")
+        groupItem.addMember(member1)
+        groupItem.addMember(member2)
+
+        member1.setState(new DecimalType(2))
+        member2.setState(new DecimalType(3))
+        waitForAssert {
+            assertThat groupItem.getState(), is(new DecimalType(5))
+        }
+
+        groupItem.removeMember(member1)
+        member2.setState(new DecimalType(4))
+        waitForAssert {
+            assertThat groupItem.getState(), is(new DecimalType(4))
+        }
+        assertThat groupItem.getStateAs(DecimalType), is(new DecimalType(4))
+    }
 }
@@ -186,4 +186,18 @@ class ItemEventFactoryTest extends OSGiTest {
         assertThat event.getItem().name, is(ITEM_NAME)
         assertThat event.getItem().type, is("SwitchItem")
     }
+
+    @Test
+    void 'ItemEventFactory builds the payload of item events once on first access'() {
+        ItemStateChangedEvent event = ItemEventFactory.createStateChangedEvent(ITEM_NAME, NEW_ITEM_STATE, ITEM_STATE)
+
+        def payload = event.getPayload()
+        assertThat payload, is(ITEM_STATE_CHANGED_EVENT_PAYLOAD)
+        assertThat event.getPayload(), is(sameInstance(payload))
+
+        ItemCommandEvent commandEvent = ItemEventFactory.createCommandEvent(ITEM_NAME, ITEM_COMMAND, SOURCE)
+        payload = commandEvent.getPayload()
+        assertThat payload, is(ITEM_COMMAND_EVENT_PAYLOAD)
+        assertThat commandEvent.getPayload(), is(sameInstance(payload))
+    }
 }
@@ -9,12 +9,15 @@ package org.eclipse.smarthome.core.library.types;
 
 import static org.junit.Assert.assertEquals;
 
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.GroupFunction;
+import org.eclipse.smarthome.core.items.IncrementalGroupFunction;
+import org.eclipse.smarthome.core.items.IncrementalGroupFunction.Aggregate;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.library.items.DimmerItem;
 import org.eclipse.smarthome.core.library.items.SwitchItem;
@@ -201,6 +204,111 @@ public class ArithmeticGroupFunctionTest {
         assertEquals(new DecimalType("234.95"), state);
     }
 
+    @Test
+    public void testAvgAggregate() {
+        TestItem item1 = new TestItem("TestItem1", new DecimalType("1.25"));
+        TestItem item2 = new TestItem("TestItem2", new DecimalType("2"));
+        TestItem item3 = new TestItem("TestItem3", UnDefType.UNDEF);
+
+        function = new ArithmeticGroupFunction.Avg();
+        Aggregate<?> aggregate = ((IncrementalGroupFunction) function).createAggregate();
+        aggregate.addItem(item1);
+        aggregate.addItem(item2);
+        aggregate.addItem(item3);
+        assertEquals(new DecimalType("1.63"), aggregate.getState());
+
+        item3.setState(new DecimalType("6"));
+        aggregate.updateItem(item3);
+        assertEquals(new DecimalType("3.08"), aggregate.getState());
+
+        aggregate.removeItem(item1);
+        item2.setState(new DecimalType("3"));
+        aggregate.updateItem(item2);
+        items.add(item2);
+        items.add(item3);
+        assertEquals(function.calculate(items).toString(), aggregate.getState().toString());
+    }
+
+    @Test
+    public void testMinMaxAggregate() {
+        TestItem item1 = new TestItem("TestItem1", new DecimalType("5"));
+        TestItem item2 = new TestItem("TestItem2", new DecimalType("-3"));
+        TestItem item3 = new TestItem("TestItem3", new DecimalType("-3"));
+
+        Aggregate<?> min = new ArithmeticGroupFunction.Min().createAggregate();
+        Aggregate<?> max = new ArithmeticGroupFunction.Max().createAggregate();
+        for (Item item : new Item[] { item1, item2, item3 }) {
+            min.addItem(item);
+            max.addItem(item);
+        }
+        assertEquals(new DecimalType("-3"), min.getState());
+        assertEquals(new DecimalType("5"), max.getState());
+
+        item2.setState(UnDefType.UNDEF);
+        min.updateItem(item2);
+        max.updateItem(item2);
+        assertEquals(new DecimalType("-3"), min.getState());
+
+        min.removeItem(item3);
+        max.removeItem(item1);
+        assertEquals(new DecimalType("5"), min.getState());
+        assertEquals(new DecimalType("-3"), max.getState());
+
+        max.removeItem(item3);
+        assertEquals(UnDefType.UNDEF, max.getState());
+    }
+
+    @Test
+    public void testDecimalAggregatesKeepTheScaleOfTheFullCalculation() {
+        TestItem item1 = new TestItem("TestItem1", new DecimalType("1.00"));
+        TestItem item2 = new TestItem("TestItem2", new DecimalType("1.0"));
+        TestItem item3 = new TestItem("TestItem3", new DecimalType("2.125"));
+        TestItem item4 = new TestItem("TestItem4", new DecimalType(new BigDecimal("1E+1")));
+
+        GroupFunction[] functions = new GroupFunction[] { new ArithmeticGroupFunction.Sum(),
+                new ArithmeticGroupFunction.Avg(), new ArithmeticGroupFunction.Min(),
+                new ArithmeticGroupFunction.Max() };
+        for (GroupFunction groupFunction : functions) {
+            Aggregate<?> aggregate = ((IncrementalGroupFunction) groupFunction).createAggregate();
+            items.clear();
+            for (TestItem item : new TestItem[] { item1, item2, item3, item4 }) {
+                aggregate.addItem(item);
+                items.add(item);
+            }
+
+            // 1.00 has been added first, but must not show up in the minimum any more
+            aggregate.removeItem(item1);
+            items.remove(item1);
+            assertEquals(groupFunction.calculate(items).toString(), aggregate.getState().toString());
+
+            aggregate.removeItem(item3);
+            items.remove(item3);
+            assertEquals(groupFunction.calculate(items).toString(), aggregate.getState().toString());
+
+            aggregate.removeItem(item4);
+            items.remove(item4);
+            assertEquals(groupFunction.calculate(items).toString(), aggregate.getState().toString());
+        }
+    }
+
+    @Test
+    public void testAndAggregate() {
+        TestItem item1 = new TestItem("TestItem1", OpenClosedType.OPEN);
+        TestItem item2 = new TestItem("TestItem2", OpenClosedType.CLOSED);
+
+        Aggregate<?> aggregate = new ArithmeticGroupFunction.And(OpenClosedType.OPEN, OpenClosedType.CLOSED)
+                .createAggregate();
+        aggregate.addItem(item1);
+        aggregate.addItem(item2);
+        assertEquals(OpenClosedType.CLOSED, aggregate.getState());
+        assertEquals(new DecimalType("1"), aggregate.getStateAs(DecimalType.class));
+
+        item2.setState(OpenClosedType.OPEN);
+        aggregate.updateItem(item2);
+        assertEquals(OpenClosedType.OPEN, aggregate.getState());
+        assertEquals(new DecimalType("0"), aggregate.getStateAs(DecimalType.class));
+    }
+
     class TestItem extends GenericItem {
 
         public TestItem(String name, State state) {
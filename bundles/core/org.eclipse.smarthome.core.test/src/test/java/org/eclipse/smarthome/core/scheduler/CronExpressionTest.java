@@ -56,4 +56,55 @@ public class CronExpressionTest {
 
         assertEquals(checkDate, nextDate);
     }
+
+    @Test
+    public void getTimeAfterWeekDaysCheck() throws ParseException {
+        Calendar cal = Calendar.getInstance();
+        cal.set(2016, 0, 1, 0, 0, 0); // set to Jan 1st 2016, 00:00, a Friday
+        Date startDate = cal.getTime();
+
+        // Fire at 10:15am every Monday through Friday
+        CronExpression expr = new CronExpression("0 15 10 ? * MON-FRI", startDate);
+
+        Date nextDate = expr.getTimeAfter(startDate);
+        cal.set(2016, 0, 1, 10, 15, 0);
+        assertEquals(cal.getTime(), nextDate);
+
+        nextDate = expr.getTimeAfter(nextDate);
+        cal.set(2016, 0, 4, 10, 15, 0);
+        assertEquals(cal.getTime(), nextDate);
+    }
+
+    @Test
+    public void getTimeAfterLastWeekDayCheck() throws ParseException {
+        Calendar cal = Calendar.getInstance();
+        cal.set(2016, 0, 1, 0, 0, 0); // set to Jan 1st 2016, 00:00
+        Date startDate = cal.getTime();
+
+        // Fire at midnight on the last weekday of every month
+        CronExpression expr = new CronExpression("0 0 0 LW * ?", startDate);
+
+        Date nextDate = expr.getTimeAfter(startDate);
+        cal.set(2016, 0, 29, 0, 0, 0); // Jan 31st 2016 is a Sunday
+        assertEquals(cal.getTime(), nextDate);
+
+        nextDate = expr.getTimeAfter(nextDate);
+        cal.set(2016, 1, 29, 0, 0, 0);
+        assertEquals(cal.getTime(), nextDate);
+    }
+
+    @Test
+    public void getTimeAfterManySecondsCheck() throws ParseException {
+        Calendar cal = Calendar.getInstance();
+        cal.set(2016, 0, 1, 0, 0, 0); // set to Jan 1st 2016, 00:00
+        Date startDate = cal.getTime();
+
+        // Fire every two seconds, far beyond the start date
+        CronExpression expr = new CronExpression("0/2 * * * * ?", startDate);
+
+        cal.set(2030, 5, 30, 23, 59, 59);
+        Date nextDate = expr.getTimeAfter(cal.getTime());
+        cal.set(2030, 6, 1, 0, 0, 0);
+        assertEquals(cal.getTime(), nextDate);
+    }
 }
\ No newline at end of file
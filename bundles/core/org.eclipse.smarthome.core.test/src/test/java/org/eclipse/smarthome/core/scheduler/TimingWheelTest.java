@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.scheduler;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.core.scheduler.TimingWheel.Timeout;
+import org.junit.Test;
+
+public class TimingWheelTest {
+
+    private static final long TICK = 100;
+
+    @Test
+    public void timeoutsExpireAtTheirDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<String>(TICK, 0);
+        wheel.add(250, "a");
+        wheel.add(1000, "b");
+        assertEquals(2, wheel.size());
+
+        assertEquals(Collections.emptyList(), wheel.advance(100));
+        assertEquals(Collections.emptyList(), wheel.advance(299));
+        assertEquals(Arrays.asList("a"), wheel.advance(300));
+        assertEquals(Collections.emptyList(), wheel.advance(999));
+        assertEquals(Arrays.asList("b"), wheel.advance(1000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void timeoutsDoNotExpireBeforeTheirDeadline() {
+        TimingWheel<Long> wheel = new TimingWheel<Long>(TICK, 0);
+        wheel.add(250, 250L);
+        assertEquals(Collections.emptyList(), wheel.advance(200));
+
+        for (long deadline = 251; deadline <= 1000; deadline += 7) {
+            wheel.add(deadline, deadline);
+        }
+        for (long now = 200; now <= 1100; now += 13) {
+            for (Long deadline : wheel.advance(now)) {
+                assertTrue(deadline <= now);
+                assertTrue(now < deadline + 2 * TICK);
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void pastDeadlinesExpireWithTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<String>(TICK, 1000);
+        wheel.add(0, "a");
+        assertEquals(Collections.emptyList(), wheel.advance(1000));
+        assertEquals(Arrays.asList("a"), wheel.advance(1100));
+    }
+
+    @Test
+    public void timeoutsOnHigherLevelsAreCascaded() {
+        TimingWheel<Long> wheel = new TimingWheel<Long>(TICK, 0);
+        // one timeout per level
+        long[] deadlines = new long[] { 5 * TICK, 300 * TICK, 70000 * TICK, 20000000 * TICK };
+        for (long deadline : deadlines) {
+            wheel.add(deadline, deadline);
+        }
+        for (long deadline : deadlines) {
+            assertEquals(Collections.emptyList(), wheel.advance(deadline - TICK));
+            assertEquals(Arrays.asList(deadline), wheel.advance(deadline));
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void cancelledTimeoutsDoNotExpire() {
+        TimingWheel<String> wheel = new TimingWheel<String>(TICK, 0);
+        Timeout<String> a = wheel.add(500, "a");
+        wheel.add(500, "b");
+        Timeout<String> c = wheel.add(100000, "c");
+
+        assertTrue(wheel.cancel(a));
+        assertFalse(wheel.cancel(a));
+        assertTrue(wheel.cancel(c));
+        assertEquals(1, wheel.size());
+
+        assertEquals(Arrays.asList("b"), wheel.advance(200000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void manyTimeoutsExpireInOrder() {
+        TimingWheel<Integer> wheel = new TimingWheel<Integer>(TICK, 0);
+        int count = 10000;
+        for (int i = count - 1; i >= 0; i--) {
+            wheel.add((i + 1) * 7 * TICK, i);
+        }
+        int expected = 0;
+        for (long now = 0; now <= (count + 1) * 7 * TICK; now += 3 * TICK) {
+            List<Integer> expired = wheel.advance(now);
+            for (Integer value : expired) {
+                assertEquals(expected++, value.intValue());
+            }
+        }
+        assertEquals(count, expected);
+    }
+
+}
@@ -36,4 +36,48 @@ class UIDTest {
         assertThat channelUID.getId(), is("group#id")
         assertThat channelUID.getIdWithoutGroup(), is("id")
     }
+
+    @Test(expected=IllegalArgumentException)
+    void 'channel UID cannot be constructed with invalid characters'() {
+        new ChannelUID("binding:thing-type:thing:group#id.1")
+    }
+
+    @Test
+    void 'channel UID shares its thing UID'() {
+        def thingUID = new ThingUID("binding:thing-type:thing")
+        def channelUID = new ChannelUID(thingUID, "group", "id")
+        assertThat channelUID.getThingUID(), is(sameInstance(thingUID))
+
+        def parsedChannelUID = new ChannelUID("binding:thing-type:thing:group#id")
+        assertThat parsedChannelUID.getThingUID(), is(equalTo(thingUID))
+        assertThat parsedChannelUID.getThingUID(), is(sameInstance(parsedChannelUID.getThingUID()))
+        assertThat parsedChannelUID, is(equalTo(channelUID))
+        assertThat parsedChannelUID.hashCode(), is(channelUID.hashCode())
+        assertThat parsedChannelUID.toString(), is(sameInstance(parsedChannelUID.toString()))
+    }
+
+    @Test
+    void 'UIDs with different segments are not equal'() {
+        assertThat new ThingUID("binding:type:id"), is(not(equalTo(new ThingUID("binding:type:id2"))))
+        assertThat new ThingUID("binding:type:id"), is(not(equalTo(new ThingUID("binding:type2:id"))))
+    }
+
+    @Test
+    void 'performance of the command routing'() {
+        // the ThingManager compares the string form of each bound channel with the event source and looks up the thing
+        def channelUIDs = (1..100).collect { new ChannelUID("binding:thing-type:thing" + it + ":channel") }
+        def things = channelUIDs.collectEntries { [(it.getThingUID()): it.getId()] } as HashMap
+        int N = 100000
+        int found = 0
+        long tStart = System.nanoTime()
+        for (int i = 0; i < N; i++) {
+            ChannelUID channelUID = channelUIDs.get(i % channelUIDs.size())
+            if (!channelUID.toString().equals("source") && things.get(channelUID.getThingUID()) != null) {
+                found++
+            }
+        }
+        long tEnd = System.nanoTime()
+        assertThat found, is(N)
+        System.out.println("Routing commands took " + (tEnd - tStart) / 1000 / 1000 + " ms for " + N + " iterations.")
+    }
 }
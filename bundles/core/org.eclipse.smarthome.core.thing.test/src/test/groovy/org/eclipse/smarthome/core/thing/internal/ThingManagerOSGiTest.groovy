@@ -31,6 +31,7 @@ import org.eclipse.smarthome.core.thing.Channel
 import org.eclipse.smarthome.core.thing.ChannelUID
 import org.eclipse.smarthome.core.thing.ManagedThingProvider
 import org.eclipse.smarthome.core.thing.Thing
+import org.eclipse.smarthome.core.thing.ThingHandlerStatisticsProvider
 import org.eclipse.smarthome.core.thing.ThingRegistry
 import org.eclipse.smarthome.core.thing.ThingStatus
 import org.eclipse.smarthome.core.thing.ThingStatusDetail
@@ -197,6 +198,52 @@ class ThingManagerOSGiTest extends OSGiTest {
         assertThat handleUpdateWasCalled, is(false)
     }
 
+    @Test
+    void 'ThingManager delegates commands in order and provides handler statistics'() {
+        registerThingTypeProvider()
+
+        def itemName = "name"
+        def receivedCommands = [].asSynchronized()
+        def callback
+
+        managedThingProvider.add(THING)
+        managedItemChannelLinkProvider.add(new ItemChannelLink(itemName, CHANNEL_UID))
+        def thingHandler = [
+            handleCommand: { ChannelUID channelUID, Command command ->
+                receivedCommands.add(command)
+                if (command == new DecimalType(5)) {
+                    throw new IllegalStateException("test")
+                }
+            },
+            setCallback: {callbackArg -> callback = callbackArg },
+            initialize: {},
+            dispose: {
+            }
+        ] as ThingHandler
+
+        registerService(thingHandler,[
+            (ThingHandler.SERVICE_PROPERTY_THING_ID): THING.getUID(),
+            (ThingHandler.SERVICE_PROPERTY_THING_TYPE): THING.getThingTypeUID()
+        ] as Hashtable)
+
+        callback.statusUpdated(THING, ThingStatusInfoBuilder.create(ThingStatus.ONLINE).build())
+
+        def commands = (1..10).collect { new DecimalType(it) }
+        commands.each { eventPublisher.post(ItemEventFactory.createCommandEvent(itemName, it)) }
+        waitForAssert { assertThat receivedCommands.size(), is(10) }
+        assertThat receivedCommands, is(equalTo(commands))
+
+        def statisticsProvider = getService(ThingHandlerStatisticsProvider)
+        assertThat statisticsProvider, is(notNullValue())
+        waitForAssert { assertThat statisticsProvider.getStatistics(THING_UID).calls, is(10L) }
+        def statistics = statisticsProvider.getStatistics(THING_UID)
+        assertThat statistics.thingUID, is(THING_UID)
+        assertThat statistics.failedCalls, is(1L)
+        assertThat statistics.pendingCalls, is(0)
+        assertThat statistics.latencyHistogram.toList().sum(), is(10L)
+        assertThat statistics.stuck, is(false)
+    }
+
     @Test
     void 'ThingManager handles state updates correctly'() {
         registerThingTypeProvider()
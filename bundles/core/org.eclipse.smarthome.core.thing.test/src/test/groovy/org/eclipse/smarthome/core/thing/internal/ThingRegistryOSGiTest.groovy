@@ -38,6 +38,7 @@ import com.google.common.collect.Sets
  *
  * @author Stefan Bußweiler - Initial contribution
  * @author Kai Kreuzer - Moved createThing test from managed provider
+ * @author agent - Added the getByUIDPrefix test
  */
 class ThingRegistryOSGiTest extends OSGiTest {
 
@@ -133,6 +134,22 @@ class ThingRegistryOSGiTest extends OSGiTest {
         ] as Map;
         thingRegistry.updateConfiguration(thingUID, parameters)
     }
+
+    @Test
+    void 'assert that getByUIDPrefix returns the matching things ordered by UID'() {
+        ThingRegistry thingRegistry = getService(ThingRegistry)
+        managedThingProvider.add(ThingBuilder.create(new ThingUID("binding:type:b")).build())
+        managedThingProvider.add(ThingBuilder.create(new ThingUID("other:type:c")).build())
+        managedThingProvider.add(ThingBuilder.create(new ThingUID("binding:type:a")).build())
+
+        assertThat thingRegistry.getByUIDPrefix("binding:")*.UID*.toString(), is(["binding:type:a", "binding:type:b"])
+        assertThat thingRegistry.getByUIDPrefix("")*.UID*.toString(),
+                is(["binding:type:a", "binding:type:b", "other:type:c"])
+        assertThat thingRegistry.getByUIDPrefix("unknown:").size(), is(0)
+
+        managedThingProvider.remove(new ThingUID("binding:type:a"))
+        assertThat thingRegistry.getByUIDPrefix("binding:")*.UID*.toString(), is(["binding:type:b"])
+    }
 	
 	@Test
 	void 'assert that createThing delegates to registered ThingHandlerFactory'() {
@@ -110,4 +110,18 @@ class ItemChannelLinkOSGiTest extends OSGiTest {
         def boundThings = itemChannelLinkRegistry.getBoundThings("notExistingItem")
         assertThat boundThings.isEmpty(), is(true)
     }
+
+    @Test
+    void 'assert getLinkedItems and getLinksForThing use the current links'() {
+        managedItemChannelLinkProvider.add ITEM_CHANNEL_LINK
+        assertThat itemChannelLinkRegistry.getLinkedItems(CHANNEL_UID), is(["item"] as Set)
+        assertThat itemChannelLinkRegistry.getLinks("item"), is([ITEM_CHANNEL_LINK] as Set)
+        assertThat itemChannelLinkRegistry.getLinksForThing(CHANNEL_UID.getThingUID()), is([ITEM_CHANNEL_LINK] as Set)
+
+        managedItemChannelLinkProvider.remove(ITEM_CHANNEL_LINK.getID())
+        assertThat itemChannelLinkRegistry.getLinkedItems(CHANNEL_UID).isEmpty(), is(true)
+        assertThat itemChannelLinkRegistry.getBoundChannels("item").isEmpty(), is(true)
+        assertThat itemChannelLinkRegistry.getLinksForThing(CHANNEL_UID.getThingUID()).isEmpty(), is(true)
+        assertThat itemChannelLinkRegistry.isLinked("item", CHANNEL_UID), is(false)
+    }
 }
@@ -16,11 +16,14 @@ import java.util.Arrays;
  * @author Jochen Hiller - Bugfix 455434: added default constructor
  * @author Dennis Nobel - Added channel group id
  * @author Kai Kreuzer - Changed creation of channels to not require a thing type
+ * @author agent - Cached thing UID
  */
 public class ChannelUID extends UID {
 
     private static final String CHANNEL_GROUP_SEPERATOR = "#";
 
+    private transient volatile ThingUID thingUID;
+
     /**
      * Default constructor in package scope only. Will allow to instantiate this
      * class by reflection. Not intended to be used for normal instantiation.
@@ -41,6 +44,7 @@ public class ChannelUID extends UID {
      */
     public ChannelUID(ThingUID thingUID, String id) {
         super(getArray(thingUID, null, id));
+        this.thingUID = thingUID;
     }
 
     @Deprecated
@@ -57,6 +61,7 @@ public class ChannelUID extends UID {
      */
     public ChannelUID(ThingUID thingUID, String groupId, String id) {
         super(getArray(thingUID, groupId, id));
+        this.thingUID = thingUID;
     }
 
     @Deprecated
@@ -161,7 +166,7 @@ public class ChannelUID extends UID {
         if (index < length - 1) {
             super.validateSegment(segment, index, length);
         } else {
-            if (!segment.matches("[A-Za-z0-9_#-]*")) {
+            if (!isValidSegment(segment, CHANNEL_GROUP_SEPERATOR)) {
                 throw new IllegalArgumentException("UID segment '" + segment
                         + "' contains invalid characters. The last segment of the channel UID must match the pattern [A-Za-z0-9_-#]*.");
             }
@@ -174,7 +179,12 @@ public class ChannelUID extends UID {
      * @return the thing UID
      */
     public ThingUID getThingUID() {
-        return new ThingUID(Arrays.copyOfRange(getSegments(), 0, getSegments().length - 1));
+        ThingUID result = thingUID;
+        if (result == null) {
+            result = new ThingUID(Arrays.copyOfRange(getSegments(), 0, getSegments().length - 1));
+            thingUID = result;
+        }
+        return result;
     }
 
 }
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.thing;
+
+import java.util.Arrays;
+
+/**
+ * {@link ThingHandlerStatistics} is a snapshot of the statistics of the calls from the framework to the handler of a
+ * thing, i.e. of the commands and state updates, which have been dispatched to the handler.
+ * <p>
+ * The latencies of the calls are counted in a histogram, whose buckets are bounded by {@link #LATENCY_BUCKETS}. A
+ * handler is considered as stuck, if its current call is running for longer than the stuck timeout.
+ *
+ * @author agent - Initial contribution
+ */
+public class ThingHandlerStatistics {
+
+    /** the upper bounds of the latency histogram buckets in milliseconds, the last bucket is unbounded */
+    public static final long[] LATENCY_BUCKETS = new long[] { 10, 100, 1000, 10000 };
+
+    private String thingUID;
+
+    private int pendingCalls;
+
+    private long calls;
+
+    private long failedCalls;
+
+    private long averageLatency;
+
+    private long maxLatency;
+
+    private long[] latencyHistogram;
+
+    private long currentCallDuration;
+
+    private String currentCall;
+
+    private boolean stuck;
+
+    /**
+     * Default constructor for deserialization e.g. by Gson.
+     */
+    protected ThingHandlerStatistics() {
+    }
+
+    /**
+     * Creates a new statistics snapshot.
+     *
+     * @param thingUID the UID of the thing
+     * @param pendingCalls the number of calls waiting for the handler
+     * @param calls the number of finished calls
+     * @param failedCalls the number of finished calls, which have thrown an exception
+     * @param averageLatency the average duration of the finished calls in milliseconds
+     * @param maxLatency the maximum duration of the finished calls in milliseconds
+     * @param latencyHistogram the number of finished calls per bucket of {@link #LATENCY_BUCKETS}
+     * @param currentCallDuration the duration of the running call in milliseconds or 0, if the handler is idle
+     * @param currentCall a description of the running call or null, if the handler is idle
+     * @param stuck true, if the running call takes longer than the stuck timeout
+     */
+    public ThingHandlerStatistics(ThingUID thingUID, int pendingCalls, long calls, long failedCalls,
+            long averageLatency, long maxLatency, long[] latencyHistogram, long currentCallDuration,
+            String currentCall, boolean stuck) {
+        this.thingUID = thingUID.toString();
+        this.pendingCalls = pendingCalls;
+        this.calls = calls;
+        this.failedCalls = failedCalls;
+        this.averageLatency = averageLatency;
+        this.maxLatency = maxLatency;
+        this.latencyHistogram = latencyHistogram;
+        this.currentCallDuration = currentCallDuration;
+        this.currentCall = currentCall;
+        this.stuck = stuck;
+    }
+
+    /**
+     * @return the UID of the thing
+     */
+    public ThingUID getThingUID() {
+        return new ThingUID(thingUID);
+    }
+
+    /**
+     * @return the number of calls waiting for the handler
+     */
+    public int getPendingCalls() {
+        return pendingCalls;
+    }
+
+    /**
+     * @return the number of finished calls
+     */
+    public long getCalls() {
+        return calls;
+    }
+
+    /**
+     * @return the number of finished calls, which have thrown an exception
+     */
+    public long getFailedCalls() {
+        return failedCalls;
+    }
+
+    /**
+     * @return the average duration of the finished calls in milliseconds
+     */
+    public long getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     * @return the maximum duration of the finished calls in milliseconds
+     */
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    /**
+     * @return the number of finished calls per bucket of {@link #LATENCY_BUCKETS}
+     */
+    public long[] getLatencyHistogram() {
+        return latencyHistogram.clone();
+    }
+
+    /**
+     * @return the duration of the running call in milliseconds or 0, if the handler is idle
+     */
+    public long getCurrentCallDuration() {
+        return currentCallDuration;
+    }
+
+    /**
+     * @return a description of the running call or null, if the handler is idle
+     */
+    public String getCurrentCall() {
+        return currentCall;
+    }
+
+    /**
+     * @return true, if the running call takes longer than the stuck timeout
+     */
+    public boolean isStuck() {
+        return stuck;
+    }
+
+    @Override
+    public String toString() {
+        return "ThingHandlerStatistics [thingUID=" + thingUID + ", pendingCalls=" + pendingCalls + ", calls=" + calls
+                + ", failedCalls=" + failedCalls + ", averageLatency=" + averageLatency + ", maxLatency=" + maxLatency
+                + ", latencyHistogram=" + Arrays.toString(latencyHistogram) + ", currentCallDuration="
+                + currentCallDuration + ", currentCall=" + currentCall + ", stuck=" + stuck + "]";
+    }
+
+}
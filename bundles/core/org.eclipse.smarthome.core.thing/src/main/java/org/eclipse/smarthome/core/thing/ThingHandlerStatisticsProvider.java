@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.thing;
+
+import java.util.Collection;
+
+/**
+ * {@link ThingHandlerStatisticsProvider} provides the statistics of the calls from the framework to the thing
+ * handlers, e.g. for monitoring slow or stuck handlers.
+ *
+ * @author agent - Initial contribution
+ */
+public interface ThingHandlerStatisticsProvider {
+
+    /**
+     * Returns the statistics of all things, whose handler has been called.
+     *
+     * @return the statistics (not null)
+     */
+    Collection<ThingHandlerStatistics> getStatistics();
+
+    /**
+     * Returns the statistics of a thing.
+     *
+     * @param thingUID the UID of the thing
+     * @return the statistics or null, if the handler of the thing has not been called yet
+     */
+    ThingHandlerStatistics getStatistics(ThingUID thingUID);
+
+}
@@ -7,6 +7,7 @@
  */
 package org.eclipse.smarthome.core.thing;
 
+import java.util.Collection;
 import java.util.Map;
 
 import org.eclipse.smarthome.config.core.Configuration;
@@ -44,6 +45,14 @@ public interface ThingRegistry extends Registry<Thing, ThingUID> {
      */
     Channel getChannel(ChannelUID channelUID);
 
+    /**
+     * Returns all things, whose UID starts with the given prefix, e.g. "hue:" for all things of the hue binding.
+     *
+     * @param prefix prefix of the thing UIDs, an empty prefix returns all things
+     * @return things with a matching UID, ordered by their UID
+     */
+    Collection<Thing> getByUIDPrefix(String prefix);
+
     /**
      * Updates the configuration of a thing for the given UID.
      *
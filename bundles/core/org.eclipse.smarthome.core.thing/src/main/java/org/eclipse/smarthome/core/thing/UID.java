@@ -9,8 +9,6 @@ package org.eclipse.smarthome.core.thing;
 
 import java.util.Arrays;
 
-import com.google.common.base.Joiner;
-
 /**
  * {@link UID} is the base class for unique identifiers within the SmartHome
  * framework. A UID must always start with a binding ID.
@@ -18,6 +16,7 @@ import com.google.common.base.Joiner;
  * @author Dennis Nobel - Initial contribution
  * @author Oliver Libutzki - Added possibility to define UIDs with variable amount of segments
  * @author Jochen Hiller - Bugfix 455434: added default constructor, object is now mutable
+ * @author agent - Cached string form and hash code, validation without regular expressions
  */
 public abstract class UID {
 
@@ -25,6 +24,10 @@ public abstract class UID {
     public static final String SEPARATOR = ":";
     private String[] segments;
 
+    // as the segments might be set by reflection, the string form and the hash code are computed lazily
+    private transient String asString;
+    private transient int hash;
+
     /**
      * Constructor must be public, otherwise it can not be called by subclasses from another package.
      */
@@ -87,12 +90,31 @@ public abstract class UID {
     }
 
     protected void validateSegment(String segment, int index, int length) {
-        if (!segment.matches(SEGMENT_PATTERN)) {
+        if (!isValidSegment(segment, "")) {
             throw new IllegalArgumentException("UID segment '" + segment
                     + "' contains invalid characters. Each segment of the UID must match the pattern [A-Za-z0-9_-]*.");
         }
     }
 
+    /**
+     * Checks whether a segment matches {@link #SEGMENT_PATTERN}, extended by the given characters. This is done
+     * character by character, as UIDs are created for each event and a regular expression is comparably expensive.
+     *
+     * @param segment the segment to check
+     * @param additionalChars the characters, which are allowed in addition to the ones of {@link #SEGMENT_PATTERN}
+     * @return true, if the segment is valid
+     */
+    static boolean isValidSegment(String segment, String additionalChars) {
+        for (int i = 0; i < segment.length(); i++) {
+            char c = segment.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '_' || c == '-'
+                    || additionalChars.indexOf(c) >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns the binding id.
      *
@@ -108,14 +130,30 @@ public abstract class UID {
     }
 
     public String getAsString() {
-        return Joiner.on(SEPARATOR).join(segments);
+        String result = asString;
+        if (result == null) {
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < segments.length; i++) {
+                if (i > 0) {
+                    sb.append(SEPARATOR);
+                }
+                sb.append(segments[i]);
+            }
+            result = sb.toString();
+            asString = result;
+        }
+        return result;
     }
 
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + Arrays.hashCode(segments);
+        int result = hash;
+        if (result == 0) {
+            final int prime = 31;
+            result = 1;
+            result = prime * result + Arrays.hashCode(segments);
+            hash = result;
+        }
         return result;
     }
 
@@ -128,6 +166,8 @@ public abstract class UID {
         if (getClass() != obj.getClass())
             return false;
         UID other = (UID) obj;
+        if (hashCode() != other.hashCode())
+            return false;
         if (!Arrays.equals(segments, other.segments))
             return false;
         return true;
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.thing.internal;
+
+import java.util.LinkedList;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.thing.ThingHandlerStatistics;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ThingHandlerCallQueue} executes the calls to the handler of one thing, e.g. commands and state updates,
+ * in the order in which they have been queued. The queue is drained by the shared thread pool
+ * {@value #THREAD_POOL_NAME}, so that the calls to different things are executed in parallel, while a slow handler
+ * only delays the calls to its own thing. The pool is not shared with the scheduled pool of the thing handlers
+ * themselves, so that handlers, which block in their scheduled jobs, cannot starve the calls.
+ * <p>
+ * The queue measures the latency of the calls and keeps track of the running call, so that stuck handlers can be
+ * detected.
+ *
+ * @author agent - Initial contribution
+ */
+class ThingHandlerCallQueue implements Runnable {
+
+    static final String THREAD_POOL_NAME = "thingCommand";
+
+    /** the maximum number of calls executed in one task, before the thread is handed back to the pool */
+    private static final int MAX_CALLS_PER_TASK = 16;
+
+    private final Logger logger = LoggerFactory.getLogger(ThingHandlerCallQueue.class);
+
+    private final ThingUID thingUID;
+
+    private final LinkedList<HandlerCall> pendingCalls = new LinkedList<>();
+
+    private boolean scheduled = false;
+
+    private HandlerCall currentCall;
+
+    private long currentCallStart;
+
+    private boolean currentCallReported;
+
+    private long calls;
+
+    private long failedCalls;
+
+    private long totalLatency;
+
+    private long maxLatency;
+
+    private final long[] latencyHistogram = new long[ThingHandlerStatistics.LATENCY_BUCKETS.length + 1];
+
+    ThingHandlerCallQueue(ThingUID thingUID) {
+        this.thingUID = thingUID;
+    }
+
+    /**
+     * Queues a call to the handler.
+     *
+     * @param call the call
+     */
+    void enqueue(HandlerCall call) {
+        synchronized (this) {
+            pendingCalls.add(call);
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        try {
+            ThreadPoolManager.getPool(THREAD_POOL_NAME).execute(this);
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                scheduled = false;
+            }
+            logger.error("Cannot schedule calls to the handler of thing '{}': {}", thingUID, e.getMessage());
+        }
+    }
+
+    @Override
+    public void run() {
+        boolean reschedule;
+        try {
+            for (int i = 0; i < MAX_CALLS_PER_TASK; i++) {
+                HandlerCall call;
+                long start = System.currentTimeMillis();
+                synchronized (this) {
+                    call = pendingCalls.poll();
+                    if (call == null) {
+                        break;
+                    }
+                    currentCall = call;
+                    currentCallStart = start;
+                    currentCallReported = false;
+                }
+                boolean failed = false;
+                try {
+                    call.call();
+                } catch (Exception ex) {
+                    failed = true;
+                    logger.error("Exception occured while calling handler of thing '{}' for {}: {}", thingUID, call,
+                            ex.getMessage(), ex);
+                }
+                finished(call, start, failed);
+            }
+        } finally {
+            synchronized (this) {
+                currentCall = null;
+                reschedule = !pendingCalls.isEmpty();
+                scheduled = reschedule;
+            }
+        }
+        if (reschedule) {
+            schedule();
+        }
+    }
+
+    private synchronized void finished(HandlerCall call, long start, boolean failed) {
+        long latency = System.currentTimeMillis() - start;
+        currentCall = null;
+        calls++;
+        if (failed) {
+            failedCalls++;
+        }
+        totalLatency += latency;
+        maxLatency = Math.max(maxLatency, latency);
+        int bucket = 0;
+        while (bucket < ThingHandlerStatistics.LATENCY_BUCKETS.length
+                && latency >= ThingHandlerStatistics.LATENCY_BUCKETS[bucket]) {
+            bucket++;
+        }
+        latencyHistogram[bucket]++;
+        if (currentCallReported) {
+            logger.info("Handler of thing '{}' has finished {} after {}ms", thingUID, call, latency);
+        }
+    }
+
+    /**
+     * Checks whether the running call takes longer than the given timeout. A stuck call is only reported once.
+     *
+     * @param stuckTimeout the timeout in milliseconds
+     * @return true, if the running call is stuck and has not been reported before
+     */
+    synchronized boolean reportStuck(long stuckTimeout) {
+        if (currentCall != null && !currentCallReported
+                && System.currentTimeMillis() - currentCallStart > stuckTimeout) {
+            currentCallReported = true;
+            logger.warn("Handler of thing '{}' is stuck for {}ms in {}, {} calls are waiting", thingUID,
+                    System.currentTimeMillis() - currentCallStart, currentCall, pendingCalls.size());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Discards the pending calls, e.g. because the thing has been removed. A running call is not interrupted.
+     *
+     * @return the number of discarded calls
+     */
+    synchronized int discardPendingCalls() {
+        int discarded = pendingCalls.size();
+        pendingCalls.clear();
+        return discarded;
+    }
+
+    /**
+     * Creates a snapshot of the statistics.
+     *
+     * @param stuckTimeout the time in milliseconds, after which a running call is considered as stuck
+     * @return the statistics
+     */
+    synchronized ThingHandlerStatistics getStatistics(long stuckTimeout) {
+        long currentCallDuration = currentCall != null ? System.currentTimeMillis() - currentCallStart : 0;
+        return new ThingHandlerStatistics(thingUID, pendingCalls.size(), calls, failedCalls,
+                calls > 0 ? totalLatency / calls : 0, maxLatency, latencyHistogram.clone(), currentCallDuration,
+                currentCall != null ? currentCall.toString() : null, currentCallDuration > stuckTimeout);
+    }
+
+    /**
+     * A call to a thing handler.
+     */
+    abstract static class HandlerCall {
+
+        private final String description;
+
+        HandlerCall(String description) {
+            this.description = description;
+        }
+
+        abstract void call() throws Exception;
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+}
@@ -12,15 +12,17 @@ import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
@@ -42,6 +44,8 @@ import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.ManagedThingProvider;
 import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingHandlerStatistics;
+import org.eclipse.smarthome.core.thing.ThingHandlerStatisticsProvider;
 import org.eclipse.smarthome.core.thing.ThingRegistry;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
@@ -53,6 +57,7 @@ import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
 import org.eclipse.smarthome.core.thing.binding.ThingHandlerFactory;
 import org.eclipse.smarthome.core.thing.binding.builder.ThingStatusInfoBuilder;
 import org.eclipse.smarthome.core.thing.events.ThingEventFactory;
+import org.eclipse.smarthome.core.thing.internal.ThingHandlerCallQueue.HandlerCall;
 import org.eclipse.smarthome.core.thing.link.ItemChannelLinkRegistry;
 import org.eclipse.smarthome.core.thing.type.ThingType;
 import org.eclipse.smarthome.core.thing.type.ThingTypeRegistry;
@@ -86,13 +91,18 @@ import com.google.common.collect.Multimaps;
  *         refactorings thing life cycle
  * @author Simon Kaufmann - Added remove handling
  * @author Kai Kreuzer - Removed usage of itemRegistry and thingLinkRegistry
+ * @author agent - Per-thing call queues, handler statistics and index of things by UID
  */
-public class ThingManager extends AbstractItemEventSubscriber implements ThingTracker, BundleProcessorListener {
+public class ThingManager extends AbstractItemEventSubscriber
+        implements ThingTracker, BundleProcessorListener, ThingHandlerStatisticsProvider {
 
     private static final String FORCEREMOVE_THREADPOOL_NAME = "forceRemove";
 
     private static final String THING_MANAGER_THREADPOOL_NAME = "thingManager";
 
+    /** the time in milliseconds, after which a running call to a handler is considered as stuck */
+    private static final long STUCK_HANDLER_TIMEOUT = SafeMethodCaller.DEFAULT_TIMEOUT;
+
     private final Multimap<Bundle, Object> initializerVetoes = Multimaps
             .synchronizedListMultimap(LinkedListMultimap.<Bundle, Object> create());
     private final Multimap<String, ThingHandler> initializerQueue = Multimaps
@@ -154,6 +164,10 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
 
     private Map<ThingUID, ThingHandler> thingHandlers = new ConcurrentHashMap<>();
 
+    private final ConcurrentMap<ThingUID, ThingHandlerCallQueue> callQueues = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> stuckHandlerDetector;
+
     private ThingHandlerTracker thingHandlerTracker;
 
     private ThingTypeRegistry thingTypeRegistry;
@@ -327,7 +341,7 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
 
     private ManagedThingProvider managedThingProvider;
 
-    private Set<Thing> things = new CopyOnWriteArraySet<>();
+    private ConcurrentMap<ThingUID, Thing> things = new ConcurrentHashMap<>();
 
     private Set<ThingUID> registerHandlerLock = new HashSet<>();
 
@@ -386,20 +400,13 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
                         if (isInitialized(thing)) {
                             logger.debug("Delegating command '{}' for item '{}' to handler for channel '{}'", command,
                                     itemName, channelUID);
-                            try {
-                                SafeMethodCaller.call(new SafeMethodCaller.ActionWithException<Void>() {
-                                    @Override
-                                    public Void call() throws Exception {
-                                        handler.handleCommand(channelUID, command);
-                                        return null;
-                                    }
-                                });
-                            } catch (TimeoutException ex) {
-                                logger.warn("Handler for thing '{}' takes more than {}ms for processing event",
-                                        handler.getThing().getUID(), SafeMethodCaller.DEFAULT_TIMEOUT);
-                            } catch (Exception ex) {
-                                logger.error("Exception occured while calling handler: " + ex.getMessage(), ex);
-                            }
+                            dispatch(thing.getUID(), new HandlerCall(
+                                    "command '" + command + "' for channel '" + channelUID + "'") {
+                                @Override
+                                void call() throws Exception {
+                                    handler.handleCommand(channelUID, command);
+                                }
+                            });
                         } else {
                             logger.info(
                                     "Not delegating command '{}' for item '{}' to handler for channel '{}', "
@@ -436,20 +443,13 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
                         if (isInitialized(thing)) {
                             logger.debug("Delegating update '{}' for item '{}' to handler for channel '{}'", newState,
                                     itemName, channelUID);
-                            try {
-                                SafeMethodCaller.call(new SafeMethodCaller.ActionWithException<Void>() {
-                                    @Override
-                                    public Void call() throws Exception {
-                                        handler.handleUpdate(channelUID, newState);
-                                        return null;
-                                    }
-                                });
-                            } catch (TimeoutException ex) {
-                                logger.warn("Handler for thing {} takes more than {}ms for processing event",
-                                        handler.getThing().getUID(), SafeMethodCaller.DEFAULT_TIMEOUT);
-                            } catch (Exception ex) {
-                                logger.error("Exception occured while calling handler: " + ex.getMessage(), ex);
-                            }
+                            dispatch(thing.getUID(), new HandlerCall(
+                                    "update '" + newState + "' for channel '" + channelUID + "'") {
+                                @Override
+                                void call() throws Exception {
+                                    handler.handleUpdate(channelUID, newState);
+                                }
+                            });
                         } else {
                             logger.info(
                                     "Not delegating update '{}' for item '{}' to handler for channel '{}', "
@@ -471,9 +471,43 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
         }
     }
 
+    /**
+     * Queues a call to the handler of a thing. The calls to one thing are executed in order, while the calls to
+     * different things are executed in parallel.
+     *
+     * @param thingUID the UID of the thing
+     * @param call the call to the handler
+     */
+    private void dispatch(ThingUID thingUID, HandlerCall call) {
+        ThingHandlerCallQueue queue = callQueues.get(thingUID);
+        if (queue == null) {
+            ThingHandlerCallQueue newQueue = new ThingHandlerCallQueue(thingUID);
+            queue = callQueues.putIfAbsent(thingUID, newQueue);
+            if (queue == null) {
+                queue = newQueue;
+            }
+        }
+        queue.enqueue(call);
+    }
+
+    @Override
+    public Collection<ThingHandlerStatistics> getStatistics() {
+        List<ThingHandlerStatistics> statistics = new ArrayList<>(callQueues.size());
+        for (ThingHandlerCallQueue queue : callQueues.values()) {
+            statistics.add(queue.getStatistics(STUCK_HANDLER_TIMEOUT));
+        }
+        return statistics;
+    }
+
+    @Override
+    public ThingHandlerStatistics getStatistics(ThingUID thingUID) {
+        ThingHandlerCallQueue queue = callQueues.get(thingUID);
+        return queue != null ? queue.getStatistics(STUCK_HANDLER_TIMEOUT) : null;
+    }
+
     @Override
     public void thingAdded(Thing thing, ThingTrackerEvent thingTrackerEvent) {
-        this.things.add(thing);
+        this.things.putIfAbsent(thing.getUID(), thing);
         logger.debug("Thing '{}' is tracked by ThingManager.", thing.getUID());
         ThingHandler thingHandler = thingHandlers.get(thing.getUID());
         if (thingHandler == null) {
@@ -512,7 +546,16 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
         }
 
         logger.debug("Thing '{}' is no longer tracked by ThingManager.", thing.getUID());
-        this.things.remove(thing);
+        this.things.remove(thingId);
+
+        ThingHandlerCallQueue queue = callQueues.remove(thingId);
+        if (queue != null) {
+            int discarded = queue.discardPendingCalls();
+            if (discarded > 0) {
+                logger.debug("Discarded {} pending calls to the handler of the removed thing '{}'.", discarded,
+                        thingId);
+            }
+        }
     }
 
     @Override
@@ -522,8 +565,7 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
         Thing oldThing = getThing(thingUID);
 
         if (oldThing != thing) {
-            this.things.remove(oldThing);
-            this.things.add(thing);
+            this.things.put(thingUID, thing);
         }
 
         final ThingHandler thingHandler = thingHandlers.get(thingUID);
@@ -590,13 +632,7 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
     }
 
     private Thing getThing(ThingUID id) {
-        for (Thing thing : this.things) {
-            if (thing.getUID().equals(id)) {
-                return thing;
-            }
-        }
-
-        return null;
+        return this.things.get(id);
     }
 
     private void registerHandler(final Thing thing, final ThingHandlerFactory thingHandlerFactory) {
@@ -947,6 +983,14 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
         this.bundleContext = componentContext.getBundleContext();
         this.thingHandlerTracker = new ThingHandlerTracker(this.bundleContext);
         this.thingHandlerTracker.open();
+        this.stuckHandlerDetector = scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                for (ThingHandlerCallQueue queue : callQueues.values()) {
+                    queue.reportStuck(STUCK_HANDLER_TIMEOUT);
+                }
+            }
+        }, STUCK_HANDLER_TIMEOUT, STUCK_HANDLER_TIMEOUT, TimeUnit.MILLISECONDS);
     }
 
     protected void addThingHandlerFactory(ThingHandlerFactory thingHandlerFactory) {
@@ -954,7 +998,7 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
 
         thingHandlerFactories.add(thingHandlerFactory);
 
-        for (Thing thing : this.things) {
+        for (Thing thing : this.things.values()) {
             if (thingHandlerFactory.supportsThingType(thing.getThingTypeUID())) {
                 ThingUID thingId = thing.getUID();
 
@@ -971,6 +1015,10 @@ public class ThingManager extends AbstractItemEventSubscriber implements ThingTr
     protected void deactivate(ComponentContext componentContext) {
         this.thingRegistry.removeThingTracker(this);
         this.thingHandlerTracker.close();
+        if (this.stuckHandlerDetector != null) {
+            this.stuckHandlerDetector.cancel(false);
+            this.stuckHandlerDetector = null;
+        }
     }
 
     protected void removeThingHandlerFactory(ThingHandlerFactory thingHandlerFactory) {
@@ -7,9 +7,11 @@
  */
 package org.eclipse.smarthome.core.thing.internal;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.smarthome.config.core.Configuration;
@@ -44,6 +46,9 @@ public class ThingRegistryImpl extends AbstractRegistry<Thing, ThingUID> impleme
 
     private List<ThingHandlerFactory> thingHandlerFactories = new CopyOnWriteArrayList<>();
 
+    /** the UIDs of all things ordered by their string form, so that things can be retrieved by a UID prefix */
+    private final ConcurrentSkipListMap<String, ThingUID> sortedThingUIDs = new ConcurrentSkipListMap<>();
+
     /**
      * Adds a thing tracker.
      *
@@ -55,20 +60,39 @@ public class ThingRegistryImpl extends AbstractRegistry<Thing, ThingUID> impleme
         thingTrackers.add(thingTracker);
     }
 
-    /*
-     * (non-Javadoc)
-     *
-     * @see
-     * org.eclipse.smarthome.core.thing.ThingRegistry#getByUID(java.lang.String)
-     */
     @Override
-    public Thing get(ThingUID uid) {
-        for (Thing thing : getAll()) {
-            if (thing.getUID().equals(uid)) {
-                return thing;
+    protected ThingUID getKey(Thing element) {
+        return element.getUID();
+    }
+
+    @Override
+    protected void addToIndex(Thing element) {
+        super.addToIndex(element);
+        sortedThingUIDs.put(element.getUID().getAsString(), element.getUID());
+    }
+
+    @Override
+    protected void removeFromIndex(Thing element) {
+        super.removeFromIndex(element);
+        // another instance with the same UID might still be registered, e.g. during an update
+        if (get(element.getUID()) == null) {
+            sortedThingUIDs.remove(element.getUID().getAsString());
+        }
+    }
+
+    @Override
+    public Collection<Thing> getByUIDPrefix(String prefix) {
+        Collection<Thing> things = new ArrayList<>();
+        for (Map.Entry<String, ThingUID> entry : sortedThingUIDs.tailMap(prefix).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            Thing thing = get(entry.getValue());
+            if (thing != null) {
+                things.add(thing);
             }
         }
-        return null;
+        return things;
     }
 
     @Override
@@ -14,6 +14,8 @@ import java.util.List;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ManagedThingProvider;
 import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingHandlerStatistics;
+import org.eclipse.smarthome.core.thing.ThingHandlerStatisticsProvider;
 import org.eclipse.smarthome.core.thing.ThingRegistry;
 import org.eclipse.smarthome.core.thing.ThingStatusInfo;
 import org.eclipse.smarthome.core.thing.ThingUID;
@@ -21,18 +23,22 @@ import org.eclipse.smarthome.io.console.Console;
 import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
 
 /**
- * {@link ThingConsoleCommandExtension} provides console commands for listing and removing things.
+ * {@link ThingConsoleCommandExtension} provides console commands for listing and removing things and for
+ * showing the statistics of the thing handlers.
  *
  * @author Dennis Nobel - Initial contribution
+ * @author agent - Added the handler statistics
  */
 public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtension {
 
     private static final String SUBCMD_LIST = "list";
     private static final String SUBCMD_CLEAR = "clear";
     private static final String SUBCMD_REMOVE = "remove";
+    private static final String SUBCMD_STATS = "stats";
 
     private ManagedThingProvider managedThingProvider;
     private ThingRegistry thingRegistry;
+    private ThingHandlerStatisticsProvider statisticsProvider;
 
     public ThingConsoleCommandExtension() {
         super("things", "Access your thing registry.");
@@ -58,6 +64,13 @@ public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtensio
                         console.println("Specify thing id to remove: things remove <thingUID> (e.g. \"hue:light:1\")");
                     }
                     return;
+                case SUBCMD_STATS:
+                    if (args.length > 1) {
+                        printStatistics(console, new ThingUID(args[1]));
+                    } else {
+                        printStatistics(console);
+                    }
+                    return;
                 default:
                     break;
             }
@@ -87,7 +100,8 @@ public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtensio
     public List<String> getUsages() {
         return Arrays.asList(new String[] { buildCommandUsage(SUBCMD_LIST, "lists all things"),
                 buildCommandUsage(SUBCMD_CLEAR, "removes all managed things"),
-                buildCommandUsage(SUBCMD_REMOVE + " <thingUID>", "removes a thing") });
+                buildCommandUsage(SUBCMD_REMOVE + " <thingUID>", "removes a thing"),
+                buildCommandUsage(SUBCMD_STATS + " [<thingUID>]", "shows the statistics of the thing handlers") });
     }
 
     private void printThings(Console console, Collection<Thing> things) {
@@ -107,6 +121,47 @@ public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtensio
         }
     }
 
+    private void printStatistics(Console console) {
+        if (statisticsProvider == null) {
+            console.println("No thing handler statistics available.");
+            return;
+        }
+        Collection<ThingHandlerStatistics> statistics = statisticsProvider.getStatistics();
+        if (statistics.isEmpty()) {
+            console.println("No handler calls found.");
+        }
+        for (ThingHandlerStatistics stats : statistics) {
+            printStatistics(console, stats);
+        }
+    }
+
+    private void printStatistics(Console console, ThingUID thingUID) {
+        ThingHandlerStatistics stats = statisticsProvider != null ? statisticsProvider.getStatistics(thingUID) : null;
+        if (stats != null) {
+            printStatistics(console, stats);
+        } else {
+            console.println("No handler calls found for thing '" + thingUID + "'.");
+        }
+    }
+
+    private void printStatistics(Console console, ThingHandlerStatistics stats) {
+        console.println(String.format("%s (Calls=%d, Failed=%d, Pending=%d, AvgLatency=%dms, MaxLatency=%dms%s)",
+                stats.getThingUID(), stats.getCalls(), stats.getFailedCalls(), stats.getPendingCalls(),
+                stats.getAverageLatency(), stats.getMaxLatency(), stats.isStuck() ? ", STUCK" : ""));
+        long[] histogram = stats.getLatencyHistogram();
+        StringBuilder sb = new StringBuilder("  Latency:");
+        for (int i = 0; i < histogram.length; i++) {
+            sb.append(i < ThingHandlerStatistics.LATENCY_BUCKETS.length
+                    ? " <" + ThingHandlerStatistics.LATENCY_BUCKETS[i] + "ms="
+                    : " >=" + ThingHandlerStatistics.LATENCY_BUCKETS[i - 1] + "ms=");
+            sb.append(histogram[i]);
+        }
+        console.println(sb.toString());
+        if (stats.getCurrentCall() != null) {
+            console.println("  Running for " + stats.getCurrentCallDuration() + "ms: " + stats.getCurrentCall());
+        }
+    }
+
     protected void setManagedThingProvider(ManagedThingProvider managedThingProvider) {
         this.managedThingProvider = managedThingProvider;
     }
@@ -123,4 +178,12 @@ public class ThingConsoleCommandExtension extends AbstractConsoleCommandExtensio
         this.thingRegistry = null;
     }
 
+    protected void setThingHandlerStatisticsProvider(ThingHandlerStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = statisticsProvider;
+    }
+
+    protected void unsetThingHandlerStatisticsProvider(ThingHandlerStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = null;
+    }
+
 }
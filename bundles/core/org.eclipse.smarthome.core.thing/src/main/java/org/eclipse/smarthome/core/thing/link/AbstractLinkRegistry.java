@@ -7,16 +7,19 @@
  */
 package org.eclipse.smarthome.core.thing.link;
 
-import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.common.registry.AbstractRegistry;
 import org.eclipse.smarthome.core.thing.UID;
 
 /**
  * {@link AbstractLinkRegistry} is an abstract class for link based registries,
- * which handle {@link AbstractLink}s.
+ * which handle {@link AbstractLink}s. The links are indexed by their UID and by their item name, so that the lookups
+ * only depend on the number of links of the given UID or item.
  *
  * @author Dennis Nobel - Initial contribution
  *
@@ -25,6 +28,10 @@ import org.eclipse.smarthome.core.thing.UID;
  */
 public abstract class AbstractLinkRegistry<L extends AbstractLink> extends AbstractRegistry<L, String> {
 
+    private final Map<UID, Set<L>> linksByUID = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<L>> linksByItemName = new ConcurrentHashMap<>();
+
     /**
      * Returns if an item for a given item name is linked to a channel or thing for a
      * given UID.
@@ -36,14 +43,7 @@ public abstract class AbstractLinkRegistry<L extends AbstractLink> extends Abstr
      * @return true if linked, false otherwise
      */
     public boolean isLinked(String itemName, UID uid) {
-
-        for (AbstractLink link : getAll()) {
-            if (link.getUID().equals(uid) && link.getItemName().equals(itemName)) {
-                return true;
-            }
-        }
-
-        return false;
+        return get(AbstractLink.getIDFor(itemName, uid)) != null;
     }
 
     /**
@@ -55,10 +55,8 @@ public abstract class AbstractLinkRegistry<L extends AbstractLink> extends Abstr
      */
     public Set<String> getLinkedItems(UID uid) {
         Set<String> linkedItems = new LinkedHashSet<>();
-        for (AbstractLink link : getAll()) {
-            if (link.getUID().equals(uid)) {
-                linkedItems.add(link.getItemName());
-            }
+        for (AbstractLink link : getIndexed(linksByUID, uid)) {
+            linkedItems.add(link.getItemName());
         }
         return linkedItems;
     }
@@ -70,23 +68,84 @@ public abstract class AbstractLinkRegistry<L extends AbstractLink> extends Abstr
      * @return a set of links for the given UID
      */
     public Set<L> getLinks(UID uid) {
-        Set<L> links = new LinkedHashSet<>();
-        for (L link : getAll()) {
-            if (link.getUID().equals(uid)) {
-                links.add(link);
+        return new LinkedHashSet<>(getIndexed(linksByUID, uid));
+    }
+
+    /**
+     * Returns all links for a given item name.
+     *
+     * @param itemName item name
+     * @return a set of links for the given item name
+     */
+    public Set<L> getLinks(String itemName) {
+        return new LinkedHashSet<>(getIndexed(linksByItemName, itemName));
+    }
+
+    @Override
+    protected String getKey(L element) {
+        return element.getID();
+    }
+
+    @Override
+    protected void addToIndex(L element) {
+        super.addToIndex(element);
+        addToIndex(linksByUID, element.getUID(), element);
+        addToIndex(linksByItemName, element.getItemName(), element);
+    }
+
+    @Override
+    protected void removeFromIndex(L element) {
+        super.removeFromIndex(element);
+        removeFromIndex(linksByUID, element.getUID(), element);
+        removeFromIndex(linksByItemName, element.getItemName(), element);
+    }
+
+    /**
+     * Adds a link to a secondary index of the registry.
+     *
+     * @param index the index
+     * @param key the index key
+     * @param link the link
+     */
+    protected static <K, V> void addToIndex(Map<K, Set<V>> index, K key, V link) {
+        synchronized (index) {
+            Set<V> links = index.get(key);
+            if (links == null) {
+                links = Collections.newSetFromMap(new ConcurrentHashMap<V, Boolean>());
+                index.put(key, links);
             }
+            links.add(link);
         }
-        return links;
     }
 
-    @Override
-    public L get(String key) {
-        Collection<L> links = getAll();
-        for (L link : links) {
-            if (link.getID().equals(key)) {
-                return link;
+    /**
+     * Removes a link from a secondary index of the registry.
+     *
+     * @param index the index
+     * @param key the index key
+     * @param link the link
+     */
+    protected static <K, V> void removeFromIndex(Map<K, Set<V>> index, K key, V link) {
+        synchronized (index) {
+            Set<V> links = index.get(key);
+            if (links != null) {
+                links.remove(link);
+                if (links.isEmpty()) {
+                    index.remove(key);
+                }
             }
         }
-        return null;
+    }
+
+    /**
+     * Returns the links of a secondary index for the given key.
+     *
+     * @param index the index
+     * @param key the index key
+     * @return the links (not null)
+     */
+    protected static <K, V> Set<V> getIndexed(Map<K, Set<V>> index, K key) {
+        Set<V> links = key != null ? index.get(key) : null;
+        return links != null ? links : Collections.<V> emptySet();
     }
 }
@@ -9,7 +9,10 @@ package org.eclipse.smarthome.core.thing.link;
 
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
@@ -19,7 +22,8 @@ import org.eclipse.smarthome.core.thing.link.events.LinkEventFactory;
 
 /**
  * {@link ItemChannelLinkRegistry} tracks all {@link ItemChannelLinkProvider}s
- * and aggregates all {@link ItemChannelLink}s.
+ * and aggregates all {@link ItemChannelLink}s. In addition to the indexes of the {@link AbstractLinkRegistry} the
+ * links are indexed by the {@link ThingUID} of their channel.
  *
  * @author Dennis Nobel - Initial contribution
  *
@@ -28,6 +32,8 @@ public class ItemChannelLinkRegistry extends AbstractLinkRegistry<ItemChannelLin
 
     private ThingRegistry thingRegistry;
 
+    private final Map<ThingUID, Set<ItemChannelLink>> linksByThingUID = new ConcurrentHashMap<>();
+
     /**
      * Returns a set of bound channels for the given item name.
      *
@@ -39,15 +45,36 @@ public class ItemChannelLinkRegistry extends AbstractLinkRegistry<ItemChannelLin
 
         Set<ChannelUID> channelUIDs = new HashSet<>();
 
-        for (ItemChannelLink itemChannelLink : getAll()) {
-            if (itemChannelLink.getItemName().equals(itemName)) {
-                channelUIDs.add(itemChannelLink.getUID());
-            }
+        for (ItemChannelLink itemChannelLink : getLinks(itemName)) {
+            channelUIDs.add(itemChannelLink.getUID());
         }
 
         return channelUIDs;
     }
 
+    /**
+     * Returns all links to the channels of the given thing.
+     *
+     * @param thingUID
+     *            thing UID
+     * @return set of links to the channels of the given thing
+     */
+    public Set<ItemChannelLink> getLinksForThing(ThingUID thingUID) {
+        return new LinkedHashSet<>(getIndexed(linksByThingUID, thingUID));
+    }
+
+    @Override
+    protected void addToIndex(ItemChannelLink element) {
+        super.addToIndex(element);
+        addToIndex(linksByThingUID, element.getUID().getThingUID(), element);
+    }
+
+    @Override
+    protected void removeFromIndex(ItemChannelLink element) {
+        super.removeFromIndex(element);
+        removeFromIndex(linksByThingUID, element.getUID().getThingUID(), element);
+    }
+
     /**
      * Channels can not be updated, so this methods throws an {@link UnsupportedOperationException}.
      */
@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.io.FilenameUtils;
 import org.eclipse.smarthome.config.core.ConfigConstants;
@@ -39,16 +38,22 @@ import org.slf4j.LoggerFactory;
  * It expects the transformation to be applied to be read from a file stored
  * under the 'transform' folder within the configuration path. To organize the various
  * transformations one might use subfolders.
+ * <p>
+ * The loaded transformations are kept in a bounded {@link TransformationCache}, until their file is modified or
+ * deleted. Subclasses can still access the cache through the {@link Map} view {@link #cachedFiles}.
  *
  * @author Gaël L'hopital - Initial contribution
  * @author Kai Kreuzer - File caching mechanism
  * @author Markus Rathgeb - Add locale provider support
+ * @author agent - Bounded transformation cache
  */
-public abstract class AbstractFileTransformationService<T> implements TransformationService {
+public abstract class AbstractFileTransformationService<T> implements CachingTransformationService {
 
     private WatchService watchService = null;
 
-    protected final Map<String, T> cachedFiles = new ConcurrentHashMap<>();
+    private final TransformationCache<T> transformationCache = new TransformationCache<>();
+
+    protected final Map<String, T> cachedFiles = transformationCache.asMap();
     protected final List<String> watchedDirectories = new ArrayList<String>();
 
     private final Logger logger = LoggerFactory.getLogger(AbstractFileTransformationService.class);
@@ -128,10 +133,10 @@ public abstract class AbstractFileTransformationService<T> implements Transforma
         }
 
         String transformFile = getLocalizedProposedFilename(filename);
-        T transform = cachedFiles.get(transformFile);
+        T transform = transformationCache.get(transformFile);
         if (transform == null) {
             transform = internalLoadTransform(transformFile);
-            cachedFiles.put(transformFile, transform);
+            transformationCache.put(transformFile, transform);
         }
 
         try {
@@ -143,6 +148,11 @@ public abstract class AbstractFileTransformationService<T> implements Transforma
 
     }
 
+    @Override
+    public TransformationCache<T> getTransformationCache() {
+        return transformationCache;
+    }
+
     /**
      * <p>
      * Abstract method defined by subclasses to effectively operate the
@@ -198,7 +208,7 @@ public abstract class AbstractFileTransformationService<T> implements Transforma
                 watchedDirectories.add(subDirectory);
             } catch (IOException e) {
                 logger.warn("Unable to watch transformation directory : {}", watchedDirectory);
-                cachedFiles.clear();
+                transformationCache.clear();
             }
         }
     }
@@ -221,11 +231,7 @@ public abstract class AbstractFileTransformationService<T> implements Transforma
 
                 logger.debug("Refreshing transformation file '{}'", path);
 
-                for (String fileEntry : cachedFiles.keySet()) {
-                    if (fileEntry.endsWith(path.toString())) {
-                        cachedFiles.remove(fileEntry);
-                    }
-                }
+                transformationCache.removeEndingWith(path.toString());
             }
             key.reset();
         }
@@ -0,0 +1,23 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.transform;
+
+/**
+ * A {@link TransformationService}, which keeps its compiled transformations in a {@link TransformationCache}. The
+ * statistics of the cache are shown by the "transform stats" console command.
+ *
+ * @author agent - Initial contribution
+ */
+public interface CachingTransformationService extends TransformationService {
+
+    /**
+     * @return the cache of the compiled transformations
+     */
+    TransformationCache<?> getTransformationCache();
+
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.transform;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache for compiled transformations, e.g. patterns, expressions or parsed transformation files, keyed by
+ * the expression or the file name. If the cache is full, the least recently used transformation is evicted. The cache
+ * counts hits, misses and evictions, so that its size can be tuned.
+ * <p>
+ * The cache is thread-safe. A {@link Map} view of the cache is available through {@link #asMap()}; lookups through
+ * this view are not counted. The usual pattern is
+ *
+ * <pre>
+ * T transform = cache.get(key);
+ * if (transform == null) {
+ *     transform = compile(key);
+ *     cache.put(key, transform);
+ * }
+ * </pre>
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> the type of the compiled transformations
+ */
+public class TransformationCache<T> {
+
+    /** the default maximum number of cached transformations */
+    public static final int DEFAULT_MAX_SIZE = 100;
+
+    private final Map<String, T> cache;
+
+    /** the synchronized view of the cache, which is also used as the lock of all operations */
+    private final Map<String, T> map;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    public TransformationCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxSize the maximum number of cached transformations
+     */
+    public TransformationCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The maximum size of the cache must be positive.");
+        }
+        this.cache = new LinkedHashMap<String, T>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, T> eldest) {
+                if (size() > maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.map = Collections.synchronizedMap(cache);
+    }
+
+    /**
+     * Gets a cached transformation and counts a hit or a miss.
+     *
+     * @param key the expression or file name
+     * @return the cached transformation or null, if it is not cached
+     */
+    public T get(String key) {
+        synchronized (map) {
+            T transform = cache.get(key);
+            if (transform != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+            return transform;
+        }
+    }
+
+    /**
+     * Caches a transformation. The least recently used transformation is evicted, if the cache is full.
+     *
+     * @param key the expression or file name
+     * @param transform the compiled transformation, must not be null
+     */
+    public void put(String key, T transform) {
+        if (transform == null) {
+            throw new IllegalArgumentException("The transformation must not be null.");
+        }
+        synchronized (map) {
+            cache.put(key, transform);
+        }
+    }
+
+    /**
+     * Removes a transformation from the cache.
+     *
+     * @param key the expression or file name
+     * @return the removed transformation or null, if it was not cached
+     */
+    public T remove(String key) {
+        synchronized (map) {
+            return cache.remove(key);
+        }
+    }
+
+    /**
+     * Removes all transformations, whose key ends with the given suffix, e.g. all transformations of a file name.
+     *
+     * @param suffix the end of the keys to remove
+     * @return the removed keys
+     */
+    public List<String> removeEndingWith(String suffix) {
+        synchronized (map) {
+            List<String> removed = new ArrayList<>();
+            Iterator<String> it = cache.keySet().iterator();
+            while (it.hasNext()) {
+                String key = it.next();
+                if (key.endsWith(suffix)) {
+                    it.remove();
+                    removed.add(key);
+                }
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * Returns a synchronized {@link Map} view of the cache. Entries added through the view are evicted like all others,
+     * but lookups through the view are not counted as hits or misses. As for
+     * {@link Collections#synchronizedMap(Map)}, the view must be locked while iterating over it.
+     *
+     * @return the map view of the cache
+     */
+    public Map<String, T> asMap() {
+        return map;
+    }
+
+    /**
+     * Removes all transformations from the cache.
+     */
+    public void clear() {
+        synchronized (map) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return the number of cached transformations
+     */
+    public int size() {
+        synchronized (map) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * @return the number of lookups, which have found a cached transformation
+     */
+    public long getHits() {
+        synchronized (map) {
+            return hits;
+        }
+    }
+
+    /**
+     * @return the number of lookups, which have not found a cached transformation
+     */
+    public long getMisses() {
+        synchronized (map) {
+            return misses;
+        }
+    }
+
+    /**
+     * @return the number of transformations, which have been evicted because the cache was full
+     */
+    public long getEvictions() {
+        synchronized (map) {
+            return evictions;
+        }
+    }
+
+    @Override
+    public String toString() {
+        synchronized (map) {
+            return "TransformationCache [size=" + cache.size() + ", hits=" + hits + ", misses=" + misses
+                    + ", evictions=" + evictions + "]";
+        }
+    }
+
+}
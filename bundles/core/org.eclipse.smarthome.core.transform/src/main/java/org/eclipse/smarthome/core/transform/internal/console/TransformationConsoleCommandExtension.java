@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.transform.internal.console;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.smarthome.core.transform.CachingTransformationService;
+import org.eclipse.smarthome.core.transform.TransformationCache;
+import org.eclipse.smarthome.core.transform.TransformationService;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+
+/**
+ * Console command extension to show the statistics of the caches of the transformation services.
+ *
+ * @author agent - Initial contribution
+ */
+public class TransformationConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATS = "stats";
+
+    private static final String PROPERTY_TYPE = "smarthome.transform";
+
+    private final Map<String, CachingTransformationService> services = new ConcurrentHashMap<>();
+
+    public TransformationConsoleCommandExtension() {
+        super("transform", "Access the transformation services.");
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(buildCommandUsage(SUBCMD_STATS,
+                "shows the size, hits, misses and evictions of the transformation caches"));
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0 && SUBCMD_STATS.equals(args[0])) {
+            printStatistics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        if (services.isEmpty()) {
+            console.println("No transformation service with a cache available.");
+            return;
+        }
+        for (Entry<String, CachingTransformationService> entry : services.entrySet()) {
+            TransformationCache<?> cache = entry.getValue().getTransformationCache();
+            console.println(String.format("%-10s size=%d, hits=%d, misses=%d, evictions=%d", entry.getKey(),
+                    cache.size(), cache.getHits(), cache.getMisses(), cache.getEvictions()));
+        }
+    }
+
+    protected void addTransformationService(TransformationService service, Map<String, Object> properties) {
+        if (service instanceof CachingTransformationService) {
+            services.put(getType(service, properties), (CachingTransformationService) service);
+        }
+    }
+
+    protected void removeTransformationService(TransformationService service, Map<String, Object> properties) {
+        services.remove(getType(service, properties));
+    }
+
+    private String getType(TransformationService service, Map<String, Object> properties) {
+        Object type = properties.get(PROPERTY_TYPE);
+        return type != null ? type.toString() : service.getClass().getSimpleName();
+    }
+
+}
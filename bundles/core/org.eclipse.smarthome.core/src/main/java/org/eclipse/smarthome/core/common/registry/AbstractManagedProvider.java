@@ -7,7 +7,12 @@
  */
 package org.eclipse.smarthome.core.common.registry;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import org.eclipse.smarthome.core.storage.Storage;
 import org.eclipse.smarthome.core.storage.StorageService;
@@ -62,6 +67,35 @@ public abstract class AbstractManagedProvider<E, K, PE> extends AbstractProvider
         logger.debug("Added new element {} to {}.", keyAsString, this.getClass().getSimpleName());
     }
 
+    /**
+     * Adds all given elements with one batch operation of the storage, i.e. a persistent storage makes all elements
+     * durable together.
+     *
+     * @param elements the elements to add
+     * @throws IllegalArgumentException if an element is null or an element with the same key already exists, in this
+     *             case no element is added
+     */
+    public void addAll(Collection<E> elements) {
+        Map<String, PE> persistableElements = new LinkedHashMap<String, PE>();
+        for (E element : elements) {
+            if (element == null) {
+                throw new IllegalArgumentException("Cannot add null element");
+            }
+            String keyAsString = getKeyAsString(element);
+            if (storage.get(keyAsString) != null || persistableElements.containsKey(keyAsString)) {
+                throw new IllegalArgumentException("Cannot add element, because an element with same UID ("
+                        + keyAsString + ") already exists.");
+            }
+            persistableElements.put(keyAsString, toPersistableElement(element));
+        }
+
+        storage.putAll(persistableElements);
+        for (E element : elements) {
+            notifyListenersAboutAddedElement(element);
+        }
+        logger.debug("Added {} new elements to {}.", persistableElements.size(), this.getClass().getSimpleName());
+    }
+
     @Override
     public Collection<E> getAll() {
         final Function<String, E> toElementList = new Function<String, E>() {
@@ -120,6 +154,39 @@ public abstract class AbstractManagedProvider<E, K, PE> extends AbstractProvider
         return null;
     }
 
+    /**
+     * Removes the elements with the given keys with one batch operation of the storage, i.e. a persistent storage
+     * makes all removals durable together.
+     *
+     * @param keys the keys of the elements to remove
+     * @return the removed elements
+     */
+    public Collection<E> removeAll(Collection<K> keys) {
+        Map<String, PE> persistableElements = new LinkedHashMap<String, PE>();
+        for (K key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("Cannot remove null element");
+            }
+            String keyAsString = keyToString(key);
+            PE persistableElement = storage.get(keyAsString);
+            if (persistableElement != null) {
+                persistableElements.put(keyAsString, persistableElement);
+            }
+        }
+
+        storage.removeAll(persistableElements.keySet());
+        List<E> removedElements = new ArrayList<E>(persistableElements.size());
+        for (Entry<String, PE> entry : persistableElements.entrySet()) {
+            E element = toElement(entry.getKey(), entry.getValue());
+            if (element != null) {
+                notifyListenersAboutRemovedElement(element);
+                removedElements.add(element);
+            }
+        }
+        logger.debug("Removed {} elements from {}.", removedElements.size(), this.getClass().getSimpleName());
+        return removedElements;
+    }
+
     @Override
     public E update(E element) {
 
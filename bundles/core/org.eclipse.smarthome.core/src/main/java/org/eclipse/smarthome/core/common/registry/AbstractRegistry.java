@@ -11,6 +11,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventPublisher;
@@ -24,6 +25,12 @@ import com.google.common.collect.Iterables;
  * The {@link AbstractRegistry} is an abstract implementation of the {@link Registry} interface, that can be used as
  * base class for {@link Registry} implementations.
  *
+ * <p>
+ * If a subclass provides the key of its elements by overriding {@link #getKey(Object)}, the elements are indexed by
+ * key and {@link #get(Object)} is a constant time lookup. {@link #getAll()} returns an immutable snapshot, which is
+ * only rebuilt after the elements have been changed.
+ * </p>
+ *
  * @author Dennis Nobel - Initial contribution
  * @author Stefan Bußweiler - Migration to new event mechanism
  *
@@ -48,6 +55,12 @@ public abstract class AbstractRegistry<E, K> implements ProviderChangeListener<E
 
     protected EventPublisher eventPublisher;
 
+    private final Map<K, E> elementsByKey = new ConcurrentHashMap<K, E>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot<E> snapshot;
+
     @Override
     public void added(Provider<E> provider, E element) {
         Collection<E> elements = elementMap.get(provider);
@@ -55,6 +68,7 @@ public abstract class AbstractRegistry<E, K> implements ProviderChangeListener<E
             try {
                 onAddElement(element);
                 elements.add(element);
+                addToIndex(element);
                 notifyListenersAboutAddedElement(element);
             } catch (Exception ex) {
                 logger.warn("Could not add element: " + ex.getMessage(), ex);
@@ -69,7 +83,79 @@ public abstract class AbstractRegistry<E, K> implements ProviderChangeListener<E
 
     @Override
     public Collection<E> getAll() {
-        return ImmutableList.copyOf(Iterables.concat(elementMap.values()));
+        long currentVersion = version.get();
+        Snapshot<E> currentSnapshot = snapshot;
+        if (currentSnapshot != null && currentSnapshot.version == currentVersion) {
+            return currentSnapshot.elements;
+        }
+        Collection<E> elements = ImmutableList.copyOf(Iterables.concat(elementMap.values()));
+        // only cache the snapshot if no modification happened while it has been built
+        if (version.get() == currentVersion) {
+            snapshot = new Snapshot<E>(currentVersion, elements);
+        }
+        return elements;
+    }
+
+    /**
+     * Returns the element for the given key. The lookup uses the key index, so subclasses must override
+     * {@link #getKey(Object)} in order to use this implementation.
+     *
+     * @param key key of the element
+     * @return element or null if no element was found
+     */
+    @Override
+    public E get(K key) {
+        return key != null ? elementsByKey.get(key) : null;
+    }
+
+    /**
+     * Returns the key of the given element, which is used to index the elements of this registry. Subclasses should
+     * override this method, the default implementation returns null, i.e. the elements are not indexed.
+     *
+     * @param element element
+     * @return key of the element or null if the element should not be indexed
+     */
+    protected K getKey(E element) {
+        return null;
+    }
+
+    /**
+     * Adds the element to the key index and invalidates the snapshot returned by {@link #getAll()}. This method is
+     * called after the element has been added to the element collection of its provider. Subclasses which maintain
+     * additional indexes can override this method, but must call the super implementation.
+     *
+     * @param element element, which has been added
+     */
+    protected void addToIndex(E element) {
+        K key = getKey(element);
+        if (key != null) {
+            elementsByKey.put(key, element);
+        }
+        invalidateSnapshot();
+    }
+
+    /**
+     * Removes the element from the key index and invalidates the snapshot returned by {@link #getAll()}. This method
+     * is called after the element has been removed from the element collection of its provider. Subclasses which
+     * maintain additional indexes can override this method, but must call the super implementation.
+     *
+     * @param element element, which has been removed
+     */
+    protected void removeFromIndex(E element) {
+        K key = getKey(element);
+        if (key != null) {
+            elementsByKey.remove(key, element);
+        }
+        invalidateSnapshot();
+    }
+
+    /**
+     * Invalidates the snapshot returned by {@link #getAll()}. Subclasses must call this method if they modify the
+     * {@link #elementMap} directly.
+     */
+    protected void invalidateSnapshot() {
+        version.incrementAndGet();
+        snapshot = null;
     }
 
     @Override
@@ -79,6 +165,7 @@ public abstract class AbstractRegistry<E, K> implements ProviderChangeListener<E
             try {
                 onRemoveElement(element);
                 elements.remove(element);
+                removeFromIndex(element);
                 notifyListenersAboutRemovedElement(element);
             } catch (Exception ex) {
                 logger.warn("Could not remove element: " + ex.getMessage(), ex);
@@ -99,6 +186,8 @@ public abstract class AbstractRegistry<E, K> implements ProviderChangeListener<E
                 onUpdateElement(oldElement, element);
                 elements.remove(oldElement);
                 elements.add(element);
+                removeFromIndex(oldElement);
+                addToIndex(element);
                 notifyListenersAboutUpdatedElement(oldElement, element);
             } catch (Exception ex) {
                 logger.warn("Could not update element: " + ex.getMessage(), ex);
@@ -184,6 +273,7 @@ public abstract class AbstractRegistry<E, K> implements ProviderChangeListener<E
                 try {
                     onAddElement(element);
                     elements.add(element);
+                    addToIndex(element);
                     notifyListenersAboutAddedElement(element);
                 } catch (Exception ex) {
                     logger.warn("Could not add element: " + ex.getMessage(), ex);
@@ -253,6 +343,7 @@ public abstract class AbstractRegistry<E, K> implements ProviderChangeListener<E
             for (E element : elementMap.get(provider)) {
                 try {
                     onRemoveElement(element);
+                    removeFromIndex(element);
                     notifyListenersAboutRemovedElement(element);
                 } catch (Exception ex) {
                     logger.warn("Could not remove element: " + ex.getMessage(), ex);
@@ -260,6 +351,7 @@ public abstract class AbstractRegistry<E, K> implements ProviderChangeListener<E
             }
 
             elementMap.remove(provider);
+            invalidateSnapshot();
 
             provider.removeProviderChangeListener(this);
 
@@ -295,4 +387,14 @@ public abstract class AbstractRegistry<E, K> implements ProviderChangeListener<E
         }
     }
 
+    private static class Snapshot<E> {
+        private final long version;
+        private final Collection<E> elements;
+
+        private Snapshot(long version, Collection<E> elements) {
+            this.version = version;
+            this.elements = elements;
+        }
+    }
+
 }
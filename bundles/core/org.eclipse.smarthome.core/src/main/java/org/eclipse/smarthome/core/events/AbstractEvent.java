@@ -7,16 +7,21 @@
  */
 package org.eclipse.smarthome.core.events;
 
+import com.google.common.base.Supplier;
+
 /**
  * Abstract implementation of the {@link Event} interface.
  * 
  * @author Stefan Bußweiler - Initial contribution
+ * @author agent - Build the payload lazily
  */
 public abstract class AbstractEvent implements Event {
 
     private final String topic;
 
-    private final String payload;
+    private volatile String payload;
+
+    private final Supplier<String> payloadSupplier;
 
     private final String source;
 
@@ -30,6 +35,23 @@ public abstract class AbstractEvent implements Event {
     public AbstractEvent(String topic, String payload, String source) {
         this.topic = topic;
         this.payload = payload;
+        this.payloadSupplier = null;
+        this.source = source;
+    }
+
+    /**
+     * Must be called in subclass constructor to create a new event whose payload is built lazily. The supplier is
+     * invoked at most once per event, when {@link #getPayload()} is called for the first time. The payload is then
+     * shared by all subscribers of the event.
+     * 
+     * @param topic the topic
+     * @param payloadSupplier the supplier of the payload
+     * @param source the source
+     */
+    protected AbstractEvent(String topic, Supplier<String> payloadSupplier, String source) {
+        this.topic = topic;
+        this.payload = null;
+        this.payloadSupplier = payloadSupplier;
         this.source = source;
     }
 
@@ -40,7 +62,18 @@ public abstract class AbstractEvent implements Event {
 
     @Override
     public String getPayload() {
-        return payload;
+        String result = payload;
+        if (result == null && payloadSupplier != null) {
+            // the payload may be requested by several subscribers at the same time, but is only built once
+            synchronized (payloadSupplier) {
+                result = payload;
+                if (result == null) {
+                    result = payloadSupplier.get();
+                    payload = result;
+                }
+            }
+        }
+        return result;
     }
 
     @Override
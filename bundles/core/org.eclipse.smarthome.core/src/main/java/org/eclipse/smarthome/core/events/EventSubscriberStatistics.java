@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.events;
+
+/**
+ * {@link EventSubscriberStatistics} is a snapshot of the statistics of the event delivery to one
+ * {@link EventSubscriber}.
+ *
+ * @author agent - Initial contribution
+ */
+public class EventSubscriberStatistics {
+
+    private final String subscriber;
+
+    private final int queuedEvents;
+
+    private final long deliveredEvents;
+
+    private final long droppedEvents;
+
+    private final double averageLatency;
+
+    private final long maxLatency;
+
+    /**
+     * Creates a new statistics snapshot.
+     *
+     * @param subscriber a description of the subscriber
+     * @param queuedEvents the number of events waiting for delivery
+     * @param deliveredEvents the number of events delivered to the subscriber
+     * @param droppedEvents the number of events dropped because the queue of the subscriber was full
+     * @param averageLatency the average time from posting an event until the subscriber returns in milliseconds
+     * @param maxLatency the maximum time from posting an event until the subscriber returns in milliseconds
+     */
+    public EventSubscriberStatistics(String subscriber, int queuedEvents, long deliveredEvents, long droppedEvents,
+            double averageLatency, long maxLatency) {
+        this.subscriber = subscriber;
+        this.queuedEvents = queuedEvents;
+        this.deliveredEvents = deliveredEvents;
+        this.droppedEvents = droppedEvents;
+        this.averageLatency = averageLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    /**
+     * @return a description of the subscriber
+     */
+    public String getSubscriber() {
+        return subscriber;
+    }
+
+    /**
+     * @return the number of events waiting for delivery
+     */
+    public int getQueuedEvents() {
+        return queuedEvents;
+    }
+
+    /**
+     * @return the number of events delivered to the subscriber
+     */
+    public long getDeliveredEvents() {
+        return deliveredEvents;
+    }
+
+    /**
+     * @return the number of events dropped because the queue of the subscriber was full
+     */
+    public long getDroppedEvents() {
+        return droppedEvents;
+    }
+
+    /**
+     * @return the average time from posting an event until the subscriber returns in milliseconds
+     */
+    public double getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     * @return the maximum time from posting an event until the subscriber returns in milliseconds
+     */
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: queued=%d, delivered=%d, dropped=%d, avgLatency=%.2fms, maxLatency=%dms", subscriber,
+                queuedEvents, deliveredEvents, droppedEvents, averageLatency, maxLatency);
+    }
+
+}
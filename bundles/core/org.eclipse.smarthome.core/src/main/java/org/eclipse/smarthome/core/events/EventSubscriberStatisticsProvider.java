@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.events;
+
+import java.util.Collection;
+
+/**
+ * {@link EventSubscriberStatisticsProvider} provides the statistics of the event delivery to the
+ * {@link EventSubscriber}s, e.g. for monitoring slow subscribers and dropped events.
+ *
+ * @author agent - Initial contribution
+ */
+public interface EventSubscriberStatisticsProvider {
+
+    /**
+     * Returns the statistics of all registered subscribers.
+     *
+     * @return the statistics (not null)
+     */
+    Collection<EventSubscriberStatistics> getStatistics();
+
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.internal.events;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.events.EventSubscriberStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link EventSubscriberDispatcher} delivers events to the {@link EventSubscriber}s asynchronously. Each subscriber
+ * gets its own bounded {@link EventSubscriberMailbox}, all mailboxes are drained by the shared thread pool
+ * {@value #THREAD_POOL_NAME}. Instead of waiting for each single delivery with a timeout, a watchdog checks the
+ * mailboxes periodically and reports subscribers which take longer than the configured timeout.
+ * <p>
+ * The capacity of the mailboxes and the timeout can be changed at runtime by {@link #configure(int, long)}.
+ *
+ * @author agent - Initial contribution
+ */
+class EventSubscriberDispatcher {
+
+    static final String THREAD_POOL_NAME = "events";
+
+    static final String WATCHDOG_THREAD_POOL_NAME = "eventwatchdog";
+
+    private final Logger logger = LoggerFactory.getLogger(EventSubscriberDispatcher.class);
+
+    private final ConcurrentMap<EventSubscriber, EventSubscriberMailbox> mailboxes = new ConcurrentHashMap<>();
+
+    private volatile int mailboxCapacity;
+
+    private volatile long slowSubscriberTimeout;
+
+    private ExecutorService executor;
+
+    private ScheduledFuture<?> watchdog;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param mailboxCapacity the maximum number of queued events per subscriber
+     * @param slowSubscriberTimeout the time in milliseconds after which a delivery is reported as slow
+     */
+    EventSubscriberDispatcher(int mailboxCapacity, long slowSubscriberTimeout) {
+        this.mailboxCapacity = mailboxCapacity;
+        this.slowSubscriberTimeout = slowSubscriberTimeout;
+    }
+
+    /**
+     * Changes the configuration of the dispatcher. The new capacity applies to the existing mailboxes as well.
+     *
+     * @param mailboxCapacity the maximum number of queued events per subscriber
+     * @param slowSubscriberTimeout the time in milliseconds after which a delivery is reported as slow
+     */
+    synchronized void configure(int mailboxCapacity, long slowSubscriberTimeout) {
+        this.mailboxCapacity = mailboxCapacity;
+        for (EventSubscriberMailbox mailbox : mailboxes.values()) {
+            mailbox.setCapacity(mailboxCapacity);
+        }
+        if (this.slowSubscriberTimeout != slowSubscriberTimeout) {
+            this.slowSubscriberTimeout = slowSubscriberTimeout;
+            if (watchdog != null) {
+                watchdog.cancel(false);
+                startWatchdog();
+            }
+        }
+    }
+
+    synchronized void start() {
+        executor = ThreadPoolManager.getPool(THREAD_POOL_NAME);
+        startWatchdog();
+    }
+
+    private void startWatchdog() {
+        long checkInterval = Math.max(slowSubscriberTimeout / 2, 100);
+        ScheduledExecutorService scheduler = ThreadPoolManager.getScheduledPool(WATCHDOG_THREAD_POOL_NAME);
+        watchdog = scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                long timeout = slowSubscriberTimeout;
+                for (EventSubscriberMailbox mailbox : mailboxes.values()) {
+                    mailbox.checkDelivery(timeout);
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("Event subscriber statistics: {}", mailbox);
+                    }
+                }
+            }
+        }, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (watchdog != null) {
+            watchdog.cancel(false);
+            watchdog = null;
+        }
+        for (EventSubscriberMailbox mailbox : mailboxes.values()) {
+            mailbox.clear();
+        }
+        mailboxes.clear();
+    }
+
+    void addSubscriber(EventSubscriber subscriber) {
+        mailboxes.putIfAbsent(subscriber, new EventSubscriberMailbox(subscriber, executor, mailboxCapacity));
+    }
+
+    void removeSubscriber(EventSubscriber subscriber) {
+        EventSubscriberMailbox mailbox = mailboxes.remove(subscriber);
+        if (mailbox != null) {
+            mailbox.clear();
+            logger.debug("Removed mailbox of event subscriber {}", mailbox);
+        }
+    }
+
+    /**
+     * Queues the event for the given subscriber. This method never blocks.
+     *
+     * @param subscriber the subscriber
+     * @param event the event
+     */
+    void dispatch(EventSubscriber subscriber, Event event) {
+        EventSubscriberMailbox mailbox = mailboxes.get(subscriber);
+        if (mailbox != null) {
+            mailbox.offer(event);
+        } else {
+            logger.debug("Event subscriber '{}' has been removed, skipping event '{}'.", subscriber, event.getTopic());
+        }
+    }
+
+    /**
+     * Returns the queue depth and latency statistics of all subscribers.
+     *
+     * @return the statistics (not null)
+     */
+    Collection<EventSubscriberStatistics> getStatistics() {
+        List<EventSubscriberStatistics> statistics = new ArrayList<>(mailboxes.size());
+        for (EventSubscriberMailbox mailbox : mailboxes.values()) {
+            statistics.add(mailbox.getStatistics());
+        }
+        return statistics;
+    }
+
+}
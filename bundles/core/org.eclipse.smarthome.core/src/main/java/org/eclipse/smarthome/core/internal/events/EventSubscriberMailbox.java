@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.internal.events;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.events.EventSubscriberStatistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link EventSubscriberMailbox} is a bounded, ordered queue of events for exactly one {@link EventSubscriber}.
+ * The queue is drained by a shared executor, whereas at most one thread drains a mailbox at a time. Thus the events
+ * are delivered in the order they have been posted and a slow subscriber only delays its own events.
+ *
+ * The mailbox keeps track of its queue depth and the delivery latency (time from posting until the subscriber returns)
+ * and is checked periodically by the watchdog of the {@link EventSubscriberDispatcher} for stuck deliveries.
+ *
+ * @author agent - Initial contribution
+ */
+class EventSubscriberMailbox implements Runnable {
+
+    /** the maximum number of events delivered in one run, before the thread is handed back to the pool */
+    private static final int MAX_EVENTS_PER_RUN = 64;
+
+    /** dropped events are logged only once per interval in order to not flood the log */
+    private static final int DROPPED_EVENTS_LOG_INTERVAL = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(EventSubscriberMailbox.class);
+
+    private final EventSubscriber subscriber;
+
+    private final Executor executor;
+
+    private final LinkedBlockingQueue<QueuedEvent> queue = new LinkedBlockingQueue<>();
+
+    private volatile int capacity;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private final AtomicLong deliveredEvents = new AtomicLong();
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final AtomicLong totalLatency = new AtomicLong();
+
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    private volatile Event currentEvent;
+
+    private volatile long currentDeliveryStart = 0;
+
+    private volatile boolean currentDeliveryReported = false;
+
+    EventSubscriberMailbox(EventSubscriber subscriber, Executor executor, int capacity) {
+        this.subscriber = subscriber;
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Changes the capacity of the mailbox. Events, which are already queued, are not dropped.
+     *
+     * @param capacity the maximum number of queued events
+     */
+    void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds the event to the mailbox and schedules the delivery.
+     *
+     * @param event the event to deliver
+     * @return true if the event has been queued, false if the mailbox is full and the event has been dropped
+     */
+    boolean offer(Event event) {
+        // the capacity is checked without a lock, so it may be exceeded slightly by concurrent posts
+        if (queue.size() >= capacity) {
+            long dropped = droppedEvents.incrementAndGet();
+            if (dropped % DROPPED_EVENTS_LOG_INTERVAL == 1) {
+                logger.warn("Mailbox of event subscriber '{}' is full, dropping event '{}' ({} events dropped so far).",
+                        new Object[] { subscriber, event.getTopic(), dropped });
+            } else {
+                logger.debug("Mailbox of event subscriber '{}' is full, dropping event '{}'.", subscriber,
+                        event.getTopic());
+            }
+            return false;
+        }
+        queue.offer(new QueuedEvent(event, System.nanoTime()));
+        schedule();
+        return true;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                logger.error("Cannot schedule the event delivery for subscriber '{}': {}", subscriber, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            for (int i = 0; i < MAX_EVENTS_PER_RUN; i++) {
+                QueuedEvent queuedEvent = queue.poll();
+                if (queuedEvent == null) {
+                    break;
+                }
+                deliver(queuedEvent);
+            }
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private void deliver(QueuedEvent queuedEvent) {
+        currentEvent = queuedEvent.event;
+        currentDeliveryReported = false;
+        currentDeliveryStart = System.nanoTime();
+        try {
+            subscriber.receive(queuedEvent.event);
+        } catch (Throwable t) {
+            logger.error("Dispatching event to subscriber '" + subscriber + "' failed: " + t.getMessage(), t);
+        } finally {
+            long end = System.nanoTime();
+            currentDeliveryStart = 0;
+            currentEvent = null;
+            long latency = end - queuedEvent.enqueued;
+            deliveredEvents.incrementAndGet();
+            totalLatency.addAndGet(latency);
+            long max = maxLatency.get();
+            while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+                max = maxLatency.get();
+            }
+        }
+    }
+
+    /**
+     * Reports the delivery in progress if it takes longer than the given timeout. Every delivery is reported at most
+     * once.
+     *
+     * @param timeout the timeout in milliseconds
+     */
+    void checkDelivery(long timeout) {
+        long start = currentDeliveryStart;
+        Event event = currentEvent;
+        if (start != 0 && event != null && !currentDeliveryReported
+                && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) > timeout) {
+            currentDeliveryReported = true;
+            logger.warn("Dispatching event '{}' to subscriber '{}' takes more than {}ms, {} events are waiting.",
+                    new Object[] { event.getTopic(), subscriber, timeout, queue.size() });
+        }
+    }
+
+    EventSubscriber getSubscriber() {
+        return subscriber;
+    }
+
+    /**
+     * @return the number of events waiting for delivery
+     */
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of events delivered to the subscriber
+     */
+    long getDeliveredEvents() {
+        return deliveredEvents.get();
+    }
+
+    /**
+     * @return the number of events dropped because the mailbox was full
+     */
+    long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * @return the average delivery latency in milliseconds, including the time waiting in the mailbox
+     */
+    double getAverageLatency() {
+        long delivered = deliveredEvents.get();
+        return delivered == 0 ? 0 : (totalLatency.get() / (double) delivered) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return the maximum delivery latency in milliseconds, including the time waiting in the mailbox
+     */
+    long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatency.get());
+    }
+
+    /**
+     * @return a snapshot of the statistics of the mailbox
+     */
+    EventSubscriberStatistics getStatistics() {
+        return new EventSubscriberStatistics(subscriber.toString(), getQueueSize(), getDeliveredEvents(),
+                getDroppedEvents(), getAverageLatency(), getMaxLatency());
+    }
+
+    /**
+     * Removes all pending events from the mailbox.
+     */
+    void clear() {
+        queue.clear();
+    }
+
+    @Override
+    public String toString() {
+        return getStatistics().toString();
+    }
+
+    private static class QueuedEvent {
+        private final Event event;
+        private final long enqueued;
+
+        private QueuedEvent(Event event, long enqueued) {
+            this.event = event;
+            this.enqueued = enqueued;
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.internal.events;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.eclipse.smarthome.core.events.EventSubscriber;
+
+/**
+ * The {@link EventSubscriberRoutingTable} is an immutable index of the {@link EventSubscriber}s by event type and topic.
+ * The {@link OSGiEventManager} rebuilds the table whenever a subscriber is added or removed (copy-on-write), so that
+ * the lookup for an event does not need any locking and only touches the subscribers which are interested in the event
+ * type and topic.
+ *
+ * The topics of a subscriber are taken from the {@code event.topics} property of its service registration. Subscribers
+ * without this property receive the events of all topics.
+ *
+ * @author agent - Initial contribution
+ */
+class EventSubscriberRoutingTable {
+
+    static final EventSubscriberRoutingTable EMPTY = new EventSubscriberRoutingTable(
+            Collections.<EventSubscriber, Set<String>> emptyMap());
+
+    private final Map<String, EventTopicTrie<EventSubscriber>> typedSubscribers = new HashMap<>();
+
+    private final EventTopicTrie<EventSubscriber> allEventTypesSubscribers = new EventTopicTrie<>();
+
+    /**
+     * Creates the routing table for the given subscribers.
+     *
+     * @param subscriberTopics the subscribers with their topic patterns, an empty set of topic patterns means all
+     *            topics
+     */
+    EventSubscriberRoutingTable(Map<EventSubscriber, Set<String>> subscriberTopics) {
+        for (Entry<EventSubscriber, Set<String>> entry : subscriberTopics.entrySet()) {
+            EventSubscriber subscriber = entry.getKey();
+            Set<String> topics = entry.getValue().isEmpty() ? Collections.singleton(EventTopicTrie.WILDCARD)
+                    : entry.getValue();
+            for (String eventType : subscriber.getSubscribedEventTypes()) {
+                EventTopicTrie<EventSubscriber> trie;
+                if (EventSubscriber.ALL_EVENT_TYPES.equals(eventType)) {
+                    trie = allEventTypesSubscribers;
+                } else {
+                    trie = typedSubscribers.get(eventType);
+                    if (trie == null) {
+                        trie = new EventTopicTrie<>();
+                        typedSubscribers.put(eventType, trie);
+                    }
+                }
+                for (String topic : topics) {
+                    trie.add(topic, subscriber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the subscribers for the given event type and topic. The event filters of the subscribers are not
+     * evaluated.
+     *
+     * @param eventType the event type
+     * @param topic the event topic
+     * @return the subscribers (not null)
+     */
+    Set<EventSubscriber> getSubscribers(String eventType, String topic) {
+        Set<EventSubscriber> subscribers = new LinkedHashSet<>();
+        EventTopicTrie<EventSubscriber> trie = typedSubscribers.get(eventType);
+        if (trie != null) {
+            trie.collect(topic, subscribers);
+        }
+        allEventTypesSubscribers.collect(topic, subscribers);
+        return subscribers;
+    }
+
+}
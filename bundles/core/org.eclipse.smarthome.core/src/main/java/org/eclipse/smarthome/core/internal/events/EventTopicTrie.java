@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.internal.events;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The {@link EventTopicTrie} maps topic patterns to values and finds all values whose pattern matches a given topic.
+ * Topics are split into segments by '/'. The supported patterns follow the OSGi Event Admin syntax, extended by single
+ * segment wildcards:
+ * <ul>
+ * <li><code>smarthome/items/Light/state</code> matches exactly this topic</li>
+ * <li><code>smarthome/items/&#42;/state</code> matches the state topics of all items (exactly one segment)</li>
+ * <li><code>smarthome/&#42;</code> matches all topics below <code>smarthome</code> (one or more segments)</li>
+ * <li><code>&#42;</code> matches all topics</li>
+ * </ul>
+ * The cost of a lookup depends on the number of topic segments and the number of matching values, but not on the
+ * number of stored patterns.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <V> the type of the values
+ */
+class EventTopicTrie<V> {
+
+    static final String WILDCARD = "*";
+
+    private static final char SEPARATOR = '/';
+
+    private final Node<V> root = new Node<V>();
+
+    /**
+     * Adds a value for the given topic pattern.
+     *
+     * @param topicPattern the topic pattern (not null)
+     * @param value the value (not null)
+     */
+    void add(String topicPattern, V value) {
+        String[] segments = split(topicPattern);
+        Node<V> node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (WILDCARD.equals(segment)) {
+                if (i == segments.length - 1) {
+                    node.subtreeValues.add(value);
+                    return;
+                }
+                if (node.wildcardChild == null) {
+                    node.wildcardChild = new Node<V>();
+                }
+                node = node.wildcardChild;
+            } else {
+                Node<V> child = node.children.get(segment);
+                if (child == null) {
+                    child = new Node<V>();
+                    node.children.put(segment, child);
+                }
+                node = child;
+            }
+        }
+        node.values.add(value);
+    }
+
+    /**
+     * Collects all values whose pattern matches the given topic.
+     *
+     * @param topic the topic (not null)
+     * @param result the collection the matching values are added to
+     */
+    void collect(String topic, Collection<V> result) {
+        collect(root, split(topic), 0, result);
+    }
+
+    private void collect(Node<V> node, String[] segments, int index, Collection<V> result) {
+        if (index == segments.length) {
+            result.addAll(node.values);
+            return;
+        }
+        result.addAll(node.subtreeValues);
+        Node<V> child = node.children.get(segments[index]);
+        if (child != null) {
+            collect(child, segments, index + 1, result);
+        }
+        if (node.wildcardChild != null) {
+            collect(node.wildcardChild, segments, index + 1, result);
+        }
+    }
+
+    private static String[] split(String topic) {
+        // splitting by a single, non regex character does not compile a pattern
+        return topic.split(String.valueOf(SEPARATOR));
+    }
+
+    private static class Node<V> {
+        private final Map<String, Node<V>> children = new HashMap<>();
+        private Node<V> wildcardChild;
+        private final Set<V> values = new LinkedHashSet<>();
+        private final Set<V> subtreeValues = new LinkedHashSet<>();
+    }
+
+}
@@ -10,21 +10,24 @@ package org.eclipse.smarthome.core.internal.events;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Dictionary;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.TimeoutException;
 
 import org.eclipse.smarthome.core.common.SafeMethodCaller;
-import org.eclipse.smarthome.core.common.SafeMethodCaller.ActionWithException;
 import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.core.events.EventFactory;
 import org.eclipse.smarthome.core.events.EventFilter;
 import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.events.EventSubscriber;
+import org.eclipse.smarthome.core.events.EventSubscriberStatistics;
+import org.eclipse.smarthome.core.events.EventSubscriberStatisticsProvider;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceReference;
 import org.osgi.service.component.ComponentContext;
@@ -35,9 +38,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimaps;
-import com.google.common.collect.SetMultimap;
 
 /**
  * The {@link OSGiEventManager} provides an OSGi based default implementation of the Eclipse SmartHome event bus.
@@ -49,9 +49,24 @@ import com.google.common.collect.SetMultimap;
  * The {@link OSGiEventManager} also serves as {@link EventPublisher} by implementing the EventPublisher interface.
  * Events are send in an asynchronous way via OSGi Event Admin mechanism.
  *
+ * If the configuration property {@code localDispatch} is set to {@code true}, the already constructed {@link Event}
+ * object is handed over through the OSGi Event Admin instead of its serialized payload. In this mode the event is
+ * dispatched to the {@link EventSubscriber}s without re-creating it through an {@link EventFactory}, and the Json
+ * payload is only built if a subscriber actually calls {@link Event#getPayload()}. Hence the payload is not validated
+ * when the event is posted, and OSGi event handlers other than the {@link OSGiEventManager} do not receive a
+ * {@code payload} property. Local dispatch must not be enabled if such handlers rely on the payload.
+ *
+ * The delivery to the subscribers is done by the {@link EventSubscriberDispatcher}, i.e. each subscriber has its own
+ * bounded mailbox ({@code subscriberQueueSize}, default {@value #DEFAULT_SUBSCRIBER_QUEUE_SIZE} events) and deliveries
+ * which take longer than {@code slowSubscriberTimeout} milliseconds are reported.
+ *
+ * The subscribers are looked up through the {@link EventSubscriberRoutingTable} by event type and topic, where the
+ * topics of a subscriber can be restricted by the {@code event.topics} property of its service registration.
+ *
  * @author Stefan Bußweiler - Initial contribution
+ * @author agent - Added the local dispatch
  */
-public class OSGiEventManager implements EventHandler, EventPublisher {
+public class OSGiEventManager implements EventHandler, EventPublisher, EventSubscriberStatisticsProvider {
 
     @SuppressWarnings("rawtypes")
     private class EventSubscriberServiceTracker extends ServiceTracker {
@@ -66,7 +81,7 @@ public class OSGiEventManager implements EventHandler, EventPublisher {
         public Object addingService(ServiceReference reference) {
             EventSubscriber eventSubscriber = (EventSubscriber) this.context.getService(reference);
             if (eventSubscriber != null) {
-                addEventSubscriber(eventSubscriber);
+                addEventSubscriber(eventSubscriber, getTopics(reference.getProperty(EVENT_TOPICS_PROPERTY)));
                 return eventSubscriber;
             } else {
                 return null;
@@ -80,26 +95,72 @@ public class OSGiEventManager implements EventHandler, EventPublisher {
 
     }
 
+    private static final String LOCAL_DISPATCH_PROPERTY = "localDispatch";
+
+    private static final String EVENT_OBJECT_PROPERTY = "event";
+
+    private static final String EVENT_TOPICS_PROPERTY = "event.topics";
+
+    private static final String SUBSCRIBER_QUEUE_SIZE_PROPERTY = "subscriberQueueSize";
+
+    private static final String SLOW_SUBSCRIBER_TIMEOUT_PROPERTY = "slowSubscriberTimeout";
+
+    static final int DEFAULT_SUBSCRIBER_QUEUE_SIZE = 1000;
+
     private Logger logger = LoggerFactory.getLogger(OSGiEventManager.class);
 
+    private volatile boolean localDispatch = false;
+
     private EventAdmin osgiEventAdmin;
 
     private final Map<String, EventFactory> typedEventFactories = new ConcurrentHashMap<String, EventFactory>();
 
-    private final SetMultimap<String, EventSubscriber> typedEventSubscribers = Multimaps
-            .synchronizedSetMultimap(HashMultimap.<String, EventSubscriber> create());
+    private final Map<EventSubscriber, Set<String>> subscriberTopics = new HashMap<>();
+
+    private volatile EventSubscriberRoutingTable routingTable = EventSubscriberRoutingTable.EMPTY;
 
     private EventSubscriberServiceTracker eventSubscriberServiceTracker;
 
+    private final EventSubscriberDispatcher eventSubscriberDispatcher = new EventSubscriberDispatcher(
+            DEFAULT_SUBSCRIBER_QUEUE_SIZE, SafeMethodCaller.DEFAULT_TIMEOUT);
+
     protected void activate(ComponentContext componentContext) {
+        modified(componentContext);
+        eventSubscriberDispatcher.start();
         eventSubscriberServiceTracker = new EventSubscriberServiceTracker(componentContext.getBundleContext());
         eventSubscriberServiceTracker.open();
     }
 
+    protected void modified(ComponentContext componentContext) {
+        Object localDispatchObj = componentContext.getProperties().get(LOCAL_DISPATCH_PROPERTY);
+        localDispatch = localDispatchObj != null && Boolean.parseBoolean(localDispatchObj.toString());
+        logger.debug("In-JVM event dispatching is {}.", localDispatch ? "enabled" : "disabled");
+
+        Dictionary<String, Object> properties = componentContext.getProperties();
+        int subscriberQueueSize = getIntProperty(properties, SUBSCRIBER_QUEUE_SIZE_PROPERTY,
+                DEFAULT_SUBSCRIBER_QUEUE_SIZE);
+        int slowSubscriberTimeout = getIntProperty(properties, SLOW_SUBSCRIBER_TIMEOUT_PROPERTY,
+                SafeMethodCaller.DEFAULT_TIMEOUT);
+        eventSubscriberDispatcher.configure(subscriberQueueSize, slowSubscriberTimeout);
+    }
+
     protected void deactivate(ComponentContext componentContext) {
         if (eventSubscriberServiceTracker != null) {
             eventSubscriberServiceTracker.close();
         }
+        eventSubscriberDispatcher.stop();
+    }
+
+    private int getIntProperty(Dictionary<String, Object> properties, String name, int defaultValue) {
+        Object value = properties.get(name);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.toString());
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid configuration '{}' for '{}' - value must be an integer.", value, name);
+            }
+        }
+        return defaultValue;
     }
 
     protected void setEventAdmin(EventAdmin eventAdmin) {
@@ -130,8 +191,19 @@ public class OSGiEventManager implements EventHandler, EventPublisher {
         }
     }
 
+    @Override
+    public Collection<EventSubscriberStatistics> getStatistics() {
+        return eventSubscriberDispatcher.getStatistics();
+    }
+
     @Override
     public void handleEvent(org.osgi.service.event.Event osgiEvent) {
+        Object eventObj = osgiEvent.getProperty(EVENT_OBJECT_PROPERTY);
+        if (eventObj instanceof Event) {
+            handleLocalEvent((Event) eventObj);
+            return;
+        }
+
         Object typeObj = osgiEvent.getProperty("type");
         Object payloadObj = osgiEvent.getProperty("payload");
         Object topicObj = osgiEvent.getProperty("topic");
@@ -156,7 +228,7 @@ public class OSGiEventManager implements EventHandler, EventPublisher {
         EventFactory eventFactory = typedEventFactories.get(type);
 
         if (eventFactory != null) {
-            Set<EventSubscriber> eventSubscribers = getEventSubscribers(type);
+            Set<EventSubscriber> eventSubscribers = routingTable.getSubscribers(type, topic);
             if (!eventSubscribers.isEmpty()) {
                 Event eshEvent = createESHEvent(eventFactory, type, payload, topic, source);
                 if (eshEvent != null) {
@@ -168,6 +240,13 @@ public class OSGiEventManager implements EventHandler, EventPublisher {
         }
     }
 
+    private void handleLocalEvent(final Event event) {
+        Set<EventSubscriber> eventSubscribers = routingTable.getSubscribers(event.getType(), event.getTopic());
+        if (!eventSubscribers.isEmpty()) {
+            dispatchESHEvent(eventSubscribers, event);
+        }
+    }
+
     private Event createESHEvent(final EventFactory eventFactory, final String type, final String payload,
             final String topic, final String source) {
         Event eshEvent = null;
@@ -185,55 +264,38 @@ public class OSGiEventManager implements EventHandler, EventPublisher {
             try {
                 EventFilter filter = eventSubscriber.getEventFilter();
                 if (filter == null || filter.apply(event)) {
-                    SafeMethodCaller.call(new ActionWithException<Void>() {
-
-                        @Override
-                        public Void call() throws Exception {
-                            eventSubscriber.receive(event);
-                            return null;
-                        }
-                    });
+                    eventSubscriberDispatcher.dispatch(eventSubscriber, event);
                 }
-            } catch (TimeoutException timeoutException) {
-                logger.warn("Dispatching event to subscriber '{}' takes more than {}ms.", eventSubscriber.toString(),
-                        SafeMethodCaller.DEFAULT_TIMEOUT);
             } catch (Throwable t) {
-                logger.error("Dispatching/filtering event for subscriber '" + EventSubscriber.class.getName()
-                        + "' failed: " + t.getMessage(), t);
+                logger.error("Filtering event for subscriber '" + eventSubscriber + "' failed: " + t.getMessage(), t);
             }
         }
     }
 
-    private Set<EventSubscriber> getEventSubscribers(String eventType) {
-        Set<EventSubscriber> eventTypeSubscribers = typedEventSubscribers.get(eventType);
-        Set<EventSubscriber> allEventTypeSubscribers = typedEventSubscribers.get(EventSubscriber.ALL_EVENT_TYPES);
-
-        Set<EventSubscriber> subscribers = new HashSet<EventSubscriber>();
-        if (eventTypeSubscribers != null) {
-            subscribers.addAll(eventTypeSubscribers);
-        }
-        if (allEventTypeSubscribers != null) {
-            subscribers.addAll(allEventTypeSubscribers);
-        }
-        return subscribers;
-    }
-
     @Override
     public void post(final Event event) throws IllegalArgumentException, IllegalStateException {
         EventAdmin eventAdmin = this.osgiEventAdmin;
-        assertValidArgument(event);
+        boolean local = this.localDispatch;
+        // the payload of a locally dispatched event is built lazily, so it is not checked here
+        assertValidArgument(event, !local);
         assertValidState(eventAdmin);
-        postAsOSGiEvent(eventAdmin, event);
+        postAsOSGiEvent(eventAdmin, event, local);
     }
 
-    private void postAsOSGiEvent(final EventAdmin eventAdmin, final Event event) throws IllegalStateException {
+    private void postAsOSGiEvent(final EventAdmin eventAdmin, final Event event, final boolean local)
+            throws IllegalStateException {
         try {
             AccessController.doPrivileged(new PrivilegedExceptionAction<Void>() {
                 @Override
                 public Void run() throws Exception {
-                    Dictionary<String, Object> properties = new Hashtable<String, Object>(3);
+                    Dictionary<String, Object> properties = new Hashtable<String, Object>(4);
                     properties.put("type", event.getType());
-                    properties.put("payload", event.getPayload());
+                    if (local) {
+                        // the payload is not needed within the JVM, so the event object is passed on as is
+                        properties.put(EVENT_OBJECT_PROPERTY, event);
+                    } else {
+                        properties.put("payload", event.getPayload());
+                    }
                     properties.put("topic", event.getTopic());
                     if (event.getSource() != null) {
                         properties.put("source", event.getSource());
@@ -249,13 +311,15 @@ public class OSGiEventManager implements EventHandler, EventPublisher {
         }
     }
 
-    private void assertValidArgument(Event event) throws IllegalArgumentException {
+    private void assertValidArgument(Event event, boolean checkPayload) throws IllegalArgumentException {
         String errorMsg = "The %s of the 'event' argument must not be null or empty.";
         Preconditions.checkArgument(event != null, "Argument 'event' must not be null.");
         Preconditions.checkArgument(event.getType() != null && !event.getType().isEmpty(),
                 String.format(errorMsg, "type"));
-        Preconditions.checkArgument(event.getPayload() != null && !event.getPayload().isEmpty(),
-                String.format(errorMsg, "payload"));
+        if (checkPayload) {
+            Preconditions.checkArgument(event.getPayload() != null && !event.getPayload().isEmpty(),
+                    String.format(errorMsg, "payload"));
+        }
         Preconditions.checkArgument(event.getTopic() != null && !event.getTopic().isEmpty(),
                 String.format(errorMsg, "topic"));
     }
@@ -264,24 +328,34 @@ public class OSGiEventManager implements EventHandler, EventPublisher {
         Preconditions.checkArgument(eventAdmin != null, "The event bus module is not available!");
     }
 
-    private void addEventSubscriber(EventSubscriber eventSubscriber) {
-        Set<String> subscribedEventTypes = eventSubscriber.getSubscribedEventTypes();
-
-        for (String subscribedEventType : subscribedEventTypes) {
-            synchronized (this) {
-                if (!typedEventSubscribers.containsEntry(subscribedEventType, eventSubscriber)) {
-                    typedEventSubscribers.put(subscribedEventType, eventSubscriber);
-                }
+    private Set<String> getTopics(Object topicsObj) {
+        Set<String> topics = new HashSet<>();
+        if (topicsObj instanceof String) {
+            topics.add((String) topicsObj);
+        } else if (topicsObj instanceof String[]) {
+            topics.addAll(Arrays.asList((String[]) topicsObj));
+        } else if (topicsObj instanceof Collection) {
+            for (Object topic : (Collection<?>) topicsObj) {
+                topics.add(String.valueOf(topic));
             }
         }
+        return topics;
     }
 
-    private void removeEventSubscriber(EventSubscriber eventSubscriber) {
-        Set<String> subscribedEventTypes = eventSubscriber.getSubscribedEventTypes();
+    private void addEventSubscriber(EventSubscriber eventSubscriber, Set<String> topics) {
+        eventSubscriberDispatcher.addSubscriber(eventSubscriber);
+        synchronized (subscriberTopics) {
+            subscriberTopics.put(eventSubscriber, topics);
+            routingTable = new EventSubscriberRoutingTable(subscriberTopics);
+        }
+    }
 
-        for (String subscribedEventType : subscribedEventTypes) {
-            typedEventSubscribers.remove(subscribedEventType, eventSubscriber);
+    private void removeEventSubscriber(EventSubscriber eventSubscriber) {
+        synchronized (subscriberTopics) {
+            subscriberTopics.remove(eventSubscriber);
+            routingTable = new EventSubscriberRoutingTable(subscriberTopics);
         }
+        eventSubscriberDispatcher.removeSubscriber(eventSubscriber);
     }
 
 }
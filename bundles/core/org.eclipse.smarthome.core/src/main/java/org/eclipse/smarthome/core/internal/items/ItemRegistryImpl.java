@@ -15,7 +15,9 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.eclipse.smarthome.core.common.registry.AbstractRegistry;
@@ -28,6 +30,8 @@ import org.eclipse.smarthome.core.items.ItemNotFoundException;
 import org.eclipse.smarthome.core.items.ItemNotUniqueException;
 import org.eclipse.smarthome.core.items.ItemProvider;
 import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.ItemStateNotificationStatistics;
+import org.eclipse.smarthome.core.items.ItemStateNotificationStatisticsProvider;
 import org.eclipse.smarthome.core.items.ItemUtil;
 import org.eclipse.smarthome.core.items.ItemsChangeListener;
 import org.eclipse.smarthome.core.items.ManagedItemProvider;
@@ -47,11 +51,19 @@ import org.slf4j.LoggerFactory;
  * current state in memory. This is the central point where states are kept and
  * thus it is a core part for all stateful services.
  *
+ * The items are indexed by name, type and tag, so that lookups do not need to
+ * iterate over all items. The names are additionally kept in order, so that
+ * items can be retrieved by a name prefix. Tags which are changed on a registered item are
+ * only reflected in the index after the item has been updated through its
+ * provider.
+ *
  * @author Kai Kreuzer - Initial contribution and API
  * @author Stefan Bußweiler - Migration to new event mechanism
+ * @author agent - Provide the state notification statistics
  *
  */
-public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements ItemRegistry, ItemsChangeListener {
+public class ItemRegistryImpl extends AbstractRegistry<Item, String>
+        implements ItemRegistry, ItemsChangeListener, ItemStateNotificationStatisticsProvider {
 
     private final Logger logger = LoggerFactory.getLogger(ItemRegistryImpl.class);
 
@@ -62,6 +74,12 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements I
 
     private Map<String, Integer> stateDescriptionProviderRanking = new ConcurrentHashMap<>();
 
+    private final Map<String, Set<String>> itemNamesByType = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> itemNamesByTag = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListSet<String> sortedItemNames = new ConcurrentSkipListSet<>();
+
     @Override
     public void allItemsChanged(ItemProvider provider, Collection<String> oldItemNames) {
 
@@ -95,6 +113,7 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements I
                 try {
                     onAddElement(item);
                     items.add(item);
+                    addToIndex(item);
                     for (RegistryChangeListener<Item> listener : listeners) {
                         listener.added(item);
                     }
@@ -106,6 +125,8 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements I
                 try {
                     onAddElement(item);
                     items.add(item);
+                    removeFromIndex(oldItem);
+                    addToIndex(item);
                     for (RegistryChangeListener<Item> listener : listeners) {
                         listener.updated(oldItem, item);
                     }
@@ -121,11 +142,13 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements I
 
         // send a remove notification for all remaining old items
         for (Item removedItem : oldItemsMap.values()) {
+            removeFromIndex(removedItem);
             for (RegistryChangeListener<Item> listener : listeners) {
                 listener.removed(removedItem);
             }
         }
 
+        invalidateSnapshot();
     }
 
     /*
@@ -137,23 +160,16 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements I
      */
     @Override
     public Item getItem(String name) throws ItemNotFoundException {
-
-        for (Item item : getItems()) {
-            if (item.getName().equals(name)) {
-                return item;
-            }
+        Item item = get(name);
+        if (item == null) {
+            throw new ItemNotFoundException(name);
         }
-
-        throw new ItemNotFoundException(name);
+        return item;
     }
 
     @Override
-    public Item get(String itemName) {
-        try {
-            return getItem(itemName);
-        } catch (ItemNotFoundException ignored) {
-            return null;
-        }
+    protected String getKey(Item element) {
+        return element.getName();
     }
 
     /*
@@ -189,13 +205,31 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements I
         return getAll();
     }
 
+    @Override
+    public Collection<ItemStateNotificationStatistics> getStatistics() {
+        List<ItemStateNotificationStatistics> statistics = new ArrayList<>();
+        for (Item item : getAll()) {
+            if (item instanceof GenericItem) {
+                ItemStateNotificationStatistics stats = ((GenericItem) item).getStateNotificationStatistics();
+                if (stats.getDeliveredNotifications() > 0 || stats.getQueuedNotifications() > 0) {
+                    statistics.add(stats);
+                }
+            }
+        }
+        return statistics;
+    }
+
     @Override
     public Collection<Item> getItemsOfType(String type) {
         Collection<Item> matchedItems = new ArrayList<Item>();
 
-        for (Item item : getItems()) {
-            if (item.getType().equals(type)) {
-                matchedItems.add(item);
+        Set<String> itemNames = type != null ? itemNamesByType.get(type) : null;
+        if (itemNames != null) {
+            for (String itemName : itemNames) {
+                Item item = get(itemName);
+                if (item != null && item.getType().equals(type)) {
+                    matchedItems.add(item);
+                }
             }
         }
 
@@ -223,6 +257,23 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements I
         return matchedItems;
     }
 
+    @Override
+    public Collection<Item> getItemsByNamePrefix(String prefix) {
+        Collection<Item> matchedItems = new ArrayList<Item>();
+
+        for (String itemName : sortedItemNames.tailSet(prefix)) {
+            if (!itemName.startsWith(prefix)) {
+                break;
+            }
+            Item item = get(itemName);
+            if (item != null) {
+                matchedItems.add(item);
+            }
+        }
+
+        return matchedItems;
+    }
+
     private void addToGroupItems(Item item, List<String> groupItemNames) {
         for (String groupName : groupItemNames) {
             try {
@@ -322,7 +373,7 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements I
     @Override
     public Collection<Item> getItemsByTag(String... tags) {
         List<Item> filteredItems = new ArrayList<Item>();
-        for (Item item : getItems()) {
+        for (Item item : getTagCandidates(tags)) {
             if (itemHasTags(item, tags)) {
                 filteredItems.add(item);
             }
@@ -330,6 +381,91 @@ public class ItemRegistryImpl extends AbstractRegistry<Item, String>implements I
         return filteredItems;
     }
 
+    /**
+     * Returns the items having the least frequent of the given tags, which is a superset of the items having all
+     * tags.
+     */
+    private Collection<Item> getTagCandidates(String... tags) {
+        if (tags == null || tags.length == 0) {
+            return getItems();
+        }
+        Set<String> candidateNames = null;
+        for (String tag : tags) {
+            Set<String> itemNames = tag != null ? itemNamesByTag.get(tag) : null;
+            if (itemNames == null) {
+                return Collections.emptyList();
+            }
+            if (candidateNames == null || itemNames.size() < candidateNames.size()) {
+                candidateNames = itemNames;
+            }
+        }
+        Collection<Item> candidates = new ArrayList<Item>(candidateNames.size());
+        for (String itemName : candidateNames) {
+            Item item = get(itemName);
+            if (item != null) {
+                candidates.add(item);
+            }
+        }
+        return candidates;
+    }
+
+    @Override
+    protected void addToIndex(Item item) {
+        super.addToIndex(item);
+        String name = item.getName();
+        sortedItemNames.add(name);
+        addToIndex(itemNamesByType, item.getType(), name);
+        for (String tag : item.getTags()) {
+            addToIndex(itemNamesByTag, tag, name);
+        }
+    }
+
+    @Override
+    protected void removeFromIndex(Item item) {
+        super.removeFromIndex(item);
+        String name = item.getName();
+        // another instance with the same name might still be registered, e.g. during an update
+        Item remainingItem = get(name);
+        if (remainingItem == null) {
+            sortedItemNames.remove(name);
+        }
+        if (remainingItem == null || !remainingItem.getType().equals(item.getType())) {
+            removeFromIndex(itemNamesByType, item.getType(), name);
+        }
+        for (String tag : item.getTags()) {
+            if (remainingItem == null || !remainingItem.hasTag(tag)) {
+                removeFromIndex(itemNamesByTag, tag, name);
+            }
+        }
+    }
+
+    private void addToIndex(Map<String, Set<String>> index, String key, String itemName) {
+        if (key == null) {
+            return;
+        }
+        Set<String> itemNames = index.get(key);
+        if (itemNames == null) {
+            synchronized (index) {
+                itemNames = index.get(key);
+                if (itemNames == null) {
+                    itemNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+                    index.put(key, itemNames);
+                }
+            }
+        }
+        itemNames.add(itemName);
+    }
+
+    private void removeFromIndex(Map<String, Set<String>> index, String key, String itemName) {
+        if (key == null) {
+            return;
+        }
+        Set<String> itemNames = index.get(key);
+        if (itemNames != null) {
+            itemNames.remove(itemName);
+        }
+    }
+
     private boolean itemHasTags(Item item, String... tags) {
         for (String tag : tags) {
             if (!item.hasTag(tag)) {
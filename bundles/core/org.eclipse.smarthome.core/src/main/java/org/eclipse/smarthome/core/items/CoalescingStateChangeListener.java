@@ -0,0 +1,22 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.items;
+
+/**
+ * A {@link CoalescingStateChangeListener} is a {@link StateChangeListener} which is only interested in the latest state
+ * of an item. If several state updates of an item are pending, the listener is notified only once: with the latest
+ * state through {@link #stateUpdated(Item, org.eclipse.smarthome.core.types.State)} and, if it differs from the state
+ * before the first pending update, through
+ * {@link #stateChanged(Item, org.eclipse.smarthome.core.types.State, org.eclipse.smarthome.core.types.State)}.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public interface CoalescingStateChangeListener extends StateChangeListener {
+
+}
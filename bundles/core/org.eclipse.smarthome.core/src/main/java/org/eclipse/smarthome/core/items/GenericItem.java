@@ -17,9 +17,7 @@ import java.util.Locale;
 import java.util.Set;
 import java.util.WeakHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
-import java.util.concurrent.ExecutorService;
 
-import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.events.EventPublisher;
 import org.eclipse.smarthome.core.items.events.ItemEventFactory;
 import org.eclipse.smarthome.core.types.Command;
@@ -28,8 +26,6 @@ import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.StateDescription;
 import org.eclipse.smarthome.core.types.StateDescriptionProvider;
 import org.eclipse.smarthome.core.types.UnDefType;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
@@ -43,14 +39,11 @@ import com.google.common.collect.ImmutableSet;
  * @author Kai Kreuzer - Initial contribution and API
  * @author Andre Fuechsel - Added tags
  * @author Stefan Bußweiler - Migration to new ESH event concept
+ * @author agent - Queued the state notifications and published their statistics
  *
  */
 abstract public class GenericItem implements ActiveItem {
 
-    private final Logger logger = LoggerFactory.getLogger(GenericItem.class);
-
-    private static final String ITEM_THREADPOOLNAME = "items";
-
     protected EventPublisher eventPublisher;
 
     protected Set<StateChangeListener> listeners = new CopyOnWriteArraySet<StateChangeListener>(
@@ -66,6 +59,8 @@ abstract public class GenericItem implements ActiveItem {
 
     protected State state = UnDefType.NULL;
 
+    private final ItemStateNotifier notifier = new ItemStateNotifier(this);
+
     protected String label;
 
     protected String category;
@@ -216,27 +211,34 @@ abstract public class GenericItem implements ActiveItem {
         internalSend(command);
     }
 
+    /**
+     * Notifies the listeners asynchronously about the state update. The notifications of an item are delivered in
+     * order, see {@link ItemStateNotifier}.
+     *
+     * @param oldState the state before the update
+     * @param newState the state after the update
+     */
     protected void notifyListeners(final State oldState, final State newState) {
-        // if nothing has changed, we send update notifications
-        Set<StateChangeListener> clonedListeners = null;
-        clonedListeners = new CopyOnWriteArraySet<StateChangeListener>(listeners);
-        ExecutorService pool = ThreadPoolManager.getPool(ITEM_THREADPOOLNAME);
-        for (final StateChangeListener listener : clonedListeners) {
-            pool.execute(new Runnable() {
-                @Override
-                public void run() {
-                    try {
-                        listener.stateUpdated(GenericItem.this, newState);
-                        if (newState != null && !newState.equals(oldState)) {
-                            listener.stateChanged(GenericItem.this, oldState, newState);
-                        }
-                    } catch (Exception e) {
-                        logger.warn("failed notifying listener '{}' about state update of item {}: {}",
-                                new Object[] { listener.toString(), GenericItem.this.getName(), e.getMessage() }, e);
-                    }
-                }
-            });
-        }
+        // we also send update notifications if nothing has changed
+        notifier.notifyListeners(oldState, newState);
+    }
+
+    /**
+     * Returns the notifier of this item, which provides the statistics about the state notifications.
+     *
+     * @return the notifier (not null)
+     */
+    ItemStateNotifier getStateNotifier() {
+        return notifier;
+    }
+
+    /**
+     * Returns a snapshot of the statistics about the state notifications of this item.
+     *
+     * @return the statistics (not null)
+     */
+    public ItemStateNotificationStatistics getStateNotificationStatistics() {
+        return notifier.getStatistics();
     }
 
     /**
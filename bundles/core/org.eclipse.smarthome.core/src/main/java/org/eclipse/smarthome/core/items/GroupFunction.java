@@ -7,7 +7,10 @@
  */
 package org.eclipse.smarthome.core.items;
 
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.eclipse.smarthome.core.types.State;
@@ -46,7 +49,7 @@ abstract public interface GroupFunction {
      * @author Kai Kreuzer - Initial contribution and API
      *
      */
-    static class Equality implements GroupFunction {
+    static class Equality implements IncrementalGroupFunction {
 
         /**
          * @{inheritDoc
@@ -79,6 +82,54 @@ abstract public interface GroupFunction {
                 return null;
             }
         }
+
+        /**
+         * @{inheritDoc
+         */
+        @Override
+        public Aggregate<?> createAggregate() {
+            return new Aggregate<State>() {
+
+                private final Map<State, Integer> stateCounts = new HashMap<>();
+
+                @Override
+                protected State getContribution(Item item) {
+                    return item.getState();
+                }
+
+                @Override
+                protected void add(State state) {
+                    Integer count = stateCounts.get(state);
+                    stateCounts.put(state, count == null ? 1 : count + 1);
+                }
+
+                @Override
+                protected void remove(State state) {
+                    Integer count = stateCounts.get(state);
+                    if (count == null || count <= 1) {
+                        stateCounts.remove(state);
+                    } else {
+                        stateCounts.put(state, count - 1);
+                    }
+                }
+
+                @Override
+                protected void clear() {
+                    stateCounts.clear();
+                }
+
+                @Override
+                protected State calculate() {
+                    if (stateCounts.size() == 1) {
+                        Entry<State, Integer> entry = stateCounts.entrySet().iterator().next();
+                        if (entry.getValue() == getItemCount()) {
+                            return entry.getKey();
+                        }
+                    }
+                    return UnDefType.UNDEF;
+                }
+            };
+        }
     }
 
 }
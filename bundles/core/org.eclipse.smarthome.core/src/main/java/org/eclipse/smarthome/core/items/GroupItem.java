@@ -13,6 +13,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.smarthome.core.items.events.ItemEventFactory;
 import org.eclipse.smarthome.core.types.Command;
@@ -23,7 +24,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
 
-public class GroupItem extends GenericItem implements StateChangeListener {
+public class GroupItem extends GenericItem implements CoalescingStateChangeListener {
 
     private final Logger logger = LoggerFactory.getLogger(GroupItem.class);
 
@@ -33,6 +34,13 @@ public class GroupItem extends GenericItem implements StateChangeListener {
 
     protected GroupFunction function;
 
+    /**
+     * The aggregate of the group function, if it supports incremental calculation; null otherwise
+     */
+    private final IncrementalGroupFunction.Aggregate<?> aggregate;
+
+    private final AtomicInteger groupMemberCount = new AtomicInteger();
+
     public GroupItem(String name) {
         this(name, null);
     }
@@ -46,6 +54,11 @@ public class GroupItem extends GenericItem implements StateChangeListener {
         members = new CopyOnWriteArraySet<Item>();
         this.function = function;
         this.baseItem = baseItem;
+        if (function instanceof IncrementalGroupFunction) {
+            aggregate = ((IncrementalGroupFunction) function).createAggregate();
+        } else {
+            aggregate = null;
+        }
     }
 
     /**
@@ -102,7 +115,14 @@ public class GroupItem extends GenericItem implements StateChangeListener {
         if (item == null) {
             throw new IllegalArgumentException("Item must not be null!");
         }
-        members.add(item);
+        if (members.add(item)) {
+            if (item instanceof GroupItem) {
+                groupMemberCount.incrementAndGet();
+            }
+            if (aggregate != null) {
+                aggregate.addItem(item);
+            }
+        }
         if (item instanceof GenericItem) {
             GenericItem genericItem = (GenericItem) item;
             genericItem.addStateChangeListener(this);
@@ -119,7 +139,15 @@ public class GroupItem extends GenericItem implements StateChangeListener {
         if (item == null) {
             throw new IllegalArgumentException("Item must not be null!");
         }
-        members.remove(item);
+        if (members.remove(item)) {
+            if (item instanceof GroupItem) {
+                groupMemberCount.decrementAndGet();
+            }
+            if (aggregate != null && !aggregate.removeItem(item)) {
+                // an equal but not the same instance has been removed from the members
+                aggregate.reset(members);
+            }
+        }
         if (item instanceof GenericItem) {
             GenericItem genericItem = (GenericItem) item;
             genericItem.removeStateChangeListener(this);
@@ -207,7 +235,13 @@ public class GroupItem extends GenericItem implements StateChangeListener {
      */
     @Override
     public State getStateAs(Class<? extends State> typeClass) {
-        State newState = function.getStateAs(getAllMembers(), typeClass);
+        State newState;
+        if (aggregate != null && groupMemberCount.get() == 0) {
+            // without nested groups all members are direct members
+            newState = aggregate.getStateAs(typeClass);
+        } else {
+            newState = function.getStateAs(getAllMembers(), typeClass);
+        }
         if (newState == null && baseItem != null) {
             // we use the transformation method from the base item
             baseItem.setState(state);
@@ -275,7 +309,12 @@ public class GroupItem extends GenericItem implements StateChangeListener {
     @Override
     public void stateUpdated(Item item, State state) {
         State oldState = this.state;
-        setState(function.calculate(members));
+        if (aggregate != null) {
+            aggregate.updateItem(item);
+            setState(aggregate.getState());
+        } else {
+            setState(function.calculate(members));
+        }
         if (!oldState.equals(this.state)) {
             sendGroupStateChangedEvent(item.getName(), this.state, oldState);
         }
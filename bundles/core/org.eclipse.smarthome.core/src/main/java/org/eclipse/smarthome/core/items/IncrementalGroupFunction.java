@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.items;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * An {@link IncrementalGroupFunction} is a {@link GroupFunction} which is able to maintain the group state
+ * incrementally. Instead of recalculating the state over all members whenever a single member is updated, the
+ * {@link GroupItem} keeps an {@link Aggregate} which only applies the difference between the old and the new
+ * contribution of the updated member.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public interface IncrementalGroupFunction extends GroupFunction {
+
+    /**
+     * Creates a new, empty aggregate for this group function. Each {@link GroupItem} uses its own aggregate.
+     *
+     * @return a new aggregate (not null)
+     */
+    public Aggregate<?> createAggregate();
+
+    /**
+     * An {@link Aggregate} holds the intermediate result of a group function for a set of members. It remembers the
+     * contribution of each member, so that the group state can be updated in constant or logarithmic time if a member
+     * changes its state. Members are identified by instance, not by equality.
+     *
+     * @param <V> the type of the contribution of a single member
+     */
+    public abstract static class Aggregate<V> {
+
+        private final Map<Item, V> contributions = new IdentityHashMap<>();
+
+        /**
+         * Adds the given item. If the item has already been added, its contribution is updated.
+         *
+         * @param item the item to add
+         */
+        public synchronized void addItem(Item item) {
+            if (contributions.containsKey(item)) {
+                updateItem(item);
+            } else {
+                V contribution = getContribution(item);
+                contributions.put(item, contribution);
+                if (contribution != null) {
+                    add(contribution);
+                }
+            }
+        }
+
+        /**
+         * Removes the given item.
+         *
+         * @param item the item to remove
+         * @return true, if the item has been part of the aggregate, false otherwise
+         */
+        public synchronized boolean removeItem(Item item) {
+            if (!contributions.containsKey(item)) {
+                return false;
+            }
+            V contribution = contributions.remove(item);
+            if (contribution != null) {
+                remove(contribution);
+            }
+            return true;
+        }
+
+        /**
+         * Updates the contribution of the given item to its current state. Items which have not been added are
+         * ignored.
+         *
+         * @param item the updated item
+         */
+        public synchronized void updateItem(Item item) {
+            if (!contributions.containsKey(item)) {
+                return;
+            }
+            V oldContribution = contributions.get(item);
+            V newContribution = getContribution(item);
+            if (oldContribution == null ? newContribution == null : oldContribution.equals(newContribution)) {
+                return;
+            }
+            contributions.put(item, newContribution);
+            if (oldContribution != null) {
+                remove(oldContribution);
+            }
+            if (newContribution != null) {
+                add(newContribution);
+            }
+        }
+
+        /**
+         * Recalculates the aggregate from scratch for the given items.
+         *
+         * @param items the items
+         */
+        public synchronized void reset(Set<Item> items) {
+            contributions.clear();
+            clear();
+            for (Item item : items) {
+                addItem(item);
+            }
+        }
+
+        /**
+         * Returns the group state for the current contributions.
+         *
+         * @return the group state
+         */
+        public synchronized State getState() {
+            return calculate();
+        }
+
+        /**
+         * Returns the group state as a state of the requested type.
+         *
+         * @param stateClass the type in which the state should be returned
+         * @return the group state of the requested type or null, if type is not supported
+         */
+        public synchronized State getStateAs(Class<? extends State> stateClass) {
+            return calculateAs(stateClass);
+        }
+
+        /**
+         * Returns the number of items of this aggregate.
+         *
+         * @return the number of items
+         */
+        protected int getItemCount() {
+            return contributions.size();
+        }
+
+        /**
+         * Determines the contribution of the given item based on its current state.
+         *
+         * @param item the item
+         * @return the contribution or null, if the item does not contribute to the group state
+         */
+        protected abstract V getContribution(Item item);
+
+        /**
+         * Adds a contribution to the intermediate result.
+         *
+         * @param contribution the contribution (not null)
+         */
+        protected abstract void add(V contribution);
+
+        /**
+         * Removes a contribution, which has been added before, from the intermediate result.
+         *
+         * @param contribution the contribution (not null)
+         */
+        protected abstract void remove(V contribution);
+
+        /**
+         * Clears the intermediate result.
+         */
+        protected abstract void clear();
+
+        /**
+         * Calculates the group state from the intermediate result.
+         *
+         * @return the group state
+         */
+        protected abstract State calculate();
+
+        /**
+         * Calculates the group state from the intermediate result as a state of the requested type. By default the
+         * calculated state is returned if it is an instance of the requested type.
+         *
+         * @param stateClass the type in which the state should be returned
+         * @return the group state of the requested type or null, if type is not supported
+         */
+        protected State calculateAs(Class<? extends State> stateClass) {
+            State state = calculate();
+            if (stateClass.isInstance(state)) {
+                return state;
+            } else {
+                return null;
+            }
+        }
+    }
+
+}
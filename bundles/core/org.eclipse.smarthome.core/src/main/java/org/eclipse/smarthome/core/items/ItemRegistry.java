@@ -67,6 +67,15 @@ public interface ItemRegistry extends Registry<Item, String> {
      */
     public Collection<Item> getItems(String pattern);
 
+    /**
+     * This method retrieves all items, whose name starts with the given prefix, ordered by their name.
+     *
+     * @param prefix
+     *            - the prefix of the item names, an empty prefix returns all items
+     * @return a collection of all items with a matching name, ordered by name
+     */
+    public Collection<Item> getItemsByNamePrefix(String prefix);
+
     /**
      * Returns list of items which contains all of the given tags.
      *
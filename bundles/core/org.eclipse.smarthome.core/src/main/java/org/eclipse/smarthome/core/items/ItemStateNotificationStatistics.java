@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.items;
+
+/**
+ * {@link ItemStateNotificationStatistics} is a snapshot of the statistics of the state notifications of one
+ * {@link GenericItem}, see {@link ItemStateNotifier}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ItemStateNotificationStatistics {
+
+    private final String itemName;
+
+    private final int queuedNotifications;
+
+    private final long deliveredNotifications;
+
+    private final long coalescedNotifications;
+
+    private final double averageLatency;
+
+    private final long maxLatency;
+
+    /**
+     * Creates a new statistics snapshot.
+     *
+     * @param itemName the name of the item
+     * @param queuedNotifications the number of notifications waiting for delivery
+     * @param deliveredNotifications the number of notifications delivered to the listeners of the item
+     * @param coalescedNotifications the number of notifications merged with a later notification
+     * @param averageLatency the average notification latency in milliseconds
+     * @param maxLatency the maximum notification latency in milliseconds
+     */
+    public ItemStateNotificationStatistics(String itemName, int queuedNotifications, long deliveredNotifications,
+            long coalescedNotifications, double averageLatency, long maxLatency) {
+        this.itemName = itemName;
+        this.queuedNotifications = queuedNotifications;
+        this.deliveredNotifications = deliveredNotifications;
+        this.coalescedNotifications = coalescedNotifications;
+        this.averageLatency = averageLatency;
+        this.maxLatency = maxLatency;
+    }
+
+    /**
+     * @return the name of the item
+     */
+    public String getItemName() {
+        return itemName;
+    }
+
+    /**
+     * @return the number of notifications waiting for delivery
+     */
+    public int getQueuedNotifications() {
+        return queuedNotifications;
+    }
+
+    /**
+     * @return the number of notifications delivered to the listeners of the item
+     */
+    public long getDeliveredNotifications() {
+        return deliveredNotifications;
+    }
+
+    /**
+     * @return the number of notifications which have been merged with a later notification for
+     *         {@link CoalescingStateChangeListener}s
+     */
+    public long getCoalescedNotifications() {
+        return coalescedNotifications;
+    }
+
+    /**
+     * @return the average notification latency in milliseconds, including the time waiting in the queue
+     */
+    public double getAverageLatency() {
+        return averageLatency;
+    }
+
+    /**
+     * @return the maximum notification latency in milliseconds, including the time waiting in the queue
+     */
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: queued=%d, delivered=%d, coalesced=%d, avgLatency=%.2fms, maxLatency=%dms",
+                itemName, queuedNotifications, deliveredNotifications, coalescedNotifications, averageLatency,
+                maxLatency);
+    }
+
+}
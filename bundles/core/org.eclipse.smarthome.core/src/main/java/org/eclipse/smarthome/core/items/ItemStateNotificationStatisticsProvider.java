@@ -0,0 +1,27 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.items;
+
+import java.util.Collection;
+
+/**
+ * {@link ItemStateNotificationStatisticsProvider} provides the statistics of the state notifications of the items,
+ * e.g. for monitoring slow {@link StateChangeListener}s and growing notification queues.
+ *
+ * @author agent - Initial contribution
+ */
+public interface ItemStateNotificationStatisticsProvider {
+
+    /**
+     * Returns the statistics of all items which have notified their listeners at least once.
+     *
+     * @return the statistics (not null)
+     */
+    Collection<ItemStateNotificationStatistics> getStatistics();
+
+}
@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.items;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.eclipse.smarthome.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ItemStateNotifier} notifies the {@link StateChangeListener}s of exactly one {@link GenericItem} about its
+ * state updates. The pending notifications of an item are queued and drained by the shared thread pool
+ * {@value #THREAD_POOL_NAME}, whereas at most one thread drains the queue of an item at a time. Thus the listeners
+ * are notified in the order of the state updates and a burst of updates results in a single task instead of one task
+ * per update and listener. {@link CoalescingStateChangeListener}s are notified only once per drained batch.
+ *
+ * Each notifier keeps statistics about the notifications of its item.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class ItemStateNotifier implements Runnable {
+
+    static final String THREAD_POOL_NAME = "items";
+
+    /** the maximum number of notifications processed in one run, before the thread is handed back to the pool */
+    private static final int MAX_NOTIFICATIONS_PER_RUN = 64;
+
+    private final AtomicInteger queuedNotifications = new AtomicInteger();
+
+    private final AtomicLong deliveredNotifications = new AtomicLong();
+
+    private final AtomicLong coalescedNotifications = new AtomicLong();
+
+    private final AtomicLong totalLatency = new AtomicLong();
+
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    private final Logger logger = LoggerFactory.getLogger(ItemStateNotifier.class);
+
+    private final GenericItem item;
+
+    private final Queue<Notification> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    ItemStateNotifier(GenericItem item) {
+        this.item = item;
+    }
+
+    /**
+     * Queues a notification about a state update of the item and schedules the delivery. Nothing is queued if the
+     * item has no listeners.
+     *
+     * @param oldState the state before the update
+     * @param newState the state after the update
+     */
+    void notifyListeners(State oldState, State newState) {
+        if (item.listeners.isEmpty()) {
+            return;
+        }
+        queue.offer(new Notification(oldState, newState, System.nanoTime()));
+        queuedNotifications.incrementAndGet();
+        schedule();
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                ThreadPoolManager.getPool(THREAD_POOL_NAME).execute(this);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                logger.error("Cannot schedule the state notifications of item '{}': {}", item.getName(),
+                        e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            List<Notification> batch = new ArrayList<>();
+            for (int i = 0; i < MAX_NOTIFICATIONS_PER_RUN; i++) {
+                Notification notification = queue.poll();
+                if (notification == null) {
+                    break;
+                }
+                batch.add(notification);
+            }
+            if (!batch.isEmpty()) {
+                queuedNotifications.addAndGet(-batch.size());
+                deliver(batch);
+            }
+        } finally {
+            scheduled.set(false);
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private void deliver(List<Notification> batch) {
+        Notification first = batch.get(0);
+        Notification last = batch.get(batch.size() - 1);
+        boolean coalesced = false;
+        for (StateChangeListener listener : item.listeners) {
+            if (listener instanceof CoalescingStateChangeListener) {
+                notifyListener(listener, first.oldState, last.newState);
+                coalesced = true;
+            } else {
+                for (Notification notification : batch) {
+                    notifyListener(listener, notification.oldState, notification.newState);
+                }
+            }
+        }
+        if (coalesced) {
+            coalescedNotifications.addAndGet(batch.size() - 1);
+        }
+
+        // the first notification of the batch has waited the longest
+        long end = System.nanoTime();
+        long batchLatency = 0;
+        for (Notification notification : batch) {
+            batchLatency += end - notification.enqueued;
+        }
+        totalLatency.addAndGet(batchLatency);
+        long latency = end - first.enqueued;
+        long max = maxLatency.get();
+        while (latency > max && !maxLatency.compareAndSet(max, latency)) {
+            max = maxLatency.get();
+        }
+        deliveredNotifications.addAndGet(batch.size());
+    }
+
+    private void notifyListener(StateChangeListener listener, State oldState, State newState) {
+        try {
+            listener.stateUpdated(item, newState);
+            if (newState != null && !newState.equals(oldState)) {
+                listener.stateChanged(item, oldState, newState);
+            }
+        } catch (Exception e) {
+            logger.warn("failed notifying listener '{}' about state update of item {}: {}",
+                    new Object[] { listener.toString(), item.getName(), e.getMessage() }, e);
+        }
+    }
+
+    /**
+     * @return the number of notifications of the item waiting for delivery
+     */
+    public int getQueueSize() {
+        return queuedNotifications.get();
+    }
+
+    /**
+     * @return the number of notifications delivered to the listeners of the item
+     */
+    public long getDeliveredNotifications() {
+        return deliveredNotifications.get();
+    }
+
+    /**
+     * @return the number of notifications which have been merged with a later notification for
+     *         {@link CoalescingStateChangeListener}s
+     */
+    public long getCoalescedNotifications() {
+        return coalescedNotifications.get();
+    }
+
+    /**
+     * @return the average notification latency in milliseconds, including the time waiting in the queue
+     */
+    public double getAverageLatency() {
+        long delivered = deliveredNotifications.get();
+        return delivered == 0 ? 0 : (totalLatency.get() / (double) delivered) / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * @return the maximum notification latency in milliseconds, including the time waiting in the queue
+     */
+    public long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMillis(maxLatency.get());
+    }
+
+    /**
+     * @return a snapshot of the statistics of the notifications of the item
+     */
+    public ItemStateNotificationStatistics getStatistics() {
+        return new ItemStateNotificationStatistics(item.getName(), getQueueSize(), getDeliveredNotifications(),
+                getCoalescedNotifications(), getAverageLatency(), getMaxLatency());
+    }
+
+    private static class Notification {
+        private final State oldState;
+        private final State newState;
+        private final long enqueued;
+
+        private Notification(State oldState, State newState, long enqueued) {
+            this.oldState = oldState;
+            this.newState = newState;
+            this.enqueued = enqueued;
+        }
+    }
+
+}
@@ -75,10 +75,10 @@ public class ManagedItemProvider extends AbstractManagedProvider<Item, String, P
     public Item remove(String itemName, boolean recursive) {
         Item item = get(itemName);
         if (recursive && item instanceof GroupItem) {
-            List<String> members = getMemberNamesRecursively((GroupItem) item, getAll());
-            for (String member : members) {
-                this.remove(member);
-            }
+            List<String> itemNames = getMemberNamesRecursively((GroupItem) item, getAll());
+            itemNames.add(item.getName());
+            removeAll(itemNames);
+            return item;
         }
         if (item != null) {
             this.remove(item.getName());
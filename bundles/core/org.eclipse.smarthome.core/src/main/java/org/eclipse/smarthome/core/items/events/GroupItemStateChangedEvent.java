@@ -9,6 +9,8 @@ package org.eclipse.smarthome.core.items.events;
 
 import org.eclipse.smarthome.core.types.State;
 
+import com.google.common.base.Supplier;
+
 /**
  * {@link GroupItemStateChangedEvent}s can be used to deliver group item state changes through the Eclipse SmartHome
  * event bus. In
@@ -32,6 +34,12 @@ public class GroupItemStateChangedEvent extends ItemStateChangedEvent {
         this.memberName = memberName;
     }
 
+    protected GroupItemStateChangedEvent(String topic, Supplier<String> payloadSupplier, String itemName,
+            String memberName, State newItemState, State oldItemState) {
+        super(topic, payloadSupplier, itemName, newItemState, oldItemState);
+        this.memberName = memberName;
+    }
+
     /**
      * @return the name of the changed group member
      */
@@ -10,6 +10,8 @@ package org.eclipse.smarthome.core.items.events;
 import org.eclipse.smarthome.core.events.AbstractEvent;
 import org.eclipse.smarthome.core.types.Command;
 
+import com.google.common.base.Supplier;
+
 /**
  * {@link ItemCommandEvent}s can be used to deliver commands through the Eclipse SmartHome event bus.
  * Command events must be created with the {@link ItemEventFactory}.
@@ -42,6 +44,22 @@ public class ItemCommandEvent extends AbstractEvent {
         this.command = command;
     }
 
+    /**
+     * Constructs a new item command event object with a lazily serialized payload.
+     * 
+     * @param topic the topic
+     * @param payloadSupplier the supplier of the payload
+     * @param itemName the item name
+     * @param command the command
+     * @param source the source, can be null
+     */
+    protected ItemCommandEvent(String topic, Supplier<String> payloadSupplier, String itemName, Command command,
+            String source) {
+        super(topic, payloadSupplier, source);
+        this.itemName = itemName;
+        this.command = command;
+    }
+
     @Override
     public String getType() {
         return TYPE;
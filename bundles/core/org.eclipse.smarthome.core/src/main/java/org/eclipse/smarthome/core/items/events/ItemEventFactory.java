@@ -23,6 +23,7 @@ import org.eclipse.smarthome.core.types.Type;
 import org.eclipse.smarthome.core.types.UnDefType;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
 import com.google.common.collect.Sets;
 
 /**
@@ -186,8 +187,7 @@ public class ItemEventFactory extends AbstractEventFactory {
         assertValidArguments(itemName, command, "command");
         String topic = buildTopic(ITEM_COMAND_EVENT_TOPIC, itemName);
         ItemEventPayloadBean bean = new ItemEventPayloadBean(command.getClass().getSimpleName(), command.toString());
-        String payload = serializePayload(bean);
-        return new ItemCommandEvent(topic, payload, itemName, command, source);
+        return new ItemCommandEvent(topic, new PayloadSupplier(bean), itemName, command, source);
     }
 
     /**
@@ -219,8 +219,7 @@ public class ItemEventFactory extends AbstractEventFactory {
         assertValidArguments(itemName, state, "state");
         String topic = buildTopic(ITEM_STATE_EVENT_TOPIC, itemName);
         ItemEventPayloadBean bean = new ItemEventPayloadBean(state.getClass().getSimpleName(), state.toString());
-        String payload = serializePayload(bean);
-        return new ItemStateEvent(topic, payload, itemName, state, source);
+        return new ItemStateEvent(topic, new PayloadSupplier(bean), itemName, state, source);
     }
 
     /**
@@ -254,8 +253,7 @@ public class ItemEventFactory extends AbstractEventFactory {
         ItemStateChangedEventPayloadBean bean = new ItemStateChangedEventPayloadBean(
                 newState.getClass().getSimpleName(), newState.toString(), oldState.getClass().getSimpleName(),
                 oldState.toString());
-        String payload = serializePayload(bean);
-        return new ItemStateChangedEvent(topic, payload, itemName, newState, oldState);
+        return new ItemStateChangedEvent(topic, new PayloadSupplier(bean), itemName, newState, oldState);
     }
 
     public static GroupItemStateChangedEvent createGroupStateChangedEvent(String itemName, String memberName,
@@ -265,8 +263,8 @@ public class ItemEventFactory extends AbstractEventFactory {
         ItemStateChangedEventPayloadBean bean = new ItemStateChangedEventPayloadBean(
                 newState.getClass().getSimpleName(), newState.toString(), oldState.getClass().getSimpleName(),
                 oldState.toString());
-        String payload = serializePayload(bean);
-        return new GroupItemStateChangedEvent(topic, payload, itemName, memberName, newState, oldState);
+        return new GroupItemStateChangedEvent(topic, new PayloadSupplier(bean), itemName, memberName, newState,
+                oldState);
     }
 
     /**
@@ -356,6 +354,23 @@ public class ItemEventFactory extends AbstractEventFactory {
         Preconditions.checkArgument(item != null, "The argument '" + argumentName + "' must no be null.");
     }
 
+    /**
+     * Serializes the given payload bean on first access only, so that events which are never posted do not pay for
+     * the Json conversion.
+     */
+    private static class PayloadSupplier implements Supplier<String> {
+        private final Object payloadBean;
+
+        public PayloadSupplier(Object payloadBean) {
+            this.payloadBean = payloadBean;
+        }
+
+        @Override
+        public String get() {
+            return serializePayload(payloadBean);
+        }
+    }
+
     /**
      * This is a java bean that is used to serialize/deserialize item event payload.
      */
@@ -14,6 +14,7 @@ import java.util.regex.Pattern;
 import java.util.regex.Matcher;
 
 import org.eclipse.smarthome.core.items.GroupFunction;
+import org.eclipse.smarthome.core.items.IncrementalGroupFunction;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.UnDefType;
@@ -37,7 +38,7 @@ public interface ArithmeticGroupFunction extends GroupFunction {
      * @author Kai Kreuzer - Initial contribution and API
      *
      */
-    static class And implements GroupFunction {
+    static class And implements IncrementalGroupFunction {
 
         protected final State activeState;
         protected final State passiveState;
@@ -101,6 +102,67 @@ public interface ArithmeticGroupFunction extends GroupFunction {
             return count;
 
         }
+
+        /**
+         * @{inheritDoc
+         */
+        @Override
+        public Aggregate<?> createAggregate() {
+            return new ActiveStateAggregate();
+        }
+
+        /**
+         * Determines the group state from the number of items in the 'activeState'.
+         *
+         * @param activeCount the number of items in the 'activeState'
+         * @param itemCount the number of items
+         * @return the group state
+         */
+        protected State calculate(int activeCount, int itemCount) {
+            return itemCount > 0 && activeCount == itemCount ? activeState : passiveState;
+        }
+
+        private class ActiveStateAggregate extends Aggregate<Boolean> {
+
+            private int activeCount;
+
+            @Override
+            protected Boolean getContribution(Item item) {
+                return activeState.equals(item.getStateAs(activeState.getClass())) ? Boolean.TRUE : null;
+            }
+
+            @Override
+            protected void add(Boolean contribution) {
+                activeCount++;
+            }
+
+            @Override
+            protected void remove(Boolean contribution) {
+                activeCount--;
+            }
+
+            @Override
+            protected void clear() {
+                activeCount = 0;
+            }
+
+            @Override
+            protected State calculate() {
+                return And.this.calculate(activeCount, getItemCount());
+            }
+
+            @Override
+            protected State calculateAs(Class<? extends State> stateClass) {
+                State state = calculate();
+                if (stateClass.isInstance(state)) {
+                    return state;
+                } else if (stateClass == DecimalType.class) {
+                    return new DecimalType(getItemCount() - activeCount);
+                } else {
+                    return null;
+                }
+            }
+        }
     }
 
     /**
@@ -113,7 +175,7 @@ public interface ArithmeticGroupFunction extends GroupFunction {
      * @author Kai Kreuzer - Initial contribution and API
      *
      */
-    static class Or implements GroupFunction {
+    static class Or implements IncrementalGroupFunction {
 
         protected final State activeState;
         protected final State passiveState;
@@ -169,6 +231,67 @@ public interface ArithmeticGroupFunction extends GroupFunction {
             }
             return count;
         }
+
+        /**
+         * @{inheritDoc
+         */
+        @Override
+        public Aggregate<?> createAggregate() {
+            return new ActiveStateAggregate();
+        }
+
+        /**
+         * Determines the group state from the number of items in the 'activeState'.
+         *
+         * @param activeCount the number of items in the 'activeState'
+         * @param itemCount the number of items
+         * @return the group state
+         */
+        protected State calculate(int activeCount, int itemCount) {
+            return activeCount > 0 ? activeState : passiveState;
+        }
+
+        private class ActiveStateAggregate extends Aggregate<Boolean> {
+
+            private int activeCount;
+
+            @Override
+            protected Boolean getContribution(Item item) {
+                return activeState.equals(item.getStateAs(activeState.getClass())) ? Boolean.TRUE : null;
+            }
+
+            @Override
+            protected void add(Boolean contribution) {
+                activeCount++;
+            }
+
+            @Override
+            protected void remove(Boolean contribution) {
+                activeCount--;
+            }
+
+            @Override
+            protected void clear() {
+                activeCount = 0;
+            }
+
+            @Override
+            protected State calculate() {
+                return Or.this.calculate(activeCount, getItemCount());
+            }
+
+            @Override
+            protected State calculateAs(Class<? extends State> stateClass) {
+                State state = calculate();
+                if (stateClass.isInstance(state)) {
+                    return state;
+                } else if (stateClass == DecimalType.class) {
+                    return new DecimalType(activeCount);
+                } else {
+                    return null;
+                }
+            }
+        }
     }
 
     /**
@@ -192,6 +315,13 @@ public interface ArithmeticGroupFunction extends GroupFunction {
             return notResult;
         }
 
+        @Override
+        protected State calculate(int activeCount, int itemCount) {
+            State result = super.calculate(activeCount, itemCount);
+            State notResult = result.equals(activeState) ? passiveState : activeState;
+            return notResult;
+        }
+
     }
 
     /**
@@ -215,6 +345,13 @@ public interface ArithmeticGroupFunction extends GroupFunction {
             return notResult;
         }
 
+        @Override
+        protected State calculate(int activeCount, int itemCount) {
+            State result = super.calculate(activeCount, itemCount);
+            State notResult = result.equals(activeState) ? passiveState : activeState;
+            return notResult;
+        }
+
     }
 
     /**
@@ -223,7 +360,7 @@ public interface ArithmeticGroupFunction extends GroupFunction {
      * @author Kai Kreuzer - Initial contribution and API
      *
      */
-    static class Avg implements GroupFunction {
+    static class Avg implements IncrementalGroupFunction {
 
         public Avg() {
         }
@@ -263,6 +400,23 @@ public interface ArithmeticGroupFunction extends GroupFunction {
                 return null;
             }
         }
+
+        /**
+         * @{inheritDoc
+         */
+        @Override
+        public Aggregate<?> createAggregate() {
+            return new DecimalAggregate() {
+                @Override
+                protected State calculate() {
+                    if (getCount() > 0) {
+                        return new DecimalType(getSum().divide(new BigDecimal(getCount()), RoundingMode.HALF_UP));
+                    } else {
+                        return UnDefType.UNDEF;
+                    }
+                }
+            };
+        }
     }
 
     /**
@@ -271,7 +425,7 @@ public interface ArithmeticGroupFunction extends GroupFunction {
      * @author Thomas.Eichstaedt-Engelen
      *
      */
-    static class Sum implements GroupFunction {
+    static class Sum implements IncrementalGroupFunction {
 
         public Sum() {
         }
@@ -305,6 +459,19 @@ public interface ArithmeticGroupFunction extends GroupFunction {
                 return null;
             }
         }
+
+        /**
+         * @{inheritDoc
+         */
+        @Override
+        public Aggregate<?> createAggregate() {
+            return new DecimalAggregate() {
+                @Override
+                protected State calculate() {
+                    return new DecimalType(getSum());
+                }
+            };
+        }
     }
 
     /**
@@ -313,7 +480,7 @@ public interface ArithmeticGroupFunction extends GroupFunction {
      * @author Kai Kreuzer - Initial contribution and API
      *
      */
-    static class Min implements GroupFunction {
+    static class Min implements IncrementalGroupFunction {
 
         public Min() {
         }
@@ -352,6 +519,20 @@ public interface ArithmeticGroupFunction extends GroupFunction {
                 return null;
             }
         }
+
+        /**
+         * @{inheritDoc
+         */
+        @Override
+        public Aggregate<?> createAggregate() {
+            return new DecimalAggregate() {
+                @Override
+                protected State calculate() {
+                    BigDecimal min = getMin();
+                    return min != null ? new DecimalType(min) : UnDefType.UNDEF;
+                }
+            };
+        }
     }
 
     /**
@@ -360,7 +541,7 @@ public interface ArithmeticGroupFunction extends GroupFunction {
      * @author Kai Kreuzer - Initial contribution and API
      *
      */
-    static class Max implements GroupFunction {
+    static class Max implements IncrementalGroupFunction {
 
         public Max() {
         }
@@ -399,6 +580,20 @@ public interface ArithmeticGroupFunction extends GroupFunction {
                 return null;
             }
         }
+
+        /**
+         * @{inheritDoc
+         */
+        @Override
+        public Aggregate<?> createAggregate() {
+            return new DecimalAggregate() {
+                @Override
+                protected State calculate() {
+                    BigDecimal max = getMax();
+                    return max != null ? new DecimalType(max) : UnDefType.UNDEF;
+                }
+            };
+        }
     }
     
 	/**
@@ -411,7 +606,7 @@ public interface ArithmeticGroupFunction extends GroupFunction {
 	 * @author Gaël L'hopital
 	 *
 	 */
-	static class Count implements GroupFunction {
+	static class Count implements IncrementalGroupFunction {
 		
 		protected final Pattern pattern;
 		
@@ -450,6 +645,42 @@ public interface ArithmeticGroupFunction extends GroupFunction {
 				return null;
 			}
 		}
+
+		/**
+		 * @{inheritDoc
+		 */
+		@Override
+		public Aggregate<?> createAggregate() {
+			return new Aggregate<Boolean>() {
+
+				private int count;
+
+				@Override
+				protected Boolean getContribution(Item item) {
+					return pattern.matcher(item.getState().toString()).matches() ? Boolean.TRUE : null;
+				}
+
+				@Override
+				protected void add(Boolean contribution) {
+					count++;
+				}
+
+				@Override
+				protected void remove(Boolean contribution) {
+					count--;
+				}
+
+				@Override
+				protected void clear() {
+					count = 0;
+				}
+
+				@Override
+				protected State calculate() {
+					return new DecimalType(count);
+				}
+			};
+		}
 	}
 
 
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.library.types;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Comparator;
+import java.util.TreeMap;
+
+import org.eclipse.smarthome.core.items.IncrementalGroupFunction.Aggregate;
+import org.eclipse.smarthome.core.items.Item;
+
+/**
+ * The {@link DecimalAggregate} is the base class for the aggregates of the arithmetic group functions over item states
+ * of decimal type. It maintains the running sum and count of all decimal states as well as an ordered multiset of the
+ * values, so that sum, average, minimum and maximum are available without iterating over the members.
+ *
+ * The results have the same scale as the full calculation over all members: the scale of the sum is the largest scale
+ * of the values (but not negative), as if all values had been added up one by one, and minimum and maximum are one of
+ * the current values. Numerically equal values of different scale (e.g. 1.0 and 1.00) are kept apart, so that the
+ * scale of a removed value does not show up in the minimum or maximum.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+abstract class DecimalAggregate extends Aggregate<BigDecimal> {
+
+    private BigDecimal sum = BigDecimal.ZERO;
+
+    private int count;
+
+    /** orders the values numerically and numerically equal values by their scale */
+    private static final Comparator<BigDecimal> VALUE_ORDER = new Comparator<BigDecimal>() {
+        @Override
+        public int compare(BigDecimal value1, BigDecimal value2) {
+            int result = value1.compareTo(value2);
+            return result != 0 ? result : Integer.compare(value1.scale(), value2.scale());
+        }
+    };
+
+    private final TreeMap<BigDecimal, Integer> values = new TreeMap<>(VALUE_ORDER);
+
+    private final TreeMap<Integer, Integer> scales = new TreeMap<>();
+
+    @Override
+    protected BigDecimal getContribution(Item item) {
+        DecimalType itemState = (DecimalType) item.getStateAs(DecimalType.class);
+        return itemState != null ? itemState.toBigDecimal() : null;
+    }
+
+    @Override
+    protected void add(BigDecimal value) {
+        sum = sum.add(value);
+        count++;
+        increment(values, value);
+        increment(scales, value.scale());
+    }
+
+    @Override
+    protected void remove(BigDecimal value) {
+        sum = sum.subtract(value);
+        count--;
+        decrement(values, value);
+        decrement(scales, value.scale());
+    }
+
+    @Override
+    protected void clear() {
+        sum = BigDecimal.ZERO;
+        count = 0;
+        values.clear();
+        scales.clear();
+    }
+
+    /**
+     * Returns the sum of all decimal states.
+     *
+     * @return the sum, zero if there are no decimal states
+     */
+    protected BigDecimal getSum() {
+        if (count == 0) {
+            return BigDecimal.ZERO;
+        }
+        // removed values might have increased the scale of the running sum
+        return sum.setScale(Math.max(0, scales.lastKey()), RoundingMode.UNNECESSARY);
+    }
+
+    /**
+     * Returns the number of decimal states.
+     *
+     * @return the number of decimal states
+     */
+    protected int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the minimum of all decimal states.
+     *
+     * @return the minimum or null, if there are no decimal states
+     */
+    protected BigDecimal getMin() {
+        return values.isEmpty() ? null : values.firstKey();
+    }
+
+    /**
+     * Returns the maximum of all decimal states.
+     *
+     * @return the maximum or null, if there are no decimal states
+     */
+    protected BigDecimal getMax() {
+        return values.isEmpty() ? null : values.lastKey();
+    }
+
+    private static <K> void increment(TreeMap<K, Integer> multiset, K key) {
+        Integer count = multiset.get(key);
+        multiset.put(key, count == null ? 1 : count + 1);
+    }
+
+    private static <K> void decrement(TreeMap<K, Integer> multiset, K key) {
+        Integer count = multiset.get(key);
+        if (count == null || count <= 1) {
+            multiset.remove(key);
+        } else {
+            multiset.put(key, count - 1);
+        }
+    }
+
+}
@@ -23,6 +23,7 @@ import org.slf4j.LoggerFactory;
  * functionality to other concrete implementations of <code>Expression</code>
  *
  * @author Karel Goderis - Initial Contribution
+ * @author agent - Streaming evaluation
  *
  */
 public abstract class AbstractExpression<E extends AbstractExpressionPart> implements Expression {
@@ -151,6 +152,15 @@ public abstract class AbstractExpression<E extends AbstractExpressionPart> imple
             setStartDate(Calendar.getInstance().getTime());
         }
 
+        if (!isStreaming()) {
+            computeCandidates();
+        }
+    }
+
+    /**
+     * Materializes the candidate dates of the expression, starting from the start date.
+     */
+    protected void computeCandidates() {
         applyExpressionParts();
 
         synchronized (this) {
@@ -163,9 +173,53 @@ public abstract class AbstractExpression<E extends AbstractExpressionPart> imple
             continueSearch = false;
         }
 
-        for (Date aDate : getCandidates()) {
-            logger.trace("Final candidate {} is {}", getCandidates().indexOf(aDate), aDate);
+        traceCandidates("Final candidate");
+    }
+
+    /**
+     * Indicates whether the expression is evaluated in streaming mode. In streaming mode, parsing the expression does
+     * not materialize any candidate dates, but {@link #getTimeAfter(Date)} computes the next fire time on demand
+     * through {@link #computeTimeAfter(Date)}.
+     *
+     * @return true, if the expression is evaluated in streaming mode
+     */
+    protected boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Computes the next fire time after the given time. This implementation looks it up in the candidate dates, which
+     * are materialized on demand. Expressions, which support the streaming mode, override this method to compute the
+     * next fire time without materializing candidate dates.
+     *
+     * @param afterTime the time after which to compute the next fire time
+     * @return the next fire time, which is not before the start date, or null if there is none
+     */
+    protected Date computeTimeAfter(Date afterTime) {
+        if (getCandidates().isEmpty()) {
+            try {
+                setStartDate(afterTime);
+                parseExpression(expression);
+            } catch (ParseException e) {
+                logger.error("An exception occurred while parsing the expression : '{}'", e.getMessage());
+            }
+            if (isStreaming()) {
+                computeCandidates();
+            }
+        }
+
+        if (!getCandidates().isEmpty()) {
+
+            Collections.sort(getCandidates());
+
+            for (Date candidate : getCandidates()) {
+                if (candidate.after(afterTime)) {
+                    return candidate;
+                }
+            }
         }
+
+        return null;
     }
 
     abstract protected void validateExpression() throws IllegalArgumentException;
@@ -176,62 +230,64 @@ public abstract class AbstractExpression<E extends AbstractExpressionPart> imple
             logger.trace("Expanding {} from {} candidates", part.getClass().getSimpleName(), getCandidates().size());
             setCandidates(part.apply(startDate, getCandidates()));
             logger.trace("Expanded to {} candidates", getCandidates().size());
-            for (Date aDate : getCandidates()) {
-                logger.trace("Candidate {} is {}", getCandidates().indexOf(aDate), aDate);
-            }
+            traceCandidates("Candidate");
             prune();
         }
     }
 
-    protected void prune() {
-        Collections.sort(getCandidates());
-
-        ArrayList<Date> beforeDates = new ArrayList<Date>();
-
-        for (Date candidate : getCandidates()) {
-            if (candidate.before(startDate)) {
-                beforeDates.add(candidate);
+    private void traceCandidates(String message) {
+        if (logger.isTraceEnabled()) {
+            int index = 0;
+            for (Date aDate : getCandidates()) {
+                logger.trace("{} {} is {}", message, index++, aDate);
             }
         }
+    }
 
-        getCandidates().removeAll(beforeDates);
+    protected void prune() {
+        removeCandidatesBefore(startDate);
 
         if (getCandidates().size() > maximumCandidates) {
             logger.trace("Pruning {} candidates to {}", getCandidates().size(), maximumCandidates);
-            int size = getCandidates().size();
-            for (int i = maximumCandidates; i < size; i++) {
-                getCandidates().remove(getCandidates().size() - 1);
-            }
+            getCandidates().subList(maximumCandidates, getCandidates().size()).clear();
+        }
+    }
+
+    /**
+     * Sorts the candidate dates and removes the ones before the given date.
+     *
+     * @param date the date before which candidates are removed
+     */
+    protected void removeCandidatesBefore(Date date) {
+        Collections.sort(getCandidates());
+
+        int index = 0;
+        while (index < getCandidates().size() && getCandidates().get(index).before(date)) {
+            index++;
         }
+
+        getCandidates().subList(0, index).clear();
     }
 
     @Override
     public Date getTimeAfter(Date afterTime) {
-        if (getCandidates().isEmpty()) {
+        return computeTimeAfter(afterTime);
+    }
+
+    @Override
+    public Date getFinalFireTime() {
+        if (isStreaming()) {
+            // the candidates are only materialized for this purpose, the seeds might extend the expression parts
+            computeCandidates();
+            Date finalFireTime = getCandidates().isEmpty() ? null : getCandidates().get(getCandidates().size() - 1);
             try {
-                setStartDate(afterTime);
-                parseExpression(expression);
+                parseExpression(getExpression());
             } catch (ParseException e) {
                 logger.error("An exception occurred while parsing the expression : '{}'", e.getMessage());
             }
+            return finalFireTime;
         }
 
-        if (!getCandidates().isEmpty()) {
-
-            Collections.sort(getCandidates());
-
-            for (Date candidate : getCandidates()) {
-                if (candidate.after(afterTime)) {
-                    return candidate;
-                }
-            }
-        }
-
-        return null;
-    }
-
-    @Override
-    public Date getFinalFireTime() {
         if (getCandidates().isEmpty()) {
             try {
                 parseExpression(getExpression());
@@ -30,6 +30,7 @@ import org.slf4j.LoggerFactory;
  * last Friday of the month&quot;.
  *
  * @author Karel Goderis - Initial contribution
+ * @author agent - Lazy field-by-field evaluation
  *
  */
 public final class CronExpression extends AbstractExpression<CronExpressionPart> {
@@ -186,6 +187,127 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
         return ((timeAfter != null) && (timeAfter.equals(originalDate)));
     }
 
+    /**
+     * Cron expressions are evaluated in streaming mode, i.e. the next fire time is computed field by field from the
+     * value sets of the expression parts, without materializing candidate dates.
+     */
+    @Override
+    protected boolean isStreaming() {
+        return true;
+    }
+
+    @Override
+    protected Date computeTimeAfter(Date afterTime) {
+        Date startDate = getStartDate();
+        // the start date itself is a valid fire time
+        Date from = afterTime.before(startDate) ? new Date(startDate.getTime() - 1) : afterTime;
+
+        Calendar cal = Calendar.getInstance(getTimeZone());
+        cal.setTime(startDate);
+        // like the candidates of the expression parts, the fire times keep the milliseconds of the start date
+        int millisecond = cal.get(Calendar.MILLISECOND);
+        cal.setTime(from);
+        cal.set(Calendar.MILLISECOND, millisecond);
+        if (!cal.getTime().after(from)) {
+            cal.add(Calendar.SECOND, 1);
+        }
+
+        YearsExpressionPart yearsPart = (YearsExpressionPart) getExpressionPart(YearsExpressionPart.class);
+        BoundedIntegerSet years = yearsPart != null ? yearsPart.getValueSet() : null;
+        BoundedIntegerSet months = getValueSet(MonthsExpressionPart.class);
+        DayOfMonthExpressionPart domPart = (DayOfMonthExpressionPart) getExpressionPart(
+                DayOfMonthExpressionPart.class);
+        DayOfWeekExpressionPart dowPart = (DayOfWeekExpressionPart) getExpressionPart(DayOfWeekExpressionPart.class);
+        BoundedIntegerSet hours = getValueSet(HoursExpressionPart.class);
+        BoundedIntegerSet minutes = getValueSet(MinutesExpressionPart.class);
+        BoundedIntegerSet seconds = getValueSet(SecondsExpressionPart.class);
+
+        while (true) {
+            int year = cal.get(Calendar.YEAR);
+            Integer nextYear = years != null ? years.ceiling(year) : Integer.valueOf(year);
+            if (nextYear == null || nextYear > YearsExpressionPart.MAX_YEAR) {
+                return null;
+            }
+            if (nextYear != year) {
+                cal.set(nextYear, Calendar.JANUARY, 1, 0, 0, 0);
+                continue;
+            }
+
+            int month = cal.get(Calendar.MONTH) + 1;
+            Integer nextMonth = months.ceiling(month);
+            if (nextMonth == null) {
+                cal.set(year + 1, Calendar.JANUARY, 1, 0, 0, 0);
+                continue;
+            }
+            if (nextMonth != month) {
+                cal.set(year, nextMonth - 1, 1, 0, 0, 0);
+                continue;
+            }
+
+            if (!domPart.matches(cal) || !dowPart.matches(cal)) {
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+                cal.set(Calendar.HOUR_OF_DAY, 0);
+                cal.set(Calendar.MINUTE, 0);
+                cal.set(Calendar.SECOND, 0);
+                continue;
+            }
+
+            int hour = cal.get(Calendar.HOUR_OF_DAY);
+            Integer nextHour = hours.ceiling(hour);
+            if (nextHour == null) {
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+                cal.set(Calendar.HOUR_OF_DAY, 0);
+                cal.set(Calendar.MINUTE, 0);
+                cal.set(Calendar.SECOND, 0);
+                continue;
+            }
+            if (nextHour != hour) {
+                cal.set(Calendar.HOUR_OF_DAY, nextHour);
+                cal.set(Calendar.MINUTE, 0);
+                cal.set(Calendar.SECOND, 0);
+                continue;
+            }
+
+            int minute = cal.get(Calendar.MINUTE);
+            Integer nextMinute = minutes.ceiling(minute);
+            if (nextMinute == null) {
+                cal.add(Calendar.HOUR_OF_DAY, 1);
+                cal.set(Calendar.MINUTE, 0);
+                cal.set(Calendar.SECOND, 0);
+                continue;
+            }
+            if (nextMinute != minute) {
+                cal.set(Calendar.MINUTE, nextMinute);
+                cal.set(Calendar.SECOND, 0);
+                continue;
+            }
+
+            int second = cal.get(Calendar.SECOND);
+            Integer nextSecond = seconds.ceiling(second);
+            if (nextSecond == null) {
+                cal.add(Calendar.MINUTE, 1);
+                cal.set(Calendar.SECOND, 0);
+                continue;
+            }
+            if (nextSecond != second) {
+                cal.set(Calendar.SECOND, nextSecond);
+                continue;
+            }
+
+            if (!cal.getTime().after(from)) {
+                // an ambiguous local time at the end of daylight saving time has been resolved to the earlier instant
+                cal.add(Calendar.SECOND, 1);
+                continue;
+            }
+
+            return cal.getTime();
+        }
+    }
+
+    private BoundedIntegerSet getValueSet(Class<? extends CronExpressionPart> part) {
+        return ((CronExpressionPart) getExpressionPart(part)).getValueSet();
+    }
+
     /**
      * Indicates whether the specified expression can be parsed into a
      * valid expression
@@ -386,14 +508,11 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
             final Calendar cal = Calendar.getInstance(getTimeZone());
 
             List<Date> newCandidates = new ArrayList<Date>();
-            List<Date> oldCandidates = new ArrayList<Date>();
 
             if (candidates.isEmpty()) {
                 candidates.add(startDate);
             }
 
-            oldCandidates.addAll(candidates);
-
             for (Date date : candidates) {
                 for (Integer element : getValueSet()) {
                     cal.setTime(date);
@@ -402,7 +521,7 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                 }
             }
 
-            candidates.removeAll(oldCandidates);
+            candidates.clear();
             candidates.addAll(newCandidates);
             return candidates;
         }
@@ -485,14 +604,11 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
             final Calendar cal = Calendar.getInstance(getTimeZone());
 
             List<Date> newCandidates = new ArrayList<Date>();
-            List<Date> oldCandidates = new ArrayList<Date>();
 
             if (candidates.isEmpty()) {
                 candidates.add(startDate);
             }
 
-            oldCandidates.addAll(candidates);
-
             for (Date date : candidates) {
                 for (Integer element : getValueSet()) {
                     cal.setTime(date);
@@ -501,7 +617,7 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                 }
             }
 
-            candidates.removeAll(oldCandidates);
+            candidates.clear();
             candidates.addAll(newCandidates);
             return candidates;
         }
@@ -585,14 +701,11 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
             final Calendar cal = Calendar.getInstance(getTimeZone());
 
             List<Date> newCandidates = new ArrayList<Date>();
-            List<Date> oldCandidates = new ArrayList<Date>();
 
             if (candidates.isEmpty()) {
                 candidates.add(startDate);
             }
 
-            oldCandidates.addAll(candidates);
-
             for (Date date : candidates) {
                 for (Integer element : getValueSet()) {
                     cal.setTime(date);
@@ -600,7 +713,7 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                     newCandidates.add(cal.getTime());
                 }
             }
-            candidates.removeAll(oldCandidates);
+            candidates.clear();
             candidates.addAll(newCandidates);
             return candidates;
         }
@@ -696,14 +809,11 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
             final Calendar cal = Calendar.getInstance(getTimeZone());
 
             List<Date> newCandidates = new ArrayList<Date>();
-            List<Date> oldCandidates = new ArrayList<Date>();
 
             if (candidates.isEmpty()) {
                 candidates.add(startDate);
             }
 
-            oldCandidates.addAll(candidates);
-
             for (Date date : candidates) {
                 for (Integer element : getValueSet()) {
                     cal.setTime(date);
@@ -711,7 +821,7 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                     newCandidates.add(cal.getTime());
                 }
             }
-            candidates.removeAll(oldCandidates);
+            candidates.clear();
             candidates.addAll(newCandidates);
             return candidates;
         }
@@ -749,6 +859,43 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
             super(s);
         }
 
+        /**
+         * Checks whether the day of the given calendar is a valid day for the expression part
+         *
+         * @param cal the calendar set to the day to check
+         * @return true if the day is valid
+         */
+        boolean matches(Calendar cal) {
+            if (isNotSpecific) {
+                return true;
+            }
+            int day = cal.get(Calendar.DAY_OF_MONTH);
+            int lastDay = cal.getActualMaximum(Calendar.DAY_OF_MONTH);
+            if (isLastDayOfMonth) {
+                return day == lastDay - monthOffset;
+            }
+            if (isLastWeekDayOfMonth) {
+                return day == getNearestWeekDay(cal, lastDay, lastDay);
+            }
+            if (isNearestWeekDay) {
+                return weekDay <= lastDay && day == getNearestWeekDay(cal, weekDay, lastDay);
+            }
+            return getValueSet().contains(day);
+        }
+
+        private int getNearestWeekDay(Calendar cal, int day, int lastDay) {
+            Calendar weekDayCal = (Calendar) cal.clone();
+            weekDayCal.set(Calendar.DAY_OF_MONTH, day);
+            switch (weekDayCal.get(Calendar.DAY_OF_WEEK)) {
+                case Calendar.SATURDAY:
+                    return day == 1 ? day + 2 : day - 1;
+                case Calendar.SUNDAY:
+                    return day == lastDay ? day - 2 : day + 1;
+                default:
+                    return day;
+            }
+        }
+
         @Override
         public int order() {
             return 3;
@@ -803,8 +950,7 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                     break;
                 }
                 case "*": {
-                    getValueSet().add(MIN_MONTHDAY,
-                            Calendar.getInstance(getTimeZone()).getActualMaximum(Calendar.DAY_OF_MONTH), 1);
+                    getValueSet().add(MIN_MONTHDAY, MAX_MONTHDAY, 1);
                     break;
                 }
                 case "?": {
@@ -854,14 +1000,11 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
                 List<Date> newCandidates = new ArrayList<Date>();
-                List<Date> oldCandidates = new ArrayList<Date>();
 
                 if (candidates.isEmpty()) {
                     candidates.add(startDate);
                 }
 
-                oldCandidates.addAll(candidates);
-
                 for (Date date : candidates) {
                     cal.setTime(date);
 
@@ -899,7 +1042,7 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                         }
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
                 candidates.addAll(newCandidates);
             }
 
@@ -941,6 +1084,30 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
 
         }
 
+        /**
+         * Checks whether the day of the given calendar is a valid day for the expression part
+         *
+         * @param cal the calendar set to the day to check
+         * @return true if the day is valid
+         */
+        boolean matches(Calendar cal) {
+            if (isNotSpecific) {
+                return true;
+            }
+            int dayOfWeek = cal.get(Calendar.DAY_OF_WEEK);
+            int day = cal.get(Calendar.DAY_OF_MONTH);
+            if (isLastDayOfMonth) {
+                return dayOfWeek == monthOffset && day + 7 > cal.getActualMaximum(Calendar.DAY_OF_MONTH);
+            }
+            if (isLastDayOfWeek) {
+                return dayOfWeek == Calendar.SATURDAY;
+            }
+            if (isInstanceOfWeekday) {
+                return dayOfWeek == weekDay && (day - 1) / 7 + 1 == instanceOfMonth;
+            }
+            return getValueSet().contains(dayOfWeek);
+        }
+
         @Override
         public int order() {
             return 4;
@@ -1050,7 +1217,6 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
 
             if (!isNotSpecific) {
                 final Calendar cal = Calendar.getInstance(getTimeZone());
-                List<Date> oldCandidates = new ArrayList<Date>();
 
                 List<Date> newCandidates = new ArrayList<Date>();
 
@@ -1058,8 +1224,6 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                     candidates.add(startDate);
                 }
 
-                oldCandidates.addAll(candidates);
-
                 for (Date date : candidates) {
                     cal.setTime(date);
                     if (isLastDayOfMonth) {
@@ -1088,7 +1252,7 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                         }
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
 
                 candidates.addAll(newCandidates);
             }
@@ -1172,14 +1336,11 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
             final Calendar cal = Calendar.getInstance(getTimeZone());
 
             List<Date> newCandidates = new ArrayList<Date>();
-            List<Date> oldCandidates = new ArrayList<Date>();
 
             if (candidates.isEmpty()) {
                 candidates.add(startDate);
             }
 
-            oldCandidates.addAll(candidates);
-
             for (Date date : candidates) {
                 for (Integer element : getValueSet()) {
                     cal.setTime(date);
@@ -1187,7 +1348,7 @@ public final class CronExpression extends AbstractExpression<CronExpressionPart>
                     newCandidates.add(cal.getTime());
                 }
             }
-            candidates.removeAll(oldCandidates);
+            candidates.clear();
 
             candidates.addAll(newCandidates);
             return candidates;
@@ -11,9 +11,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
@@ -30,6 +30,7 @@ import org.slf4j.LoggerFactory;
  * This is an extended version of {@link ThreadPoolManager}, which can also handle expressions for scheduling tasks.
  *
  * @author Karel Goderis - Initial contribution
+ * @author agent - Schedule the expressions on a timing wheel
  *
  */
 public class ExpressionThreadPoolManager extends ThreadPoolManager {
@@ -67,14 +68,24 @@ public class ExpressionThreadPoolManager extends ThreadPoolManager {
         }
     }
 
+    /**
+     * A {@link ScheduledThreadPoolExecutor}, which additionally executes tasks at the times defined by
+     * {@link Expression}s.
+     * <p>
+     * The next fire time of an expression is only computed when the expression is scheduled and whenever it has fired.
+     * The pending fire times are kept in a {@link TimingWheel}, which is advanced by a periodic task of the pool every
+     * {@value #TICK_DURATION} ms, so that thousands of expressions can be scheduled without recomputing all of them on
+     * every execution.
+     */
     public static class ExpressionThreadPoolExecutor extends ScheduledThreadPoolExecutor {
 
+        /** the resolution of the expression-driven schedules in milliseconds */
+        static final long TICK_DURATION = 100;
+
         private List<Runnable> running = Collections.synchronizedList(new ArrayList<Runnable>());
-        private Map<Expression, Runnable> scheduled = Collections.synchronizedMap(new HashMap<Expression, Runnable>());
-        private Map<Runnable, Future<?>> futures = Collections.synchronizedMap(new HashMap<Runnable, Future<?>>());
-        private Map<Future<?>, Date> timestamps = Collections.synchronizedMap(new HashMap<Future<?>, Date>());
-        private Thread monitor;
-        private NamedThreadFactory monitorThreadFactory;
+        private Map<Expression, ScheduledExpression> scheduled = new HashMap<Expression, ScheduledExpression>();
+        private final TimingWheel<ScheduledExpression> wheel;
+        private Future<?> ticker;
 
         public ExpressionThreadPoolExecutor(final String poolName, int corePoolSize) {
             this(poolName, corePoolSize, new NamedThreadFactory(poolName), new ThreadPoolExecutor.DiscardPolicy() {
@@ -92,7 +103,7 @@ public class ExpressionThreadPoolManager extends ThreadPoolManager {
         public ExpressionThreadPoolExecutor(String threadPool, int corePoolSize, NamedThreadFactory threadFactory,
                 RejectedExecutionHandler rejectedHandler) {
             super(corePoolSize, threadFactory, rejectedHandler);
-            this.monitorThreadFactory = new NamedThreadFactory(threadFactory.getName() + "-" + "Monitor");
+            this.wheel = new TimingWheel<ScheduledExpression>(TICK_DURATION, System.currentTimeMillis());
         }
 
         @Override
@@ -105,8 +116,6 @@ public class ExpressionThreadPoolManager extends ThreadPoolManager {
         protected void afterExecute(Runnable runnable, Throwable throwable) {
             super.afterExecute(runnable, throwable);
             running.remove(runnable);
-            Future<?> future = futures.remove(runnable);
-            timestamps.remove(future);
             if (throwable != null) {
                 Throwable cause = throwable.getCause();
                 if (cause instanceof InterruptedException) {
@@ -117,128 +126,130 @@ public class ExpressionThreadPoolManager extends ThreadPoolManager {
             }
         }
 
-        Runnable monitorTask = new Runnable() {
+        Runnable tickTask = new Runnable() {
 
             @Override
             public void run() {
-                logger.trace("Starting the monitor thread '{}'", Thread.currentThread().getName());
-                while (true) {
-                    try {
-                        Date firstExecution = null;
-                        Date now = new Date();
-
-                        List<Expression> finishedExpressions = new ArrayList<Expression>();
-
-                        for (Expression e : scheduled.keySet()) {
-                            Date time = e.getTimeAfter(now);
-
-                            if (time != null) {
-                                logger.trace("Expression's '{}' next execution time is {}", e.toString(),
-                                        time.toString());
-
-                                Runnable task = scheduled.get(e);
-
-                                if (task != null) {
-                                    Future<?> future = futures.get(task);
-
-                                    boolean schedule = false;
-
-                                    if (future == null) {
-                                        schedule = true;
-                                    } else {
-                                        Date timestamp = timestamps.get(future);
-                                        if (time.after(timestamp)) {
-                                            schedule = true;
-                                        } else {
-                                            logger.trace("The task '{}' is already scheduled to execute in {} ms",
-                                                    task.toString(), time.getTime() - now.getTime());
-                                        }
-                                    }
-
-                                    if (schedule) {
-                                        logger.trace("Scheduling the task '{}' to execute in {} ms", task.toString(),
-                                                time.getTime() - now.getTime());
-                                        futures.put(task, ExpressionThreadPoolExecutor.this.schedule(task,
-                                                time.getTime() - now.getTime(), TimeUnit.MILLISECONDS));
-                                        timestamps.put(futures.get(task), time);
-                                    }
-                                } else {
-                                    logger.trace("Expressions without tasks are not valid");
-                                }
-
-                                if (firstExecution == null) {
-                                    firstExecution = time;
-                                } else {
-                                    if (time.before(firstExecution)) {
-                                        firstExecution = time;
-                                    }
-                                }
-
-                            } else {
-                                logger.info("Expression '{}' has no future executions anymore", e.toString());
-                                finishedExpressions.add(e);
-                            }
-                        }
-
-                        for (Expression e : finishedExpressions) {
-                            scheduled.remove(e);
-                        }
-
-                        if (firstExecution != null) {
-                            while (now.before(firstExecution)) {
-                                logger.trace("Putting the monitor thread '{}' to sleep for {} ms",
-                                        Thread.currentThread().getName(), firstExecution.getTime() - now.getTime());
-                                Thread.sleep(firstExecution.getTime() - now.getTime());
-                                now = new Date();
-                            }
-
-                        } else {
-                            logger.trace("Putting the monitor thread '{}' to sleep for {} ms",
-                                    Thread.currentThread().getName(), THREAD_MONITOR_SLEEP);
-                            Thread.sleep(THREAD_MONITOR_SLEEP);
-                        }
-                    } catch (RejectedExecutionException ex) {
-                        logger.error("The executor has already shutdown : '{}'", ex.getMessage());
-                    } catch (CancellationException ex) {
-                        logger.error("Non executed tasks are cancelled : '{}'", ex.getMessage());
-                    } catch (InterruptedException ex) {
-                        logger.trace("The monitor thread as interrupted : '{}'", ex.getMessage());
+                try {
+                    for (ScheduledExpression expression : wheel.advance(System.currentTimeMillis())) {
+                        fire(expression);
                     }
+                } catch (RuntimeException ex) {
+                    // an exception would cancel the periodic task and thus all schedules
+                    logger.error("Error while executing the expression-driven tasks : '{}'", ex.getMessage(), ex);
                 }
             }
         };
 
+        private void fire(ScheduledExpression expression) {
+            synchronized (scheduled) {
+                if (scheduled.get(expression.expression) != expression) {
+                    // the expression has been removed or rescheduled in the meantime
+                    return;
+                }
+                // only the next fire time is needed, it is computed from the one that has just passed
+                Date time = expression.expression.getTimeAfter(expression.time);
+                if (time != null) {
+                    expression.time = time;
+                    expression.timeout = wheel.add(time.getTime(), expression);
+                } else {
+                    logger.info("Expression '{}' has no future executions anymore", expression.expression);
+                    scheduled.remove(expression.expression);
+                }
+            }
+            logger.trace("Executing the task '{}' of expression '{}'", expression.task, expression.expression);
+            try {
+                execute(expression.task);
+            } catch (RejectedExecutionException ex) {
+                logger.error("The executor has already shutdown : '{}'", ex.getMessage());
+            }
+        }
+
         public void schedule(final Runnable task, final Expression expression) {
             if (task == null || expression == null) {
                 throw new NullPointerException();
             }
 
-            if (monitor == null) {
-                monitor = monitorThreadFactory.newThread(monitorTask);
-                monitor.start();
-            }
+            synchronized (scheduled) {
+                if (ticker == null) {
+                    ticker = scheduleAtFixedRate(tickTask, TICK_DURATION, TICK_DURATION, TimeUnit.MILLISECONDS);
+                }
+
+                ScheduledExpression previous = scheduled.remove(expression);
+                if (previous != null) {
+                    wheel.cancel(previous.timeout);
+                }
 
-            scheduled.put(expression, task);
-            monitor.interrupt();
+                Date time = expression.getTimeAfter(new Date());
+                if (time != null) {
+                    ScheduledExpression scheduledExpression = new ScheduledExpression(expression, task, time);
+                    scheduledExpression.timeout = wheel.add(time.getTime(), scheduledExpression);
+                    scheduled.put(expression, scheduledExpression);
+                    logger.trace("Scheduling the task '{}' to execute at {}", task, time);
+                } else {
+                    logger.info("Expression '{}' has no future executions anymore", expression);
+                }
+            }
         }
 
         @Override
         public boolean remove(Runnable task) {
-            if (futures.get(task) != null && futures.get(task).cancel(false)) {
-                running.remove(task);
+            boolean removed = false;
+            synchronized (scheduled) {
+                Iterator<ScheduledExpression> it = scheduled.values().iterator();
+                while (it.hasNext()) {
+                    ScheduledExpression scheduledExpression = it.next();
+                    if (scheduledExpression.task.equals(task)) {
+                        wheel.cancel(scheduledExpression.timeout);
+                        it.remove();
+                        removed = true;
+                    }
+                }
             }
-            futures.remove(task);
-            return super.remove(task);
+            return super.remove(task) || removed;
         }
 
         public boolean remove(Expression expression) {
-            Runnable task = scheduled.remove(expression);
+            ScheduledExpression scheduledExpression;
+            synchronized (scheduled) {
+                scheduledExpression = scheduled.remove(expression);
+                if (scheduledExpression != null) {
+                    wheel.cancel(scheduledExpression.timeout);
+                }
+            }
 
-            if (task != null) {
-                return remove(task);
+            if (scheduledExpression != null) {
+                super.remove(scheduledExpression.task);
+                return true;
             } else {
                 return false;
             }
         }
+
+        /**
+         * @return the number of expressions, which are currently scheduled
+         */
+        public int getScheduledExpressions() {
+            synchronized (scheduled) {
+                return scheduled.size();
+            }
+        }
+
+        /**
+         * An expression with its task and its next fire time.
+         */
+        private static class ScheduledExpression {
+
+            private final Expression expression;
+            private final Runnable task;
+            private Date time;
+            private TimingWheel.Timeout<ScheduledExpression> timeout;
+
+            private ScheduledExpression(Expression expression, Runnable task, Date time) {
+                this.expression = expression;
+                this.task = task;
+                this.time = time;
+            }
+        }
     }
 }
@@ -15,7 +15,9 @@ import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.TimeZone;
 
@@ -353,6 +355,7 @@ import org.slf4j.LoggerFactory;
  *
  *
  * @author Karel Goderis - Initial contribution
+ * @author agent - Linear-time pruning
  *
  */
 public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressionPart> {
@@ -662,17 +665,7 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
 
     @Override
     protected void prune() {
-        Collections.sort(getCandidates());
-
-        ArrayList<Date> beforeDates = new ArrayList<Date>();
-
-        for (Date candidate : getCandidates()) {
-            if (candidate.before(getStartDate())) {
-                beforeDates.add(candidate);
-            }
-        }
-
-        getCandidates().removeAll(beforeDates);
+        removeCandidatesBefore(getStartDate());
     }
 
     @Override
@@ -962,7 +955,6 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
 
             if (frequency == Frequency.YEARLY) {
                 ArrayList<Date> newCandidates = new ArrayList<Date>();
-                ArrayList<Date> oldCandidates = candidates;
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
                 for (Date date : candidates) {
@@ -972,10 +964,10 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                         newCandidates.add(cal.getTime());
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
                 candidates.addAll(newCandidates);
             } else {
-                List<Date> pruneCandidates = new ArrayList<Date>();
+                Set<Date> pruneCandidates = new HashSet<Date>();
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
                 for (Date aDate : candidates) {
@@ -1022,7 +1014,6 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
 
             if (frequency == Frequency.YEARLY) {
                 ArrayList<Date> newCandidates = new ArrayList<Date>();
-                ArrayList<Date> oldCandidates = candidates;
 
                 final Calendar cal = Calendar.getInstance(getTimeZone());
                 cal.setFirstDayOfWeek(weekStart.getCalendarDay());
@@ -1041,7 +1032,7 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                         }
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
                 candidates.addAll(newCandidates);
             } else {
                 logger.warn("BYWEEKNO can only be used together with YEARLY");
@@ -1079,7 +1070,6 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
 
             if (frequency == Frequency.YEARLY) {
                 ArrayList<Date> newCandidates = new ArrayList<Date>();
-                ArrayList<Date> oldCandidates = candidates;
 
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1097,11 +1087,11 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                         }
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
                 candidates.addAll(newCandidates);
             } else if (frequency == Frequency.SECONDLY || frequency == Frequency.MINUTELY
                     || frequency == Frequency.HOURLY) {
-                List<Date> pruneCandidates = new ArrayList<Date>();
+                Set<Date> pruneCandidates = new HashSet<Date>();
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
                 for (Date aDate : candidates) {
@@ -1145,7 +1135,6 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
 
             if (frequency == Frequency.YEARLY || frequency == Frequency.MONTHLY) {
                 ArrayList<Date> newCandidates = new ArrayList<Date>();
-                ArrayList<Date> oldCandidates = candidates;
 
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1163,11 +1152,11 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                         }
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
                 candidates.addAll(newCandidates);
             } else if (frequency == Frequency.SECONDLY || frequency == Frequency.MINUTELY
                     || frequency == Frequency.HOURLY || frequency == Frequency.DAILY) {
-                List<Date> pruneCandidates = new ArrayList<Date>();
+                Set<Date> pruneCandidates = new HashSet<Date>();
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
                 for (Date aDate : candidates) {
@@ -1225,7 +1214,7 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
             if (frequency == Frequency.YEARLY) {
                 if (isByYearDay || isByMonthDay) {
 
-                    List<Date> pruneCandidates = new ArrayList<Date>();
+                    Set<Date> pruneCandidates = new HashSet<Date>();
                     final Calendar cal = Calendar.getInstance(getTimeZone());
 
                     for (Date aDate : candidates) {
@@ -1238,7 +1227,6 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                 } else if (isByWeekNumber) {
 
                     ArrayList<Date> newCandidates = new ArrayList<Date>();
-                    ArrayList<Date> oldCandidates = candidates;
 
                     final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1250,12 +1238,11 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                             newCandidates.add(cal.getTime());
                         }
                     }
-                    candidates.removeAll(oldCandidates);
+                    candidates.clear();
                     candidates.addAll(newCandidates);
                 } else if (isByMonth) {
 
                     ArrayList<Date> newCandidates = new ArrayList<Date>();
-                    ArrayList<Date> oldCandidates = candidates;
 
                     final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1288,12 +1275,11 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                             }
                         }
                     }
-                    candidates.removeAll(oldCandidates);
+                    candidates.clear();
                     candidates.addAll(newCandidates);
                 } else {
 
                     ArrayList<Date> newCandidates = new ArrayList<Date>();
-                    ArrayList<Date> oldCandidates = candidates;
 
                     final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1323,13 +1309,12 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                             }
                         }
                     }
-                    candidates.removeAll(oldCandidates);
+                    candidates.clear();
                     candidates.addAll(newCandidates);
                 }
             } else if (frequency == Frequency.MONTHLY) {
                 if (!isByMonthDay) {
                     ArrayList<Date> newCandidates = new ArrayList<Date>();
-                    ArrayList<Date> oldCandidates = candidates;
 
                     final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1358,11 +1343,11 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                             }
                         }
                     }
-                    candidates.removeAll(oldCandidates);
+                    candidates.clear();
                     candidates.addAll(newCandidates);
                 } else {
 
-                    List<Date> pruneCandidates = new ArrayList<Date>();
+                    Set<Date> pruneCandidates = new HashSet<Date>();
                     final Calendar cal = Calendar.getInstance(getTimeZone());
 
                     for (Date aDate : candidates) {
@@ -1376,7 +1361,6 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
             } else if (frequency == Frequency.WEEKLY) {
 
                 ArrayList<Date> newCandidates = new ArrayList<Date>();
-                ArrayList<Date> oldCandidates = candidates;
 
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1388,11 +1372,11 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                         newCandidates.add(cal.getTime());
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
                 candidates.addAll(newCandidates);
             } else {
 
-                List<Date> pruneCandidates = new ArrayList<Date>();
+                Set<Date> pruneCandidates = new HashSet<Date>();
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
                 for (Date aDate : candidates) {
@@ -1437,7 +1421,6 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
             if (frequency == Frequency.YEARLY || frequency == Frequency.MONTHLY || frequency == Frequency.WEEKLY
                     || frequency == Frequency.DAILY) {
                 ArrayList<Date> newCandidates = new ArrayList<Date>();
-                ArrayList<Date> oldCandidates = candidates;
 
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1448,10 +1431,10 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                         newCandidates.add(cal.getTime());
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
                 candidates.addAll(newCandidates);
             } else {
-                List<Date> pruneCandidates = new ArrayList<Date>();
+                Set<Date> pruneCandidates = new HashSet<Date>();
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
                 for (Date aDate : candidates) {
@@ -1496,7 +1479,6 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
             if (frequency == Frequency.YEARLY || frequency == Frequency.MONTHLY || frequency == Frequency.WEEKLY
                     || frequency == Frequency.DAILY || frequency == Frequency.HOURLY) {
                 ArrayList<Date> newCandidates = new ArrayList<Date>();
-                ArrayList<Date> oldCandidates = candidates;
 
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1507,10 +1489,10 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                         newCandidates.add(cal.getTime());
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
                 candidates.addAll(newCandidates);
             } else {
-                List<Date> pruneCandidates = new ArrayList<Date>();
+                Set<Date> pruneCandidates = new HashSet<Date>();
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
                 for (Date aDate : candidates) {
@@ -1556,7 +1538,6 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                     || frequency == Frequency.DAILY || frequency == Frequency.HOURLY
                     || frequency == Frequency.MINUTELY) {
                 ArrayList<Date> newCandidates = new ArrayList<Date>();
-                ArrayList<Date> oldCandidates = candidates;
 
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
@@ -1567,10 +1548,10 @@ public class RecurrenceExpression extends AbstractExpression<RecurrenceExpressio
                         newCandidates.add(cal.getTime());
                     }
                 }
-                candidates.removeAll(oldCandidates);
+                candidates.clear();
                 candidates.addAll(newCandidates);
             } else {
-                List<Date> pruneCandidates = new ArrayList<Date>();
+                Set<Date> pruneCandidates = new HashSet<Date>();
                 final Calendar cal = Calendar.getInstance(getTimeZone());
 
                 for (Date aDate : candidates) {
@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.core.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A hierarchical hashed timing wheel, which keeps a large number of timeouts with O(1) insertion and cancellation.
+ * <p>
+ * Time is divided into ticks of a fixed duration. The wheel consists of several levels of {@value #WHEEL_SIZE}
+ * buckets each, where a bucket of level n covers {@value #WHEEL_SIZE}^n ticks. A timeout is put into the bucket of the
+ * lowest level, which covers its deadline. Whenever the wheel of a level has turned once, the next bucket of the level
+ * above is cascaded, i.e. its timeouts are distributed to the buckets of the lower levels. Timeouts beyond the range
+ * of the highest level are cascaded again until they are in range.
+ * <p>
+ * The wheel does not have a thread on its own - it is moved forward by {@link #advance(long)}, which returns the
+ * values of all expired timeouts. Timeouts never expire before their deadline and at the latest one tick after it.
+ * <p>
+ * The wheel is thread-safe.
+ *
+ * @author agent - Initial contribution
+ *
+ * @param <T> the type of the values, which are attached to the timeouts
+ */
+public class TimingWheel<T> {
+
+    private static final int WHEEL_BITS = 8;
+
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    /** with a tick duration of 100 ms, 4 levels cover a range of more than 13 years */
+    private static final int LEVELS = 4;
+
+    private final long tickDuration;
+
+    private final Bucket<T>[][] buckets;
+
+    /** the last tick, which has been processed */
+    private long currentTick;
+
+    private int size;
+
+    /**
+     * Creates a new timing wheel.
+     *
+     * @param tickDuration the duration of a tick in milliseconds
+     * @param startTime the current time in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickDuration, long startTime) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("The tick duration must be positive.");
+        }
+        this.tickDuration = tickDuration;
+        this.currentTick = startTime / tickDuration;
+        this.buckets = new Bucket[LEVELS][WHEEL_SIZE];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                buckets[level][i] = new Bucket<T>();
+            }
+        }
+    }
+
+    /**
+     * Adds a timeout. A deadline, which has already passed, expires with the next tick.
+     *
+     * @param deadline the time in milliseconds, when the timeout expires
+     * @param value the value of the timeout
+     * @return the timeout, which can be used to cancel it
+     */
+    public synchronized Timeout<T> add(long deadline, T value) {
+        // round up, so that the timeout does not expire before its deadline
+        long tick = (deadline + tickDuration - 1) / tickDuration;
+        Timeout<T> timeout = new Timeout<T>(Math.max(tick, currentTick + 1), value);
+        place(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Cancels a timeout.
+     *
+     * @param timeout the timeout to cancel
+     * @return true, if the timeout has been cancelled, false if it has already expired or has been cancelled before
+     */
+    public synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to the given time and removes all timeouts, whose deadline has passed.
+     *
+     * @param now the current time in milliseconds
+     * @return the values of the expired timeouts, ordered by the tick of their deadline
+     */
+    public synchronized List<T> advance(long now) {
+        List<T> expired = new ArrayList<T>();
+        long targetTick = now / tickDuration;
+        while (currentTick < targetTick) {
+            currentTick++;
+            if ((currentTick & WHEEL_MASK) == 0) {
+                cascade(1);
+            }
+            Bucket<T> bucket = buckets[0][(int) (currentTick & WHEEL_MASK)];
+            Timeout<T> timeout = bucket.clear();
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                timeout.next = null;
+                expired.add(timeout.value);
+                size--;
+                timeout = next;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * @return the number of pending timeouts
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @return the duration of a tick in milliseconds
+     */
+    public long getTickDuration() {
+        return tickDuration;
+    }
+
+    private void cascade(int level) {
+        int index = (int) ((currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        if (index == 0 && level + 1 < LEVELS) {
+            cascade(level + 1);
+        }
+        Timeout<T> timeout = buckets[level][index].clear();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout<T> timeout) {
+        long delta = timeout.tick - currentTick;
+        int level = 0;
+        while (level + 1 < LEVELS && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((timeout.tick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+        buckets[level][index].add(timeout);
+    }
+
+    /**
+     * A timeout in the wheel.
+     *
+     * @param <T> the type of the value
+     */
+    public static class Timeout<T> {
+
+        private final long tick;
+
+        private final T value;
+
+        private Bucket<T> bucket;
+
+        private Timeout<T> previous;
+
+        private Timeout<T> next;
+
+        private Timeout(long tick, T value) {
+            this.tick = tick;
+            this.value = value;
+        }
+
+        /**
+         * @return the value of the timeout
+         */
+        public T getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * A doubly linked list of timeouts, so that a timeout can be removed in constant time.
+     */
+    private static class Bucket<T> {
+
+        private Timeout<T> head;
+
+        private void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.previous = null;
+            timeout.next = head;
+            if (head != null) {
+                head.previous = timeout;
+            }
+            head = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.previous != null) {
+                timeout.previous.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.previous = timeout.previous;
+            }
+            timeout.bucket = null;
+            timeout.previous = null;
+            timeout.next = null;
+        }
+
+        /**
+         * Removes all timeouts from the bucket.
+         *
+         * @return the first of the removed timeouts, which are still linked by {@link Timeout#next}
+         */
+        private Timeout<T> clear() {
+            Timeout<T> first = head;
+            for (Timeout<T> timeout = first; timeout != null; timeout = timeout.next) {
+                timeout.bucket = null;
+                timeout.previous = null;
+            }
+            head = null;
+            return first;
+        }
+    }
+
+}
@@ -8,6 +8,7 @@
 package org.eclipse.smarthome.core.storage;
 
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * A Storage is the generic way to store key-value pairs in ESH. Each Storage
@@ -15,6 +16,7 @@ import java.util.Collection;
  *
  * @author Thomas.Eichstaedt-Engelen - Initial Contribution and API
  * @author Kai Kreuzer - improved return values
+ * @author agent - batch operations
  */
 public interface Storage<T> {
 
@@ -27,6 +29,14 @@ public interface Storage<T> {
      */
     T put(String key, T value);
 
+    /**
+     * Puts all key-value mappings into this Storage as one batch. Storages which
+     * persist their data make all mappings durable together, e.g. with one commit.
+     *
+     * @param values the key-value mappings to add
+     */
+    void putAll(Map<String, T> values);
+
     /**
      * Removes the specified mapping from this map.
      *
@@ -35,6 +45,14 @@ public interface Storage<T> {
      */
     T remove(String key);
 
+    /**
+     * Removes the mappings of all specified keys as one batch. Storages which
+     * persist their data make all removals durable together, e.g. with one commit.
+     *
+     * @param keys the keys of the mappings to remove
+     */
+    void removeAll(Collection<String> keys);
+
     /**
      * Gets the value mapped to the key specified.
      * 
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2014-2015 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.console.internal.extension;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.core.events.EventSubscriberStatistics;
+import org.eclipse.smarthome.core.events.EventSubscriberStatisticsProvider;
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+
+/**
+ * Console command extension to show the queue and latency statistics of the event subscribers.
+ *
+ * @author agent - Initial contribution
+ */
+public class EventConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATS = "stats";
+
+    private EventSubscriberStatisticsProvider statisticsProvider;
+
+    public EventConsoleCommandExtension() {
+        super("events", "Access the event subscribers.");
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(
+                buildCommandUsage(SUBCMD_STATS, "shows the queue and latency statistics of the event subscribers"));
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0 && SUBCMD_STATS.equals(args[0])) {
+            printStatistics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        if (statisticsProvider == null) {
+            console.println("No event subscriber statistics available.");
+            return;
+        }
+        Collection<EventSubscriberStatistics> statistics = statisticsProvider.getStatistics();
+        if (statistics.isEmpty()) {
+            console.println("No event subscribers found.");
+        }
+        for (EventSubscriberStatistics stats : statistics) {
+            console.println(stats.toString());
+        }
+    }
+
+    protected void setEventSubscriberStatisticsProvider(EventSubscriberStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = statisticsProvider;
+    }
+
+    protected void unsetEventSubscriberStatisticsProvider(EventSubscriberStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = null;
+    }
+
+}
@@ -14,6 +14,8 @@ import java.util.List;
 
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemRegistry;
+import org.eclipse.smarthome.core.items.ItemStateNotificationStatistics;
+import org.eclipse.smarthome.core.items.ItemStateNotificationStatisticsProvider;
 import org.eclipse.smarthome.io.console.Console;
 import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
 
@@ -24,6 +26,7 @@ import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtensi
  * @author Markus Rathgeb - Create DS for command extension
  * @author Dennis Nobel - Changed service references to be injected via DS
  * @author Simon Kaufmann - Added commands to clear and remove items
+ * @author agent - Added the command to print the state notification statistics
  *
  */
 public class ItemConsoleCommandExtension extends AbstractConsoleCommandExtension {
@@ -31,9 +34,12 @@ public class ItemConsoleCommandExtension extends AbstractConsoleCommandExtension
     private static final String SUBCMD_LIST = "list";
     private static final String SUBCMD_CLEAR = "clear";
     private static final String SUBCMD_REMOVE = "remove";
+    private static final String SUBCMD_STATS = "stats";
 
     private ItemRegistry itemRegistry;
 
+    private ItemStateNotificationStatisticsProvider statisticsProvider;
+
     public ItemConsoleCommandExtension() {
         super("items", "Access the item registry.");
     }
@@ -44,7 +50,8 @@ public class ItemConsoleCommandExtension extends AbstractConsoleCommandExtension
                 buildCommandUsage(SUBCMD_LIST + " [<pattern>]",
                         "lists names and types of all items (matching the pattern, if given)"),
                 buildCommandUsage(SUBCMD_CLEAR, "removes all items"),
-                buildCommandUsage(SUBCMD_REMOVE + " <itemName>", "removes the given item") });
+                buildCommandUsage(SUBCMD_REMOVE + " <itemName>", "removes the given item"),
+                buildCommandUsage(SUBCMD_STATS, "prints the statistics of the state notifications of the items") });
     }
 
     @Override
@@ -68,6 +75,9 @@ public class ItemConsoleCommandExtension extends AbstractConsoleCommandExtension
                                 + SUBCMD_REMOVE + " <itemName>");
                     }
                     break;
+                case SUBCMD_STATS:
+                    printStatistics(console);
+                    break;
                 default:
                     console.println("Unknown command '" + subCommand + "'");
                     printUsage(console);
@@ -97,6 +107,20 @@ public class ItemConsoleCommandExtension extends AbstractConsoleCommandExtension
         }
     }
 
+    private void printStatistics(Console console) {
+        if (statisticsProvider == null) {
+            console.println("No item state notification statistics available.");
+            return;
+        }
+        Collection<ItemStateNotificationStatistics> statistics = statisticsProvider.getStatistics();
+        if (statistics.isEmpty()) {
+            console.println("No item state notifications found.");
+        }
+        for (ItemStateNotificationStatistics stats : statistics) {
+            console.println(stats.toString());
+        }
+    }
+
     protected void setItemRegistry(ItemRegistry itemRegistry) {
         this.itemRegistry = itemRegistry;
     }
@@ -105,4 +129,14 @@ public class ItemConsoleCommandExtension extends AbstractConsoleCommandExtension
         this.itemRegistry = null;
     }
 
+    protected void setItemStateNotificationStatisticsProvider(
+            ItemStateNotificationStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = statisticsProvider;
+    }
+
+    protected void unsetItemStateNotificationStatisticsProvider(
+            ItemStateNotificationStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = null;
+    }
+
 }
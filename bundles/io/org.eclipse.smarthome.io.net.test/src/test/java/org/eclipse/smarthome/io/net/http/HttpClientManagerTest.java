@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.net.http;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * @author agent - Initial contribution
+ */
+public class HttpClientManagerTest {
+
+    @Test
+    public void testClientsShareConnectionManager() {
+        assertSame(HttpClientManager.getConnectionManager(),
+                HttpClientManager.createHttpClient().getHttpConnectionManager());
+        assertSame(HttpClientManager.createHttpClient().getHttpConnectionManager(),
+                HttpClientManager.createHttpClient().getHttpConnectionManager());
+    }
+
+    @Test
+    public void testClientsWaitForPoolTimeout() {
+        assertEquals(HttpClientManager.getPoolTimeout(),
+                HttpClientManager.createHttpClient().getParams().getConnectionManagerTimeout());
+    }
+
+    @Test
+    public void testConfiguration() {
+        HttpClientManager httpClientManager = new HttpClientManager();
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(HttpClientManager.CONFIG_MAX_CONNECTIONS, "10");
+        properties.put(HttpClientManager.CONFIG_MAX_CONNECTIONS_PER_HOST, "5");
+        properties.put(HttpClientManager.CONFIG_IDLE_TIMEOUT, "invalid");
+        properties.put(HttpClientManager.CONFIG_POOL_TIMEOUT, "2000");
+        try {
+            httpClientManager.activate(properties);
+            assertEquals(10, HttpClientManager.getMaxConnections());
+            assertEquals(5, HttpClientManager.getMaxConnectionsPerHost());
+            assertEquals(2000, HttpClientManager.getPoolTimeout());
+            assertEquals(2000, HttpClientManager.createHttpClient().getParams().getConnectionManagerTimeout());
+        } finally {
+            httpClientManager.modified(Collections.<String, Object> emptyMap());
+        }
+        assertEquals(HttpClientManager.DEFAULT_MAX_CONNECTIONS, HttpClientManager.getMaxConnections());
+        assertEquals(HttpClientManager.DEFAULT_MAX_CONNECTIONS_PER_HOST, HttpClientManager.getMaxConnectionsPerHost());
+        assertEquals(HttpClientManager.DEFAULT_POOL_TIMEOUT, HttpClientManager.getPoolTimeout());
+    }
+
+}
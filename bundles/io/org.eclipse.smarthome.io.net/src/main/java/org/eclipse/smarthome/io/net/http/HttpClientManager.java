@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.net.http;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.httpclient.ConnectionPoolTimeoutException;
+import org.apache.commons.httpclient.HostConfiguration;
+import org.apache.commons.httpclient.HttpClient;
+import org.apache.commons.httpclient.HttpConnectionManager;
+import org.apache.commons.httpclient.MultiThreadedHttpConnectionManager;
+import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <p>
+ * This class provides a shared, connection-pooling {@link HttpConnectionManager}. In general, no code of Eclipse
+ * SmartHome should create {@link HttpClient}s with their own connection manager, but rather use
+ * {@link #createHttpClient()}, so that the connections to a host are kept alive and reused across requests.
+ * </p>
+ * <p>
+ * The pool can be configured through the configuration admin service as
+ * <br/>
+ * {@code org.eclipse.smarthome.http:max.connections=<number>}
+ * <br/>
+ * {@code org.eclipse.smarthome.http:max.connections.per.host=<number>}
+ * <br/>
+ * {@code org.eclipse.smarthome.http:idle.timeout=<milliseconds>}
+ * <br/>
+ * {@code org.eclipse.smarthome.http:pool.timeout=<milliseconds>}
+ * <br/>
+ * Connections, which have been idle for longer than the idle timeout, are closed. Clients created by
+ * {@link #createHttpClient()} wait at most for the pool timeout for a free connection, before the request fails with
+ * a {@link ConnectionPoolTimeoutException}.
+ * </p>
+ *
+ * @author agent - Initial contribution
+ */
+public class HttpClientManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(HttpClientManager.class);
+
+    /** the name of the thread pool, which is used for asynchronous requests */
+    static final String THREAD_POOL_NAME = "http";
+
+    /** the name of the scheduled thread pool, which is used for closing idle connections */
+    private static final String SCHEDULED_POOL_NAME = "httpPool";
+
+    protected static final int DEFAULT_MAX_CONNECTIONS = 100;
+
+    protected static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 20;
+
+    protected static final long DEFAULT_IDLE_TIMEOUT = 60000;
+
+    protected static final long DEFAULT_POOL_TIMEOUT = 10000;
+
+    public static final String CONFIG_MAX_CONNECTIONS = "max.connections";
+
+    public static final String CONFIG_MAX_CONNECTIONS_PER_HOST = "max.connections.per.host";
+
+    public static final String CONFIG_IDLE_TIMEOUT = "idle.timeout";
+
+    public static final String CONFIG_POOL_TIMEOUT = "pool.timeout";
+
+    private static final MultiThreadedHttpConnectionManager manager = new MultiThreadedHttpConnectionManager();
+
+    private static volatile long idleTimeout;
+
+    private static volatile long poolTimeout = DEFAULT_POOL_TIMEOUT;
+
+    private static ScheduledFuture<?> idleConnectionCloser;
+
+    static {
+        configure(DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_HOST, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    protected void activate(Map<String, Object> properties) {
+        modified(properties);
+    }
+
+    protected void modified(Map<String, Object> properties) {
+        int maxConnections = getConfig(properties, CONFIG_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS);
+        int maxConnectionsPerHost = getConfig(properties, CONFIG_MAX_CONNECTIONS_PER_HOST,
+                DEFAULT_MAX_CONNECTIONS_PER_HOST);
+        long timeout = getConfig(properties, CONFIG_IDLE_TIMEOUT, (int) DEFAULT_IDLE_TIMEOUT);
+        configure(maxConnections, maxConnectionsPerHost, timeout);
+        poolTimeout = getConfig(properties, CONFIG_POOL_TIMEOUT, (int) DEFAULT_POOL_TIMEOUT);
+    }
+
+    protected void deactivate() {
+        synchronized (manager) {
+            if (idleConnectionCloser != null) {
+                idleConnectionCloser.cancel(false);
+                idleConnectionCloser = null;
+            }
+        }
+        manager.closeIdleConnections(0);
+    }
+
+    private static int getConfig(Map<String, Object> properties, String key, int defaultValue) {
+        Object value = properties != null ? properties.get(key) : null;
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring invalid configuration for '{}': {} - value must be an integer", key, value);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static void configure(int maxConnections, int maxConnectionsPerHost, long timeout) {
+        HttpConnectionManagerParams params = manager.getParams();
+        params.setMaxTotalConnections(maxConnections);
+        params.setDefaultMaxConnectionsPerHost(maxConnectionsPerHost);
+        // a pooled connection might have been closed by the server in the meantime
+        params.setStaleCheckingEnabled(true);
+        synchronized (manager) {
+            idleTimeout = timeout;
+            if (idleConnectionCloser != null) {
+                idleConnectionCloser.cancel(false);
+                idleConnectionCloser = null;
+            }
+            if (timeout > 0) {
+                idleConnectionCloser = ThreadPoolManager.getScheduledPool(SCHEDULED_POOL_NAME)
+                        .scheduleWithFixedDelay(new Runnable() {
+                            @Override
+                            public void run() {
+                                manager.closeIdleConnections(idleTimeout);
+                            }
+                        }, timeout, timeout, TimeUnit.MILLISECONDS);
+            }
+        }
+        logger.debug("Configured HTTP connection pool with {} connections, {} per host and idle timeout {} ms",
+                new Object[] { maxConnections, maxConnectionsPerHost, timeout });
+    }
+
+    /**
+     * Returns the shared connection manager.
+     *
+     * @return the shared connection manager
+     */
+    public static HttpConnectionManager getConnectionManager() {
+        return manager;
+    }
+
+    /**
+     * Creates a new {@link HttpClient}, which uses the shared connection manager. The client itself is lightweight,
+     * so that callers can create a new one for each request and configure its credentials and proxy independently.
+     * The client waits at most for the configured pool timeout for a free connection, as long as the caller does not
+     * set a different connection manager timeout.
+     *
+     * @return a new {@link HttpClient}
+     */
+    public static HttpClient createHttpClient() {
+        HttpClient client = new HttpClient(manager);
+        client.getParams().setConnectionManagerTimeout(poolTimeout);
+        return client;
+    }
+
+    /**
+     * @return the number of connections, which are currently open, either in use or idle
+     */
+    public static int getConnectionsInPool() {
+        return manager.getConnectionsInPool();
+    }
+
+    /**
+     * @param hostConfiguration the host
+     * @return the number of connections to the given host, which are currently open, either in use or idle
+     */
+    public static int getConnectionsInPool(HostConfiguration hostConfiguration) {
+        return manager.getConnectionsInPool(hostConfiguration);
+    }
+
+    /**
+     * @return the maximum number of connections
+     */
+    public static int getMaxConnections() {
+        return manager.getParams().getMaxTotalConnections();
+    }
+
+    /**
+     * @return the maximum number of connections per host
+     */
+    public static int getMaxConnectionsPerHost() {
+        return manager.getParams().getDefaultMaxConnectionsPerHost();
+    }
+
+    /**
+     * @return the time in milliseconds, which a request waits at most for a free connection
+     */
+    public static long getPoolTimeout() {
+        return poolTimeout;
+    }
+
+}
@@ -12,6 +12,8 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -34,14 +36,19 @@ import org.apache.commons.httpclient.methods.PutMethod;
 import org.apache.commons.httpclient.params.HttpMethodParams;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Some common methods to be used in both HTTP-In-Binding and HTTP-Out-Binding
+ * <p>
+ * All requests use the shared connection pool of the {@link HttpClientManager}, so that connections are kept alive and
+ * reused.
  *
  * @author Thomas.Eichstaedt-Engelen
  * @author Kai Kreuzer - Initial contribution and API
+ * @author agent - Use the shared connection pool
  */
 public class HttpUtil {
 
@@ -129,6 +136,31 @@ public class HttpUtil {
 
     }
 
+    /**
+     * Executes the given <code>url</code> with the given <code>httpMethod</code> asynchronously.
+     * Furthermore the <code>http.proxyXXX</code> System variables are read and
+     * set into the {@link HttpClient}.
+     *
+     * @param httpMethod the HTTP method to use
+     * @param url the url to execute (in milliseconds)
+     * @param httpHeaders optional http request headers which has to be sent within request
+     * @param content the content to be send to the given <code>url</code> or <code>null</code> if no content should be
+     *            send.
+     * @param contentType the content type of the given <code>content</code>
+     * @param timeout the socket timeout to wait for data
+     *
+     * @return the future response body, which is <code>NULL</code> when the request went wrong
+     */
+    public static Future<String> executeUrlAsync(final String httpMethod, final String url,
+            final Properties httpHeaders, final InputStream content, final String contentType, final int timeout) {
+        return ThreadPoolManager.getPool(HttpClientManager.THREAD_POOL_NAME).submit(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                return executeUrl(httpMethod, url, httpHeaders, content, contentType, timeout);
+            }
+        });
+    }
+
     /**
      * Executes the given <code>url</code> with the given <code>httpMethod</code>
      *
@@ -150,7 +182,9 @@ public class HttpUtil {
             String contentType, int timeout, String proxyHost, Integer proxyPort, String proxyUser,
             String proxyPassword, String nonProxyHosts) {
 
-        HttpClient client = new HttpClient();
+        HttpClient client = HttpClientManager.createHttpClient();
+        // do not wait forever for a free connection of the pool
+        client.getParams().setConnectionManagerTimeout(timeout);
 
         // only configure a proxy if a host is provided
         if (StringUtils.isNotBlank(proxyHost) && proxyPort != null && shouldUseProxy(url, nonProxyHosts)) {
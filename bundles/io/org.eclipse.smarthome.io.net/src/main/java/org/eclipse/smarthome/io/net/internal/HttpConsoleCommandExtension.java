@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.net.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.net.http.HttpClientManager;
+
+/**
+ * Console command extension to show the statistics of the shared HTTP connection pool.
+ *
+ * @author agent - Initial contribution
+ */
+public class HttpConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATS = "stats";
+
+    public HttpConsoleCommandExtension() {
+        super("http", "Access the shared HTTP connection pool.");
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(buildCommandUsage(SUBCMD_STATS,
+                "shows the number of open connections and the limits of the connection pool"));
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0 && SUBCMD_STATS.equals(args[0])) {
+            printStatistics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        console.println("Open connections:         " + HttpClientManager.getConnectionsInPool());
+        console.println("Max connections:          " + HttpClientManager.getMaxConnections());
+        console.println("Max connections per host: " + HttpClientManager.getMaxConnectionsPerHost());
+        console.println("Pool timeout (ms):        " + HttpClientManager.getPoolTimeout());
+    }
+
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.core.persistence
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import org.eclipse.smarthome.core.library.types.DecimalType
+import org.eclipse.smarthome.core.library.types.OnOffType
+import org.eclipse.smarthome.core.types.State
+import org.eclipse.smarthome.io.rest.core.persistence.BucketAggregator.Aggregation
+import org.junit.Test
+
+/**
+ * Tests the {@link BucketAggregator} and the {@link LargestTriangleThreeBuckets}.
+ *
+ * @author agent - Initial contribution
+ */
+class DataPointReductionTest {
+
+    class CollectingSink implements DataPointSink {
+        def dataPoints = []
+        boolean finished = false
+
+        void add(long time, State state) {
+            // the times of the tests fit into an int, so that they equal the integer literals of the expectations
+            dataPoints << [(int) time, state.toString()]
+        }
+
+        void finish() {
+            finished = true
+        }
+    }
+
+    @Test
+    void 'BucketAggregator aggregates the data points of each bucket'() {
+        def expectations = [
+            (Aggregation.MIN): [[0, "0"], [10, "12"], [20, "21"]],
+            (Aggregation.MAX): [[0, "9"], [10, "18"], [20, "27"]],
+            (Aggregation.AVG): [[0, "4.5"], [10, "15"], [20, "24"]],
+            (Aggregation.LAST): [[0, "9"], [10, "18"], [20, "27"]]
+        ]
+        expectations.each { aggregation, expected ->
+            def sink = new CollectingSink()
+            def aggregator = new BucketAggregator(sink, 0, 10, aggregation)
+            (0..<30).step(3) { aggregator.add(it, new DecimalType(it)) }
+            aggregator.finish()
+
+            assertThat sink.dataPoints, is(expected)
+            assertThat sink.finished, is(true)
+        }
+    }
+
+    @Test
+    void 'BucketAggregator passes on the last state of buckets with non-numeric states'() {
+        def sink = new CollectingSink()
+        def aggregator = new BucketAggregator(sink, 0, 10, Aggregation.AVG)
+        aggregator.add(0, new DecimalType(1))
+        aggregator.add(5, OnOffType.ON)
+        aggregator.add(25, OnOffType.OFF)
+        aggregator.finish()
+
+        assertThat sink.dataPoints, is([[0, "ON"], [20, "OFF"]])
+    }
+
+    @Test
+    void 'LargestTriangleThreeBuckets keeps the first, the last and the extreme data points'() {
+        def sink = new CollectingSink()
+        def reducer = new LargestTriangleThreeBuckets(sink, 0, 1000, 5)
+        (0..1000).step(10) { reducer.add(it, new DecimalType(it == 500 ? 1000 : 0)) }
+        reducer.finish()
+
+        assertThat sink.dataPoints.size(), is(5)
+        assertThat sink.dataPoints.first(), is([0, "0"])
+        assertThat sink.dataPoints.last(), is([1000, "0"])
+        assertThat sink.dataPoints, hasItem([500, "1000"])
+        assertThat sink.finished, is(true)
+    }
+
+    @Test
+    void 'LargestTriangleThreeBuckets reduces a large number of data points to the target number'() {
+        def sink = new CollectingSink()
+        def reducer = new LargestTriangleThreeBuckets(sink, 0, 1000000, 100)
+        def random = new Random(0)
+        (0..1000000).step(10) { reducer.add(it, new DecimalType(random.nextInt(100))) }
+        reducer.finish()
+
+        assertThat sink.dataPoints.size(), is(100)
+        assertThat sink.dataPoints*.get(0), is(sink.dataPoints*.get(0).sort())
+    }
+
+    @Test
+    void 'LargestTriangleThreeBuckets passes on few data points unchanged'() {
+        def sink = new CollectingSink()
+        def reducer = new LargestTriangleThreeBuckets(sink, 0, 1000, 5)
+        reducer.add(0, new DecimalType(1))
+        reducer.add(100, new DecimalType(5))
+        reducer.add(1000, new DecimalType(2))
+        reducer.finish()
+
+        assertThat sink.dataPoints, is([[0, "1"], [100, "5"], [1000, "2"]])
+    }
+}
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.core.persistence
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import org.eclipse.smarthome.core.library.types.DecimalType
+import org.eclipse.smarthome.core.library.types.OnOffType
+import org.eclipse.smarthome.core.persistence.FilterCriteria
+import org.eclipse.smarthome.core.persistence.HistoricItem
+import org.eclipse.smarthome.core.persistence.QueryablePersistenceService
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering
+import org.eclipse.smarthome.core.types.State
+import org.eclipse.smarthome.io.rest.core.persistence.BucketAggregator.Aggregation
+import org.junit.Test
+
+import com.google.gson.Gson
+import com.google.gson.JsonElement
+import com.google.gson.JsonParser
+
+/**
+ * Tests that the {@link ItemHistoryStreamingOutput} writes the same JSON as the {@link ItemHistoryBean}.
+ *
+ * @author agent - Initial contribution
+ */
+class ItemHistoryStreamingOutputTest {
+
+    def begin = new Date(100000)
+    def end = new Date(200000)
+
+    @Test
+    void 'assert the numeric history is written in the format of the ItemHistoryBean'() {
+        def service = createService(new DecimalType(1), [
+            [110000, new DecimalType(2)],
+            [150000, new DecimalType("3.5")]
+        ])
+
+        def bean = new ItemHistoryBean()
+        bean.name = "Item"
+        bean.addData(100000L, new DecimalType(1))
+        bean.addData(110000L, new DecimalType(2))
+        bean.addData(150000L, new DecimalType("3.5"))
+        bean.addData(200000L, new DecimalType("3.5"))
+        bean.datapoints = "4"
+
+        assertThat write(new ItemHistoryStreamingOutput(service, "Item", begin, end, null)),
+                is(new Gson().toJsonTree(bean))
+    }
+
+    @Test
+    void 'assert the binary history is written in the format of the ItemHistoryBean'() {
+        def service = createService(null, [
+            [110000, OnOffType.ON],
+            [150000, OnOffType.OFF]
+        ])
+
+        // the binary states are replicated, but not counted
+        def bean = new ItemHistoryBean()
+        bean.name = "Item"
+        bean.addData(110000L, OnOffType.ON)
+        bean.addData(110000L, OnOffType.ON)
+        bean.addData(150000L, OnOffType.OFF)
+        bean.addData(150000L, OnOffType.OFF)
+        bean.addData(200000L, OnOffType.OFF)
+        bean.datapoints = "3"
+
+        assertThat write(new ItemHistoryStreamingOutput(service, "Item", begin, end, null)),
+                is(new Gson().toJsonTree(bean))
+    }
+
+    @Test
+    void 'assert the start and end points are not aggregated into the buckets'() {
+        def service = createService(new DecimalType(100), [
+            [110000, new DecimalType(2)],
+            [120000, new DecimalType(4)],
+            [160000, new DecimalType(6)]
+        ])
+        def reducerFactory = [
+            create: { DataPointSink sink, long startTime, long endTime ->
+                new BucketAggregator(sink, startTime, 50000, Aggregation.AVG)
+            },
+            reducesBoundaryPoints: { false }
+        ] as ItemHistoryStreamingOutput.ReducerFactory
+
+        def bean = new ItemHistoryBean()
+        bean.name = "Item"
+        bean.addData(100000L, new DecimalType(100))
+        bean.addData(100000L, new DecimalType(3))
+        bean.addData(150000L, new DecimalType(6))
+        bean.addData(200000L, new DecimalType(6))
+        bean.datapoints = "4"
+
+        assertThat write(new ItemHistoryStreamingOutput(service, "Item", begin, end, reducerFactory)),
+                is(new Gson().toJsonTree(bean))
+    }
+
+    private QueryablePersistenceService createService(State startState, List history) {
+        return [
+            getName: { "test" },
+            query: { FilterCriteria filter ->
+                if (filter.ordering == Ordering.DESCENDING) {
+                    // the query of the state at the start time
+                    return startState != null ? [createHistoricItem(90000, startState)] : []
+                }
+                return history.collect { createHistoricItem(it[0], it[1]) }
+            }
+        ] as QueryablePersistenceService
+    }
+
+    private HistoricItem createHistoricItem(long time, State state) {
+        return [
+            getTimestamp: { new Date(time) },
+            getState: { state },
+            getName: { "Item" }
+        ] as HistoricItem
+    }
+
+    private JsonElement write(ItemHistoryStreamingOutput output) {
+        def stream = new ByteArrayOutputStream()
+        output.write(stream)
+        return new JsonParser().parse(stream.toString("UTF-8"))
+    }
+}
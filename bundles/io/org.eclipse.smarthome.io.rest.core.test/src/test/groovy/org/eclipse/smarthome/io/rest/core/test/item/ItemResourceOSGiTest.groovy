@@ -12,6 +12,7 @@ import static org.junit.Assert.*
 import static org.junit.matchers.JUnitMatchers.*
 
 import javax.ws.rs.core.Response
+import javax.ws.rs.core.StreamingOutput
 import javax.ws.rs.core.UriInfo
 import javax.ws.rs.core.Response.Status
 
@@ -19,17 +20,21 @@ import org.eclipse.smarthome.core.items.ItemProvider
 import org.eclipse.smarthome.core.items.ManagedItemProvider
 import org.eclipse.smarthome.core.library.items.DimmerItem
 import org.eclipse.smarthome.core.library.items.SwitchItem
+import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTO
 import org.eclipse.smarthome.io.rest.core.item.ItemResource
 import org.eclipse.smarthome.test.OSGiTest
 import org.junit.After
 import org.junit.Before
 import org.junit.Test
 
+import com.google.gson.Gson
+
 
 /**
  * ItemResourceOSGiTest tests the ItemResource REST resource on the OSGi level.
  *
  * @author Dennis Nobel - Initial contribution
+ * @author agent - Added the name prefix, paging and field selection test
  */
 class ItemResourceOSGiTest extends OSGiTest {
 
@@ -76,9 +81,9 @@ class ItemResourceOSGiTest extends OSGiTest {
         ] as ItemProvider
         registerService itemProvider
 
-        assertThat containsItems(itemResource.getItems(null, null, "Tag1", false).getEntity(), ["Item1", "Item2"]), is(true)
-        assertThat containsItems(itemResource.getItems(null, null, "Tag2", false).getEntity(), ["Item2", "Item3"]), is(true)
-        assertThat itemResource.getItems(null, null, "NotExistingTag", false).getEntity().size(), is(0)
+        assertThat containsItems(readItems(itemResource.getItems(null, null, "Tag1", false, null, 0, null, null)), ["Item1", "Item2"]), is(true)
+        assertThat containsItems(readItems(itemResource.getItems(null, null, "Tag2", false, null, 0, null, null)), ["Item2", "Item3"]), is(true)
+        assertThat readItems(itemResource.getItems(null, null, "NotExistingTag", false, null, 0, null, null)).size(), is(0)
     }
 
     @Test
@@ -97,19 +102,57 @@ class ItemResourceOSGiTest extends OSGiTest {
         ] as ItemProvider
         registerService itemProvider
 
-        assertThat containsItems(itemResource.getItems(null, "Switch", null, false).getEntity(), ["Item1", "Item2"]), is(true)
-        assertThat containsItems(itemResource.getItems(null, "Dimmer", null, false).getEntity(), ["Item3"]), is(true)
-        assertThat itemResource.getItems(null, null, "Color", false).getEntity().size(), is(0)
+        assertThat containsItems(readItems(itemResource.getItems(null, "Switch", null, false, null, 0, null, null)), ["Item1", "Item2"]), is(true)
+        assertThat containsItems(readItems(itemResource.getItems(null, "Dimmer", null, false, null, 0, null, null)), ["Item3"]), is(true)
+        assertThat readItems(itemResource.getItems(null, null, "Color", false, null, 0, null, null)).size(), is(0)
+    }
+
+    @Test
+    void 'assert getItems with name prefix, paging and field selection works'() {
+
+        def itemProvider = [
+            getAll: {
+                return [
+                    new SwitchItem("Kitchen_Light2"),
+                    new SwitchItem("Kitchen_Light1"),
+                    new DimmerItem("Kitchen_Dimmer"),
+                    new SwitchItem("Living_Light")
+                ]
+            },
+            addProviderChangeListener: {},
+            removeProviderChangeListener: {},
+        ] as ItemProvider
+        registerService itemProvider
+
+        def items = readItems(itemResource.getItems(null, null, null, false, "Kitchen_", 0, null, null))
+        assertThat items*.name, is(["Kitchen_Dimmer", "Kitchen_Light1", "Kitchen_Light2"])
+
+        items = readItems(itemResource.getItems(null, null, null, false, "Kitchen_", 1, 1, null))
+        assertThat items*.name, is(["Kitchen_Light1"])
+
+        items = readItems(itemResource.getItems(null, "Switch", null, false, "Kitchen_", 0, null, "name"))
+        assertThat items*.name, is(["Kitchen_Light1", "Kitchen_Light2"])
+        assertThat items[0].type, is(nullValue())
+
+        // without a prefix, the items are ordered by name as well
+        items = readItems(itemResource.getItems(null, null, null, false, null, 1, 2, null))
+        assertThat items*.name, is(["Kitchen_Light1", "Kitchen_Light2"])
+
+        items = readItems(itemResource.getItems(null, "Switch", null, false, null, 0, null, null))
+        assertThat items*.name, is(["Kitchen_Light1", "Kitchen_Light2", "Living_Light"])
+
+        Response response = itemResource.getItems(null, null, null, false, null, -1, null, null)
+        assertThat response.status, is(Status.BAD_REQUEST.code)
     }
 
     @Test
     void 'assert addTag and removeTag works'() {
         managedItemProvider.add(new SwitchItem("Switch"))
-        assertThat itemResource.getItems(null, null, "MyTag", false).getEntity().size(), is(0)
+        assertThat readItems(itemResource.getItems(null, null, "MyTag", false, null, 0, null, null)).size(), is(0)
         itemResource.addTag("Switch", "MyTag")
-        assertThat itemResource.getItems(null, null, "MyTag", false).getEntity().size(), is(1)
+        assertThat readItems(itemResource.getItems(null, null, "MyTag", false, null, 0, null, null)).size(), is(1)
         itemResource.removeTag("Switch", "MyTag")
-        assertThat itemResource.getItems(null, null, "MyTag", false).getEntity().size(), is(0)
+        assertThat readItems(itemResource.getItems(null, null, "MyTag", false, null, 0, null, null)).size(), is(0)
     }
 
     @Test
@@ -144,4 +187,11 @@ class ItemResourceOSGiTest extends OSGiTest {
         }
         return allFound
     }
+
+    private List<EnrichedItemDTO> readItems(Response response) {
+        // the items are streamed as a JSON array
+        def output = new ByteArrayOutputStream()
+        (response.entity as StreamingOutput).write(output)
+        return new Gson().fromJson(output.toString("UTF-8"), EnrichedItemDTO[].class) as List
+    }
 }
@@ -11,6 +11,7 @@ import static org.hamcrest.CoreMatchers.*
 import static org.junit.Assert.*
 import static org.junit.matchers.JUnitMatchers.*
 
+import javax.ws.rs.core.StreamingOutput
 import javax.ws.rs.core.UriInfo
 
 import org.eclipse.smarthome.core.items.ItemProvider
@@ -28,6 +29,8 @@ import org.junit.Before
 import org.junit.Test
 import org.osgi.framework.BundleContext
 
+import com.google.gson.Gson
+
 
 /**
  * This test checks whether REST resource supports items where transformation will be applied.
@@ -96,7 +99,9 @@ class ItemResourceOSGiTestWithTransformTest extends OSGiTest {
         // set after adding to ItemProvider. Why?
         item1.setStateDescriptionProviders(stateDescriptionProviders)
 
-        def enrichedDTOResult = itemResource.getItems(null, null, null, false).getEntity()
+        def output = new ByteArrayOutputStream()
+        (itemResource.getItems(null, null, null, false, null, 0, null, null).entity as StreamingOutput).write(output)
+        def enrichedDTOResult = new Gson().fromJson(output.toString("UTF-8"), EnrichedItemDTO[].class)
         def EnrichedItemDTO enrichedDTO = enrichedDTOResult.find() { itemBean ->
             itemBean.name == "Item1"
         }
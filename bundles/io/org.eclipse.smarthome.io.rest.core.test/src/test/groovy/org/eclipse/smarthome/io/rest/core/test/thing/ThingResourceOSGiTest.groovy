@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.core.test.thing
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import javax.ws.rs.core.Response
+import javax.ws.rs.core.StreamingOutput
+import javax.ws.rs.core.UriInfo
+import javax.ws.rs.core.Response.Status
+
+import org.eclipse.smarthome.core.thing.ThingProvider
+import org.eclipse.smarthome.core.thing.ThingUID
+import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder
+import org.eclipse.smarthome.io.rest.core.thing.ThingResource
+import org.eclipse.smarthome.test.OSGiTest
+import org.junit.Before
+import org.junit.Test
+
+import com.google.gson.Gson
+
+
+/**
+ * ThingResourceOSGiTest tests the paging, the UID prefix filter and the field selection of the ThingResource.
+ *
+ * @author agent - Initial contribution
+ */
+class ThingResourceOSGiTest extends OSGiTest {
+
+    ThingResource thingResource
+
+    @Before
+    void setUp() {
+        registerVolatileStorageService()
+        thingResource = getService ThingResource
+        thingResource.uriInfo = [
+            getPath: { return "path" },
+            getBaseUri: { return new URI("uri")}
+        ] as UriInfo
+
+        def thingProvider = [
+            getAll: {
+                return [
+                    ThingBuilder.create(new ThingUID("binding:type:thing2")).build(),
+                    ThingBuilder.create(new ThingUID("other:type:thing3")).build(),
+                    ThingBuilder.create(new ThingUID("binding:type:thing1")).build()
+                ]
+            },
+            addProviderChangeListener: {},
+            removeProviderChangeListener: {},
+        ] as ThingProvider
+        registerService thingProvider
+    }
+
+    @Test
+    void 'assert getAll returns the things ordered by UID'() {
+        def things = readThings(thingResource.getAll(null, null, 0, null, null))
+        assertThat things*.UID, is([
+            "binding:type:thing1",
+            "binding:type:thing2",
+            "other:type:thing3"
+        ])
+    }
+
+    @Test
+    void 'assert getAll with UID prefix works'() {
+        def things = readThings(thingResource.getAll(null, "binding:", 0, null, null))
+        assertThat things*.UID, is(["binding:type:thing1", "binding:type:thing2"])
+
+        things = readThings(thingResource.getAll(null, "unknown:", 0, null, null))
+        assertThat things.size(), is(0)
+    }
+
+    @Test
+    void 'assert getAll with offset and limit works'() {
+        def things = readThings(thingResource.getAll(null, null, 1, 1, null))
+        assertThat things*.UID, is(["binding:type:thing2"])
+
+        things = readThings(thingResource.getAll(null, null, 2, 5, null))
+        assertThat things*.UID, is(["other:type:thing3"])
+
+        things = readThings(thingResource.getAll(null, null, 5, null, null))
+        assertThat things.size(), is(0)
+
+        assertThat thingResource.getAll(null, null, -1, null, null).status, is(Status.BAD_REQUEST.code)
+        assertThat thingResource.getAll(null, null, 0, -1, null).status, is(Status.BAD_REQUEST.code)
+    }
+
+    @Test
+    void 'assert getAll with field selection works'() {
+        def things = readThings(thingResource.getAll(null, "binding:", 0, null, "UID, statusInfo"))
+        assertThat things.size(), is(2)
+        things.each { thing ->
+            assertThat thing.keySet(), is(["UID", "statusInfo"] as Set)
+        }
+
+        things = readThings(thingResource.getAll(null, "binding:", 0, null, "UID"))
+        assertThat things*.keySet(), is([["UID"] as Set, ["UID"] as Set])
+    }
+
+    private List<Map<String, Object>> readThings(Response response) {
+        assertThat response.status, is(Status.OK.code)
+        def output = new ByteArrayOutputStream()
+        (response.entity as StreamingOutput).write(output)
+        return new Gson().fromJson(output.toString("UTF-8"), List)
+    }
+}
@@ -7,9 +7,11 @@
  */
 package org.eclipse.smarthome.io.rest.core.item;
 
-import java.util.Collection;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Set;
@@ -54,11 +56,15 @@ import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.core.types.TypeParser;
 import org.eclipse.smarthome.io.rest.JSONResponse;
 import org.eclipse.smarthome.io.rest.LocaleUtil;
+import org.eclipse.smarthome.io.rest.QueryUtil;
 import org.eclipse.smarthome.io.rest.RESTResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
 import com.google.common.base.Strings;
+import com.google.common.collect.Iterables;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -87,6 +93,7 @@ import io.swagger.annotations.ApiResponses;
  * @author Stefan Bußweiler - Migration to new ESH event concept
  * @author Yordan Zhelev - Added Swagger annotations
  * @author Jörg Plewe - refactoring, error handling
+ * @author agent - Streamed the item list
  */
 @Path(ItemResource.PATH_ITEMS)
 @Api(value = ItemResource.PATH_ITEMS)
@@ -143,16 +150,30 @@ public class ItemResource implements RESTResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Get all available items.", response = EnrichedItemDTO.class, responseContainer = "List")
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 400, message = "Offset or limit is negative.") })
     public Response getItems(@HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) @ApiParam(value = "language") String language,
             @QueryParam("type") @ApiParam(value = "item type filter", required = false) String type,
             @QueryParam("tags") @ApiParam(value = "item tag filter", required = false) String tags,
-            @DefaultValue("false") @QueryParam("recursive") @ApiParam(value = "get member items recursivly", required = false) boolean recursive) {
+            @DefaultValue("false") @QueryParam("recursive") @ApiParam(value = "get member items recursivly", required = false) boolean recursive,
+            @QueryParam("namePrefix") @ApiParam(value = "item name prefix filter", required = false) String namePrefix,
+            @DefaultValue("0") @QueryParam("offset") @ApiParam(value = "number of items to skip", required = false) int offset,
+            @QueryParam("limit") @ApiParam(value = "maximum number of items", required = false) Integer limit,
+            @QueryParam("fields") @ApiParam(value = "comma separated list of the fields to return, e.g. name,state", required = false) String fields) {
         final Locale locale = LocaleUtil.getLocale(language);
         logger.debug("Received HTTP GET request at '{}'", uriInfo.getPath());
 
-        Object responseObject = getItemBeans(type, tags, recursive, locale);
-        return Response.ok(responseObject).build();
+        Set<String> fieldSet = QueryUtil.getFields(fields);
+        Iterable<Item> items;
+        try {
+            items = QueryUtil.page(getItems(type, tags, namePrefix), offset, limit);
+        } catch (IllegalArgumentException e) {
+            return JSONResponse.createErrorResponse(Status.BAD_REQUEST, e.getMessage());
+        }
+        // the members are only mapped if they are returned
+        Iterable<EnrichedItemDTO> itemBeans = getItemBeans(items,
+                recursive && QueryUtil.isSelected(fieldSet, "members"), locale);
+        return JSONResponse.createStreamingResponse(itemBeans, fieldSet);
     }
 
     @GET
@@ -571,28 +592,51 @@ public class ItemResource implements RESTResource {
         return item;
     }
 
-    private List<EnrichedItemDTO> getItemBeans(String type, String tags, boolean recursive, Locale locale) {
-        List<EnrichedItemDTO> beans = new LinkedList<>();
-        Collection<Item> items;
+    /**
+     * Returns the items, which match the given filters, ordered by their names, so that they can be paged.
+     */
+    private Iterable<Item> getItems(String type, String tags, final String namePrefix) {
+        if (type == null && tags == null) {
+            // the name index of the registry is already ordered
+            return itemRegistry.getItemsByNamePrefix(namePrefix != null ? namePrefix : "");
+        }
+        List<Item> items;
         if (tags == null) {
-            if (type == null) {
-                items = itemRegistry.getItems();
-            } else {
-                items = itemRegistry.getItemsOfType(type);
-            }
+            items = new ArrayList<>(itemRegistry.getItemsOfType(type));
         } else {
             String[] tagList = tags.split(",");
             if (type == null) {
-                items = itemRegistry.getItemsByTag(tagList);
+                items = new ArrayList<>(itemRegistry.getItemsByTag(tagList));
             } else {
-                items = itemRegistry.getItemsByTagAndType(type, tagList);
+                items = new ArrayList<>(itemRegistry.getItemsByTagAndType(type, tagList));
             }
         }
-        if (items != null) {
-            for (Item item : items) {
-                beans.add(EnrichedItemDTOMapper.map(item, recursive, uriInfo.getBaseUri(), locale));
-            }
+        if (namePrefix != null) {
+            Iterables.removeIf(items, new Predicate<Item>() {
+                @Override
+                public boolean apply(Item item) {
+                    return !item.getName().startsWith(namePrefix);
+                }
+            });
         }
-        return beans;
+        Collections.sort(items, new Comparator<Item>() {
+            @Override
+            public int compare(Item item1, Item item2) {
+                return item1.getName().compareTo(item2.getName());
+            }
+        });
+        return items;
+    }
+
+    private Iterable<EnrichedItemDTO> getItemBeans(Iterable<Item> items, final boolean recursive,
+            final Locale locale) {
+        // the items are mapped lazily while the response is streamed
+        final URI baseUri = uriInfo.getBaseUri();
+        return Iterables.transform(items, new Function<Item, EnrichedItemDTO>() {
+            @Override
+            public EnrichedItemDTO apply(Item item) {
+                return EnrichedItemDTOMapper.map(item, recursive, baseUri, locale);
+            }
+        });
     }
 }
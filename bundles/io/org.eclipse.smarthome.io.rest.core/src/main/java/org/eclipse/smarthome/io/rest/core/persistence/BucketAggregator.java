@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.core.persistence;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * The {@link BucketAggregator} divides the time into buckets of a fixed length, starting at a given time, and passes
+ * one aggregated data point per non-empty bucket to the next sink. The aggregated data point has the start time of
+ * its bucket.
+ * <p>
+ * Only numeric states are aggregated. If a bucket contains other states, e.g. switch states, the last state of the
+ * bucket is passed on.
+ *
+ * @author agent - Initial contribution
+ */
+class BucketAggregator implements DataPointSink {
+
+    /**
+     * The functions to aggregate the states of a bucket.
+     */
+    enum Aggregation {
+        MIN,
+        MAX,
+        AVG,
+        LAST
+    }
+
+    private final DataPointSink sink;
+
+    private final long startTime;
+
+    private final long bucketLength;
+
+    private final Aggregation aggregation;
+
+    private long bucket;
+
+    private int count;
+
+    private boolean numeric;
+
+    private BigDecimal sum;
+
+    private DecimalType min;
+
+    private DecimalType max;
+
+    private State last;
+
+    /**
+     * Creates a new aggregator.
+     *
+     * @param sink the sink, which receives the aggregated data points
+     * @param startTime the start time of the first bucket in milliseconds
+     * @param bucketLength the length of the buckets in milliseconds, must be positive
+     * @param aggregation the function to aggregate the states of a bucket
+     */
+    BucketAggregator(DataPointSink sink, long startTime, long bucketLength, Aggregation aggregation) {
+        if (bucketLength <= 0) {
+            throw new IllegalArgumentException("The bucket length must be positive.");
+        }
+        this.sink = sink;
+        this.startTime = startTime;
+        this.bucketLength = bucketLength;
+        this.aggregation = aggregation;
+    }
+
+    @Override
+    public void add(long time, State state) throws IOException {
+        long timeBucket = Math.max(0, time - startTime) / bucketLength;
+        if (count > 0 && timeBucket != bucket) {
+            flush();
+        }
+        if (count == 0) {
+            bucket = timeBucket;
+            numeric = true;
+            sum = BigDecimal.ZERO;
+            min = null;
+            max = null;
+        }
+        count++;
+        last = state;
+        if (numeric && state instanceof DecimalType) {
+            DecimalType value = (DecimalType) state;
+            sum = sum.add(value.toBigDecimal());
+            if (min == null || value.toBigDecimal().compareTo(min.toBigDecimal()) < 0) {
+                min = value;
+            }
+            if (max == null || value.toBigDecimal().compareTo(max.toBigDecimal()) > 0) {
+                max = value;
+            }
+        } else {
+            numeric = false;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (count > 0) {
+            flush();
+        }
+        sink.finish();
+    }
+
+    private void flush() throws IOException {
+        State state = last;
+        if (numeric) {
+            switch (aggregation) {
+                case MIN:
+                    state = min;
+                    break;
+                case MAX:
+                    state = max;
+                    break;
+                case AVG:
+                    state = new DecimalType(sum.divide(BigDecimal.valueOf(count), MathContext.DECIMAL64));
+                    break;
+                default:
+                    break;
+            }
+        }
+        sink.add(startTime + bucket * bucketLength, state);
+        count = 0;
+        last = null;
+    }
+
+}
@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.core.persistence;
+
+import java.io.IOException;
+
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * A {@link DataPointSink} receives the data points of an item history in ascending order of time. Sinks can be
+ * chained, so that the data points are reduced before they are written.
+ *
+ * @author agent - Initial contribution
+ */
+interface DataPointSink {
+
+    /**
+     * Adds a data point.
+     *
+     * @param time the time of the data point in milliseconds
+     * @param state the state at this time
+     * @throws IOException if the data point cannot be written
+     */
+    void add(long time, State state) throws IOException;
+
+    /**
+     * Is called after the last data point has been added, so that pending data points can be passed on.
+     *
+     * @throws IOException if the data points cannot be written
+     */
+    void finish() throws IOException;
+
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.core.persistence;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.OpenClosedType;
+import org.eclipse.smarthome.core.persistence.FilterCriteria;
+import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
+import org.eclipse.smarthome.core.persistence.HistoricItem;
+import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
+import org.eclipse.smarthome.core.types.State;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The {@link ItemHistoryStreamingOutput} queries the history of an item and writes it in the format of the
+ * {@link ItemHistoryBean}, while the historic items are iterated. The data points are optionally reduced by another
+ * {@link DataPointSink}, so that the history is never held in memory as a whole.
+ *
+ * @author agent - Initial contribution
+ */
+class ItemHistoryStreamingOutput implements StreamingOutput {
+
+    /**
+     * Creates the sink, which reduces the data points before they are written.
+     */
+    interface ReducerFactory {
+
+        /**
+         * @param sink the sink, which writes the reduced data points
+         * @param startTime the start time of the history in milliseconds
+         * @param endTime the end time of the history in milliseconds
+         * @return the reducing sink
+         */
+        DataPointSink create(DataPointSink sink, long startTime, long endTime);
+
+        /**
+         * @return true, if the data points at the start and the end time are passed to the reducing sink as well,
+         *         false, if they are written unchanged, e.g. because they would skew the aggregates of the first and
+         *         the last bucket
+         */
+        boolean reducesBoundaryPoints();
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ItemHistoryStreamingOutput.class);
+
+    private final QueryablePersistenceService service;
+
+    private final String itemName;
+
+    private final Date begin;
+
+    private final Date end;
+
+    private final ReducerFactory reducerFactory;
+
+    /**
+     * Creates a new output.
+     *
+     * @param service the service to query
+     * @param itemName the name of the item
+     * @param begin the start time of the history
+     * @param end the end time of the history
+     * @param reducerFactory the factory of the reducing sink or null, if all data points should be written
+     */
+    ItemHistoryStreamingOutput(QueryablePersistenceService service, String itemName, Date begin, Date end,
+            ReducerFactory reducerFactory) {
+        this.service = service;
+        this.itemName = itemName;
+        this.begin = begin;
+        this.end = end;
+        this.reducerFactory = reducerFactory;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException, WebApplicationException {
+        long timerStart = System.currentTimeMillis();
+
+        JsonWriter writer = new JsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+        writer.beginObject();
+        writer.name("name").value(itemName);
+        writer.name("data").beginArray();
+        JsonDataPointWriter dataWriter = new JsonDataPointWriter(writer);
+        DataPointSink sink = reducerFactory != null
+                ? reducerFactory.create(dataWriter, begin.getTime(), end.getTime()) : dataWriter;
+        boolean reducesBoundaryPoints = reducerFactory == null || reducerFactory.reducesBoundaryPoints();
+
+        // First, get the value at the start time.
+        // This is necessary for values that don't change often otherwise data will start after the start of the graph
+        // (or not at all if there's no change during the graph period)
+        FilterCriteria filter = new FilterCriteria();
+        filter.setEndDate(begin);
+        filter.setItemName(itemName);
+        filter.setPageSize(1);
+        filter.setOrdering(Ordering.DESCENDING);
+        Iterable<HistoricItem> result = service.query(filter);
+        if (result != null && result.iterator().hasNext()) {
+            (reducesBoundaryPoints ? sink : dataWriter).add(begin.getTime(), result.iterator().next().getState());
+        }
+
+        filter.setBeginDate(begin);
+        filter.setEndDate(end);
+        filter.setOrdering(Ordering.ASCENDING);
+        filter.setPageSize(Integer.MAX_VALUE);
+
+        result = service.query(filter);
+        State state = null;
+        if (result != null) {
+            Iterator<HistoricItem> it = result.iterator();
+
+            // Iterate through the data
+            while (it.hasNext()) {
+                HistoricItem historicItem = it.next();
+                state = historicItem.getState();
+
+                // For 'binary' states, we need to replicate the data
+                // to avoid diagonal lines
+                if (reducerFactory == null && (state instanceof OnOffType || state instanceof OpenClosedType)) {
+                    dataWriter.write(historicItem.getTimestamp().getTime(), state);
+                }
+
+                sink.add(historicItem.getTimestamp().getTime(), state);
+            }
+        }
+
+        // Add the last value again at the end time
+        if (state != null && reducesBoundaryPoints) {
+            sink.add(end.getTime(), state);
+        }
+        sink.finish();
+        if (state != null && !reducesBoundaryPoints) {
+            dataWriter.add(end.getTime(), state);
+        }
+
+        writer.endArray();
+        writer.name("datapoints").value(Long.toString(dataWriter.quantity));
+        writer.endObject();
+        writer.flush();
+        logger.debug("Persistence returned {} rows in {}ms", dataWriter.quantity,
+                System.currentTimeMillis() - timerStart);
+    }
+
+    /**
+     * Writes the data points as elements of a JSON array.
+     */
+    private static class JsonDataPointWriter implements DataPointSink {
+
+        private final JsonWriter writer;
+
+        private long quantity;
+
+        private JsonDataPointWriter(JsonWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void add(long time, State state) throws IOException {
+            write(time, state);
+            quantity++;
+        }
+
+        /**
+         * Writes a data point, which is not counted.
+         */
+        private void write(long time, State state) throws IOException {
+            writer.beginObject();
+            writer.name("time").value(time);
+            writer.name("state").value(state.toString());
+            writer.endObject();
+        }
+
+        @Override
+        public void finish() {
+        }
+    }
+
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.core.persistence;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * The {@link LargestTriangleThreeBuckets} reduces the data points to a target number of points, which preserves the
+ * visual shape of a chart, by the "largest triangle three buckets" algorithm: The first and the last data point are
+ * always kept. The time between them is divided into buckets and the data point of each bucket is selected, which
+ * forms the largest triangle with the data point selected for the previous bucket and the average of the next bucket.
+ * <p>
+ * As the number of data points is not known in advance, the buckets are of equal length in time and not in the number
+ * of data points. Only the data points of two buckets are held in memory. Buckets with states, which are not numeric,
+ * are reduced to their last data point.
+ *
+ * @author agent - Initial contribution
+ */
+class LargestTriangleThreeBuckets implements DataPointSink {
+
+    private final DataPointSink sink;
+
+    private final long startTime;
+
+    private final double bucketLength;
+
+    private final int buckets;
+
+    private DataPoint selected;
+
+    private DataPoint lastPoint;
+
+    private List<DataPoint> currentBucket = new ArrayList<>();
+
+    private long currentBucketIndex;
+
+    private List<DataPoint> nextBucket = new ArrayList<>();
+
+    private long nextBucketIndex;
+
+    /**
+     * Creates a new reducer.
+     *
+     * @param sink the sink, which receives the selected data points
+     * @param startTime the time of the first data point in milliseconds
+     * @param endTime the time of the last data point in milliseconds
+     * @param points the target number of data points, must be at least 3
+     */
+    LargestTriangleThreeBuckets(DataPointSink sink, long startTime, long endTime, int points) {
+        if (points < 3) {
+            throw new IllegalArgumentException("The number of points must be at least 3.");
+        }
+        this.sink = sink;
+        this.startTime = startTime;
+        // the first and the last data point have buckets on their own
+        this.buckets = points - 2;
+        this.bucketLength = Math.max(1, endTime - startTime) / (double) buckets;
+    }
+
+    @Override
+    public void add(long time, State state) throws IOException {
+        DataPoint point = new DataPoint(time, state);
+        if (lastPoint == null) {
+            lastPoint = point;
+            select(point);
+            return;
+        }
+        lastPoint = point;
+        long index = Math.min(buckets - 1, Math.max(0, (long) ((time - startTime) / bucketLength)));
+        if (currentBucket.isEmpty() || index == currentBucketIndex) {
+            currentBucketIndex = index;
+            currentBucket.add(point);
+        } else if (nextBucket.isEmpty() || index == nextBucketIndex) {
+            nextBucketIndex = index;
+            nextBucket.add(point);
+        } else {
+            select(currentBucket, average(nextBucket));
+            List<DataPoint> bucket = currentBucket;
+            currentBucket = nextBucket;
+            currentBucketIndex = nextBucketIndex;
+            nextBucket = bucket;
+            nextBucket.clear();
+            nextBucket.add(point);
+            nextBucketIndex = index;
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (lastPoint != null && lastPoint != selected) {
+            // the last data point has a bucket on its own
+            List<DataPoint> bucket = nextBucket.isEmpty() ? currentBucket : nextBucket;
+            bucket.remove(bucket.size() - 1);
+            if (!currentBucket.isEmpty()) {
+                select(currentBucket, nextBucket.isEmpty() ? lastPoint : average(nextBucket));
+            }
+            if (!nextBucket.isEmpty()) {
+                select(nextBucket, lastPoint);
+            }
+            select(lastPoint);
+        }
+        currentBucket.clear();
+        nextBucket.clear();
+        sink.finish();
+    }
+
+    private void select(List<DataPoint> bucket, DataPoint next) throws IOException {
+        // the last data point is selected, if the areas cannot be calculated for non-numeric states
+        DataPoint largest = bucket.get(bucket.size() - 1);
+        double largestArea = -1;
+        for (DataPoint point : bucket) {
+            double area = Math.abs((selected.time - next.time) * (point.value - selected.value)
+                    - (selected.time - point.time) * (next.value - selected.value));
+            if (area > largestArea) {
+                largestArea = area;
+                largest = point;
+            }
+        }
+        select(largest);
+    }
+
+    private void select(DataPoint point) throws IOException {
+        selected = point;
+        sink.add(point.time, point.state);
+    }
+
+    private static DataPoint average(List<DataPoint> bucket) {
+        double time = 0;
+        double value = 0;
+        for (DataPoint point : bucket) {
+            time += point.time;
+            value += point.value;
+        }
+        return new DataPoint((long) (time / bucket.size()), value / bucket.size());
+    }
+
+    private static class DataPoint {
+
+        private final long time;
+
+        private final State state;
+
+        /** the numeric value of the state or NaN, if the state is not numeric */
+        private final double value;
+
+        private DataPoint(long time, State state) {
+            this.time = time;
+            this.state = state;
+            this.value = state instanceof DecimalType ? ((DecimalType) state).doubleValue() : Double.NaN;
+        }
+
+        private DataPoint(long time, double value) {
+            this.time = time;
+            this.state = null;
+            this.value = value;
+        }
+    }
+
+}
@@ -18,7 +18,6 @@ package org.eclipse.smarthome.io.rest.core.persistence;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -34,16 +33,11 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
-import org.eclipse.smarthome.core.library.types.OnOffType;
-import org.eclipse.smarthome.core.library.types.OpenClosedType;
-import org.eclipse.smarthome.core.persistence.FilterCriteria;
-import org.eclipse.smarthome.core.persistence.FilterCriteria.Ordering;
-import org.eclipse.smarthome.core.persistence.HistoricItem;
 import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
-import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.io.rest.JSONResponse;
 import org.eclipse.smarthome.io.rest.RESTResource;
+import org.eclipse.smarthome.io.rest.core.persistence.BucketAggregator.Aggregation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +52,7 @@ import io.swagger.annotations.ApiResponses;
  * store
  *
  * @author Chris Jackson - Initial Contribution
+ * @author agent - Streamed and downsampled the item history
  */
 @Path(PersistenceResource.PATH)
 @Api(value = PersistenceResource.PATH)
@@ -93,16 +88,24 @@ public class PersistenceResource implements RESTResource {
     @Produces({ MediaType.APPLICATION_JSON })
     @ApiOperation(value = "Gets item persistence data from the persistence service.", response = ItemHistoryBean.class)
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 400, message = "Invalid downsampling parameters"),
             @ApiResponse(code = 404, message = "Unknown Item or persistence service") })
     public Response httpGetPersistenceItemData(@Context HttpHeaders headers,
             @ApiParam(value = "The item name", required = true) @PathParam("itemname") String itemName,
             @ApiParam(value = "Name of the persistence service. If not provided the default service will be used", required = false) @QueryParam("servicename") String serviceName,
             @ApiParam(value = "Start time of the data to return. Will default to 1 day before endtime", required = false) @QueryParam("starttime") String startTime,
             @ApiParam(value = "End time of the data to return. Will default to current time.", required = false) @QueryParam("endtime") String endTime,
-            @ApiParam(value = "Page number of data to return. This parameter will enable paging.", required = false) @QueryParam("page") int pageNumber,
-            @ApiParam(value = "The length of each page.", required = false) @QueryParam("pagelength") int pageLength) {
-
-        return getItemHistoryBean(serviceName, itemName, startTime, endTime, pageNumber, pageLength);
+            @ApiParam(value = "Length of the time buckets in milliseconds, into which the data is aggregated.", required = false) @QueryParam("bucketlength") Long bucketLength,
+            @ApiParam(value = "Aggregation of the time buckets: min, max, avg or last. Defaults to avg.", required = false) @QueryParam("aggregation") String aggregation,
+            @ApiParam(value = "Maximum number of data points, to which the data is reduced while keeping its shape.", required = false) @QueryParam("points") Integer points) {
+
+        ItemHistoryStreamingOutput.ReducerFactory reducerFactory;
+        try {
+            reducerFactory = getReducerFactory(bucketLength, aggregation, points);
+        } catch (IllegalArgumentException e) {
+            return JSONResponse.createErrorResponse(Status.BAD_REQUEST, e.getMessage());
+        }
+        return getItemHistoryBean(serviceName, itemName, startTime, endTime, reducerFactory);
     }
 
     private Date convertTime(String sTime) {
@@ -111,10 +114,7 @@ public class PersistenceResource implements RESTResource {
     }
 
     private Response getItemHistoryBean(String serviceName, String itemName, String timeBegin, String timeEnd,
-            int pageNumber, int pageLength) {
-        // Benchmarking timer...
-        long timerStart = System.currentTimeMillis();
-
+            ItemHistoryStreamingOutput.ReducerFactory reducerFactory) {
         // If serviceName is null, then use the default service
         PersistenceService service = null;
         if (serviceName == null) {
@@ -159,66 +159,63 @@ public class PersistenceResource implements RESTResource {
             dateTimeBegin = new Date(dateTimeEnd.getTime() - MILLISECONDS_PER_DAY);
         }
 
-        FilterCriteria filter;
-        Iterable<HistoricItem> result;
-        State state = null;
-
-        Long quantity = 0l;
-
-        ItemHistoryBean bean = new ItemHistoryBean();
-        bean.name = itemName;
-
-        // First, get the value at the start time.
-        // This is necessary for values that don't change often otherwise data will start after the start of the graph
-        // (or not at all if there's no change during the graph period)
-        filter = new FilterCriteria();
-        filter.setEndDate(dateTimeBegin);
-        filter.setItemName(itemName);
-        filter.setPageSize(1);
-        filter.setOrdering(Ordering.DESCENDING);
-        result = qService.query(filter);
-        if (result != null && result.iterator().hasNext()) {
-            bean.addData(dateTimeBegin.getTime(), result.iterator().next().getState());
-            quantity++;
-        }
+        // the history is written while it is iterated, so that it is never held in memory as a whole
+        return Response.ok(new ItemHistoryStreamingOutput(qService, itemName, dateTimeBegin, dateTimeEnd,
+                reducerFactory)).build();
+    }
 
-        filter.setPageSize(pageLength);
-        filter.setPageNumber(pageNumber);
-        filter.setBeginDate(dateTimeBegin);
-        filter.setEndDate(dateTimeEnd);
-        filter.setOrdering(Ordering.ASCENDING);
-        filter.setPageSize(Integer.MAX_VALUE);
-
-        result = qService.query(filter);
-        if (result != null) {
-            Iterator<HistoricItem> it = result.iterator();
-
-            // Iterate through the data
-            while (it.hasNext()) {
-                HistoricItem historicItem = it.next();
-                state = historicItem.getState();
-
-                // For 'binary' states, we need to replicate the data
-                // to avoid diagonal lines
-                if (state instanceof OnOffType || state instanceof OpenClosedType) {
-                    bean.addData(historicItem.getTimestamp().getTime(), state);
+    private ItemHistoryStreamingOutput.ReducerFactory getReducerFactory(final Long bucketLength, String aggregation,
+            final Integer points) {
+        if (bucketLength != null && points != null) {
+            throw new IllegalArgumentException("Either bucketlength or points can be used for downsampling.");
+        }
+        if (bucketLength != null) {
+            if (bucketLength <= 0) {
+                throw new IllegalArgumentException("The bucketlength must be positive.");
+            }
+            final Aggregation function = getAggregation(aggregation);
+            return new ItemHistoryStreamingOutput.ReducerFactory() {
+                @Override
+                public DataPointSink create(DataPointSink sink, long startTime, long endTime) {
+                    return new BucketAggregator(sink, startTime, bucketLength, function);
                 }
 
-                bean.addData(historicItem.getTimestamp().getTime(), state);
-                quantity++;
+                @Override
+                public boolean reducesBoundaryPoints() {
+                    // the repeated states at the start and the end time are no measurements
+                    return false;
+                }
+            };
+        }
+        if (points != null) {
+            if (points < 3) {
+                throw new IllegalArgumentException("The number of points must be at least 3.");
             }
+            return new ItemHistoryStreamingOutput.ReducerFactory() {
+                @Override
+                public DataPointSink create(DataPointSink sink, long startTime, long endTime) {
+                    return new LargestTriangleThreeBuckets(sink, startTime, endTime, points);
+                }
 
-            // Add the last value again at the end time
-            if (state != null) {
-                bean.addData(dateTimeEnd.getTime(), state);
-                quantity++;
-            }
+                @Override
+                public boolean reducesBoundaryPoints() {
+                    // the first and the last point are always kept
+                    return true;
+                }
+            };
         }
+        return null;
+    }
 
-        bean.datapoints = Long.toString(quantity);
-        logger.debug("Persistence returned {} rows in {}ms", bean.datapoints, System.currentTimeMillis() - timerStart);
-
-        return JSONResponse.createResponse(Status.OK, bean, "");
+    private Aggregation getAggregation(String aggregation) {
+        if (aggregation == null) {
+            return Aggregation.AVG;
+        }
+        try {
+            return Aggregation.valueOf(aggregation.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown aggregation: " + aggregation);
+        }
     }
 
     /**
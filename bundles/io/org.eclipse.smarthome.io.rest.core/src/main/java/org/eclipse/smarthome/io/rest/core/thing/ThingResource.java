@@ -8,11 +8,11 @@
 package org.eclipse.smarthome.io.rest.core.thing;
 
 import java.io.IOException;
+import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -52,6 +52,8 @@ import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.ManagedThingProvider;
 import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingHandlerStatistics;
+import org.eclipse.smarthome.core.thing.ThingHandlerStatisticsProvider;
 import org.eclipse.smarthome.core.thing.ThingRegistry;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.ThingUID;
@@ -67,10 +69,14 @@ import org.eclipse.smarthome.core.thing.type.ThingTypeRegistry;
 import org.eclipse.smarthome.core.thing.util.ThingHelper;
 import org.eclipse.smarthome.io.rest.JSONResponse;
 import org.eclipse.smarthome.io.rest.LocaleUtil;
+import org.eclipse.smarthome.io.rest.QueryUtil;
 import org.eclipse.smarthome.io.rest.RESTResource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Function;
+import com.google.common.collect.Iterables;
+
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiParam;
@@ -89,6 +95,7 @@ import io.swagger.annotations.ApiResponses;
  * @author Jörg Plewe - refactoring, error handling
  * @author Chris Jackson - added channel configuration updates
  *         return empty set for config/status if no status available
+ * @author agent - Added the handler statistics, streamed the thing list
  */
 @Path(ThingResource.PATH_THINGS)
 @Api(value = ThingResource.PATH_THINGS)
@@ -109,6 +116,7 @@ public class ThingResource implements RESTResource {
     private ConfigStatusService configStatusService;
     private ConfigDescriptionRegistry configDescRegistry;
     private ThingTypeRegistry thingTypeRegistry;
+    private ThingHandlerStatisticsProvider statisticsProvider;
 
     @Context
     private UriInfo uriInfo;
@@ -185,13 +193,27 @@ public class ThingResource implements RESTResource {
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     @ApiOperation(value = "Get all available things.", response = EnrichedThingDTO.class, responseContainer = "Set")
-    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
-    public Response getAll(@HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) @ApiParam(value = "language") String language) {
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 400, message = "Offset or limit is negative.") })
+    public Response getAll(@HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) @ApiParam(value = "language") String language,
+            @QueryParam("uidPrefix") @ApiParam(value = "thing UID prefix filter, e.g. the binding id", required = false) String uidPrefix,
+            @DefaultValue("0") @QueryParam("offset") @ApiParam(value = "number of things to skip", required = false) int offset,
+            @QueryParam("limit") @ApiParam(value = "maximum number of things", required = false) Integer limit,
+            @QueryParam("fields") @ApiParam(value = "comma separated list of the fields to return, e.g. UID,statusInfo", required = false) String fields) {
         final Locale locale = LocaleUtil.getLocale(language);
 
-        Collection<Thing> things = thingRegistry.getAll();
-        Set<EnrichedThingDTO> thingBeans = convertToListBean(things, locale);
-        return Response.ok(thingBeans).build();
+        Set<String> fieldSet = QueryUtil.getFields(fields);
+        // the UID index of the registry is ordered, so that the things can be paged
+        Collection<Thing> things = thingRegistry.getByUIDPrefix(uidPrefix != null ? uidPrefix : "");
+        Iterable<Thing> page;
+        try {
+            page = QueryUtil.page(things, offset, limit);
+        } catch (IllegalArgumentException e) {
+            return JSONResponse.createErrorResponse(Status.BAD_REQUEST, e.getMessage());
+        }
+        Iterable<EnrichedThingDTO> thingBeans = convertToListBean(page, QueryUtil.isSelected(fieldSet, "channels"),
+                locale);
+        return JSONResponse.createStreamingResponse(thingBeans, fieldSet);
     }
 
     @GET
@@ -485,6 +507,46 @@ public class ThingResource implements RESTResource {
         return Response.ok().entity(Collections.EMPTY_SET).build();
     }
 
+    @GET
+    @Path("/stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Gets the statistics of all thing handlers.", response = ThingHandlerStatistics.class,
+            responseContainer = "List")
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK") })
+    public Response getStatistics() {
+        Collection<ThingHandlerStatistics> statistics = statisticsProvider != null
+                ? statisticsProvider.getStatistics() : Collections.<ThingHandlerStatistics> emptySet();
+        return Response.ok(statistics).build();
+    }
+
+    @GET
+    @Path("/{thingUID}/stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiOperation(value = "Gets the statistics of a thing handler, i.e. the latency of its calls.",
+            response = ThingHandlerStatistics.class)
+    @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 404, message = "Thing not found.") })
+    public Response getStatistics(@PathParam("thingUID") @ApiParam(value = "thing") String thingUID) {
+        ThingUID thingUIDObject = new ThingUID(thingUID);
+
+        // Check if the Thing exists, 404 if not
+        Thing thing = thingRegistry.get(thingUIDObject);
+        if (null == thing) {
+            logger.info("Received HTTP GET request for thing statistics at '{}' for the unknown thing '{}'.",
+                    uriInfo.getPath(), thingUID);
+            return getThingNotFoundResponse(thingUID);
+        }
+
+        ThingHandlerStatistics statistics = statisticsProvider != null
+                ? statisticsProvider.getStatistics(thingUIDObject) : null;
+        if (statistics == null) {
+            // no calls to the handler so far
+            statistics = new ThingHandlerStatistics(thingUIDObject, 0, 0, 0, 0, 0,
+                    new long[ThingHandlerStatistics.LATENCY_BUCKETS.length + 1], 0, null, false);
+        }
+        return Response.ok(statistics).build();
+    }
+
     /**
      * helper: Response to be sent to client if a Thing cannot be found
      *
@@ -574,14 +636,18 @@ public class ThingResource implements RESTResource {
         this.configStatusService = null;
     }
 
-    private Set<EnrichedThingDTO> convertToListBean(Collection<Thing> things, Locale locale) {
-        Set<EnrichedThingDTO> thingBeans = new LinkedHashSet<>();
-        for (Thing thing : things) {
-            EnrichedThingDTO thingBean = EnrichedThingDTOMapper.map(thing, uriInfo.getBaseUri(), locale,
-                    getLinkedItemsMap(thing));
-            thingBeans.add(thingBean);
-        }
-        return thingBeans;
+    private Iterable<EnrichedThingDTO> convertToListBean(Iterable<Thing> things, final boolean linkedItems,
+            final Locale locale) {
+        // the things are mapped lazily while the response is streamed
+        final URI baseUri = uriInfo.getBaseUri();
+        return Iterables.transform(things, new Function<Thing, EnrichedThingDTO>() {
+            @Override
+            public EnrichedThingDTO apply(Thing thing) {
+                // the linked items are only looked up if the channels are returned
+                return EnrichedThingDTOMapper.map(thing, baseUri, locale,
+                        linkedItems ? getLinkedItemsMap(thing) : null);
+            }
+        });
     }
 
     private Map<String, Set<String>> getLinkedItemsMap(Thing thing) {
@@ -620,6 +686,14 @@ public class ThingResource implements RESTResource {
         }
     }
 
+    protected void setThingHandlerStatisticsProvider(ThingHandlerStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = statisticsProvider;
+    }
+
+    protected void unsetThingHandlerStatisticsProvider(ThingHandlerStatisticsProvider statisticsProvider) {
+        this.statisticsProvider = null;
+    }
+
     protected void setConfigDescriptionRegistry(ConfigDescriptionRegistry configDescriptionRegistry) {
         this.configDescRegistry = configDescriptionRegistry;
     }
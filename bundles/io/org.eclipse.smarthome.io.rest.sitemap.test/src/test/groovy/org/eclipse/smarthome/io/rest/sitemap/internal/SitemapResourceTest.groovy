@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.sitemap.internal
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+
+import javax.ws.rs.container.AsyncResponse
+import javax.ws.rs.container.TimeoutHandler
+import javax.ws.rs.core.HttpHeaders
+import javax.ws.rs.core.Response
+import javax.ws.rs.core.UriBuilder
+import javax.ws.rs.core.UriInfo
+
+import org.eclipse.smarthome.core.items.ItemNotFoundException
+import org.eclipse.smarthome.core.library.items.SwitchItem
+import org.eclipse.smarthome.core.library.types.OnOffType
+import org.eclipse.smarthome.model.sitemap.Sitemap
+import org.eclipse.smarthome.model.sitemap.SitemapFactory
+import org.eclipse.smarthome.model.sitemap.SitemapProvider
+import org.eclipse.smarthome.ui.items.ItemUIRegistry
+import org.junit.Before
+import org.junit.Test
+
+/**
+ * Tests the long polling of sitemap pages by the {@link SitemapResource}: the answer after the timeout, the answer
+ * after a change and the delta mode.
+ *
+ * @author agent - Initial contribution
+ */
+class SitemapResourceTest {
+
+    SitemapResource sitemapResource
+
+    SwitchItem item1
+
+    SwitchItem item2
+
+    @Before
+    void setUp() {
+        item1 = new SwitchItem("item1")
+        item2 = new SwitchItem("item2")
+        def items = [item1: item1, item2: item2]
+
+        Sitemap sitemap = SitemapFactory.eINSTANCE.createSitemap()
+        sitemap.setName("test")
+        sitemap.setLabel("Test")
+        items.keySet().each { itemName ->
+            def widget = SitemapFactory.eINSTANCE.createSwitch()
+            widget.setItem(itemName)
+            sitemap.getChildren().add(widget)
+        }
+
+        sitemapResource = new SitemapResource()
+        sitemapResource.uriInfo = [
+            getBaseUriBuilder: { UriBuilder.fromUri("http://localhost:8080/rest") },
+            getPath: { "sitemaps/test/test" }
+        ] as UriInfo
+        sitemapResource.setItemUIRegistry([
+            getVisiblity: { widget -> true },
+            getItem: { String name ->
+                if (!items.containsKey(name)) {
+                    throw new ItemNotFoundException(name)
+                }
+                items[name]
+            },
+            getCategory: { widget -> null },
+            getLabelColor: { widget -> null },
+            getValueColor: { widget -> null },
+            getLabel: { widget -> null }
+        ] as ItemUIRegistry)
+        sitemapResource.addSitemapProvider([
+            getSitemap: { String name -> name == "test" ? sitemap : null }
+        ] as SitemapProvider)
+    }
+
+    @Test
+    void 'assert that a waiting client receives the full page after the timeout'() {
+        def client = new TestAsyncResponse()
+        sitemapResource.getPageData(longPollingHeaders(null), null, "test", "test", false, client)
+
+        assertThat client.timeout, is(30000L)
+        assertThat client.responses.isEmpty(), is(true)
+
+        client.timeoutHandler.handleTimeout(client)
+        waitForAssert {
+            assertThat client.responses.size(), is(1)
+        }
+        assertThat getWidgetItems(client.responses[0]), is(["item1", "item2"] as Set)
+    }
+
+    @Test
+    void 'assert that a waiting client receives the full page after an item has changed'() {
+        def client = new TestAsyncResponse()
+        sitemapResource.getPageData(longPollingHeaders(null), null, "test", "test", false, client)
+
+        item1.setState(OnOffType.ON)
+        waitForAssert {
+            assertThat client.responses.size(), is(1)
+        }
+        assertThat getWidgetItems(client.responses[0]), is(["item1", "item2"] as Set)
+    }
+
+    @Test
+    void 'assert that a waiting client in delta mode receives only the changed widgets'() {
+        def client = new TestAsyncResponse()
+        sitemapResource.getPageData(longPollingHeaders("client"), null, "test", "test", true, client)
+
+        item1.setState(OnOffType.ON)
+        waitForAssert {
+            assertThat client.responses.size(), is(1)
+        }
+        assertThat getWidgetItems(client.responses[0]), is(["item1"] as Set)
+
+        // nothing has changed until the timeout
+        client = new TestAsyncResponse()
+        sitemapResource.getPageData(longPollingHeaders("client"), null, "test", "test", true, client)
+        client.timeoutHandler.handleTimeout(client)
+        waitForAssert {
+            assertThat client.responses.size(), is(1)
+        }
+        assertThat getWidgetItems(client.responses[0]), is([] as Set)
+    }
+
+    @Test
+    void 'assert that a client in delta mode receives the changes between two polls'() {
+        def client = new TestAsyncResponse()
+        sitemapResource.getPageData(longPollingHeaders("client"), null, "test", "test", true, client)
+        item1.setState(OnOffType.ON)
+        waitForAssert {
+            assertThat client.responses.size(), is(1)
+        }
+
+        // the items change while the client does not wait
+        item2.setState(OnOffType.ON)
+        item1.setState(OnOffType.OFF)
+        sleep 200
+
+        client = new TestAsyncResponse()
+        sitemapResource.getPageData(longPollingHeaders("client"), null, "test", "test", true, client)
+        waitForAssert {
+            assertThat client.responses.size(), is(1)
+        }
+        assertThat getWidgetItems(client.responses[0]), is(["item1", "item2"] as Set)
+    }
+
+    private HttpHeaders longPollingHeaders(String clientId) {
+        def headers = ["X-Atmosphere-Transport": ["long-polling"]]
+        if (clientId != null) {
+            headers[SitemapResource.HEADER_CLIENT_ID] = [clientId]
+        }
+        [getRequestHeader: { String name -> headers[name] }] as HttpHeaders
+    }
+
+    private Set<String> getWidgetItems(Object response) {
+        def page = ((Response) response).getEntity()
+        page.widgets.collect { it.item.name } as Set
+    }
+
+    private void waitForAssert(Closure<?> assertion) {
+        long timeout = System.currentTimeMillis() + 10000
+        while (true) {
+            try {
+                assertion()
+                return
+            } catch (AssertionError error) {
+                if (System.currentTimeMillis() > timeout) {
+                    throw error
+                }
+                sleep 50
+            }
+        }
+    }
+
+    /**
+     * An {@link AsyncResponse}, which records the responses and the timeout handler.
+     */
+    private static class TestAsyncResponse implements AsyncResponse {
+
+        List<Object> responses = new CopyOnWriteArrayList<>()
+
+        long timeout
+
+        TimeoutHandler timeoutHandler
+
+        @Override
+        boolean resume(Object response) {
+            responses.add(response)
+            return true
+        }
+
+        @Override
+        boolean resume(Throwable response) {
+            responses.add(response)
+            return true
+        }
+
+        @Override
+        boolean cancel() {
+            return false
+        }
+
+        @Override
+        boolean cancel(int retryAfter) {
+            return false
+        }
+
+        @Override
+        boolean cancel(Date retryAfter) {
+            return false
+        }
+
+        @Override
+        boolean isSuspended() {
+            return responses.isEmpty()
+        }
+
+        @Override
+        boolean isCancelled() {
+            return false
+        }
+
+        @Override
+        boolean isDone() {
+            return !responses.isEmpty()
+        }
+
+        @Override
+        boolean setTimeout(long time, TimeUnit unit) {
+            timeout = unit.toMillis(time)
+            return true
+        }
+
+        @Override
+        void setTimeoutHandler(TimeoutHandler handler) {
+            timeoutHandler = handler
+        }
+
+        @Override
+        Collection<Class<?>> register(Class<?> callback) {
+            return Collections.emptySet()
+        }
+
+        @Override
+        Map<Class<?>, Collection<Class<?>>> register(Class<?> callback, Class<?>... callbacks) {
+            return Collections.emptyMap()
+        }
+
+        @Override
+        Collection<Class<?>> register(Object callback) {
+            return Collections.emptySet()
+        }
+
+        @Override
+        Map<Class<?>, Collection<Class<?>>> register(Object callback, Object... callbacks) {
+            return Collections.emptyMap()
+        }
+    }
+}
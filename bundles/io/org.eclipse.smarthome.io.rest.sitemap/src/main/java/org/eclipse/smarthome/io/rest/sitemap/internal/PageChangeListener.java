@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.sitemap.internal;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.container.AsyncResponse;
+
+import org.eclipse.smarthome.core.items.GenericItem;
+import org.eclipse.smarthome.core.items.Item;
+import org.eclipse.smarthome.core.items.StateChangeListener;
+import org.eclipse.smarthome.core.types.State;
+
+/**
+ * The {@link PageChangeListener} observes the items of one sitemap page for all clients, which are waiting for a
+ * change of this page. The listener is only registered at the items while at least one client is waiting or a client
+ * in delta mode is expected to poll again. When the state of an item changes, all waiting clients are handed over to
+ * the {@link SitemapResource}, which sends them the page data.
+ * <p>
+ * For each client in delta mode, which identifies itself by a client id, the changed items are collected from one
+ * response to the next, so that the changes between two polls are not lost. A client, which does not poll again
+ * within the client timeout, is forgotten.
+ *
+ * @author agent - Initial contribution
+ */
+class PageChangeListener implements StateChangeListener {
+
+    private final SitemapResource sitemapResource;
+
+    private final String sitemapName;
+
+    private final String pageId;
+
+    private final long clientTimeout;
+
+    private final List<PendingPoll> pendingPolls = new ArrayList<>();
+
+    /** the clients in delta mode by client id */
+    private final Map<String, DeltaClient> deltaClients = new HashMap<>();
+
+    private Set<GenericItem> items = Collections.emptySet();
+
+    private boolean registered;
+
+    /**
+     * Creates a listener for a sitemap page.
+     *
+     * @param sitemapResource the resource, which sends the page data to the clients
+     * @param sitemapName the name of the sitemap
+     * @param pageId the id of the page
+     * @param clientTimeout the time in milliseconds, for which the changes are collected for a client in delta mode
+     *            after its last poll has ended
+     */
+    PageChangeListener(SitemapResource sitemapResource, String sitemapName, String pageId, long clientTimeout) {
+        this.sitemapResource = sitemapResource;
+        this.sitemapName = sitemapName;
+        this.pageId = pageId;
+        this.clientTimeout = clientTimeout;
+    }
+
+    /**
+     * Adds a client, which waits for a change of the page. If the client is in delta mode and items have changed
+     * since its last response, the client does not wait and the changed items are returned.
+     *
+     * @param poll the waiting client
+     * @param pageItems the items currently shown on the page
+     * @return the names of the items, which have changed since the last response to the client, or null, if the
+     *         client waits for a change
+     */
+    synchronized Set<String> add(PendingPoll poll, Set<GenericItem> pageItems) {
+        // the items of the page can change, e.g. if the sitemap or the items have been reloaded
+        if (!pageItems.equals(items)) {
+            unregister();
+            items = pageItems;
+        }
+        DeltaClient client = getDeltaClient(poll);
+        if (client != null) {
+            if (!client.changedItems.isEmpty()) {
+                Set<String> changedItems = client.changedItems;
+                client.changedItems = new HashSet<>();
+                client.lastResponse = System.currentTimeMillis();
+                // keep collecting the changes for the next poll of the client
+                register();
+                return changedItems;
+            }
+            client.waiting++;
+        }
+        pendingPolls.add(poll);
+        register();
+        return null;
+    }
+
+    /**
+     * Removes a client, e.g. because its request has timed out.
+     *
+     * @param poll the waiting client
+     * @return the names of the items, which have changed since the last response to the client, if it is in delta
+     *         mode, or an empty set
+     */
+    synchronized Set<String> remove(PendingPoll poll) {
+        Set<String> changedItems = Collections.emptySet();
+        if (pendingPolls.remove(poll)) {
+            changedItems = takeChangedItems(poll, null);
+            updateRegistration();
+        }
+        return changedItems;
+    }
+
+    private DeltaClient getDeltaClient(PendingPoll poll) {
+        if (!poll.delta || poll.clientId == null) {
+            return null;
+        }
+        DeltaClient client = deltaClients.get(poll.clientId);
+        if (client == null) {
+            client = new DeltaClient();
+            deltaClients.put(poll.clientId, client);
+        }
+        return client;
+    }
+
+    /**
+     * Takes the changed items of a client, whose poll has ended.
+     */
+    private Set<String> takeChangedItems(PendingPoll poll, String changedItem) {
+        DeltaClient client = poll.delta && poll.clientId != null ? deltaClients.get(poll.clientId) : null;
+        if (client == null) {
+            return changedItem != null ? Collections.singleton(changedItem) : Collections.<String> emptySet();
+        }
+        Set<String> changedItems = client.changedItems;
+        client.changedItems = new HashSet<>();
+        client.waiting--;
+        client.lastResponse = System.currentTimeMillis();
+        return changedItems;
+    }
+
+    private void updateRegistration() {
+        long now = System.currentTimeMillis();
+        Iterator<DeltaClient> it = deltaClients.values().iterator();
+        while (it.hasNext()) {
+            DeltaClient client = it.next();
+            if (client.waiting <= 0 && now - client.lastResponse > clientTimeout) {
+                it.remove();
+            }
+        }
+        if (pendingPolls.isEmpty() && deltaClients.isEmpty()) {
+            unregister();
+        }
+    }
+
+    private void register() {
+        if (!registered) {
+            for (GenericItem item : items) {
+                item.addStateChangeListener(this);
+            }
+            registered = true;
+        }
+    }
+
+    private void unregister() {
+        if (registered) {
+            for (GenericItem item : items) {
+                item.removeStateChangeListener(this);
+            }
+            registered = false;
+        }
+    }
+
+    @Override
+    public void stateChanged(Item item, State oldState, State newState) {
+        List<PendingPoll> polls;
+        synchronized (this) {
+            for (DeltaClient client : deltaClients.values()) {
+                client.changedItems.add(item.getName());
+            }
+            polls = new ArrayList<>(pendingPolls);
+            pendingPolls.clear();
+            for (PendingPoll poll : polls) {
+                poll.changedItems = takeChangedItems(poll, item.getName());
+            }
+            updateRegistration();
+        }
+        if (!polls.isEmpty()) {
+            sitemapResource.respond(sitemapName, pageId, polls);
+        }
+    }
+
+    @Override
+    public void stateUpdated(Item item, State state) {
+        // ignore if the state did not change
+    }
+
+    /**
+     * A client in delta mode.
+     */
+    private static class DeltaClient {
+
+        /** the names of the items, which have changed since the last response */
+        Set<String> changedItems = new HashSet<>();
+
+        /** the number of polls of the client, which are waiting */
+        int waiting;
+
+        long lastResponse = System.currentTimeMillis();
+    }
+
+    /**
+     * A client, which waits for a change of the page.
+     */
+    static class PendingPoll {
+
+        final AsyncResponse response;
+
+        final URI uri;
+
+        final Locale locale;
+
+        final boolean delta;
+
+        /** the id of the client or null, if the client did not send an id */
+        final String clientId;
+
+        /** the names of the changed items, which are sent to a client in delta mode */
+        Set<String> changedItems = Collections.emptySet();
+
+        PendingPoll(AsyncResponse response, URI uri, Locale locale, boolean delta, String clientId) {
+            this.response = response;
+            this.uri = uri;
+            this.locale = locale;
+            this.delta = delta;
+            this.clientId = clientId;
+        }
+    }
+
+}
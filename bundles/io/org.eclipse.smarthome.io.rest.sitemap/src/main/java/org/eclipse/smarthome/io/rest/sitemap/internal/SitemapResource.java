@@ -9,12 +9,19 @@ package org.eclipse.smarthome.io.rest.sitemap.internal;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Date;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
@@ -24,6 +31,10 @@ import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.CompletionCallback;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.container.TimeoutHandler;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -33,14 +44,14 @@ import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.items.GenericItem;
 import org.eclipse.smarthome.core.items.Item;
 import org.eclipse.smarthome.core.items.ItemNotFoundException;
-import org.eclipse.smarthome.core.items.StateChangeListener;
-import org.eclipse.smarthome.core.types.State;
 import org.eclipse.smarthome.io.rest.LocaleUtil;
 import org.eclipse.smarthome.io.rest.RESTResource;
 import org.eclipse.smarthome.io.rest.core.item.EnrichedItemDTOMapper;
+import org.eclipse.smarthome.io.rest.sitemap.internal.PageChangeListener.PendingPoll;
 import org.eclipse.smarthome.model.sitemap.Chart;
 import org.eclipse.smarthome.model.sitemap.Frame;
 import org.eclipse.smarthome.model.sitemap.Image;
@@ -72,6 +83,12 @@ import io.swagger.annotations.ApiResponses;
  * This class acts as a REST resource for sitemaps and provides different methods to interact with them, like retrieving
  * a list of all available sitemaps or just getting the widgets of a single page.
  * </p>
+ * <p>
+ * Clients which wait for changes of a page (long polling) are suspended without occupying a thread. They are answered
+ * as soon as an item on the page changes; the items of a page are observed by one {@link PageChangeListener} for all
+ * clients. Clients in delta mode, which send the header {@value #HEADER_CLIENT_ID}, receive all widgets, whose items
+ * have changed since the last response to them.
+ * </p>
  *
  * @author Kai Kreuzer - Initial contribution and API
  * @author Chris Jackson
@@ -87,6 +104,10 @@ public class SitemapResource implements RESTResource {
 
     private static final long TIMEOUT_IN_MS = 30000;
 
+    static final String HEADER_CLIENT_ID = "X-Atmosphere-tracking-id";
+
+    private static final String THREAD_POOL_NAME = "rest";
+
     @Context
     UriInfo uriInfo;
 
@@ -94,6 +115,8 @@ public class SitemapResource implements RESTResource {
 
     private java.util.List<SitemapProvider> sitemapProviders = new ArrayList<>();
 
+    private final ConcurrentMap<String, PageChangeListener> pageChangeListeners = new ConcurrentHashMap<>();
+
     public void setItemUIRegistry(ItemUIRegistry itemUIRegistry) {
         this.itemUIRegistry = itemUIRegistry;
     }
@@ -142,21 +165,28 @@ public class SitemapResource implements RESTResource {
     @ApiOperation(value = "Polls the data for a sitemap.", response = PageDTO.class)
     @ApiResponses(value = { @ApiResponse(code = 200, message = "OK"),
             @ApiResponse(code = 404, message = "Sitemap with requested name does not exist or page does not exist, or page refers to a non-linkable widget") })
-    public Response getPageData(@Context HttpHeaders headers,
+    public void getPageData(@Context HttpHeaders headers,
             @HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) @ApiParam(value = "language") String language,
             @PathParam("sitemapname") @ApiParam(value = "sitemap name") String sitemapname,
-            @PathParam("pageid") @ApiParam(value = "page id") String pageId) {
+            @PathParam("pageid") @ApiParam(value = "page id") String pageId,
+            @QueryParam("delta") @DefaultValue("false") @ApiParam(value = "changed widgets only") boolean delta,
+            @Suspended AsyncResponse asyncResponse) {
         final Locale locale = LocaleUtil.getLocale(language);
+        final URI uri = uriInfo.getBaseUriBuilder().build();
         logger.debug("Received HTTP GET request at '{}'", uriInfo.getPath());
 
         if (headers.getRequestHeader("X-Atmosphere-Transport") != null) {
             // Make the REST-API pseudo-compatible with openHAB 1.x
             // The client asks Atmosphere for server push functionality,
-            // so we do a simply listening for changes on the appropriate items
-            blockUnlessChangeOccurs(sitemapname, pageId);
+            // so we answer the request as soon as an item on the page changes
+            java.util.List<String> clientIds = headers.getRequestHeader(HEADER_CLIENT_ID);
+            String clientId = clientIds != null && !clientIds.isEmpty() ? clientIds.get(0) : null;
+            if (waitForChanges(sitemapname, pageId, new PendingPoll(asyncResponse, uri, locale, delta, clientId))) {
+                return;
+            }
         }
-        Object responseObject = getPageBean(sitemapname, pageId, uriInfo.getBaseUriBuilder().build(), locale);
-        return Response.ok(responseObject).build();
+        Object responseObject = getPageBean(sitemapname, pageId, uri, locale);
+        asyncResponse.resume(Response.ok(responseObject).build());
     }
 
     private PageDTO getPageBean(String sitemapName, String pageId, URI uri, Locale locale) {
@@ -424,50 +454,142 @@ public class SitemapResource implements RESTResource {
         return null;
     }
 
-    private void blockUnlessChangeOccurs(String sitemapname, String pageId) {
+    private EList<Widget> getPageWidgets(String sitemapname, String pageId) {
         Sitemap sitemap = getSitemap(sitemapname);
         if (sitemap != null) {
             if (pageId.equals(sitemap.getName())) {
-                waitForChanges(sitemap.getChildren());
+                return sitemap.getChildren();
             } else {
                 Widget pageWidget = itemUIRegistry.getWidget(sitemap, pageId);
                 if (pageWidget instanceof LinkableWidget) {
-                    EList<Widget> children = itemUIRegistry.getChildren((LinkableWidget) pageWidget);
-                    waitForChanges(children);
+                    return itemUIRegistry.getChildren((LinkableWidget) pageWidget);
                 }
             }
         }
+        return null;
     }
 
     /**
-     * This method only returns when a change has occurred to any item on the
-     * page to display or if the timeout is reached
+     * Suspends the given client until a change has occurred to any item on the
+     * page to display or until the timeout is reached
      *
-     * @param widgets
-     *            the widgets of the page to observe
+     * @param sitemapname
+     *            the name of the sitemap
+     * @param pageId
+     *            the id of the page to observe
+     * @param poll
+     *            the client which waits for changes
+     * @return true, if the client waits for changes, false if the page does not exist
      */
-    private boolean waitForChanges(EList<Widget> widgets) {
-        long startTime = (new Date()).getTime();
-        boolean timeout = false;
-        BlockingStateChangeListener listener = new BlockingStateChangeListener();
+    private boolean waitForChanges(final String sitemapname, final String pageId, final PendingPoll poll) {
+        EList<Widget> widgets = getPageWidgets(sitemapname, pageId);
+        if (widgets == null) {
+            return false;
+        }
         // let's get all items for these widgets
         Set<GenericItem> items = getAllItems(widgets);
-        for (GenericItem item : items) {
-            item.addStateChangeListener(listener);
+        final PageChangeListener listener = getPageChangeListener(sitemapname, pageId);
+        poll.response.setTimeout(TIMEOUT_IN_MS, TimeUnit.MILLISECONDS);
+        poll.response.setTimeoutHandler(new TimeoutHandler() {
+            @Override
+            public void handleTimeout(AsyncResponse asyncResponse) {
+                poll.changedItems = listener.remove(poll);
+                respond(sitemapname, pageId, Collections.singletonList(poll));
+            }
+        });
+        poll.response.register(new CompletionCallback() {
+            @Override
+            public void onComplete(Throwable throwable) {
+                listener.remove(poll);
+            }
+        });
+        Set<String> changedItems = listener.add(poll, items);
+        if (changedItems != null) {
+            // items have changed since the last response to the client
+            poll.changedItems = changedItems;
+            respond(sitemapname, pageId, Collections.singletonList(poll));
         }
-        while (!listener.hasChangeOccurred() && !timeout) {
-            timeout = (new Date()).getTime() - startTime > TIMEOUT_IN_MS;
-            try {
-                Thread.sleep(300);
-            } catch (InterruptedException e) {
-                timeout = true;
-                break;
+        return true;
+    }
+
+    private PageChangeListener getPageChangeListener(String sitemapname, String pageId) {
+        String key = sitemapname + "/" + pageId;
+        PageChangeListener listener = pageChangeListeners.get(key);
+        if (listener == null) {
+            listener = new PageChangeListener(this, sitemapname, pageId, TIMEOUT_IN_MS);
+            PageChangeListener existing = pageChangeListeners.putIfAbsent(key, listener);
+            if (existing != null) {
+                listener = existing;
             }
         }
-        for (GenericItem item : items) {
-            item.removeStateChangeListener(listener);
+        return listener;
+    }
+
+    /**
+     * Sends the page data to clients which have been waiting for changes. The page data is created once for all
+     * clients with the same base URI, locale and delta mode and, in delta mode, the same changed items.
+     *
+     * @param sitemapname
+     *            the name of the sitemap
+     * @param pageId
+     *            the id of the page
+     * @param polls
+     *            the waiting clients
+     */
+    void respond(final String sitemapname, final String pageId, final java.util.List<PendingPoll> polls) {
+        ThreadPoolManager.getPool(THREAD_POOL_NAME).execute(new Runnable() {
+            @Override
+            public void run() {
+                Map<java.util.List<Object>, Response> responses = new HashMap<>();
+                for (PendingPoll poll : polls) {
+                    java.util.List<Object> key = Arrays.<Object> asList(poll.uri, poll.locale, poll.delta,
+                            poll.delta ? poll.changedItems : null);
+                    Response response = responses.get(key);
+                    if (response == null) {
+                        try {
+                            PageDTO pageBean = getPageBean(sitemapname, pageId, poll.uri, poll.locale);
+                            if (poll.delta) {
+                                retainChangedWidgets(pageBean.widgets, poll.changedItems);
+                            }
+                            response = Response.ok(pageBean).build();
+                        } catch (WebApplicationException e) {
+                            response = e.getResponse();
+                        } catch (RuntimeException e) {
+                            logger.error("Failed to create page '{}' of sitemap '{}': {}",
+                                    new Object[] { pageId, sitemapname, e.getMessage() });
+                            response = Response.serverError().build();
+                        }
+                        responses.put(key, response);
+                    }
+                    poll.response.resume(response);
+                }
+            }
+        });
+    }
+
+    /**
+     * Removes all widgets, which do not show one of the changed items. Frames are kept, if they contain a changed
+     * widget.
+     *
+     * @param widgets
+     *            the widgets of a page or frame
+     * @param changedItems
+     *            the names of the changed items
+     * @return true, if any widget has been retained
+     */
+    private boolean retainChangedWidgets(java.util.List<WidgetDTO> widgets, Set<String> changedItems) {
+        if (widgets == null) {
+            return false;
+        }
+        Iterator<WidgetDTO> it = widgets.iterator();
+        while (it.hasNext()) {
+            WidgetDTO widget = it.next();
+            boolean changed = widget.item != null && changedItems.contains(widget.item.name);
+            if (!retainChangedWidgets(widget.widgets, changedItems) && !changed) {
+                it.remove();
+            }
         }
-        return !timeout;
+        return !widgets.isEmpty();
     }
 
     /**
@@ -502,41 +624,4 @@ public class SitemapResource implements RESTResource {
         return items;
     }
 
-    /**
-     * This is a state change listener, which is merely used to determine, if a
-     * state change has occurred on one of a list of items.
-     *
-     * @author Kai Kreuzer - Initial contribution and API
-     *
-     */
-    private static class BlockingStateChangeListener implements StateChangeListener {
-
-        private boolean changed = false;
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public void stateChanged(Item item, State oldState, State newState) {
-            changed = true;
-        }
-
-        /**
-         * determines, whether a state change has occurred since its creation
-         *
-         * @return true, if a state has changed
-         */
-        public boolean hasChangeOccurred() {
-            return changed;
-        }
-
-        /**
-         * {@inheritDoc}
-         */
-        @Override
-        public void stateUpdated(Item item, State state) {
-            // ignore if the state did not change
-        }
-    }
-
 }
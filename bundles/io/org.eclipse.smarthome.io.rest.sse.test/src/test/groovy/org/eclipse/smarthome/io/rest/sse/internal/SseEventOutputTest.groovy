@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.sse.internal
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import org.glassfish.jersey.media.sse.OutboundEvent
+import org.junit.After
+import org.junit.Test
+
+/**
+ * Tests the bounded queue, the overflow policies and the write timeout of the {@link SseEventOutput}.
+ *
+ * @author agent - Initial contribution
+ */
+class SseEventOutputTest {
+
+    /** blocks the first write until it is released */
+    CountDownLatch writeReleased = new CountDownLatch(1)
+
+    CountDownLatch writeStarted = new CountDownLatch(1)
+
+    List<String> written = new CopyOnWriteArrayList<String>()
+
+    @After
+    void tearDown() {
+        writeReleased.countDown()
+    }
+
+    @Test
+    void 'assert that new events are dropped while the queue is full'() {
+        def eventOutput = createEventOutput(EventOverflowPolicy.DROP, 2)
+
+        enqueueAndBlock(eventOutput)
+        eventOutput.enqueue("smarthome/items/a", event("a1"))
+        eventOutput.enqueue("smarthome/items/b", event("b1"))
+        eventOutput.enqueue("smarthome/items/a", event("a2"))
+        eventOutput.enqueue("smarthome/items/c", event("c1"))
+
+        assertThat eventOutput.getPendingEvents(), is(2)
+        assertThat eventOutput.getDroppedEvents(), is(2L)
+        assertThat eventOutput.getCoalescedEvents(), is(0L)
+
+        writeReleased.countDown()
+        waitForSentEvents(eventOutput, 3)
+        assertThat written, is(["first", "a1", "b1"])
+    }
+
+    @Test
+    void 'assert that new events replace the latest waiting event with the same topic while the queue is full'() {
+        def eventOutput = createEventOutput(EventOverflowPolicy.COALESCE, 2)
+
+        enqueueAndBlock(eventOutput)
+        eventOutput.enqueue("smarthome/items/a", event("a1"))
+        eventOutput.enqueue("smarthome/items/b", event("b1"))
+        eventOutput.enqueue("smarthome/items/a", event("a2"))
+        eventOutput.enqueue("smarthome/items/a", event("a3"))
+        eventOutput.enqueue("smarthome/items/c", event("c1"))
+
+        assertThat eventOutput.getPendingEvents(), is(2)
+        assertThat eventOutput.getCoalescedEvents(), is(2L)
+        assertThat eventOutput.getDroppedEvents(), is(1L)
+
+        writeReleased.countDown()
+        waitForSentEvents(eventOutput, 3)
+        assertThat written, is(["first", "a3", "b1"])
+    }
+
+    @Test
+    void 'assert that events are queued while the queue is not full'() {
+        def eventOutput = createEventOutput(EventOverflowPolicy.DROP, 3)
+
+        enqueueAndBlock(eventOutput)
+        eventOutput.enqueue("smarthome/items/a", event("a1"))
+        eventOutput.enqueue("smarthome/items/a", event("a2"))
+
+        assertThat eventOutput.getPendingEvents(), is(2)
+        assertThat eventOutput.getDroppedEvents(), is(0L)
+
+        writeReleased.countDown()
+        waitForSentEvents(eventOutput, 3)
+        assertThat written, is(["first", "a1", "a2"])
+    }
+
+    @Test
+    void 'assert that a blocked write times out and the client can be aborted'() {
+        def eventOutput = createEventOutput(EventOverflowPolicy.DROP, 2)
+
+        enqueueAndBlock(eventOutput)
+        eventOutput.enqueue("smarthome/items/a", event("a1"))
+        assertThat eventOutput.isWriteTimedOut(0), is(false)
+        Thread.sleep(100)
+        assertThat eventOutput.isWriteTimedOut(50), is(true)
+        assertThat eventOutput.isWriteTimedOut(60000), is(false)
+
+        eventOutput.abort()
+        assertThat eventOutput.isClosed(), is(true)
+        assertThat eventOutput.getPendingEvents(), is(0)
+        assertThat eventOutput.getDroppedEvents(), is(1L)
+
+        eventOutput.enqueue("smarthome/items/a", event("a2"))
+        assertThat eventOutput.getPendingEvents(), is(0)
+    }
+
+    private SseEventOutput createEventOutput(EventOverflowPolicy overflowPolicy, int maxPendingEvents) {
+        new TestEventOutput(this, overflowPolicy, maxPendingEvents)
+    }
+
+    private void enqueueAndBlock(SseEventOutput eventOutput) {
+        eventOutput.enqueue("smarthome/items/first", event("first"))
+        assertThat writeStarted.await(5, TimeUnit.SECONDS), is(true)
+        assertThat eventOutput.getPendingEvents(), is(0)
+    }
+
+    private void waitForSentEvents(SseEventOutput eventOutput, long sentEvents) {
+        long timeout = System.currentTimeMillis() + 5000
+        while (eventOutput.getSentEvents() < sentEvents && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10)
+        }
+        assertThat eventOutput.getSentEvents(), is(sentEvents)
+    }
+
+    private static OutboundEvent event(String data) {
+        new OutboundEvent.Builder().name("message").data(String.class, data).build()
+    }
+
+    /**
+     * An event output, which records the written events instead of sending them and blocks the first write.
+     */
+    private static class TestEventOutput extends SseEventOutput {
+
+        private final SseEventOutputTest test
+
+        private volatile boolean closed
+
+        TestEventOutput(SseEventOutputTest test, EventOverflowPolicy overflowPolicy, int maxPendingEvents) {
+            super("", null, overflowPolicy, maxPendingEvents)
+            this.test = test
+        }
+
+        @Override
+        public void write(OutboundEvent event) throws IOException {
+            if (closed) {
+                throw new IOException("closed")
+            }
+            if (test.writeStarted.getCount() > 0) {
+                test.writeStarted.countDown()
+                test.writeReleased.await(5, TimeUnit.SECONDS)
+            }
+            test.written.add((String) event.getData())
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true
+        }
+
+        @Override
+        public boolean isClosed() {
+            return closed
+        }
+    }
+}
@@ -99,4 +99,22 @@ class SseResourceOSGiTest extends OSGiTest {
         assertThat "smarthome/items/anyitem/added".matches(regexes[0]), is(true);
         assertThat "smarthome/items/anyitem/removed".matches(regexes[0]), is(false);
     }
+
+    @Test
+    public void testCompiledFilters() {
+        def pattern = SseUtil.compileTopicFilter("smarthome/*/test/test/test/test,    smarthome/test/*/test/test/test, qivicon")
+
+        assertThat pattern.matcher("smarthome/test/test/test/test/test").matches(), is(true)
+        assertThat pattern.matcher("smarthome/asdf/test/test/test/test").matches(), is(true)
+        assertThat pattern.matcher("smarthome/asdf/ASDF/test/test/test").matches(), is(false)
+        assertThat pattern.matcher("qivicon/asdf/ASDF/test/test/test").matches(), is(true)
+
+        pattern = SseUtil.compileTopicFilter("*/added")
+        assertThat pattern.matcher("smarthome/items/anyitem/added").matches(), is(true)
+        assertThat pattern.matcher("smarthome/items/anyitem/removed").matches(), is(false)
+
+        // filters which match all topics are not compiled
+        assertThat SseUtil.compileTopicFilter(""), is(nullValue())
+        assertThat SseUtil.compileTopicFilter(",    *"), is(nullValue())
+    }
 }
@@ -8,8 +8,11 @@
 package org.eclipse.smarthome.io.rest.sse;
 
 import java.io.IOException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
 
 import javax.inject.Singleton;
 import javax.servlet.http.HttpServletRequest;
@@ -25,11 +28,14 @@ import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 
 import org.eclipse.smarthome.core.events.Event;
+import org.eclipse.smarthome.io.rest.sse.internal.EventOverflowPolicy;
 import org.eclipse.smarthome.io.rest.sse.internal.SseEventOutput;
 import org.eclipse.smarthome.io.rest.sse.internal.util.SseUtil;
 import org.glassfish.jersey.media.sse.EventOutput;
-import org.glassfish.jersey.media.sse.SseBroadcaster;
+import org.glassfish.jersey.media.sse.OutboundEvent;
 import org.glassfish.jersey.media.sse.SseFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
@@ -39,9 +45,17 @@ import io.swagger.annotations.ApiResponses;
 
 /**
  * SSE Resource for pushing events to currently listening clients.
+ * <p>
+ * Each event is serialized once and then queued for every client whose topic filter matches. Clients with the same
+ * topic filter share the compiled filter, so that it is evaluated only once per event. Every client has a bounded
+ * queue, so that slow clients cannot stall the broadcasting of events. The queues are drained by the thread pool
+ * "sse", whose size can be configured through the {@link org.eclipse.smarthome.core.common.ThreadPoolManager}. A
+ * client, which blocks a thread of this pool for longer than the write timeout, is disconnected when the next event is
+ * broadcast.
  *
  * @author Ivan Iliev - Initial Contribution and API
  * @author Yordan Zhelev - Added Swagger annotations
+ * @author agent - Added per-client queues, shared topic filters and write timeout
  *
  */
 @Path(SseResource.PATH_EVENTS)
@@ -51,9 +65,54 @@ public class SseResource {
 
     public final static String PATH_EVENTS = "events";
 
-    private final SseBroadcaster broadcaster;
+    /**
+     * Default value of the maximum number of events waiting to be sent to a client.
+     */
+    public static final int DEFAULT_CLIENT_QUEUE_SIZE = 1000;
+
+    /**
+     * Maximum number of events waiting to be sent to a client.
+     */
+    public static final String CONFIG_CLIENT_QUEUE_SIZE = "client.queue.size";
+
+    /**
+     * Default policy for events which arrive while the queue of a client is full.
+     */
+    public static final EventOverflowPolicy DEFAULT_CLIENT_OVERFLOW_POLICY = EventOverflowPolicy.COALESCE;
 
-    private final ExecutorService executorService;
+    /**
+     * Policy for events which arrive while the queue of a client is full. The value is one of "drop" and "coalesce",
+     * see {@link EventOverflowPolicy}.
+     */
+    public static final String CONFIG_CLIENT_OVERFLOW_POLICY = "client.overflow.policy";
+
+    /**
+     * Default value of the maximum time in milliseconds to send an event to a client.
+     */
+    public static final long DEFAULT_CLIENT_WRITE_TIMEOUT = 10000;
+
+    /**
+     * Maximum time in milliseconds to send an event to a client, before the client is disconnected. A value of 0
+     * disables the timeout.
+     */
+    public static final String CONFIG_CLIENT_WRITE_TIMEOUT = "client.write.timeout";
+
+    private final Logger logger = LoggerFactory.getLogger(SseResource.class);
+
+    private final CopyOnWriteArrayList<SseEventOutput> eventOutputs = new CopyOnWriteArrayList<>();
+
+    /** dropped and coalesced events of the clients, which have been disconnected */
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final AtomicLong coalescedEvents = new AtomicLong();
+
+    private final AtomicLong timedOutClients = new AtomicLong();
+
+    private volatile int clientQueueSize = DEFAULT_CLIENT_QUEUE_SIZE;
+
+    private volatile EventOverflowPolicy clientOverflowPolicy = DEFAULT_CLIENT_OVERFLOW_POLICY;
+
+    private volatile long clientWriteTimeout = DEFAULT_CLIENT_WRITE_TIMEOUT;
 
     @Context
     private UriInfo uriInfo;
@@ -64,9 +123,48 @@ public class SseResource {
     @Context
     private HttpServletRequest request;
 
-    public SseResource() {
-        this.executorService = Executors.newSingleThreadExecutor();
-        this.broadcaster = new SseBroadcaster();
+    protected void activate(Map<String, Object> config) {
+        modified(config);
+    }
+
+    protected void modified(Map<String, Object> config) {
+        int queueSize = DEFAULT_CLIENT_QUEUE_SIZE;
+        EventOverflowPolicy overflowPolicy = DEFAULT_CLIENT_OVERFLOW_POLICY;
+        long writeTimeout = DEFAULT_CLIENT_WRITE_TIMEOUT;
+        if (config != null) {
+            Object value = config.get(CONFIG_CLIENT_QUEUE_SIZE);
+            if (value != null) {
+                try {
+                    queueSize = Integer.parseInt(value.toString().trim());
+                } catch (NumberFormatException e) {
+                    logger.error("Invalid configuration value '{}' for {}, it must be a number.", value,
+                            CONFIG_CLIENT_QUEUE_SIZE);
+                }
+            }
+            value = config.get(CONFIG_CLIENT_OVERFLOW_POLICY);
+            if (value != null) {
+                try {
+                    overflowPolicy = EventOverflowPolicy.valueOf(value.toString().trim().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    logger.error("Invalid configuration value '{}' for {}, it must be one of drop, coalesce.", value,
+                            CONFIG_CLIENT_OVERFLOW_POLICY);
+                }
+            }
+            value = config.get(CONFIG_CLIENT_WRITE_TIMEOUT);
+            if (value != null) {
+                try {
+                    writeTimeout = Long.parseLong(value.toString().trim());
+                } catch (NumberFormatException e) {
+                    logger.error("Invalid configuration value '{}' for {}, it must be a number.", value,
+                            CONFIG_CLIENT_WRITE_TIMEOUT);
+                }
+            }
+        }
+        // applies to all clients
+        this.clientWriteTimeout = writeTimeout;
+        // applies to clients which connect after the configuration has been changed
+        this.clientQueueSize = queueSize;
+        this.clientOverflowPolicy = overflowPolicy;
     }
 
     /**
@@ -93,8 +191,9 @@ public class SseResource {
 
         // construct an EventOutput that will only write out events that match
         // the given filter
-        final EventOutput eventOutput = new SseEventOutput(eventFilter);
-        broadcaster.add(eventOutput);
+        final SseEventOutput eventOutput = new SseEventOutput(eventFilter, getTopicPattern(eventFilter),
+                clientOverflowPolicy, clientQueueSize);
+        eventOutputs.add(eventOutput);
 
         if (!SseUtil.SERVLET3_SUPPORT) {
             // if we don't have sevlet 3.0 async support, we want to make sure
@@ -115,21 +214,110 @@ public class SseResource {
         return eventOutput;
     }
 
+    /**
+     * Gets the compiled topic filter for the given filter. A client with the same filter shares the pattern of an
+     * already connected client.
+     */
+    private Pattern getTopicPattern(String eventFilter) {
+        String filter = eventFilter != null ? eventFilter : "";
+        for (SseEventOutput eventOutput : eventOutputs) {
+            if (filter.equals(eventOutput.getTopicFilter())) {
+                return eventOutput.getTopicPattern();
+            }
+        }
+        return SseUtil.compileTopicFilter(filter);
+    }
+
     /**
      * Broadcasts an event described by the given parameter to all currently
-     * listening clients.
+     * listening clients. The event is queued for each client, the clients
+     * are served by a thread pool. Clients, whose current write has timed
+     * out, are disconnected.
      *
-     * @param sseEventType
-     *            the SSE event type
      * @param event
      *            the event
      */
     public void broadcastEvent(final Event event) {
-        executorService.execute(new Runnable() {
-            @Override
-            public void run() {
-                broadcaster.broadcast(SseUtil.buildEvent(event));
+        if (eventOutputs.isEmpty()) {
+            return;
+        }
+        String topic = event.getTopic();
+        OutboundEvent outboundEvent = SseUtil.buildEvent(event);
+        // the result of each distinct topic filter for this event
+        Map<Pattern, Boolean> matches = null;
+        for (SseEventOutput eventOutput : eventOutputs) {
+            if (eventOutput.isClosed()) {
+                remove(eventOutput);
+                continue;
+            }
+            if (eventOutput.isWriteTimedOut(clientWriteTimeout)) {
+                logger.debug("SSE client with topic filter '{}' did not receive an event within {} ms, disconnecting.",
+                        eventOutput.getTopicFilter(), clientWriteTimeout);
+                eventOutput.abort();
+                timedOutClients.incrementAndGet();
+                remove(eventOutput);
+                continue;
+            }
+            Pattern pattern = eventOutput.getTopicPattern();
+            if (pattern != null) {
+                if (matches == null) {
+                    matches = new IdentityHashMap<>();
+                }
+                Boolean match = matches.get(pattern);
+                if (match == null) {
+                    match = pattern.matcher(topic).matches();
+                    matches.put(pattern, match);
+                }
+                if (!match) {
+                    continue;
+                }
             }
-        });
+            eventOutput.enqueue(topic, outboundEvent);
+        }
+    }
+
+    private void remove(SseEventOutput eventOutput) {
+        if (eventOutputs.remove(eventOutput)) {
+            droppedEvents.addAndGet(eventOutput.getDroppedEvents());
+            coalescedEvents.addAndGet(eventOutput.getCoalescedEvents());
+        }
+    }
+
+    /**
+     * @return the number of currently connected clients
+     */
+    public int getClients() {
+        return eventOutputs.size();
+    }
+
+    /**
+     * @return the number of events, which have been dropped because the queue of a client was full
+     */
+    public long getDroppedEvents() {
+        long dropped = droppedEvents.get();
+        for (SseEventOutput eventOutput : eventOutputs) {
+            dropped += eventOutput.getDroppedEvents();
+        }
+        return dropped;
+    }
+
+    /**
+     * @return the number of events, which have been replaced by a newer event with the same topic, because the queue
+     *         of a client was full
+     */
+    public long getCoalescedEvents() {
+        long coalesced = coalescedEvents.get();
+        for (SseEventOutput eventOutput : eventOutputs) {
+            coalesced += eventOutput.getCoalescedEvents();
+        }
+        return coalesced;
+    }
+
+    /**
+     * @return the number of clients, which have been disconnected because they did not receive an event within the
+     *         write timeout
+     */
+    public long getTimedOutClients() {
+        return timedOutClients.get();
     }
 }
@@ -0,0 +1,29 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.sse.internal;
+
+/**
+ * This enum defines how a {@link SseEventOutput} handles new events while the maximum number of events is waiting to
+ * be sent to a slow client.
+ *
+ * @author agent - Initial contribution
+ */
+public enum EventOverflowPolicy {
+
+    /**
+     * New events are dropped.
+     */
+    DROP,
+
+    /**
+     * A new event replaces a waiting event with the same topic, so that the client receives the latest state. If no
+     * event with the same topic is waiting, the new event is dropped.
+     */
+    COALESCE;
+
+}
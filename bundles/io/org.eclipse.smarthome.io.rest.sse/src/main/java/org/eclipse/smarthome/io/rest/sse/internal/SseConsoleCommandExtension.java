@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest.sse.internal;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.io.console.Console;
+import org.eclipse.smarthome.io.console.extensions.AbstractConsoleCommandExtension;
+import org.eclipse.smarthome.io.rest.sse.SseResource;
+
+/**
+ * Console command extension to show the statistics of the SSE clients.
+ *
+ * @author agent - Initial contribution
+ */
+public class SseConsoleCommandExtension extends AbstractConsoleCommandExtension {
+
+    private static final String SUBCMD_STATS = "stats";
+
+    private SseResource sseResource;
+
+    public SseConsoleCommandExtension() {
+        super("sse", "Access the server-sent events clients.");
+    }
+
+    @Override
+    public List<String> getUsages() {
+        return Collections.singletonList(buildCommandUsage(SUBCMD_STATS,
+                "shows the number of clients and the events, which have not been sent to slow clients"));
+    }
+
+    @Override
+    public void execute(String[] args, Console console) {
+        if (args.length > 0 && SUBCMD_STATS.equals(args[0])) {
+            printStatistics(console);
+        } else {
+            printUsage(console);
+        }
+    }
+
+    private void printStatistics(Console console) {
+        SseResource sseResource = this.sseResource;
+        if (sseResource == null) {
+            console.println("No SSE statistics available.");
+            return;
+        }
+        console.println("Connected clients:   " + sseResource.getClients());
+        console.println("Dropped events:      " + sseResource.getDroppedEvents());
+        console.println("Coalesced events:    " + sseResource.getCoalescedEvents());
+        console.println("Timed out clients:   " + sseResource.getTimedOutClients());
+    }
+
+    protected void setSseResource(SseResource sseResource) {
+        this.sseResource = sseResource;
+    }
+
+    protected void unsetSseResource(SseResource sseResource) {
+        this.sseResource = null;
+    }
+
+}
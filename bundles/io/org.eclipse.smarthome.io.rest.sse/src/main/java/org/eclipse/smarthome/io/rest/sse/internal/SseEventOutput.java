@@ -8,39 +8,265 @@
 package org.eclipse.smarthome.io.rest.sse.internal;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
 
-import org.eclipse.smarthome.io.rest.sse.beans.EventBean;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.io.rest.sse.internal.util.SseUtil;
 import org.glassfish.jersey.media.sse.EventOutput;
 import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * {@link EventOutput} implementation that takes a filter parameter and only writes out events that match this filter.
- * Should only be used when the {@link OutboundEvent}s sent through this {@link EventOutput} contain a data object of
- * type {@link EventBean}
- * 
+ * {@link EventOutput} implementation that takes a filter parameter and only sends out events that match this filter.
+ * <p>
+ * The topic filter is compiled once, when the client connects. Matching events are put into a bounded queue, which is
+ * drained by the shared thread pool {@value #THREAD_POOL_NAME}, so that a slow client never blocks the broadcasting of
+ * events to the other clients. The behavior when the queue of a client is full is defined by the
+ * {@link EventOverflowPolicy}.
+ * <p>
+ * A write to a client blocks a thread of the pool until the client has received the event. Therefore the start of the
+ * current write is recorded, so that a client, which does not receive an event within a time limit, can be aborted, see
+ * {@link #isWriteTimedOut(long)}.
+ *
  * @author Ivan Iliev - Initial contribution and API
- * 
+ * @author agent - Added per-client queue and write timeout
  */
-public class SseEventOutput extends EventOutput {
+public class SseEventOutput extends EventOutput implements Runnable {
 
-    private List<String> regexFilters;
+    static final String THREAD_POOL_NAME = "sse";
+
+    /** the maximum number of events sent in one task, before the thread is handed back to the pool */
+    private static final int MAX_EVENTS_PER_TASK = 64;
+
+    private final Logger logger = LoggerFactory.getLogger(SseEventOutput.class);
+
+    private final String topicFilter;
+
+    private final Pattern topicPattern;
+
+    private final EventOverflowPolicy overflowPolicy;
+
+    private final int maxPendingEvents;
+
+    /** guards the queue and the statistics, the lock of the event output itself is left to the super class */
+    private final Object lock = new Object();
+
+    private final LinkedList<PendingEvent> pendingEvents = new LinkedList<PendingEvent>();
+
+    private boolean scheduled = false;
+
+    /** the time in milliseconds at which the current write has been started, 0 if no write is in progress */
+    private volatile long writeStarted;
+
+    private long sentEvents;
+
+    private long droppedEvents;
+
+    private long coalescedEvents;
 
     public SseEventOutput(String topicFilter) {
+        this(topicFilter, SseUtil.compileTopicFilter(topicFilter), EventOverflowPolicy.COALESCE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a new event output.
+     *
+     * @param topicFilter the topic filter of the client
+     * @param topicPattern the compiled topic filter, see {@link SseUtil#compileTopicFilter(String)}
+     * @param overflowPolicy the policy for new events while the queue is full
+     * @param maxPendingEvents the maximum number of events waiting to be sent to the client
+     */
+    public SseEventOutput(String topicFilter, Pattern topicPattern, EventOverflowPolicy overflowPolicy,
+            int maxPendingEvents) {
         super();
-        this.regexFilters = SseUtil.convertToRegex(topicFilter);
+        this.topicFilter = topicFilter;
+        this.topicPattern = topicPattern;
+        this.overflowPolicy = overflowPolicy;
+        this.maxPendingEvents = maxPendingEvents;
     }
 
-    @Override
-    public void write(OutboundEvent chunk) throws IOException {
-        EventBean event = (EventBean) chunk.getData();
+    /**
+     * @return the topic filter of the client
+     */
+    public String getTopicFilter() {
+        return topicFilter;
+    }
+
+    /**
+     * @return the compiled topic filter of the client or null, if the client receives all events
+     */
+    public Pattern getTopicPattern() {
+        return topicPattern;
+    }
 
-        for (String filter : regexFilters) {
-            if (event.topic.matches(filter)) {
-                super.write(chunk);
+    /**
+     * Queues an event for sending. The caller is responsible for checking that the topic of the event matches the
+     * topic filter of the client.
+     *
+     * @param topic the topic of the event
+     * @param event the event to send
+     */
+    public void enqueue(String topic, OutboundEvent event) {
+        synchronized (lock) {
+            if (isClosed()) {
+                return;
+            }
+            if (pendingEvents.size() >= maxPendingEvents) {
+                if (overflowPolicy == EventOverflowPolicy.COALESCE) {
+                    // replace the latest event with the same topic, so that no older event is sent after it
+                    Iterator<PendingEvent> it = pendingEvents.descendingIterator();
+                    while (it.hasNext()) {
+                        PendingEvent pendingEvent = it.next();
+                        if (pendingEvent.topic.equals(topic)) {
+                            pendingEvent.event = event;
+                            coalescedEvents++;
+                            return;
+                        }
+                    }
+                }
+                if (droppedEvents++ == 0) {
+                    logger.debug("SSE client with topic filter '{}' is too slow, events are dropped.", topicFilter);
+                }
+                return;
+            }
+            pendingEvents.add(new PendingEvent(topic, event));
+            if (scheduled) {
                 return;
             }
+            scheduled = true;
+        }
+        schedule();
+    }
+
+    private void schedule() {
+        try {
+            ThreadPoolManager.getPool(THREAD_POOL_NAME).execute(this);
+        } catch (RejectedExecutionException e) {
+            synchronized (lock) {
+                scheduled = false;
+            }
+            logger.error("Cannot schedule sending events to SSE client: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void run() {
+        boolean reschedule;
+        try {
+            for (int i = 0; i < MAX_EVENTS_PER_TASK; i++) {
+                PendingEvent pendingEvent;
+                synchronized (lock) {
+                    pendingEvent = pendingEvents.poll();
+                }
+                if (pendingEvent == null) {
+                    break;
+                }
+                try {
+                    writeStarted = System.currentTimeMillis();
+                    write(pendingEvent.event);
+                    synchronized (lock) {
+                        sentEvents++;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    logger.debug("Failed to send event to SSE client, closing connection: {}", e.getMessage());
+                    closeQuietly();
+                    break;
+                } finally {
+                    writeStarted = 0;
+                }
+            }
+        } finally {
+            synchronized (lock) {
+                reschedule = !isClosed() && !pendingEvents.isEmpty();
+                scheduled = reschedule;
+            }
+        }
+        if (reschedule) {
+            schedule();
+        }
+    }
+
+    /**
+     * Checks whether the current write to the client takes longer than the given time.
+     *
+     * @param timeout the maximum time of a write in milliseconds, 0 or less for no limit
+     * @return true, if a write is in progress since more than the given time
+     */
+    public boolean isWriteTimedOut(long timeout) {
+        long started = writeStarted;
+        return timeout > 0 && started != 0 && System.currentTimeMillis() - started > timeout;
+    }
+
+    /**
+     * Closes the connection to the client and drops all events, which are waiting to be sent.
+     */
+    public void abort() {
+        synchronized (lock) {
+            droppedEvents += pendingEvents.size();
+        }
+        closeQuietly();
+    }
+
+    private void closeQuietly() {
+        synchronized (lock) {
+            pendingEvents.clear();
+        }
+        try {
+            close();
+        } catch (IOException e) {
+            logger.trace("Failed to close SSE connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return the number of events, which are waiting to be sent to the client
+     */
+    public int getPendingEvents() {
+        synchronized (lock) {
+            return pendingEvents.size();
+        }
+    }
+
+    /**
+     * @return the number of events, which have been sent to the client
+     */
+    public long getSentEvents() {
+        synchronized (lock) {
+            return sentEvents;
+        }
+    }
+
+    /**
+     * @return the number of events, which have been dropped because the queue of the client was full
+     */
+    public long getDroppedEvents() {
+        synchronized (lock) {
+            return droppedEvents;
+        }
+    }
+
+    /**
+     * @return the number of events, which have been replaced by a newer event with the same topic
+     */
+    public long getCoalescedEvents() {
+        synchronized (lock) {
+            return coalescedEvents;
+        }
+    }
+
+    private static class PendingEvent {
+
+        private final String topic;
+
+        private OutboundEvent event;
+
+        private PendingEvent(String topic, OutboundEvent event) {
+            this.topic = topic;
+            this.event = event;
         }
     }
 
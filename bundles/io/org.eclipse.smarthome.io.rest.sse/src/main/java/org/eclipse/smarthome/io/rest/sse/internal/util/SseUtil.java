@@ -10,6 +10,7 @@ package org.eclipse.smarthome.io.rest.sse.internal.util;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.regex.Pattern;
 
 import javax.servlet.ServletRequest;
 import javax.ws.rs.core.MediaType;
@@ -19,6 +20,8 @@ import org.eclipse.smarthome.core.events.Event;
 import org.eclipse.smarthome.io.rest.sse.beans.EventBean;
 import org.glassfish.jersey.media.sse.OutboundEvent;
 
+import com.google.gson.Gson;
+
 /**
  * Utility class containing helper methods for the SSE implementation.
  * 
@@ -44,9 +47,14 @@ public class SseUtil {
      */
     public static final boolean SERVLET3_SUPPORT;
 
+    private static final Gson GSON = new Gson();
+
     /**
      * Creates a new {@link OutboundEvent} object containing an {@link EventBean} created for the given Eclipse
      * SmartHome {@link Event}.
+     * <p>
+     * The event bean is serialized to JSON right away, so that the event can be written to any number of clients
+     * without serializing it again for each of them.
      * 
      * @param event the event
      * 
@@ -58,9 +66,10 @@ public class SseUtil {
         eventBean.type = event.getType();
         eventBean.payload = event.getPayload();
 
+        // the media type is not part of the event stream, it only selects the writer of the data
         OutboundEvent.Builder eventBuilder = new OutboundEvent.Builder();
-        OutboundEvent outboundEvent = eventBuilder.name("message").mediaType(MediaType.APPLICATION_JSON_TYPE)
-                .data(eventBean).build();
+        OutboundEvent outboundEvent = eventBuilder.name("message").mediaType(MediaType.TEXT_PLAIN_TYPE)
+                .data(String.class, GSON.toJson(eventBean)).build();
 
         return outboundEvent;
     }
@@ -126,4 +135,27 @@ public class SseUtil {
 
         return filters;
     }
+
+    /**
+     * Compiles the given topicFilter into a single pattern, which matches a topic if any of the regular expressions
+     * returned by {@link #convertToRegex(String)} matches it.
+     * 
+     * @param topicFilter
+     * @return the compiled pattern or null, if the filter matches all topics
+     */
+    public static Pattern compileTopicFilter(String topicFilter) {
+        List<String> filters = convertToRegex(topicFilter);
+        StringBuilder regex = new StringBuilder();
+        for (String filter : filters) {
+            if (filter.matches("(\\.\\*)+")) {
+                // a filter that consists only of wildcards matches all topics
+                return null;
+            }
+            if (regex.length() > 0) {
+                regex.append('|');
+            }
+            regex.append(filter);
+        }
+        return Pattern.compile(regex.toString());
+    }
 }
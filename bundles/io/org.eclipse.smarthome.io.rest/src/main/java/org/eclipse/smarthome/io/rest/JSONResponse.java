@@ -7,24 +7,42 @@
  */
 package org.eclipse.smarthome.io.rest;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.ext.Provider;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.annotations.SerializedName;
+import com.google.gson.stream.JsonWriter;
 
 /**
  * Static helper methods to build up JSON-like Response objects and error handling.
+ * <p>
+ * The entities of successful responses are streamed, i.e. they are serialized directly to the output stream of the
+ * response instead of being converted to a String first.
  *
  * @author Joerg Plewe
+ * @author agent - Added streaming of entities
  */
 @Provider
 public class JSONResponse {
@@ -35,7 +53,7 @@ public class JSONResponse {
     // also dump stacktrace?
     private final static boolean WITH_STACKTRACE = false;
 
-    final static Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    final static Gson GSON = new GsonBuilder().create();
 
     /**
      * hide ctor a bit from public
@@ -122,20 +140,112 @@ public class JSONResponse {
      * @return Response configure for error or success
      */
     public static Response createResponse(Response.Status status, Object entity, String errormessage) {
-        JsonElement ret;
+        // configure response
+        ResponseBuilder rp = response(status);
         if (status.getFamily() == Response.Status.Family.SUCCESSFUL) {
-            // create non-null JsonElement if null!=entity
-            ret = null != entity ? GSON.toJsonTree(entity) : null;
+            // stream the entity directly, there is no need for an intermediate JsonElement
+            if (null != entity) {
+                rp = rp.entity(createStreamingOutput(entity));
+            }
         } else {
-            ret = createErrorJson(errormessage, status, entity, null);
+            rp = rp.entity(GSON.toJson(createErrorJson(errormessage, status, entity, null)));
         }
+        return rp.build();
+    }
 
-        // configure response
-        ResponseBuilder rp = response(status);
-        if (null != ret) {
-            rp = rp.entity(GSON.toJson(ret));
+    /**
+     * Creates a successful Response, which streams the given entities as a JSON array. The entities are serialized
+     * one at a time, so that a large collection does not need to be kept in memory as a whole, if it is mapped
+     * lazily, e.g. by {@link com.google.common.collect.Iterables#transform}.
+     *
+     * @param entities the entities of the array
+     * @return Response streaming the JSON array
+     */
+    public static Response createStreamingResponse(Iterable<?> entities) {
+        return createStreamingResponse(entities, null);
+    }
+
+    /**
+     * Creates a successful Response, which streams the given entities as a JSON array. Only the given top-level
+     * fields of the entities are written. The fields are left out while serializing, i.e. the skipped fields are
+     * never converted at all. Note that the selection also applies to nested objects, which are of the same type
+     * (or a super type) as the entity.
+     *
+     * @param entities the entities of the array
+     * @param fields the names of the fields to write, null or an empty set writes all fields
+     * @return Response streaming the JSON array
+     */
+    public static Response createStreamingResponse(final Iterable<?> entities, final Set<String> fields) {
+        return response(Response.Status.OK).entity(new StreamingOutput() {
+            @Override
+            public void write(OutputStream output) throws IOException, WebApplicationException {
+                JsonWriter writer = createJsonWriter(output);
+                Map<Class<?>, Gson> projections = new HashMap<>();
+                writer.beginArray();
+                for (Object entity : entities) {
+                    if (entity == null || fields == null || fields.isEmpty()) {
+                        writeEntity(writer, entity, GSON);
+                    } else {
+                        Gson gson = projections.get(entity.getClass());
+                        if (gson == null) {
+                            gson = createProjection(entity.getClass(), fields);
+                            projections.put(entity.getClass(), gson);
+                        }
+                        writeEntity(writer, entity, gson);
+                    }
+                }
+                writer.endArray();
+                writer.flush();
+            }
+        }).build();
+    }
+
+    private static StreamingOutput createStreamingOutput(final Object entity) {
+        return new StreamingOutput() {
+            @Override
+            public void write(OutputStream output) throws IOException, WebApplicationException {
+                JsonWriter writer = createJsonWriter(output);
+                writeEntity(writer, entity, GSON);
+                writer.flush();
+            }
+        };
+    }
+
+    private static JsonWriter createJsonWriter(OutputStream output) {
+        return new JsonWriter(new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8)));
+    }
+
+    private static void writeEntity(JsonWriter writer, Object entity, Gson gson) throws IOException {
+        if (entity == null) {
+            writer.nullValue();
+        } else {
+            gson.toJson(entity, entity.getClass(), writer);
         }
-        return rp.build();
+    }
+
+    /**
+     * Creates a Gson instance, which only serializes the given fields of the given entity class.
+     *
+     * @param entityClass the class of the entities
+     * @param fields the names of the fields to write
+     * @return Gson instance skipping all other fields of the entity class
+     */
+    private static Gson createProjection(final Class<?> entityClass, final Set<String> fields) {
+        return new GsonBuilder().setExclusionStrategies(new ExclusionStrategy() {
+            @Override
+            public boolean shouldSkipField(FieldAttributes field) {
+                if (!field.getDeclaringClass().isAssignableFrom(entityClass)) {
+                    return false;
+                }
+                SerializedName serializedName = field.getAnnotation(SerializedName.class);
+                return !fields.contains(serializedName != null ? serializedName.value() : field.getName());
+            }
+
+            @Override
+            public boolean shouldSkipClass(Class<?> clazz) {
+                return false;
+            }
+        }).create();
     }
 
     /**
@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.io.rest;
+
+import java.util.Set;
+
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+
+/**
+ * {@link QueryUtil} provides helper methods for the paging and field selection query parameters of REST resources.
+ *
+ * @author agent - Initial contribution
+ */
+public class QueryUtil {
+
+    /**
+     * Parses the "fields" query parameter.
+     *
+     * @param fields
+     *            comma separated list of field names (can be null).
+     * @return the set of field names or null, if all fields should be returned
+     */
+    public static Set<String> getFields(String fields) {
+        if (fields == null) {
+            return null;
+        }
+        Set<String> fieldSet = ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(fields));
+        return fieldSet.isEmpty() ? null : fieldSet;
+    }
+
+    /**
+     * Checks whether a field is selected by the "fields" query parameter.
+     *
+     * @param fields
+     *            the parsed field names (can be null).
+     * @param field
+     *            the name of the field
+     * @return true, if all fields or the given field are selected
+     */
+    public static boolean isSelected(Set<String> fields, String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * Returns a page of the given elements. The page is a lazy view, so only the elements of the page are iterated.
+     *
+     * @param elements
+     *            the elements
+     * @param offset
+     *            the number of elements to skip, must not be negative
+     * @param limit
+     *            the maximum number of elements of the page or null for all remaining elements
+     * @return the elements of the page
+     * @throws IllegalArgumentException if the offset or the limit is negative
+     */
+    public static <T> Iterable<T> page(Iterable<T> elements, int offset, Integer limit) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("The offset must not be negative.");
+        }
+        if (limit != null && limit < 0) {
+            throw new IllegalArgumentException("The limit must not be negative.");
+        }
+        Iterable<T> page = offset > 0 ? Iterables.skip(elements, offset) : elements;
+        return limit != null ? Iterables.limit(page, limit) : page;
+    }
+
+}
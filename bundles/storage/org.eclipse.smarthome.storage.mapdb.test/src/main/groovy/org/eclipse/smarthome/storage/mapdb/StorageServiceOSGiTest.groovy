@@ -104,7 +104,72 @@ class StorageServiceOSGiTest extends OSGiTest {
         def bigDecimal = storageWithoutClassloader.get("configuration").get("bigDecimal")
         assertThat bigDecimal instanceof BigDecimal, is(true)
     }
-    
+
+    @Test
+    void 'assert cached values are copied, replaced and removed with the stored values'() {
+        storage.put 'Key1', new PersistedItem('String', ['LIGHT'])
+        PersistedItem pItem = storage.get 'Key1'
+        assertThat storage.get('Key1'), is(not(sameInstance(pItem)))
+        assertThat storage.getValues().iterator().next(), is(not(sameInstance(pItem)))
+
+        pItem.itemType = 'Switch'
+        pItem.groupNames.add 'GROUND_FLOOR'
+        assertThat storage.get('Key1').itemType, is('String')
+        assertThat storage.get('Key1').groupNames, is(['LIGHT'])
+
+        storage.put 'Key1', new PersistedItem('Number', ['TEMPERATURE'])
+        assertThat storage.get('Key1').itemType, is('Number')
+
+        storage.putAll(['Key1': new PersistedItem('Switch', ['LIGHT'])])
+        assertThat storage.get('Key1').itemType, is('Switch')
+
+        storage.remove 'Key1'
+        assertThat storage.get('Key1'), is(nullValue())
+    }
+
+    @Test
+    void 'assert batch operations are committed at once'() {
+        def committer = storageService.getCommitter()
+        def commits = committer.getCommits()
+
+        storage.putAll(['Key1': new PersistedItem('String', ['LIGHT']), 'Key2': new PersistedItem('Number', ['TEMPERATURE'])])
+        assertThat storage.getKeys().size(), is(2)
+        assertThat storage.get('Key2').itemType, is('Number')
+        assertThat committer.getCommits(), is(commits + 1)
+
+        storage.removeAll(['Key1', 'Key2', 'Key3'])
+        assertThat storage.getKeys().size(), is(0)
+        assertThat committer.getCommits(), is(commits + 2)
+    }
+
+    @Test
+    void 'assert mutations are committed together in write-behind mode'() {
+        def committer = storageService.getCommitter()
+        committer.setWriteBehind(60000, 3)
+        try {
+            def commits = committer.getCommits()
+
+            storage.put 'Key1', new PersistedItem('String', ['LIGHT'])
+            storage.put 'Key2', new PersistedItem('String', ['LIGHT'])
+            assertThat committer.getPendingMutations(), is(2)
+            assertThat committer.getCommits(), is(commits)
+            assertThat storage.get('Key2').itemType, is('String')
+
+            storage.remove 'Key1'
+            assertThat committer.getPendingMutations(), is(0)
+            assertThat committer.getCommits(), is(commits + 1)
+
+            storage.remove 'Key2'
+            committer.setWriteBehind(100, 3)
+            waitForAssert {
+                assertThat committer.getPendingMutations(), is(0)
+                assertThat committer.getCommits(), is(commits + 2)
+            }
+        } finally {
+            committer.setWriteBehind(0, 0)
+        }
+    }
+
     private class MockConfiguration {
         private Map<String, Object> configuration = new HashMap<String, Object>();
         
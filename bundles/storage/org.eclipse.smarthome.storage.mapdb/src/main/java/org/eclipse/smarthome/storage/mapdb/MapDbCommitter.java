@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2014-2016 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.smarthome.storage.mapdb;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
+import org.mapdb.DB;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MapDbCommitter} decides when the mutations of all {@link MapDbStorage}s of one MapDB database are
+ * committed. Without write-behind every mutation is committed immediately. With write-behind the mutations are
+ * committed together, as soon as the maximum number of pending mutations is reached or the commit interval has passed
+ * since the first pending mutation, whatever happens first.
+ * <p>
+ * The storages apply their mutations while holding the lock of the committer, so that a commit never contains only a
+ * part of a batch.
+ *
+ * @author agent - Initial contribution
+ */
+public class MapDbCommitter {
+
+    private static final String THREAD_POOL_NAME = "storage";
+
+    private final Logger logger = LoggerFactory.getLogger(MapDbCommitter.class);
+
+    private final DB db;
+
+    private long commitInterval;
+
+    private int maxPendingMutations;
+
+    private int pendingMutations;
+
+    private ScheduledFuture<?> scheduledCommit;
+
+    private long commits;
+
+    /**
+     * Creates a committer, which commits every mutation immediately.
+     *
+     * @param db the database to commit
+     */
+    public MapDbCommitter(DB db) {
+        this.db = db;
+    }
+
+    /**
+     * Configures the write-behind mode.
+     *
+     * @param commitInterval the maximum time in milliseconds a mutation is pending, 0 to disable write-behind
+     * @param maxPendingMutations the maximum number of pending mutations
+     */
+    public synchronized void setWriteBehind(long commitInterval, int maxPendingMutations) {
+        this.commitInterval = commitInterval;
+        this.maxPendingMutations = maxPendingMutations;
+        logger.debug("MapDB write-behind is {}.", isWriteBehind()
+                ? "enabled (" + commitInterval + " ms, " + maxPendingMutations + " mutations)" : "disabled");
+        if (!isWriteBehind() || pendingMutations >= maxPendingMutations) {
+            commit();
+        } else if (pendingMutations > 0) {
+            // apply the new interval to the pending mutations
+            cancelScheduledCommit();
+            scheduleCommit();
+        }
+    }
+
+    /**
+     * @return true, if the mutations are not committed immediately
+     */
+    public synchronized boolean isWriteBehind() {
+        return commitInterval > 0 && maxPendingMutations > 1;
+    }
+
+    /**
+     * Notifies the committer about mutations, which have been applied to the database. The caller must hold the lock
+     * of this committer while applying the mutations and calling this method.
+     *
+     * @param mutations the number of applied mutations
+     */
+    synchronized void mutated(int mutations) {
+        if (mutations <= 0) {
+            return;
+        }
+        pendingMutations += mutations;
+        if (!isWriteBehind() || pendingMutations >= maxPendingMutations) {
+            commit();
+        } else if (scheduledCommit == null) {
+            scheduleCommit();
+        }
+    }
+
+    private void scheduleCommit() {
+        scheduledCommit = ThreadPoolManager.getScheduledPool(THREAD_POOL_NAME).schedule(new Runnable() {
+            @Override
+            public void run() {
+                commit();
+            }
+        }, commitInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelScheduledCommit() {
+        if (scheduledCommit != null) {
+            scheduledCommit.cancel(false);
+            scheduledCommit = null;
+        }
+    }
+
+    /**
+     * Commits all pending mutations. If the commit fails, the mutations stay pending and are committed with the next
+     * commit; in write-behind mode the next commit is scheduled after the commit interval.
+     */
+    public synchronized void commit() {
+        cancelScheduledCommit();
+        if (pendingMutations > 0) {
+            try {
+                db.commit();
+            } catch (RuntimeException e) {
+                logger.error("Failed to commit " + pendingMutations + " mutations to MapDB.", e);
+                if (isWriteBehind()) {
+                    scheduleCommit();
+                }
+                return;
+            }
+            commits++;
+            logger.trace("Committed {} mutations to MapDB.", pendingMutations);
+            pendingMutations = 0;
+        }
+    }
+
+    /**
+     * @return the number of mutations, which have not been committed yet
+     */
+    public synchronized int getPendingMutations() {
+        return pendingMutations;
+    }
+
+    /**
+     * @return the number of commits since the creation of the committer
+     */
+    public synchronized long getCommits() {
+        return commits;
+    }
+
+}
@@ -9,7 +9,10 @@ package org.eclipse.smarthome.storage.mapdb;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.smarthome.core.storage.Storage;
 import org.mapdb.DB;
@@ -18,6 +21,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
 
 /**
  * The MapDbStorage is concrete implementation of the {@link Storage} interface.
@@ -25,6 +29,13 @@ import com.google.gson.GsonBuilder;
  * the given values using their JSON representation (generated by {@code Gson}.
  * This transformation should help maintaining version compatibility of the stored
  * data.
+ * <p>
+ * The mutations are committed by the {@link MapDbCommitter} of the database, either immediately or, in write-behind
+ * mode, together with other mutations.
+ * <p>
+ * The parsed JSON trees of the stored values and their loaded classes are cached in memory, so that a stored value is
+ * parsed only once after it has been stored. {@link #get(String)} and {@link #getValues()} still create a new instance
+ * from the cached tree on every call, so that changes to a returned value do not affect the stored value.
  *
  * @author Thomas.Eichstaedt-Engelen - Initial Contribution and API
  * @author Alex Tugarev - Loading with Class.forName() if classLoader is null
@@ -36,13 +47,25 @@ public class MapDbStorage<T> implements Storage<T> {
     private final Logger logger = LoggerFactory.getLogger(MapDbStorage.class);
 
     private DB db;
+    private MapDbCommitter committer;
     private ClassLoader classLoader;
     private Map<String, String> map;
 
     private transient Gson mapper;
 
+    /** the parsed stored values by key, guarded by {@code this} for modifications */
+    private final Map<String, StoredValue> cache = new ConcurrentHashMap<String, StoredValue>();
+
+    /** the loaded value types by class name */
+    private final Map<String, Class<T>> valueTypes = new ConcurrentHashMap<String, Class<T>>();
+
     public MapDbStorage(DB db, String name, ClassLoader classLoader) {
+        this(db, new MapDbCommitter(db), name, classLoader);
+    }
+
+    public MapDbStorage(DB db, MapDbCommitter committer, String name, ClassLoader classLoader) {
         this.db = db;
+        this.committer = committer;
         this.classLoader = classLoader;
         this.map = db.createTreeMap(name).makeOrGet();
         this.mapper = new GsonBuilder().registerTypeAdapterFactory(new PropertiesTypeAdapterFactory()).create();
@@ -53,9 +76,35 @@ public class MapDbStorage<T> implements Storage<T> {
      */
     @Override
     public T put(String key, T value) {
-        String previousValue = map.put(key, serialize(value));
-        db.commit();
-        return deserialize(previousValue);
+        String serializedValue = serialize(value);
+        String previousValue;
+        StoredValue previous;
+        synchronized (this) {
+            synchronized (committer) {
+                previousValue = map.put(key, serializedValue);
+                committer.mutated(1);
+            }
+            previous = cache.remove(key);
+        }
+        return previous != null ? previous.toValue() : deserialize(previousValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void putAll(Map<String, T> values) {
+        Map<String, String> serializedValues = new LinkedHashMap<String, String>(values.size());
+        for (Entry<String, T> entry : values.entrySet()) {
+            serializedValues.put(entry.getKey(), serialize(entry.getValue()));
+        }
+        synchronized (this) {
+            synchronized (committer) {
+                map.putAll(serializedValues);
+                committer.mutated(serializedValues.size());
+            }
+            cache.keySet().removeAll(serializedValues.keySet());
+        }
     }
 
     /**
@@ -63,9 +112,35 @@ public class MapDbStorage<T> implements Storage<T> {
      */
     @Override
     public T remove(String key) {
-        String removedElement = map.remove(key);
-        db.commit();
-        return deserialize(removedElement);
+        String removedElement;
+        StoredValue removed;
+        synchronized (this) {
+            synchronized (committer) {
+                removedElement = map.remove(key);
+                committer.mutated(removedElement != null ? 1 : 0);
+            }
+            removed = cache.remove(key);
+        }
+        return removed != null ? removed.toValue() : deserialize(removedElement);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeAll(Collection<String> keys) {
+        synchronized (this) {
+            synchronized (committer) {
+                int mutations = 0;
+                for (String key : keys) {
+                    if (map.remove(key) != null) {
+                        mutations++;
+                    }
+                }
+                committer.mutated(mutations);
+            }
+            cache.keySet().removeAll(keys);
+        }
     }
 
     /**
@@ -73,7 +148,19 @@ public class MapDbStorage<T> implements Storage<T> {
      */
     @Override
     public T get(String key) {
-        return deserialize(map.get(key));
+        StoredValue storedValue = cache.get(key);
+        if (storedValue == null) {
+            synchronized (this) {
+                storedValue = cache.get(key);
+                if (storedValue == null) {
+                    storedValue = parse(map.get(key));
+                    if (storedValue != null) {
+                        cache.put(key, storedValue);
+                    }
+                }
+            }
+        }
+        return storedValue != null ? storedValue.toValue() : null;
     }
 
     /**
@@ -128,35 +215,75 @@ public class MapDbStorage<T> implements Storage<T> {
      * @param json
      * @return
      */
-    @SuppressWarnings("unchecked")
     public T deserialize(String json) {
+        StoredValue storedValue = parse(json);
+        return storedValue != null ? storedValue.toValue() : null;
+    }
+
+    /**
+     * Parses the given JSON String into its JSON tree and loads the type of the value.
+     *
+     * @param json the JSON document prepended with the qualified type name of the value
+     * @return the parsed value or null, if there is nothing to parse or it cannot be parsed
+     */
+    @SuppressWarnings("unchecked")
+    private StoredValue parse(String json) {
 
         if (json == null) {
             // nothing to deserialize
             return null;
         }
 
-        String[] concatValue = json.split(TYPE_SEPARATOR);
-        String valueTypeName = concatValue[0];
-        String valueAsString = concatValue[1];
+        int separatorIndex = json.indexOf(TYPE_SEPARATOR);
+        String valueTypeName = json.substring(0, separatorIndex);
+        String valueAsString = json.substring(separatorIndex + TYPE_SEPARATOR.length());
 
-        T value = null;
         try {
             // load required class within the given bundle context
-            Class<T> loadedValueType = null;
-            if (classLoader == null) {
-                loadedValueType = (Class<T>) Class.forName(valueTypeName);
-            } else {
-                loadedValueType = (Class<T>) classLoader.loadClass(valueTypeName);
+            Class<T> loadedValueType = valueTypes.get(valueTypeName);
+            if (loadedValueType == null) {
+                if (classLoader == null) {
+                    loadedValueType = (Class<T>) Class.forName(valueTypeName);
+                } else {
+                    loadedValueType = (Class<T>) classLoader.loadClass(valueTypeName);
+                }
+                valueTypes.put(valueTypeName, loadedValueType);
             }
 
-            value = mapper.fromJson(valueAsString, loadedValueType);
-            logger.trace("deserialized value '{}' from MapDB", value);
+            return new StoredValue(loadedValueType, mapper.fromJson(valueAsString, JsonElement.class));
         } catch (Exception e) {
             logger.warn("Couldn't deserialize value '{}'. Root cause is: {}", json, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * A stored value as parsed JSON tree together with its type.
+     */
+    private class StoredValue {
+        private final Class<T> type;
+        private final JsonElement json;
+
+        private StoredValue(Class<T> type, JsonElement json) {
+            this.type = type;
+            this.json = json;
         }
 
-        return value;
+        /**
+         * Creates a new instance of the value out of the JSON tree.
+         *
+         * @return the new instance or null, if it cannot be created
+         */
+        private T toValue() {
+            try {
+                T value = mapper.fromJson(json, type);
+                logger.trace("deserialized value '{}' from MapDB", value);
+                return value;
+            } catch (Exception e) {
+                logger.warn("Couldn't deserialize value '{}'. Root cause is: {}", json, e.getMessage());
+                return null;
+            }
+        }
     }
 
 }
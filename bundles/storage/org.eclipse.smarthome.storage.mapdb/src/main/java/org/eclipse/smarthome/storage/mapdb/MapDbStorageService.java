@@ -8,6 +8,7 @@
 package org.eclipse.smarthome.storage.mapdb;
 
 import java.io.File;
+import java.util.Map;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.storage.Storage;
@@ -20,6 +21,11 @@ import org.slf4j.LoggerFactory;
 /**
  * This implementation of {@link StorageService} provides abilities to store
  * data in the lightweight key-value-store <a href="http://www.mapdb.org">MapDB</a>.
+ * <p>
+ * By default every mutation is committed immediately. A write-behind mode, which commits the mutations of all storages
+ * together, can be enabled through the configuration properties {@value #CONFIG_COMMIT_INTERVAL} and
+ * {@value #CONFIG_COMMIT_MUTATIONS}. Pending mutations are committed when the service is deactivated or the JVM shuts
+ * down.
  *
  * @author Thomas.Eichstaedt-Engelen - Initial Contribution and API
  * @author Alex Tugarev - Added getStorage for name only
@@ -31,13 +37,29 @@ public class MapDbStorageService implements StorageService {
     /** the name of the mapdb database ({@code storage.mapdb}) */
     private static final String DB_FILE_NAME = "storage.mapdb";
 
+    /** the maximum time in milliseconds a mutation is not committed, 0 disables the write-behind mode */
+    protected static final String CONFIG_COMMIT_INTERVAL = "commit.interval";
+
+    /** the maximum number of mutations which are not committed in write-behind mode */
+    protected static final String CONFIG_COMMIT_MUTATIONS = "commit.mutations";
+
+    private static final long DEFAULT_COMMIT_INTERVAL = 0;
+
+    private static final int DEFAULT_COMMIT_MUTATIONS = 1000;
+
     /** holds the local instance of the MapDB database */
     private DB db;
 
+    /** commits the mutations of all storages of the database */
+    private MapDbCommitter committer;
+
+    /** commits the pending mutations and closes the database when the JVM shuts down */
+    private Thread shutdownHook;
+
     /** the folder name to store mapdb databases ({@code mapdb} by default) */
     private String dbFolderName = "mapdb";
 
-    public void activate() {
+    public void activate(Map<String, Object> config) {
         dbFolderName = ConfigConstants.getUserDataFolder() + File.separator + dbFolderName;
         File folder = new File(dbFolderName);
         if (!folder.exists()) {
@@ -45,19 +67,72 @@ public class MapDbStorageService implements StorageService {
         }
 
         File dbFile = new File(dbFolderName, DB_FILE_NAME);
-        db = DBMaker.newFileDB(dbFile).closeOnJvmShutdown().make();
+        db = DBMaker.newFileDB(dbFile).make();
+        committer = new MapDbCommitter(db);
+        applyConfig(config);
+
+        shutdownHook = new Thread("MapDB shutdown") {
+            @Override
+            public void run() {
+                close();
+            }
+        };
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
 
         logger.debug("Opened MapDB file at '{}'.", dbFile.getAbsolutePath());
     }
 
+    public void modified(Map<String, Object> config) {
+        applyConfig(config);
+    }
+
     public void deactivate() {
-        db.close();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // the JVM is shutting down, the hook closes the database
+        }
+        close();
         logger.debug("Deactivated MapDB Storage Service.");
     }
 
+    private synchronized void close() {
+        if (!db.isClosed()) {
+            committer.commit();
+            db.close();
+        }
+    }
+
+    private void applyConfig(Map<String, Object> config) {
+        long commitInterval = DEFAULT_COMMIT_INTERVAL;
+        int maxPendingMutations = DEFAULT_COMMIT_MUTATIONS;
+        if (config != null) {
+            try {
+                Object value = config.get(CONFIG_COMMIT_INTERVAL);
+                if (value != null) {
+                    commitInterval = Long.parseLong(value.toString());
+                }
+                value = config.get(CONFIG_COMMIT_MUTATIONS);
+                if (value != null) {
+                    maxPendingMutations = Integer.parseInt(value.toString());
+                }
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid configuration of the MapDB write-behind mode: {}", e.getMessage());
+            }
+        }
+        committer.setWriteBehind(commitInterval, maxPendingMutations);
+    }
+
+    /**
+     * @return the committer of the database
+     */
+    public MapDbCommitter getCommitter() {
+        return committer;
+    }
+
     @Override
     public <T> Storage<T> getStorage(String name, ClassLoader classLoader) {
-        return new MapDbStorage<T>(db, name, classLoader);
+        return new MapDbStorage<T>(db, committer, name, classLoader);
     }
 
     @Override
@@ -31,6 +31,14 @@ public class VolatileStorage<T> implements Storage<T> {
         return storage.put(key, value);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void putAll(Map<String, T> values) {
+        storage.putAll(values);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -39,6 +47,14 @@ public class VolatileStorage<T> implements Storage<T> {
         return storage.remove(key);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeAll(Collection<String> keys) {
+        storage.keySet().removeAll(keys);
+    }
+
     /**
      * {@inheritDoc}
      */
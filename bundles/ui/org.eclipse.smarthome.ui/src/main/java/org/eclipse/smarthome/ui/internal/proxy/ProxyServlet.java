@@ -16,6 +16,7 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.httpclient.ConnectionPoolTimeoutException;
 import org.apache.commons.httpclient.Credentials;
 import org.apache.commons.httpclient.Header;
 import org.apache.commons.httpclient.HttpClient;
@@ -23,6 +24,7 @@ import org.apache.commons.httpclient.UsernamePasswordCredentials;
 import org.apache.commons.httpclient.auth.AuthScope;
 import org.apache.commons.httpclient.methods.GetMethod;
 import org.apache.commons.io.IOUtils;
+import org.eclipse.smarthome.io.net.http.HttpClientManager;
 import org.eclipse.smarthome.model.core.ModelRepository;
 import org.eclipse.smarthome.model.sitemap.Image;
 import org.eclipse.smarthome.model.sitemap.Sitemap;
@@ -50,7 +52,13 @@ import org.slf4j.LoggerFactory;
  *
  * This servlet also supports data streams, such as a webcam video stream etc.
  *
+ * The requests are executed through the shared connection pool of the {@link HttpClientManager}, so that the
+ * connections to the servers are kept alive between requests. As streams can hold their connections for a long
+ * time, a request, which does not get a connection from the pool within the pool timeout, is answered with
+ * "503 Service Unavailable" instead of blocking.
+ *
  * @author Kai Kreuzer - Initial contribution and API
+ * @author agent - Use the shared connection pool
  */
 public class ProxyServlet extends HttpServlet {
 
@@ -155,7 +163,7 @@ public class ProxyServlet extends HttpServlet {
             throw new ServletException("Sitemap '" + sitemapName + "' could not be found!");
         }
 
-        HttpClient httpClient = new HttpClient();
+        HttpClient httpClient = HttpClientManager.createHttpClient();
 
         try {
             // check if the uri uses credentials and configure the http client accordingly
@@ -174,15 +182,31 @@ public class ProxyServlet extends HttpServlet {
 
         // do the client request
         GetMethod method = new GetMethod(uriString);
-        httpClient.executeMethod(method);
+        try {
+            try {
+                httpClient.executeMethod(method);
+            } catch (ConnectionPoolTimeoutException e) {
+                logger.warn("No free connection to proxy '{}' within {} ms: {} of {} connections in use", new Object[] {
+                        uriString, HttpClientManager.getPoolTimeout(), HttpClientManager.getConnectionsInPool(),
+                        HttpClientManager.getMaxConnections() });
+                response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE, "No free connection available.");
+                return;
+            }
 
-        // copy all headers
-        for (Header header : method.getResponseHeaders()) {
-            response.setHeader(header.getName(), header.getValue());
-        }
+            // copy all headers
+            for (Header header : method.getResponseHeaders()) {
+                response.setHeader(header.getName(), header.getValue());
+            }
 
-        // now copy/stream the body content
-        IOUtils.copy(method.getResponseBodyAsStream(), response.getOutputStream());
-        method.releaseConnection();
+            // now copy/stream the body content
+            IOUtils.copy(method.getResponseBodyAsStream(), response.getOutputStream());
+        } catch (IOException e) {
+            // the rest of a stream can not be consumed, so the connection must not be reused
+            method.abort();
+            throw e;
+        } finally {
+            // hand the connection back to the pool
+            method.releaseConnection();
+        }
     }
 }
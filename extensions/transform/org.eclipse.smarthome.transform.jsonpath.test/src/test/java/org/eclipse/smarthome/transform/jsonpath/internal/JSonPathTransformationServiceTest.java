@@ -7,6 +7,7 @@
  */
 package org.eclipse.smarthome.transform.jsonpath.internal;
 
+import org.eclipse.smarthome.core.transform.TransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.transform.jsonpath.internal.JSonPathTransformationService;
 import org.junit.Assert;
@@ -70,4 +71,17 @@ public class JSonPathTransformationServiceTest {
         assert(transformedResponse == null);
     }
 
+    @Test
+    public void testCompiledPathIsCached() throws TransformationException {
+        TransformationCache<?> cache = processor.getTransformationCache();
+
+        Assert.assertEquals("bob", processor.transform("$[0].name", jsonArray));
+        Assert.assertEquals("alice", processor.transform("$[1].name", jsonArray));
+        Assert.assertEquals("bob", processor.transform("$[0].name", jsonArray));
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(2, cache.getMisses());
+    }
+
 }
@@ -7,6 +7,8 @@
  */
 package org.eclipse.smarthome.transform.jsonpath.internal;
 
+import org.eclipse.smarthome.core.transform.CachingTransformationService;
+import org.eclipse.smarthome.core.transform.TransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.slf4j.Logger;
@@ -20,15 +22,21 @@ import com.jayway.jsonpath.PathNotFoundException;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by JSonPath Expressions.
  * </p>
+ * <p>
+ * The compiled paths are cached by their expression.
+ * </p>
  *
  * @author Gaël L'hopital
  * @author Sebastian Janzen
+ * @author agent - Cache the compiled paths
  *
  */
-public class JSonPathTransformationService implements TransformationService {
+public class JSonPathTransformationService implements CachingTransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(JSonPathTransformationService.class);
 
+    private final TransformationCache<JsonPath> paths = new TransformationCache<>();
+
     /**
      * Transforms the input <code>source</code> by JSonPath expression.
      *
@@ -47,7 +55,12 @@ public class JSonPathTransformationService implements TransformationService {
         logger.debug("about to transform '{}' by the function '{}'", source, jsonPathExpression);
 
         try {
-            Object transformationResult = JsonPath.read(source, jsonPathExpression);
+            JsonPath path = paths.get(jsonPathExpression);
+            if (path == null) {
+                path = JsonPath.compile(jsonPathExpression);
+                paths.put(jsonPathExpression, path);
+            }
+            Object transformationResult = path.read(source);
             logger.debug("transformation resulted in '{}'", transformationResult);
             return (transformationResult != null) ? transformationResult.toString() : null;
         } catch (PathNotFoundException e) {
@@ -58,4 +71,9 @@ public class JSonPathTransformationService implements TransformationService {
 
     }
 
+    @Override
+    public TransformationCache<JsonPath> getTransformationCache() {
+        return paths;
+    }
+
 }
@@ -18,6 +18,7 @@ import java.util.Properties;
 import java.util.concurrent.Callable;
 
 import org.apache.commons.io.FileUtils;
+import org.eclipse.smarthome.core.transform.TransformationCache;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -118,6 +119,37 @@ public class MapTransformationServiceTest {
         Assert.assertNotEquals(SOURCE_CLOSED, transformedResponse);
     }
 
+    @Test
+    public void testCachedFileIsInvalidatedWhenModified() throws Exception {
+        final TransformationCache<?> cache = processor.getTransformationCache();
+
+        Assert.assertEquals("zu", processor.transform(EXISTING_FILENAME_DE, SOURCE_CLOSED));
+        Assert.assertEquals("zu", processor.transform(EXISTING_FILENAME_DE, SOURCE_CLOSED));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+
+        Properties properties = new Properties();
+        try (FileReader reader = new FileReader(USED_FILENAME)) {
+            properties.load(reader);
+        }
+        properties.setProperty(SOURCE_CLOSED, "changevalue");
+        try (FileWriter writer = new FileWriter(USED_FILENAME)) {
+            properties.store(writer, "");
+        }
+
+        // the modified file is removed from the cache and loaded again
+        waitForAssert(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                Assert.assertEquals("changevalue", processor.transform(EXISTING_FILENAME_DE, SOURCE_CLOSED));
+                return null;
+            }
+        }, 10000, 100);
+        Assert.assertTrue(cache.getMisses() >= 2);
+        Assert.assertEquals(1, cache.size());
+    }
+
     protected void waitForAssert(Callable<Void> assertion, int timeout, int sleepTime) throws Exception {
         int waitingTime = 0;
         while (waitingTime < timeout) {
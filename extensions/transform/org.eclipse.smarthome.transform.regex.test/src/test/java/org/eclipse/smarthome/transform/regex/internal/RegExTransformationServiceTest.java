@@ -9,6 +9,7 @@ package org.eclipse.smarthome.transform.regex.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import org.eclipse.smarthome.core.transform.TransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
 import org.junit.Test;
@@ -73,4 +74,36 @@ public class RegExTransformationServiceTest extends AbstractTransformationServic
         // Asserts
         assertEquals("varX=12 varY=54 ", transformedResponse);
     }
+
+    @Test
+    public void testTransformByRegex_cachesCompiledPatterns() throws TransformationException {
+        TransformationCache<?> cache = processor.getTransformationCache();
+
+        assertEquals("8", processor.transform(".*?<temp_c data=\"(.*?)\".*", source));
+        assertEquals("46", processor.transform(".*?<temp_f data=\"(.*?)\".*", source));
+        assertEquals("8", processor.transform(".*?<temp_c data=\"(.*?)\".*", source));
+        assertEquals("SetMode(42)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:SetMode,ARG:42"));
+        assertEquals("Reset(7)", processor.transform("s/^OP:(.*?),ARG:(.*)$/$1($2)/", "OP:Reset,ARG:7"));
+
+        assertEquals(3, cache.size());
+        assertEquals(2, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testTransformByRegex_evictsLeastRecentlyUsedPattern() throws TransformationException {
+        TransformationCache<?> cache = processor.getTransformationCache();
+
+        for (int i = 0; i <= TransformationCache.DEFAULT_MAX_SIZE; i++) {
+            assertEquals(String.valueOf(i), processor.transform("(" + i + ")", String.valueOf(i)));
+        }
+
+        assertEquals(TransformationCache.DEFAULT_MAX_SIZE, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        // the first pattern has been evicted and is compiled again
+        assertEquals("0", processor.transform("(0)", "0"));
+        assertEquals(TransformationCache.DEFAULT_MAX_SIZE + 2, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
 }
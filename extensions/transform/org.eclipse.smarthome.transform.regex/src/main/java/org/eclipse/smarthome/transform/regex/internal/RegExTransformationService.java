@@ -10,6 +10,8 @@ package org.eclipse.smarthome.transform.regex.internal;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.eclipse.smarthome.core.transform.CachingTransformationService;
+import org.eclipse.smarthome.core.transform.TransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.slf4j.Logger;
@@ -21,15 +23,20 @@ import org.slf4j.LoggerFactory;
  * </p>
  * <p>
  * <b>Note:</b> the given Regular Expression must contain exactly one group!
+ * <p>
+ * The compiled patterns are cached by their expression.
  *
  * @author Thomas.Eichstaedt-Engelen
+ * @author agent - Cache the compiled patterns
  */
-public class RegExTransformationService implements TransformationService {
+public class RegExTransformationService implements CachingTransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(RegExTransformationService.class);
 
     private static final Pattern substPattern = Pattern.compile("^s/(.*?[^\\\\])/(.*?[^\\\\])/(.*)$");
 
+    private final TransformationCache<Pattern> patterns = new TransformationCache<>();
+
     /**
      * @{inheritDoc
      */
@@ -47,20 +54,29 @@ public class RegExTransformationService implements TransformationService {
         Matcher substMatcher = substPattern.matcher(regExpression);
         if (substMatcher.matches()) {
             logger.debug("Using substitution form of regex transformation");
-            String regex = substMatcher.group(1);
             String substitution = substMatcher.group(2);
             String options = substMatcher.group(3);
+            Pattern pattern = patterns.get(regExpression);
+            if (pattern == null) {
+                pattern = Pattern.compile(substMatcher.group(1));
+                patterns.put(regExpression, pattern);
+            }
             if (options.equals("g")) {
-                result = source.trim().replaceAll(regex, substitution);
+                result = pattern.matcher(source.trim()).replaceAll(substitution);
             } else {
-                result = source.trim().replaceFirst(regex, substitution);
+                result = pattern.matcher(source.trim()).replaceFirst(substitution);
             }
             if (result != null) {
                 return result;
             }
         }
 
-        Matcher matcher = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL).matcher(source.trim());
+        Pattern pattern = patterns.get(regExpression);
+        if (pattern == null) {
+            pattern = Pattern.compile("^" + regExpression + "$", Pattern.DOTALL);
+            patterns.put(regExpression, pattern);
+        }
+        Matcher matcher = pattern.matcher(source.trim());
         if (!matcher.matches()) {
             logger.debug(
                     "the given regex '^{}$' doesn't match the given content '{}' -> couldn't compute transformation",
@@ -90,4 +106,9 @@ public class RegExTransformationService implements TransformationService {
         return result;
     }
 
+    @Override
+    public TransformationCache<Pattern> getTransformationCache() {
+        return patterns;
+    }
+
 }
@@ -9,6 +9,7 @@ package org.eclipse.smarthome.transform.xpath.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import org.eclipse.smarthome.core.transform.TransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
 import org.junit.Test;
@@ -35,4 +36,17 @@ public class XPathTransformationServiceTest extends AbstractTransformationServic
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByXPath_cachesCompiledExpressions() throws TransformationException {
+        TransformationCache<?> cache = processor.getTransformationCache();
+
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+        assertEquals("46", processor.transform("//current_conditions/temp_f/@data", source));
+        assertEquals("8", processor.transform("//current_conditions/temp_c/@data", source));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
 }
@@ -16,6 +16,8 @@ import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathFactory;
 
+import org.eclipse.smarthome.core.transform.CachingTransformationService;
+import org.eclipse.smarthome.core.transform.TransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.slf4j.Logger;
@@ -27,13 +29,20 @@ import org.xml.sax.InputSource;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XPath Expressions.
  * </p>
+ * <p>
+ * The compiled expressions are cached by their expression. As an {@link XPathExpression} is not thread-safe, it is
+ * evaluated by one thread at a time.
+ * </p>
  *
  * @author Thomas.Eichstaedt-Engelen
+ * @author agent - Cache the compiled expressions
  */
-public class XPathTransformationService implements TransformationService {
+public class XPathTransformationService implements CachingTransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XPathTransformationService.class);
 
+    private final TransformationCache<XPathExpression> expressions = new TransformationCache<>();
+
     /**
      * @{inheritDoc
      */
@@ -60,10 +69,17 @@ public class XPathTransformationService implements TransformationService {
 
             Document doc = builder.parse(inputSource);
 
-            XPath xpath = XPathFactory.newInstance().newXPath();
-            XPathExpression expr = xpath.compile(xpathExpression);
+            XPathExpression expr = expressions.get(xpathExpression);
+            if (expr == null) {
+                XPath xpath = XPathFactory.newInstance().newXPath();
+                expr = xpath.compile(xpathExpression);
+                expressions.put(xpathExpression, expr);
+            }
 
-            String transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            String transformationResult;
+            synchronized (expr) {
+                transformationResult = (String) expr.evaluate(doc, XPathConstants.STRING);
+            }
 
             logger.debug("transformation resulted in '{}'", transformationResult);
 
@@ -78,4 +94,9 @@ public class XPathTransformationService implements TransformationService {
 
     }
 
+    @Override
+    public TransformationCache<XPathExpression> getTransformationCache() {
+        return expressions;
+    }
+
 }
@@ -9,6 +9,7 @@ package org.eclipse.smarthome.transform.xslt.internal;
 
 import static org.junit.Assert.assertEquals;
 
+import org.eclipse.smarthome.core.transform.TransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.junit.Before;
 import org.junit.Test;
@@ -35,4 +36,16 @@ public class XsltTransformationServiceTest extends AbstractTransformationService
         assertEquals("8", transformedResponse);
     }
 
+    @Test
+    public void testTransformByXSLT_cachesCompiledStylesheet() throws TransformationException {
+        TransformationCache<?> cache = processor.getTransformationCache();
+
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+        assertEquals("8", processor.transform("http/google_weather.xsl", source));
+
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
 }
@@ -11,13 +11,15 @@ import java.io.File;
 import java.io.StringReader;
 import java.io.StringWriter;
 
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.eclipse.smarthome.config.core.ConfigConstants;
+import org.eclipse.smarthome.core.transform.CachingTransformationService;
+import org.eclipse.smarthome.core.transform.TransformationCache;
 import org.eclipse.smarthome.core.transform.TransformationException;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.slf4j.Logger;
@@ -27,13 +29,35 @@ import org.slf4j.LoggerFactory;
  * <p>
  * The implementation of {@link TransformationService} which transforms the input by XSLT.
  * </p>
+ * <p>
+ * The compiled stylesheets are cached by their file and compiled again, when the file has been modified.
+ * </p>
  *
  * @author Thomas.Eichstaedt-Engelen
+ * @author agent - Cache the compiled stylesheets
  */
-public class XsltTransformationService implements TransformationService {
+public class XsltTransformationService implements CachingTransformationService {
 
     private final Logger logger = LoggerFactory.getLogger(XsltTransformationService.class);
 
+    private final TransformationCache<CompiledStylesheet> stylesheets = new TransformationCache<>();
+
+    /**
+     * A compiled stylesheet together with the modification time of its file.
+     */
+    private static class CompiledStylesheet {
+
+        private final Templates templates;
+
+        private final long lastModified;
+
+        public CompiledStylesheet(Templates templates, long lastModified) {
+            this.templates = templates;
+            this.lastModified = lastModified;
+        }
+
+    }
+
     /**
      * <p>
      * Transforms the input <code>source</code> by XSLT. It expects the transformation rule to be read from a file which
@@ -57,12 +81,12 @@ public class XsltTransformationService implements TransformationService {
             throw new TransformationException("the given parameters 'filename' and 'source' must not be null");
         }
 
-        Source xsl = null;
+        File xsl = null;
 
         try {
             String path = ConfigConstants.getConfigFolder() + File.separator
                     + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + filename;
-            xsl = new StreamSource(new File(path));
+            xsl = new File(path);
         } catch (Exception e) {
             String message = "opening file '" + filename + "' throws exception";
 
@@ -78,7 +102,14 @@ public class XsltTransformationService implements TransformationService {
         Transformer transformer;
 
         try {
-            transformer = TransformerFactory.newInstance().newTransformer(xsl);
+            long lastModified = xsl.lastModified();
+            CompiledStylesheet stylesheet = stylesheets.get(xsl.getPath());
+            if (stylesheet == null || stylesheet.lastModified != lastModified) {
+                stylesheet = new CompiledStylesheet(
+                        TransformerFactory.newInstance().newTemplates(new StreamSource(xsl)), lastModified);
+                stylesheets.put(xsl.getPath(), stylesheet);
+            }
+            transformer = stylesheet.templates.newTransformer();
             transformer.transform(new StreamSource(xml), new StreamResult(out));
         } catch (Exception e) {
             logger.error("transformation throws exception", e);
@@ -90,4 +121,9 @@ public class XsltTransformationService implements TransformationService {
         return out.toString();
     }
 
+    @Override
+    public TransformationCache<?> getTransformationCache() {
+        return stylesheets;
+    }
+
 }